@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 import de.haw.md.company.model.CompanyInvetion;
@@ -15,6 +16,12 @@ import de.haw.md.company.simulator.Simulator;
 
 public class CompanyMain {
 
+	/** Systemeigenschaft mit dem seed, wie in der Simulation */
+	public static final String SEED_PROPERTY = "seed";
+
+	/** Zufallszahlen fuer rand, mit -Dseed reproduzierbar */
+	private static final SplittableRandom RANDOM = createRandom();
+
 	private BigDecimal population;
 
 	private CompanyModel initSim(int startCase, CompanyModel cm) {
@@ -117,12 +124,17 @@ public class CompanyMain {
 		}
 	}
 
+	private static SplittableRandom createRandom() {
+		final Long seed = Long.getLong(SEED_PROPERTY);
+		return seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+	}
+
 	public static BigDecimal rand(BigDecimal min, BigDecimal max) {
 		return rand(min, max, 5);
 	}
 
 	public static BigDecimal rand(BigDecimal min, BigDecimal max, int scale) {
-		BigDecimal randomBigDecimal = min.add(new BigDecimal(Math.random()).multiply(max.subtract(min)));
+		BigDecimal randomBigDecimal = min.add(new BigDecimal(RANDOM.nextDouble()).multiply(max.subtract(min)));
 		return randomBigDecimal.setScale(scale, BigDecimal.ROUND_DOWN);
 	}
 
@@ -171,6 +183,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 import de.haw.md.company.model.CompanyInvetion;
@@ -181,6 +194,12 @@ import de.haw.md.company.simulator.Simulator;
 
 public class CompanyMain {
 
+	/** Systemeigenschaft mit dem seed, wie in der Simulation */
+	public static final String SEED_PROPERTY = "seed";
+
+	/** Zufallszahlen fuer rand, mit -Dseed reproduzierbar */
+	private static final SplittableRandom RANDOM = createRandom();
+
 	private BigDecimal population;
 
 	private CompanyModel initSim(int startCase, CompanyModel cm) {
@@ -283,12 +302,17 @@ public class CompanyMain {
 		}
 	}
 
+	private static SplittableRandom createRandom() {
+		final Long seed = Long.getLong(SEED_PROPERTY);
+		return seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+	}
+
 	public static BigDecimal rand(BigDecimal min, BigDecimal max) {
 		return rand(min, max, 5);
 	}
 
 	public static BigDecimal rand(BigDecimal min, BigDecimal max, int scale) {
-		BigDecimal randomBigDecimal = min.add(new BigDecimal(Math.random()).multiply(max.subtract(min)));
+		BigDecimal randomBigDecimal = min.add(new BigDecimal(RANDOM.nextDouble()).multiply(max.subtract(min)));
 		return randomBigDecimal.setScale(scale, BigDecimal.ROUND_DOWN);
 	}
 
@@ -0,0 +1,128 @@
+package de.haw.md.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.ElectrPartCostCalc;
+import de.haw.md.sups.FixedPoint;
+import de.haw.md.sups.MobileCostCalc;
+import de.haw.md.sups.ProdCostCalc;
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Vergleicht die BigDecimal- mit der Festkommarechnung der Produktionskosten.
+ *
+ * Aufruf: mvn -P jmh package && java -cp target/classes:$(mvn -q -P jmh
+ * dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ * org.openjdk.jmh.Main CostKernelBenchmark -prof gc
+ *
+ * Mit -prof gc zeigt gc.alloc.rate.norm die Bytes pro Aufruf. Die *Fixed
+ * Benchmarks rufen den Festkommakern direkt auf long-Werten auf und liegen bei
+ * 0 B/op, die uebrigen enthalten im Modus FIXED_POINT nur die Umwandlung von
+ * und nach BigDecimal an der Schnittstelle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CostKernelBenchmark {
+
+	@Param({ "BIG_DECIMAL", "FIXED_POINT" })
+	private CostModeEnum mode;
+
+	private MobileCostCalc mobileCalc;
+	private ElectrPartCostCalc electrPartCalc;
+
+	private MobileCostCalc fixedMobileCalc;
+	private ElectrPartCostCalc fixedElectrPartCalc;
+
+	private final BigDecimal shareVolume = new BigDecimal("18000");
+	private BigDecimal basisPrice;
+
+	private long fixedShareVolume;
+	private long fixedBasisPrice;
+
+	@Setup
+	public void setup() {
+		mobileCalc = createMobileCalc(mode);
+		electrPartCalc = createElectrPartCalc(mode);
+		fixedMobileCalc = createMobileCalc(CostModeEnum.FIXED_POINT);
+		fixedElectrPartCalc = createElectrPartCalc(CostModeEnum.FIXED_POINT);
+		// Liegt unter den Stueckkosten, damit die Preisanpassung mehrere Runden dreht
+		basisPrice = mobileCalc.calculateProdPrice(shareVolume).multiply(new BigDecimal("0.90"));
+		fixedShareVolume = FixedPoint.fromBigDecimal(shareVolume);
+		fixedBasisPrice = FixedPoint.fromBigDecimal(basisPrice);
+	}
+
+	private MobileCostCalc createMobileCalc(CostModeEnum mode) {
+		final MobileCostCalc calc = new MobileCostCalc(mode, new BigDecimal("30"), new BigDecimal("3.00"), new BigDecimal("1.75"), new BigDecimal("1.20"),
+				new BigDecimal("6000000.00"), new BigDecimal("6"), new BigDecimal("3500"));
+		setPrices(calc);
+		calc.setElectronicPartPrice(new BigDecimal("9.87"));
+		return calc;
+	}
+
+	private ElectrPartCostCalc createElectrPartCalc(CostModeEnum mode) {
+		final ElectrPartCostCalc calc = new ElectrPartCostCalc(mode, new BigDecimal("22.50"), new BigDecimal("1.45"), new BigDecimal("1.25"),
+				new BigDecimal("1.75"));
+		setPrices(calc);
+		return calc;
+	}
+
+	private void setPrices(ProdCostCalc calc) {
+		calc.setPlasticPrice(new BigDecimal("1.02"));
+		calc.setResourcePrice(ResourceEnum.KUPFER, new BigDecimal("5512.40"));
+		calc.setResourcePrice(ResourceEnum.ALUMINIUM, new BigDecimal("1720.15"));
+		calc.setResourcePrice(ResourceEnum.NICKEL, new BigDecimal("11205.00"));
+		calc.setResourcePrice(ResourceEnum.ZINN, new BigDecimal("17450.75"));
+		calc.setResourcePrice(ResourceEnum.GOLD, new BigDecimal("1210.35"));
+		calc.setResourcePrice(ResourceEnum.SILBER, new BigDecimal("16.48"));
+		calc.setResourcePrice(ResourceEnum.PLATIN, new BigDecimal("985.20"));
+		calc.setResourcePrice(ResourceEnum.PALLADIUM, new BigDecimal("640.90"));
+	}
+
+	@Benchmark
+	public BigDecimal mobileProdPrice() {
+		return mobileCalc.calculateProdPrice(shareVolume);
+	}
+
+	@Benchmark
+	public BigDecimal mobileRecalculatePrice() {
+		return mobileCalc.recalculatePrice(basisPrice, shareVolume);
+	}
+
+	@Benchmark
+	public BigDecimal electrPartQuote() {
+		return electrPartCalc.calculateQuote();
+	}
+
+	@Benchmark
+	public long mobileProdPriceFixed() {
+		return fixedMobileCalc.calculateFixedProdPrice(fixedShareVolume, 0);
+	}
+
+	@Benchmark
+	public long mobileRecalculatePriceFixed() {
+		return fixedMobileCalc.recalculateFixedPrice(fixedBasisPrice, fixedShareVolume, 0);
+	}
+
+	@Benchmark
+	public long electrPartQuoteFixed() {
+		return fixedElectrPartCalc.calculateFixedQuote();
+	}
+}
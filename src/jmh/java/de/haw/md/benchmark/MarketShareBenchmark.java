@@ -0,0 +1,128 @@
+package de.haw.md.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.sups.MarketShareCalc;
+import de.haw.md.sups.MarketShareTable;
+import de.haw.md.sups.RegionPrices;
+import de.haw.md.sups.ShareModeEnum;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Aufwand des Marktes pro Tick fuer die Marktanteile, abhaengig von der
+ * Anzahl der Handyhersteller. tick berechnet die Anteile und sucht fuer jedes
+ * Unternehmen den eigenen Anteil heraus, wie es die Empfaenger bei BROADCAST
+ * bzw. der Markt bei DIRECT tun. calculate misst nur die Rechnung auf den
+ * Feldern, regions die Rechnung aus den vorsortierten Preisen von REGIONS
+ * Teilmaerkten.
+ *
+ * Aufruf wie CostKernelBenchmark, mit MarketShareBenchmark statt
+ * CostKernelBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketShareBenchmark {
+
+	/** Anteil der ausgeschiedenen Unternehmen mit Preis 0 */
+	private static final double EXITED = 0.05;
+
+	/** Anzahl der Teilmaerkte fuer regions */
+	private static final int REGIONS = 16;
+
+	@Param({ "100", "1000", "10000", "100000" })
+	private int companies;
+
+	@Param({ "BROADCAST", "DIRECT" })
+	private ShareModeEnum mode;
+
+	private final MarketShareTable table = new MarketShareTable();
+
+	private String[] names;
+
+	private long[] prices;
+	private long[] shareValues;
+	private long[] shareVolumes;
+	private int[] order;
+
+	private final List<RegionPrices> regionPrices = new ArrayList<>();
+
+	private final long marketVolume = StaticVariables.MARKET_VOLUME.longValueExact();
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(4711);
+		names = new String[companies];
+		prices = new long[companies];
+		shareValues = new long[companies];
+		shareVolumes = new long[companies];
+		order = new int[companies];
+		for (int i = 0; i < companies; i++) {
+			names[i] = "Company_Mobile_" + i;
+			prices[i] = random.nextDouble() < EXITED ? 0 : 10000 + random.nextInt(90000);
+			table.put(names[i], BigDecimal.valueOf(prices[i], 2));
+		}
+		final List<Map<String, Long>> cents = new ArrayList<>();
+		for (int r = 0; r < REGIONS; r++)
+			cents.add(new HashMap<String, Long>());
+		for (int i = 0; i < companies; i++)
+			cents.get(i % REGIONS).put(names[i], prices[i]);
+		for (Map<String, Long> region : cents)
+			regionPrices.add(RegionPrices.of(region));
+	}
+
+	@Benchmark
+	public long tick() {
+		table.calculate(StaticVariables.MARKET_VOLUME);
+		long volume = 0;
+		if (mode == ShareModeEnum.BROADCAST) {
+			final MarketShareMsg msm = new MarketShareMsg(table.getShares(), 1, null);
+			for (String name : names) {
+				final CompanyShareMsg csm = msm.findShareByCompanyName(name);
+				if (csm != null)
+					volume += csm.getShareVolume().longValue();
+			}
+		} else {
+			for (String name : names) {
+				final CompanyShareMsg csm = table.getShare(name);
+				if (csm != null)
+					volume += new MarketShareMsg(Collections.singletonList(csm), 1, null).getCompanyShares().get(0).getShareVolume().longValue();
+			}
+		}
+		return volume;
+	}
+
+	@Benchmark
+	public int calculate() {
+		return MarketShareCalc.calculateShares(prices, companies, marketVolume, shareValues, shareVolumes, order);
+	}
+
+	@Benchmark
+	public List<CompanyShareMsg> regions() {
+		return MarketShareCalc.calculateShares(regionPrices, marketVolume);
+	}
+}
@@ -0,0 +1,111 @@
+package de.haw.md.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.MsgModelMapper;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.serialization.BinaryReader;
+import de.haw.md.akka.main.serialization.BinaryWriter;
+import de.haw.md.akka.main.serialization.MsgCodec;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Hin- und Rueckweg einer Nachricht ueber das JSON-Format der *MsgModel-Klassen
+ * (MsgModelMapper), zum Vergleich auch ueber das Binaerformat von MsgCodec,
+ * das zwischen JVMs verschickt wird. companies ist die Anzahl der Eintraege
+ * in den Marktanteilen.
+ *
+ * Aufruf wie CostKernelBenchmark, mit MsgModelBenchmark statt
+ * CostKernelBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MsgModelBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int companies;
+
+	private final LocalDate date = new LocalDate(2016, 6, 1);
+
+	private ResourcePriceVectorMsg resources;
+	private MarketResponseMsg response;
+	private MarketShareMsg shares;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(4711);
+		final BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		for (int i = 0; i < prices.length; i++)
+			prices[i] = BigDecimal.valueOf(100 + random.nextInt(2000000), 2);
+		resources = new ResourcePriceVectorMsg(1, date, prices);
+		response = new MarketResponseMsg("Company_Mobile_0", ProductTypeEnum.MOBILE_PHONE, 1, date, new BigDecimal("612.35"), new BigDecimal("18000"),
+				new BigDecimal("1234567.89"), new BigDecimal("543.75"));
+		final List<CompanyShareMsg> companyShares = new ArrayList<>();
+		for (int i = 0; i < companies; i++)
+			companyShares.add(new CompanyShareMsg("Company_Mobile_" + i, BigDecimal.valueOf(random.nextInt(100000), 4),
+					BigDecimal.valueOf(random.nextInt(10000000))));
+		shares = new MarketShareMsg(companyShares, 1, date);
+	}
+
+	@Benchmark
+	public Object resourcesJson() throws IOException {
+		return MsgModelMapper.fromJson(MsgModelMapper.toJson(resources));
+	}
+
+	@Benchmark
+	public Object responseJson() throws IOException {
+		return MsgModelMapper.fromJson(MsgModelMapper.toJson(response));
+	}
+
+	@Benchmark
+	public Object sharesJson() throws IOException {
+		return MsgModelMapper.fromJson(MsgModelMapper.toJson(shares));
+	}
+
+	@Benchmark
+	public Object resourcesBinary() {
+		return roundTrip(resources);
+	}
+
+	@Benchmark
+	public Object responseBinary() {
+		return roundTrip(response);
+	}
+
+	@Benchmark
+	public Object sharesBinary() {
+		return roundTrip(shares);
+	}
+
+	private static Object roundTrip(Object msg) {
+		final BinaryWriter out = new BinaryWriter();
+		MsgCodec.encode(msg, out);
+		return MsgCodec.decode(new BinaryReader(out.toByteArray()));
+	}
+}
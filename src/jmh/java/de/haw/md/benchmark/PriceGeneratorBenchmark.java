@@ -0,0 +1,66 @@
+package de.haw.md.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.sups.LogReturnStatistics;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ResourceCalc;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.Resources;
+
+/**
+ * Rohstoffpreise pro Sekunde: ein Tick erzeugt wie Market.nextResourceMsg fuer
+ * jeden Rohstoff einen Zufallspreis und schreibt die Statistik fort. Die
+ * Preisreihen selbst werden nicht verlaengert, damit der Speicher ueber die
+ * Messung konstant bleibt.
+ *
+ * Aufruf wie CostKernelBenchmark, mit PriceGeneratorBenchmark statt
+ * CostKernelBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceGeneratorBenchmark {
+
+	@Param({ "BIG_DECIMAL", "DOUBLE" })
+	private PriceModeEnum mode;
+
+	private final LogReturnStatistics[] statistics = new LogReturnStatistics[ResourceEnum.values().length];
+
+	private final Random random = new Random(4711);
+
+	@Setup
+	public void setup() {
+		final Resources resources = new Resources();
+		resources.readAllPrices();
+		for (ResourceEnum type : ResourceEnum.values())
+			statistics[type.ordinal()] = resources.getStatistics(type);
+	}
+
+	@Benchmark
+	public BigDecimal tick() {
+		BigDecimal price = null;
+		for (LogReturnStatistics lrs : statistics) {
+			price = ResourceCalc.nextRandomStockPrice(lrs, mode, random.nextDouble());
+			lrs.add(price);
+		}
+		return price;
+	}
+}
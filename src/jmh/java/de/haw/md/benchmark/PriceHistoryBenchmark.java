@@ -0,0 +1,71 @@
+package de.haw.md.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.sups.LogReturnStatistics;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ResourceCalc;
+
+/**
+ * Ein Rohstoffpreis abhaengig von der Laenge der Historie, die im Lauf einer
+ * Simulation jeden Tick um einen Preis waechst. series rechnet wie frueher
+ * Mittelwert und Abweichung jedes Mal ueber die ganze PriceSeries, statistics
+ * nimmt die fortgeschriebene LogReturnStatistics.
+ *
+ * Aufruf wie CostKernelBenchmark, mit PriceHistoryBenchmark statt
+ * CostKernelBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceHistoryBenchmark {
+
+	@Param({ "250", "1000", "4000", "16000" })
+	private int history;
+
+	private final PriceSeries series = new PriceSeries();
+
+	private final LogReturnStatistics statistics = new LogReturnStatistics();
+
+	private final Random random = new Random(4711);
+
+	@Setup
+	public void setup() {
+		// Zufallsweg um hoechstens 2 % pro Tag
+		BigDecimal price = new BigDecimal("5512.40");
+		for (int day = 0; day < history; day++) {
+			series.append(day, price);
+			statistics.add(price);
+			price = price.multiply(BigDecimal.valueOf(0.98 + random.nextDouble() * 0.04)).setScale(2, RoundingMode.HALF_UP);
+		}
+	}
+
+	@Benchmark
+	public BigDecimal series() {
+		return ResourceCalc.nextRandomStockPrice(series, random.nextDouble());
+	}
+
+	@Benchmark
+	public BigDecimal statistics() {
+		return ResourceCalc.nextRandomStockPrice(statistics, PriceModeEnum.BIG_DECIMAL, random.nextDouble());
+	}
+}
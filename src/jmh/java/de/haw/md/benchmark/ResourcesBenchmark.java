@@ -0,0 +1,47 @@
+package de.haw.md.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.haw.md.sups.Resources;
+
+/**
+ * Einlesen der Rohstoffhistorie beim Start des Marktes. readAllPrices nimmt
+ * die PriceFile, wenn sie vorhanden und aktuell ist, readCsvPrices liest
+ * immer die Kursdateien. Jeder Aufruf wird einzeln gemessen, da beim Start
+ * auch nur einmal gelesen wird.
+ *
+ * Aufruf wie CostKernelBenchmark, mit ResourcesBenchmark statt
+ * CostKernelBenchmark, aus dem Projektverzeichnis.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ResourcesBenchmark {
+
+	@Benchmark
+	public Resources readAllPrices() {
+		final Resources resources = new Resources();
+		resources.readAllPrices();
+		return resources;
+	}
+
+	@Benchmark
+	public Resources readCsvPrices() {
+		final Resources resources = new Resources();
+		resources.readCsvPrices();
+		return resources;
+	}
+}
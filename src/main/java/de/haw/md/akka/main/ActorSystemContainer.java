@@ -2,11 +2,14 @@ package de.haw.md.akka.main;
 
 import akka.actor.ActorSystem;
 
+import de.haw.md.metrics.Metrics;
+
 public class ActorSystemContainer {
 
 	private ActorSystem sys;
     private ActorSystemContainer() {
         sys = ActorSystem.create("ClusterSystem");
+        Metrics.getInstance().startLogSummary(sys);
     }
 
     public ActorSystem getSystem() {
@@ -0,0 +1,122 @@
+package de.haw.md.akka.main;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Baut die Akteure der Simulation auf: den Markt, den Kunststoffhersteller, die
+ * Elektronikteilhersteller und die Handyhersteller. Jeder Handyhersteller
+ * bezieht seine Elektronikteile reihum von einem der Zulieferer.
+ *
+ * Die zufaelligen Kennzahlen jedes Unternehmens kommen aus seinem eigenen
+ * Strom in SimulationRandom.
+ */
+public class AgentTopology {
+
+	public static final String OIL_COMPANY = "Company_Oil";
+	public static final String ELECTRO_PART_PREFIX = "Company_ElectroPart_";
+	public static final String MOBILE_PREFIX = "Company_Mobile_";
+
+	private AgentTopology() {
+	}
+
+	/**
+	 * Erzeugt alle Akteure im Aktorsystem des ActorSystemContainer und meldet
+	 * sie beim Markt an. Nur die Handyhersteller melden sich zu jedem Tick
+	 * zurueck.
+	 * 
+	 * @param channel
+	 * @param electroPartFactories
+	 * @param mobileFactories
+	 * @return der Markt
+	 */
+	public static ActorRef create(String channel, int electroPartFactories, int mobileFactories) {
+		final ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+		final ActorRef market = MarketContainer.getInstance().getPublisher(channel);
+		// Die Anmeldungen erfolgen vor dem ersten Tick, damit der Markt vom
+		// ersten Tick an auf alle Unternehmen wartet
+		final ActorRef oil = system.actorOf(Props.create(CompanyOil.class, channel, OIL_COMPANY), OIL_COMPANY);
+		market.tell(new CompanyRegisterMsg(OIL_COMPANY, false), oil);
+		final SimulationRandom random = SimulationRandom.getInstance();
+		for (int i = 0; i < electroPartFactories; i++) {
+			final BigDecimal[] values = electroPartValues(random.forAgent(ELECTRO_PART_PREFIX + i));
+			final ActorRef electroPart = system.actorOf(Props.create(CompanyElectrPartProd.class, channel, ELECTRO_PART_PREFIX + i, values[0], values[1], values[2],
+					values[3]), ELECTRO_PART_PREFIX + i);
+			market.tell(new CompanyRegisterMsg(ELECTRO_PART_PREFIX + i, false), electroPart);
+		}
+		for (int i = 0; i < mobileFactories; i++) {
+			final BigDecimal[] values = mobileValues(random.forAgent(MOBILE_PREFIX + i));
+			final ActorRef mobile = system.actorOf(Props.create(CompanyMobile.class, channel, MOBILE_PREFIX + i, values[0], values[1], values[2],
+					getSupplier(i, electroPartFactories), values[3], values[4], values[5], values[6], values[7]), MOBILE_PREFIX + i);
+			market.tell(new CompanyRegisterMsg(MOBILE_PREFIX + i, true), mobile);
+		}
+		return market;
+	}
+
+	/**
+	 * @param i
+	 *            Nummer des Handyherstellers
+	 * @param electroPartFactories
+	 * @return Name des Zulieferers, reihum
+	 */
+	public static String getSupplier(int i, int electroPartFactories) {
+		return ELECTRO_PART_PREFIX + i % electroPartFactories;
+	}
+
+	/**
+	 * @param company
+	 *            Name eines Unternehmens
+	 * @param prefix
+	 *            ELECTRO_PART_PREFIX oder MOBILE_PREFIX
+	 * @return Nummer des Unternehmens oder -1, wenn der Name nicht mit prefix
+	 *         beginnt
+	 */
+	public static int getIndex(String company, String prefix) {
+		if (!company.startsWith(prefix))
+			return -1;
+		try {
+			return Integer.parseInt(company.substring(prefix.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Zufaellige Kennzahlen eines Elektronikteilherstellers.
+	 * 
+	 * @param values
+	 *            Strom des Unternehmens aus SimulationRandom
+	 * @return costManHour, fixCost, prodManHour, bonus
+	 */
+	public static BigDecimal[] electroPartValues(SplittableRandom values) {
+		return new BigDecimal[] { StaticVariables.generateRandomBigDecimalFromRange(values, new BigDecimal("15"), new BigDecimal("30")),
+				StaticVariables.generateRandomBigDecimalFromRange(values, new BigDecimal("1.20"), new BigDecimal("1.30")),
+				StaticVariables.generateRandomBigDecimalFromRange(values, new BigDecimal("1.2"), new BigDecimal("1.7")),
+				StaticVariables.generateRandomBigDecimalFromRange(values, new BigDecimal("1.6"), new BigDecimal("1.9")) };
+	}
+
+	/**
+	 * Zufaellige Kennzahlen eines Handyherstellers.
+	 * 
+	 * @param values
+	 *            Strom des Unternehmens aus SimulationRandom
+	 * @return costManHour, prodManHour, bonus, supDiscount, fixCost,
+	 *         productionLines, productionLineCapacity, monthlyCosts, in der
+	 *         Reihenfolge von CompanyValuesEnum
+	 */
+	public static BigDecimal[] mobileValues(SplittableRandom values) {
+		return new BigDecimal[] { CompanyValuesEnum.COST_MAN_HOUR.getRandomValue(values), CompanyValuesEnum.PROD_MAN_HOUR.getRandomValue(values),
+				CompanyValuesEnum.BONUS.getRandomValue(values), CompanyValuesEnum.SUPPLIER_DISCOUNT.getRandomValue(values),
+				CompanyValuesEnum.FIX_COST.getRandomValue(values), CompanyValuesEnum.PRODUCTION_LINES.getRandomValue(values),
+				CompanyValuesEnum.PRODUCTION_LINES_CAP.getRandomValue(values), CompanyValuesEnum.MONTHLY_COSTS.getRandomValue(values) };
+	}
+}
@@ -1,165 +1,119 @@
 package de.haw.md.akka.main;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
 
 import akka.actor.ActorRef;
-import akka.actor.UntypedActor;
+import akka.actor.Terminated;
 import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import de.haw.md.akka.main.journal.Journal;
+import de.haw.md.akka.main.msg.CompanyReadyMsg;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.SupplierSubscribeMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.ElectrPartCostCalc;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.TopicEnum;
+
+public class CompanyElectrPartProd extends MeteredActor {
 
-import de.haw.md.akka.main.msg.MarketResponseMsgModel;
-import de.haw.md.akka.main.msg.ResourceMsgModel;
-import de.haw.md.sups.StaticVariables;
+	private String nameOfSubscriber;
 
-public class CompanyElectrPartProd extends UntypedActor {
+	/**
+	 * Kunden, die sich per SupplierSubscribeMsg angemeldet haben. Nur sie
+	 * erhalten die Angebote dieses Zulieferers.
+	 */
+	private Set<ActorRef> customers = new HashSet<>();
 
 	private String channel;
 
-	private String nameOfSubscriber;
+	private int pendingSubscriptions = 2;
+
+	/** Rohstoffpreise je Tick, bis der Kunststoffpreis desselben Ticks eintrifft */
+	private TreeMap<Integer, ResourcePriceVectorMsg> resourcePrices = new TreeMap<>();
+
+	/** Kunststoffpreise je Tick, bis die Rohstoffpreise desselben Ticks eintreffen */
+	private TreeMap<Integer, MarketResponseMsg> plasticPrices = new TreeMap<>();
 
-	private BigDecimal kupferPrice;
-	private BigDecimal aluminiumPrice;
-	private BigDecimal goldPrice;
-	private BigDecimal nickelPrice;
-	private BigDecimal palladiumPrice;
-	private BigDecimal platinPrice;
-	private BigDecimal silberPrice;
-	private BigDecimal zinnPrice;
-	private BigDecimal plasticPrice;
-
-	private static final BigDecimal POP_PLASTIC_IN_G = StaticVariables.convertToBigDecimal("39");
-	private static final BigDecimal POP_KUPFER_IN_G = StaticVariables.convertToBigDecimal("16.9");
-	private static final BigDecimal POP_ALUMINIUM_IN_G = StaticVariables.convertToBigDecimal("2.6");
-	private static final BigDecimal POP_NICKEL_IN_G = StaticVariables.convertToBigDecimal("2.6");
-	private static final BigDecimal POP_ZINN_IN_G = StaticVariables.convertToBigDecimal("1.3");
-	private static final BigDecimal POP_GOLD_IN_G = StaticVariables.convertToBigDecimal("0.02");
-	private static final BigDecimal POP_SILBER_IN_G = StaticVariables.convertToBigDecimal("0.2");
-	private static final BigDecimal POP_PLATIN_IN_G = StaticVariables.convertToBigDecimal("0.02");
-	private static final BigDecimal POP_PALLADIUM_IN_G = StaticVariables.convertToBigDecimal("0.007");
-
-	private BigDecimal costManHour;
-	private BigDecimal fixCost;
-	private BigDecimal prodManHour;
-	private BigDecimal bonus;
+	private ElectrPartCostCalc costCalc;
+
+	/** Protokoll aus -Djournal oder null */
+	private final Journal journal = Journal.getActive();
 
 	public CompanyElectrPartProd(String channel, String nameOfSubscriber, BigDecimal costManHour, BigDecimal fixCost, BigDecimal prodManHour, BigDecimal bonus) {
-		this.costManHour = costManHour;
-		this.fixCost = fixCost;
-		this.prodManHour = prodManHour;
-		this.bonus = bonus;
+		this.costCalc = new ElectrPartCostCalc(CostModeEnum.getActive(), costManHour, prodManHour, fixCost, bonus);
 		this.nameOfSubscriber = nameOfSubscriber;
 		this.channel = channel;
 		ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
-		mediator.tell(new DistributedPubSubMediator.Subscribe(channel, getSelf()), getSelf());
+		mediator.tell(new DistributedPubSubMediator.Subscribe(TopicEnum.RESOURCES.getTopic(channel), getSelf()), getSelf());
+		mediator.tell(new DistributedPubSubMediator.Subscribe(TopicEnum.PLASTIC.getTopic(channel), getSelf()), getSelf());
 	}
 
 	@Override
 	public void onReceive(Object msg) throws Exception {
-		if (msg instanceof String) {
-			ObjectMapper om = new ObjectMapper();
-			try {
-				ResourceMsgModel rmm = om.readValue((String) msg, ResourceMsgModel.class);
-				setResourcePrices(rmm);
-			} catch (UnrecognizedPropertyException e) {
-			}
-			try {
-				MarketResponseMsgModel mrmmResponse = om.readValue((String) msg, MarketResponseMsgModel.class);
-				if(mrmmResponse.getType().equals("Plastic")){
-					setPlasticPrices(om.readValue((String) msg, MarketResponseMsgModel.class));
-					if (pricesNotNull()) {
-						final BigDecimal prodPrice = calculateProdPrice();
-						final BigDecimal bonusedProdPrice = prodPrice.multiply(bonus);
-						MarketResponseMsgModel mrmm = new MarketResponseMsgModel();
-						mrmm.setCompany(nameOfSubscriber);
-						mrmm.setType("Electronic_Part");
-						mrmm.setDate(om.readValue((String) msg, MarketResponseMsgModel.class).getDate());
-						mrmm.setRevenue(bonusedProdPrice.setScale(2, RoundingMode.UP).toString());
-						mrmm.setSelledProducts("0");
-						mrmm.setProfit("0");
-						ActorRef publisher = MarketContainer.getInstance().getPublisher(channel);
-						publisher.tell(om.writeValueAsString(mrmm), getSelf());
-					}
-				}
-			} catch (UnrecognizedPropertyException e) {
+		if (msg instanceof ResourcePriceVectorMsg) {
+			final ResourcePriceVectorMsg rpvm = (ResourcePriceVectorMsg) msg;
+			resourcePrices.put(rpvm.getTick(), rpvm);
+			processTick(rpvm.getTick());
+		} else if (msg instanceof SupplierSubscribeMsg) {
+			customers.add(getSender());
+			getContext().watch(getSender());
+			// Bestaetigung an den Kunden
+			getSender().tell(msg, getSelf());
+		} else if (msg instanceof Terminated) {
+			customers.remove(((Terminated) msg).getActor());
+		} else if (msg instanceof MarketResponseMsg) {
+			MarketResponseMsg mrmInput = (MarketResponseMsg) msg;
+			if (mrmInput.getType() == ProductTypeEnum.PLASTIC) {
+				plasticPrices.put(mrmInput.getTick(), mrmInput);
+				processTick(mrmInput.getTick());
 			}
+		} else if (msg instanceof DistributedPubSubMediator.SubscribeAck) {
+			if (--pendingSubscriptions == 0)
+				getContext().actorSelection("/user/" + channel).tell(new CompanyReadyMsg(nameOfSubscriber), getSelf());
+		} else if (msg instanceof CompanyRegisterMsg) {
+			// Bestaetigung der Anmeldung beim Markt
+		} else {
+			unhandled(msg);
 		}
 	}
 
-	private BigDecimal calculateProdPrice() {
-		final BigDecimal platinPartPrice = platinPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PLATIN_IN_G);
-		final BigDecimal goldPartPrice = goldPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_GOLD_IN_G);
-		final BigDecimal silberPartPrice = silberPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_SILBER_IN_G);
-		final BigDecimal palladiumPartPrice = palladiumPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PALLADIUM_IN_G);
-		final BigDecimal plasticPartPrice = plasticPrice.divide(StaticVariables.KG_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PLASTIC_IN_G);
-		final BigDecimal kupferPartPrice = kupferPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_KUPFER_IN_G);
-		final BigDecimal aluminiumPartPrice = aluminiumPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_ALUMINIUM_IN_G);
-		final BigDecimal nickelPartPrice = nickelPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_NICKEL_IN_G);
-		final BigDecimal zinnPartPrice = zinnPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_ZINN_IN_G);
-		final BigDecimal compPartPrice = platinPartPrice.add(goldPartPrice).add(silberPartPrice).add(palladiumPartPrice).add(plasticPartPrice)
-				.add(kupferPartPrice).add(aluminiumPartPrice).add(nickelPartPrice).add(zinnPartPrice);
-		final BigDecimal complManCost = costManHour.divide(prodManHour, RoundingMode.HALF_DOWN);
-		return (compPartPrice.add(complManCost)).multiply(fixCost);
-	}
-
-	private boolean pricesNotNull() {
-		if (kupferPrice == null)
-			return false;
-		if (aluminiumPrice == null)
-			return false;
-		if (goldPrice == null)
-			return false;
-		if (nickelPrice == null)
-			return false;
-		if (palladiumPrice == null)
-			return false;
-		if (plasticPrice == null)
-			return false;
-		if (platinPrice == null)
-			return false;
-		if (silberPrice == null)
-			return false;
-		if (zinnPrice == null)
-			return false;
-		return true;
-	}
-
-	private void setPlasticPrices(MarketResponseMsgModel mrmm) {
-		if (mrmm.getType().equals("Plastic"))
-			plasticPrice = StaticVariables.convertToBigDecimal(mrmm.getRevenue());
-	}
-
-	private void setResourcePrices(ResourceMsgModel rmm) {
-		switch (rmm.getType()) {
-		case "Kupfer":
-			kupferPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Aluminium":
-			aluminiumPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Gold":
-			goldPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Nickel":
-			nickelPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Palladium":
-			palladiumPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Platin":
-			platinPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Silber":
-			silberPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Zinn":
-			zinnPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
+	/**
+	 * Liegen Rohstoff- und Kunststoffpreis eines Ticks vor, so wird das Angebot
+	 * dieses Ticks berechnet und an alle Kunden geschickt.
+	 * 
+	 * @param tick
+	 */
+	private void processTick(int tick) {
+		if (!resourcePrices.containsKey(tick) || !plasticPrices.containsKey(tick))
+			return;
+		setResourcePrices(resourcePrices.remove(tick));
+		final MarketResponseMsg plastic = plasticPrices.remove(tick);
+		costCalc.setPlasticPrice(plastic.getRevenue());
+		// Aeltere, unvollstaendige Ticks werden nicht mehr fertig
+		resourcePrices.headMap(tick).clear();
+		plasticPrices.headMap(tick).clear();
+		if (costCalc.pricesNotNull()) {
+			final MarketResponseMsg quote = new MarketResponseMsg(nameOfSubscriber, ProductTypeEnum.ELECTRONIC_PART, tick, plastic.getDate(),
+					costCalc.calculateQuote());
+			if (journal != null)
+				journal.append(tick, quote);
+			for (ActorRef customer : customers)
+				customer.tell(quote, getSelf());
 		}
+	}
 
+	private void setResourcePrices(ResourcePriceVectorMsg rpvm) {
+		for (ResourceEnum re : ResourceEnum.values())
+			costCalc.setResourcePrice(re, rpvm.getPrice(re));
 	}
 
 }
@@ -0,0 +1,67 @@
+package de.haw.md.akka.main;
+
+import java.net.URLDecoder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import akka.actor.ActorRef;
+import akka.cluster.sharding.ClusterSharding;
+
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.EntityStartMsg;
+import de.haw.md.metrics.MeteredActor;
+
+/**
+ * Entity der Sharding-Region aus ShardedTopology. Die Region kennt fuer alle
+ * Entities nur eine Props, die Entity baut daher das eigentliche Unternehmen
+ * aus ihrem Namen als Kind und reicht alle Nachrichten an dieses weiter.
+ *
+ * Beim Markt meldet sich die Entity selbst an, der Markt schickt seine
+ * direkten Nachrichten also an sie und beobachtet sie.
+ */
+public class CompanyEntity extends MeteredActor {
+
+	/** Auf diesem Knoten gestartete Unternehmen */
+	private static final AtomicInteger STARTED = new AtomicInteger();
+
+	private final String channel;
+
+	private final String company;
+
+	private final ActorRef child;
+
+	/** Wartet auf die Bestaetigung des Starts */
+	private ActorRef starter;
+
+	public CompanyEntity(String channel, int electroPartFactories) throws Exception {
+		this.channel = channel;
+		// Der Name des Aktors ist die URL-kodierte Entity-ID
+		this.company = URLDecoder.decode(getSelf().path().name(), "UTF-8");
+		final ActorRef region = ClusterSharding.get(getContext().system()).shardRegion(ShardedTopology.TYPE_NAME);
+		this.child = getContext().actorOf(ShardedTopology.companyProps(channel, company, electroPartFactories, region), company);
+		STARTED.incrementAndGet();
+	}
+
+	@Override
+	public void onReceive(Object msg) throws Exception {
+		if (msg instanceof EntityStartMsg) {
+			starter = getSender();
+			MarketContainer.getInstance().getPublisher(channel).tell(new CompanyRegisterMsg(company, ShardedTopology.isReporting(company)), getSelf());
+		} else if (msg instanceof CompanyRegisterMsg) {
+			// Der Markt bestaetigt die Anmeldung, das Unternehmen erfaehrt so
+			// den Empfaenger seiner Rueckmeldungen
+			if (starter != null)
+				starter.tell(new EntityStartMsg(company), getSelf());
+			starter = null;
+			child.forward(msg, getContext());
+		} else {
+			child.forward(msg, getContext());
+		}
+	}
+
+	/**
+	 * @return Anzahl der auf diesem Knoten gestarteten Unternehmen
+	 */
+	public static int getStarted() {
+		return STARTED.get();
+	}
+}
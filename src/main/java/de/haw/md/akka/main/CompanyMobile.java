@@ -1,278 +1,171 @@
 package de.haw.md.akka.main;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-
-import org.joda.time.DateTime;
+import java.util.TreeMap;
 
 import akka.actor.ActorRef;
-import akka.actor.UntypedActor;
 import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
-
-import de.haw.md.akka.main.msg.CompanyShareMsgModel;
-import de.haw.md.akka.main.msg.MarketResponseMsgModel;
-import de.haw.md.akka.main.msg.MarketShareMsgModel;
-import de.haw.md.akka.main.msg.ResourceMsgModel;
-import de.haw.md.sups.StaticVariables;
-
-public class CompanyMobile extends UntypedActor {
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.akka.main.msg.CheckpointMsg;
+import de.haw.md.akka.main.msg.CompanyReadyMsg;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.ShardEnvelope;
+import de.haw.md.akka.main.msg.SupplierSubscribeMsg;
+import de.haw.md.akka.main.msg.TickAckMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.MobileCompanyModel;
+import de.haw.md.sups.MobileCostCalc;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ShareModeEnum;
+import de.haw.md.sups.TopicEnum;
+
+public class CompanyMobile extends MeteredActor {
 
 	private String channel;
 
 	private String nameOfSubscriber;
 
 	private String supplier;
-	private BigDecimal supDiscount;
 
-	private BigDecimal kupferPrice;
-	private BigDecimal aluminiumPrice;
-	private BigDecimal goldPrice;
-	private BigDecimal nickelPrice;
-	private BigDecimal palladiumPrice;
-	private BigDecimal platinPrice;
-	private BigDecimal silberPrice;
-	private BigDecimal zinnPrice;
-	private BigDecimal plasticPrice;
-	private BigDecimal electronicPartPrice;
+	private static final TopicEnum[] SUBSCRIBED_TOPICS = { TopicEnum.RESOURCES, TopicEnum.PLASTIC, TopicEnum.MARKET_SHARE };
 
-	private static final BigDecimal POP_PLASTIC_IN_G = StaticVariables.convertToBigDecimal("55.9");
-	private static final BigDecimal POP_KUPFER_IN_G = StaticVariables.convertToBigDecimal("7.67");
-	private static final BigDecimal POP_ALUMINIUM_IN_G = StaticVariables.convertToBigDecimal("1.3");
-	private static final BigDecimal POP_NICKEL_IN_G = StaticVariables.convertToBigDecimal("1.3");
-	private static final BigDecimal POP_ZINN_IN_G = StaticVariables.convertToBigDecimal("1.3");
-	private static final BigDecimal POP_GOLD_IN_G = StaticVariables.convertToBigDecimal("0.004");
-	private static final BigDecimal POP_SILBER_IN_G = StaticVariables.convertToBigDecimal("0.05");
-	private static final BigDecimal POP_PLATIN_IN_G = StaticVariables.convertToBigDecimal("0.004");
-	private static final BigDecimal POP_PALLADIUM_IN_G = StaticVariables.convertToBigDecimal("0.002");
+	/** Bei ShareModeEnum.DIRECT schickt der Markt den eigenen Anteil direkt */
+	private static final TopicEnum[] SUBSCRIBED_TOPICS_DIRECT_SHARES = { TopicEnum.RESOURCES, TopicEnum.PLASTIC };
 
-	private BigDecimal costManHour;
-	private BigDecimal prodManHour;
-	private BigDecimal bonus;
-	private BigDecimal fixCost;
-	private BigDecimal productionLines;
-	private BigDecimal productionLineCapacity;
-	private BigDecimal monthlyCosts;
+	private final TopicEnum[] subscribedTopics = ShareModeEnum.getActive() == ShareModeEnum.DIRECT ? SUBSCRIBED_TOPICS_DIRECT_SHARES
+			: SUBSCRIBED_TOPICS;
 
-	private BigDecimal shareVolume = StaticVariables.ESTIMATED_MARKT_VOLUME.divide(StaticVariables.MONTH.subtract(new BigDecimal("15")), 0,
-			RoundingMode.HALF_DOWN);
-	private BigDecimal selledProducts;
+	private MobileCompanyModel model;
 
-	private BigDecimal basisPrice = BigDecimal.ZERO;
+	/** Topic-Abonnements, die Anmeldung beim Zulieferer und die beim Markt */
+	private int pendingSubscriptions = subscribedTopics.length + 2;
 
-	private DateTime dateTicker;
-	private DateTime nextMonthTicker;
+	/**
+	 * Empfaenger der Rueckmeldungen, der Markt oder sein Teilmarkt. Kommt mit
+	 * der Bestaetigung der Anmeldung.
+	 */
+	private ActorRef market;
 
-	private BigDecimal prodPrice;
-
-	private BigDecimal completeProfit = BigDecimal.ZERO;
+	/** Eingaenge je Tick, bis alle Preise und die Marktanteile des Ticks vorliegen */
+	private TreeMap<Integer, TickInputs> tickInputs = new TreeMap<>();
 
 	public CompanyMobile(String channel, String nameOfSubscriber, BigDecimal costManHour, BigDecimal prodManHour, BigDecimal bonus, String supplier,
 			BigDecimal supDiscount, BigDecimal fixCost, BigDecimal productionLines, BigDecimal productionLineCapacity, BigDecimal monthlyCosts) {
-		this.supDiscount = supDiscount;
+		this(channel, nameOfSubscriber, costManHour, prodManHour, bonus, supplier, supDiscount, fixCost, productionLines, productionLineCapacity,
+				monthlyCosts, null);
+	}
+
+	/**
+	 * Wie oben, aber der Zulieferer laeuft als Entity der Sharding-Region.
+	 * 
+	 * @param supplierRegion
+	 *            Sharding-Region des Zulieferers oder null, wenn er unter
+	 *            /user/supplier laeuft
+	 */
+	public CompanyMobile(String channel, String nameOfSubscriber, BigDecimal costManHour, BigDecimal prodManHour, BigDecimal bonus, String supplier,
+			BigDecimal supDiscount, BigDecimal fixCost, BigDecimal productionLines, BigDecimal productionLineCapacity, BigDecimal monthlyCosts,
+			ActorRef supplierRegion) {
 		this.supplier = supplier;
-		this.costManHour = costManHour;
-		this.fixCost = fixCost;
-		this.productionLines = productionLines;
-		this.productionLineCapacity = productionLineCapacity;
-		this.prodManHour = prodManHour;
-		this.bonus = bonus;
+		this.model = new MobileCompanyModel(nameOfSubscriber, new MobileCostCalc(CostModeEnum.getActive(), costManHour, prodManHour, bonus, supDiscount,
+				fixCost, productionLines, productionLineCapacity), bonus, monthlyCosts);
+		final Checkpoint checkpoint = Checkpoint.getResume();
+		if (checkpoint != null && checkpoint.getCompany(nameOfSubscriber) != null)
+			model.restore(checkpoint.getCompany(nameOfSubscriber));
 		this.nameOfSubscriber = nameOfSubscriber;
 		this.channel = channel;
-		this.monthlyCosts = monthlyCosts;
 		ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
-		mediator.tell(new DistributedPubSubMediator.Subscribe(channel, getSelf()), getSelf());
+		for (TopicEnum topic : subscribedTopics)
+			mediator.tell(new DistributedPubSubMediator.Subscribe(topic.getTopic(channel), getSelf()), getSelf());
+		// Die Elektronikteile kommen direkt vom eigenen Zulieferer
+		if (supplierRegion != null)
+			supplierRegion.tell(new ShardEnvelope(supplier, new SupplierSubscribeMsg(nameOfSubscriber)), getSelf());
+		else
+			getContext().actorSelection("/user/" + supplier).tell(new SupplierSubscribeMsg(nameOfSubscriber), getSelf());
 	}
 
 	@Override
 	public void onReceive(Object msg) throws Exception {
-		if (msg instanceof String) {
-			ObjectMapper om = new ObjectMapper();
-			try {
-				ResourceMsgModel rmm = om.readValue((String) msg, ResourceMsgModel.class);
-				setResourcePrices(rmm);
-			} catch (UnrecognizedPropertyException e) {
-			}
-			try {
-				MarketShareMsgModel msmm = om.readValue((String) msg, MarketShareMsgModel.class);
-				shareVolume = setShareVolume(findCompanyShares(msmm)).divide(StaticVariables.MONTH, 0, RoundingMode.HALF_DOWN);
-			} catch (UnrecognizedPropertyException e) {
-			}
-			if (((String) msg).contains("company")) {
-				try {
-					MarketResponseMsgModel mrmmInput = om.readValue((String) msg, MarketResponseMsgModel.class);
-					setPlasticPrices(mrmmInput);
-					if (mrmmInput.getCompany().equals(supplier))
-						setPlasticPrices(mrmmInput);
-					if (dateTicker == null) {
-						dateTicker = DateTime.parse(mrmmInput.getDate(), StaticVariables.DE_DATE_FORMATTER);
-						nextMonthTicker = dateTicker.plusMonths(1);
-					}
-					if (pricesNotNull() && shareVolume.compareTo(BigDecimal.ZERO) != 0) {
-						prodPrice = calculateProdPrice(shareVolume);
-						if (basisPrice.compareTo(BigDecimal.ZERO) == 0)
-							basisPrice = prodPrice.multiply(bonus);
-						MarketResponseMsgModel mrmm = new MarketResponseMsgModel();
-						mrmm.setCompany(nameOfSubscriber);
-						mrmm.setType("Mobile_Phone");
-						mrmm.setDate(om.readValue((String) msg, MarketResponseMsgModel.class).getDate());
-						final BigDecimal revenuePerMobile = basisPrice.setScale(2, RoundingMode.UP);
-						mrmm.setRevenue(revenuePerMobile.toString());
-						mrmm.setSelledProducts(selledProducts.toString());
-						BigDecimal profit = (revenuePerMobile.subtract(prodPrice)).multiply(selledProducts).setScale(2, RoundingMode.HALF_UP);
-						if (profit.compareTo(BigDecimal.ZERO) < 0) {
-							BigDecimal newRevenue = recalculatePrice();
-							if (newRevenue.compareTo(BigDecimal.ZERO) <= 0) {
-								mrmm.setRevenue(BigDecimal.ZERO.toString());
-								profit = BigDecimal.ZERO;
-
-							} else {
-								mrmm.setRevenue(newRevenue.setScale(2, RoundingMode.HALF_DOWN).toString());
-								profit = (newRevenue.subtract(prodPrice)).multiply(selledProducts).setScale(2, RoundingMode.HALF_UP);
-							}
-						}
-						if (dateTicker.isBefore(DateTime.parse(mrmmInput.getDate(), StaticVariables.DE_DATE_FORMATTER))) {
-							if (nextMonthTicker.isBefore(dateTicker)) {
-								mrmm.setProfit(profit.subtract(monthlyCosts).toString());
-								nextMonthTicker = nextMonthTicker.plusMonths(1);
-							} else
-								mrmm.setProfit(profit.toString());
-							completeProfit = completeProfit.add(StaticVariables.convertToBigDecimal(mrmm.getProfit()));
-							dateTicker = DateTime.parse(mrmmInput.getDate(), StaticVariables.DE_DATE_FORMATTER);
-							if (completeProfit.compareTo(StaticVariables.HIGHEST_ACCEPTEBLE_DEFICIT) <= 0) {
-								mrmm.setRevenue(BigDecimal.ZERO.toString());
-								mrmm.setProfit(BigDecimal.ZERO.toString());
-							}
-							if (StaticVariables.convertToBigDecimal(mrmm.getRevenue()).compareTo(BigDecimal.ZERO) != 0)
-								mrmm.setProductionCost(prodPrice.setScale(2, RoundingMode.HALF_UP).toString());
-							else
-								mrmm.setProductionCost(BigDecimal.ZERO.toString());
-							ActorRef publisher = MarketContainer.getInstance().getPublisher(channel);
-							publisher.tell(om.writeValueAsString(mrmm), getSelf());
-						}
-					}
-				} catch (UnrecognizedPropertyException e) {
-				}
-			}
+		if (msg instanceof ResourcePriceVectorMsg) {
+			final ResourcePriceVectorMsg rpvm = (ResourcePriceVectorMsg) msg;
+			getTickInputs(rpvm.getTick()).resourcePrices = rpvm;
+		} else if (msg instanceof MarketShareMsg) {
+			final MarketShareMsg msm = (MarketShareMsg) msg;
+			getTickInputs(msm.getTick()).shares = msm;
+		} else if (msg instanceof MarketResponseMsg) {
+			final MarketResponseMsg mrm = (MarketResponseMsg) msg;
+			if (mrm.getType() == ProductTypeEnum.PLASTIC)
+				getTickInputs(mrm.getTick()).plastic = mrm;
+			else if (mrm.getType() == ProductTypeEnum.ELECTRONIC_PART && mrm.getCompany().equals(supplier))
+				getTickInputs(mrm.getTick()).electronicPart = mrm;
+		} else if (msg instanceof DistributedPubSubMediator.SubscribeAck || msg instanceof SupplierSubscribeMsg || msg instanceof CompanyRegisterMsg) {
+			// Bestaetigung der Anmeldung vom Markt oder seinem Teilmarkt
+			if (msg instanceof CompanyRegisterMsg)
+				market = getSender();
+			if (--pendingSubscriptions == 0)
+				getContext().actorSelection("/user/" + channel).tell(new CompanyReadyMsg(nameOfSubscriber), getSelf());
+			return;
+		} else if (msg instanceof CheckpointMsg) {
+			// Zwischen zwei Ticks, alle Eingaenge sind verarbeitet
+			getSender().tell(model.getState(((CheckpointMsg) msg).getTick()), getSelf());
+			return;
+		} else {
+			unhandled(msg);
+			return;
 		}
+		processCompleteTicks();
 	}
 
-	private BigDecimal recalculatePrice() {
-		BigDecimal newPrice = basisPrice;
-		BigDecimal adjustment = StaticVariables.PRICE_ADJUSTMENT;
-		do {
-			prodPrice = calculateProdPrice(shareVolume.multiply(BigDecimal.ONE.add(adjustment)));
-			newPrice = basisPrice.divide(BigDecimal.ONE.add(adjustment), 10, RoundingMode.HALF_UP);
-			if (newPrice.subtract(prodPrice).compareTo(BigDecimal.ZERO) > 0) {
-				return newPrice;
-			}
-			adjustment = adjustment.add(StaticVariables.PRICE_ADJUSTMENT);
-		} while (newPrice.compareTo(prodPrice.multiply(new BigDecimal("1.02"))) > 0 || adjustment.compareTo(bonus.multiply(new BigDecimal(2))) <= 0);
-		return BigDecimal.ZERO;
-	}
-
-	private CompanyShareMsgModel findCompanyShares(MarketShareMsgModel msmm) {
-		for (CompanyShareMsgModel csmm : msmm.getCompanyShareMsgModels())
-			if (csmm.getCompany().equals(nameOfSubscriber))
-				return csmm;
-		return null;
-	}
-
-	private BigDecimal setShareVolume(CompanyShareMsgModel csmm) {
-		if (csmm != null)
-			return new BigDecimal(csmm.getShareVolume());
-		return BigDecimal.ZERO;
+	private TickInputs getTickInputs(int tick) {
+		TickInputs inputs = tickInputs.get(tick);
+		if (inputs == null) {
+			inputs = new TickInputs();
+			tickInputs.put(tick, inputs);
+		}
+		return inputs;
 	}
 
-	private BigDecimal calculateProdPrice(BigDecimal shareVolume) {
-		final BigDecimal platinPartPrice = platinPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PLATIN_IN_G);
-		final BigDecimal goldPartPrice = goldPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_GOLD_IN_G);
-		final BigDecimal silberPartPrice = silberPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_SILBER_IN_G);
-		final BigDecimal palladiumPartPrice = palladiumPrice.divide(StaticVariables.OZ_TO_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PALLADIUM_IN_G);
-		final BigDecimal plasticPartPrice = plasticPrice.divide(StaticVariables.KG_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_PLASTIC_IN_G);
-		final BigDecimal kupferPartPrice = kupferPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_KUPFER_IN_G);
-		final BigDecimal aluminiumPartPrice = aluminiumPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_ALUMINIUM_IN_G);
-		final BigDecimal nickelPartPrice = nickelPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_NICKEL_IN_G);
-		final BigDecimal zinnPartPrice = zinnPrice.divide(StaticVariables.T_IN_GRAMM, RoundingMode.HALF_DOWN).multiply(POP_ZINN_IN_G);
-		final BigDecimal compPartWOSupPrice = platinPartPrice.add(goldPartPrice).add(silberPartPrice).add(palladiumPartPrice).add(plasticPartPrice)
-				.add(kupferPartPrice).add(aluminiumPartPrice).add(nickelPartPrice).add(zinnPartPrice);
-		final BigDecimal supPriceWithDisc = electronicPartPrice.divide(supDiscount, RoundingMode.HALF_UP);
-		final BigDecimal complManCost = costManHour.divide(prodManHour, RoundingMode.HALF_DOWN);
-		final BigDecimal numberOfProdLines = shareVolume.divide(productionLineCapacity, 0, RoundingMode.UP);
-		BigDecimal prodLinesCost;
-		if (numberOfProdLines.compareTo(productionLines) > 0) {
-			selledProducts = productionLines.multiply(productionLineCapacity).setScale(0, RoundingMode.UP);
-			prodLinesCost = fixCost.divide(selledProducts, 2, RoundingMode.HALF_UP);
-		} else {
-			selledProducts = shareVolume;
-			final BigDecimal costOfOne = fixCost.divide(productionLines, 2, RoundingMode.HALF_UP);
-			prodLinesCost = costOfOne.multiply(numberOfProdLines).divide(selledProducts, 2, RoundingMode.HALF_UP);
+	/**
+	 * Verarbeitet die Ticks der Reihe nach, sobald alle Eingaenge eines Ticks
+	 * vorliegen.
+	 */
+	private void processCompleteTicks() {
+		while (!tickInputs.isEmpty() && tickInputs.firstEntry().getValue().isComplete()) {
+			final int tick = tickInputs.firstKey();
+			processTick(tick, tickInputs.pollFirstEntry().getValue());
 		}
-		return (compPartWOSupPrice.add(complManCost).add(supPriceWithDisc)).add(prodLinesCost);
 	}
 
-	private boolean pricesNotNull() {
-		if (kupferPrice == null)
-			return false;
-		if (aluminiumPrice == null)
-			return false;
-		if (goldPrice == null)
-			return false;
-		if (nickelPrice == null)
-			return false;
-		if (palladiumPrice == null)
-			return false;
-		if (plasticPrice == null)
-			return false;
-		if (platinPrice == null)
-			return false;
-		if (silberPrice == null)
-			return false;
-		if (zinnPrice == null)
-			return false;
-		if (electronicPartPrice == null)
-			return false;
-		return true;
+	private void processTick(int tick, TickInputs inputs) {
+		final MarketResponseMsg result = model.processTick(inputs.resourcePrices, inputs.plastic, inputs.electronicPart, inputs.shares);
+		final ActorRef publisher = market != null ? market : MarketContainer.getInstance().getPublisher(channel);
+		// Ohne Ergebnis meldet sich das Unternehmen trotzdem beim Markt, damit
+		// dieser den Tick abschliessen kann
+		if (result != null)
+			publisher.tell(result, getSelf());
+		else
+			publisher.tell(new TickAckMsg(nameOfSubscriber, tick, inputs.plastic.getDate()), getSelf());
 	}
 
-	private void setPlasticPrices(MarketResponseMsgModel mrmm) {
-		if (mrmm.getType().equals("Plastic"))
-			plasticPrice = StaticVariables.convertToBigDecimal(mrmm.getRevenue());
-		if (mrmm.getType().equals("Electronic_Part"))
-			electronicPartPrice = StaticVariables.convertToBigDecimal(mrmm.getRevenue());
-	}
+	/**
+	 * Eingaenge eines Ticks: Rohstoffpreise, Kunststoffpreis, das Angebot des
+	 * eigenen Zulieferers und die Marktanteile.
+	 */
+	private static class TickInputs {
 
-	private void setResourcePrices(ResourceMsgModel rmm) {
-		switch (rmm.getType()) {
-		case "Kupfer":
-			kupferPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Aluminium":
-			aluminiumPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Gold":
-			goldPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Nickel":
-			nickelPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Palladium":
-			palladiumPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Platin":
-			platinPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Silber":
-			silberPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		case "Zinn":
-			zinnPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-			break;
-		}
+		private ResourcePriceVectorMsg resourcePrices;
+		private MarketResponseMsg plastic;
+		private MarketResponseMsg electronicPart;
+		private MarketShareMsg shares;
 
+		private boolean isComplete() {
+			return resourcePrices != null && plastic != null && electronicPart != null && shares != null;
+		}
 	}
 
 }
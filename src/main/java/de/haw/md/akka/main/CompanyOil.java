@@ -2,56 +2,78 @@ package de.haw.md.akka.main;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.SplittableRandom;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
-
-import de.haw.md.akka.main.msg.MarketResponseMsgModel;
-import de.haw.md.akka.main.msg.ResourceMsgModel;
-import de.haw.md.company.main.CompanyMainTwo;
+import de.haw.md.akka.main.journal.Journal;
+import de.haw.md.akka.main.msg.CompanyReadyMsg;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.SimulationRandom;
 import de.haw.md.sups.StaticVariables;
+import de.haw.md.sups.TopicEnum;
 import akka.actor.ActorRef;
-import akka.actor.UntypedActor;
 import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 
-public class CompanyOil extends UntypedActor {
+public class CompanyOil extends MeteredActor {
 
 	private String channel;
 	private String nameOfSubscriber;
+	private ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
 	private static final BigDecimal PRODUCTION_COST = StaticVariables.convertToBigDecimal("2.3242");
-	private static final BigDecimal MARK_UP = CompanyMainTwo.generateRandomBigDecimalFromRange(StaticVariables.convertToBigDecimal("1.05"), StaticVariables.convertToBigDecimal("1.07"));
+	private final BigDecimal markUp;
+	private final Journal journal = Journal.getActive();
 
 	public CompanyOil(String channel, String nameOfSubscriber) {
 		this.nameOfSubscriber = nameOfSubscriber;
 		this.channel = channel;
-		ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
-		mediator.tell(new DistributedPubSubMediator.Subscribe(channel, getSelf()), getSelf());
+		this.markUp = randomMarkUp(SimulationRandom.getInstance().forAgent(nameOfSubscriber));
+		mediator.tell(new DistributedPubSubMediator.Subscribe(TopicEnum.RESOURCES.getTopic(channel), getSelf()), getSelf());
 	}
 
 	@Override
 	public void onReceive(Object msg) throws Exception {
-		if (msg instanceof String) {
-			try {
-				ObjectMapper om = new ObjectMapper();
-				ResourceMsgModel rmm = om.readValue((String) msg, ResourceMsgModel.class);
-				if (rmm.getType().equals("Oil")) {
-					// log.info("Subscriber Channel: {}, got: {}", channel,
-					// msg);
-					ActorRef publisher = MarketContainer.getInstance().getPublisher(channel);
-					final BigDecimal oilPrice = StaticVariables.convertToBigDecimal(rmm.getValue());
-					final BigDecimal oilPriceInKG = oilPrice.divide(StaticVariables.BARREL_IN_KG, 10, RoundingMode.HALF_DOWN);
-					final BigDecimal plasticPriceInKG = oilPriceInKG.multiply(PRODUCTION_COST);
-					MarketResponseMsgModel mrmm = new MarketResponseMsgModel();
-					mrmm.setCompany(nameOfSubscriber);
-					mrmm.setDate(rmm.getDate());
-					mrmm.setType("Plastic");
-					mrmm.setRevenue(plasticPriceInKG.multiply(MARK_UP).setScale(2, RoundingMode.HALF_UP).toString());
-					publisher.tell(om.writeValueAsString(mrmm), getSelf());
-				}
-			} catch (UnrecognizedPropertyException e) {
-			}
+		if (msg instanceof ResourcePriceVectorMsg) {
+			ResourcePriceVectorMsg rpvm = (ResourcePriceVectorMsg) msg;
+			final MarketResponseMsg plastic = new MarketResponseMsg(nameOfSubscriber, ProductTypeEnum.PLASTIC, rpvm.getTick(), rpvm.getDate(),
+					calculatePlasticPrice(rpvm.getPrice(ResourceEnum.OIL), markUp));
+			if (journal != null)
+				journal.append(rpvm.getTick(), plastic);
+			// Der Kunststoffpreis geht ohne Umweg ueber den Markt an alle Abonnenten
+			mediator.tell(new DistributedPubSubMediator.Publish(TopicEnum.PLASTIC.getTopic(channel), plastic), getSelf());
+		} else if (msg instanceof DistributedPubSubMediator.SubscribeAck) {
+			getContext().actorSelection("/user/" + channel).tell(new CompanyReadyMsg(nameOfSubscriber), getSelf());
+		} else if (msg instanceof CompanyRegisterMsg) {
+			// Bestaetigung der Anmeldung beim Markt
+		} else {
+			unhandled(msg);
 		}
 	}
 
-}
+	/**
+	 * @param values
+	 *            Strom des Unternehmens aus SimulationRandom
+	 * @return Aufschlag auf die Produktionskosten
+	 */
+	public static BigDecimal randomMarkUp(SplittableRandom values) {
+		return StaticVariables.generateRandomBigDecimalFromRange(values, StaticVariables.convertToBigDecimal("1.05"), StaticVariables.convertToBigDecimal("1.07"));
+	}
+
+	/**
+	 * Kunststoffpreis pro kg aus dem Oelpreis pro Barrel.
+	 * 
+	 * @param oilPrice
+	 * @param markUp
+	 * @return
+	 */
+	public static BigDecimal calculatePlasticPrice(BigDecimal oilPrice, BigDecimal markUp) {
+		final BigDecimal oilPriceInKG = oilPrice.divide(StaticVariables.BARREL_IN_KG, 10, RoundingMode.HALF_DOWN);
+		final BigDecimal plasticPriceInKG = oilPriceInKG.multiply(PRODUCTION_COST);
+		return plasticPriceInKG.multiply(markUp).setScale(2, RoundingMode.HALF_UP);
+	}
+
+}
\ No newline at end of file
@@ -1,37 +1,83 @@
 package de.haw.md.akka.main;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
 
+import scala.concurrent.duration.FiniteDuration;
 import akka.actor.ActorRef;
-import akka.actor.UntypedActor;
+import akka.actor.Cancellable;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.actor.Terminated;
 import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 
-import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
-
-import de.haw.md.akka.main.msg.CompanyShareMsgModel;
-import de.haw.md.akka.main.msg.MarketResponseMsgModel;
-import de.haw.md.akka.main.msg.MarketShareMsgModel;
-import de.haw.md.akka.main.msg.ResourceMsgModel;
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.akka.main.journal.Journal;
+import de.haw.md.akka.main.msg.CheckpointMsg;
+import de.haw.md.akka.main.msg.CompanyReadyMsg;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.MsgModelMapper;
+import de.haw.md.akka.main.msg.RegionReportMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.TickAckMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.akka.main.msg.TickMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.metrics.TimerEnum;
+import de.haw.md.sups.MarketShareCalc;
+import de.haw.md.sups.MarketShareTable;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.RegionPrices;
 import de.haw.md.sups.ResourceCalc;
+import de.haw.md.sups.ResourceEnum;
 import de.haw.md.sups.Resources;
+import de.haw.md.sups.ShareModeEnum;
+import de.haw.md.sups.SimulationRandom;
 import de.haw.md.sups.StaticVariables;
+import de.haw.md.sups.TopicEnum;
+
+public class Market extends MeteredActor {
 
-public class Market extends UntypedActor {
+	/**
+	 * Anzahl der regionalen Teilmaerkte, z.B. -DmarketRegions=8. Ohne
+	 * Angabe melden sich die Unternehmen direkt beim Markt.
+	 */
+	public static final String REGIONS_PROPERTY = "marketRegions";
+
+	/**
+	 * Sekunden, die zurueckgestellte Ticks auf die Bereitschaft der
+	 * Unternehmen warten, z.B. -DreadyTimeout=120. Danach erhalten ihre
+	 * Absender ein Status.Failure.
+	 */
+	public static final String READY_TIMEOUT_PROPERTY = "readyTimeout";
+
+	private static final long DEFAULT_READY_TIMEOUT = 60;
+
+	private static final String REGION_PREFIX = "Region_";
 
 	private ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
 
@@ -39,31 +85,186 @@ public class Market extends UntypedActor {
 
 	private Resources res = new Resources();
 
-	private Map<String, BigDecimal> companyMarketPrices = new HashMap<>();
+	private final PriceModeEnum priceMode = PriceModeEnum.getActive();
+
+	private final ShareModeEnum shareMode = ShareModeEnum.getActive();
 
-	private Map<String, MarketResponseMsgModel> mobileMarketResponses = new HashMap<>();
+	/** Protokoll aus -Djournal oder null */
+	private final Journal journal = Journal.getActive();
 
-	private Map<String, ResourceMsgModel> resourceMarketResponses = new HashMap<>();
+	private MarketShareTable shareTable = new MarketShareTable();
+
+	private Map<String, MarketResponseMsg> mobileMarketResponses = new HashMap<>();
+
+	private Map<String, ResourceMsg> resourceMarketResponses = new HashMap<>();
 
 	private BigDecimal counter = BigDecimal.ZERO;
 
 	private BigDecimal currentMarketVolume;
 
-	private MarketShareMsgModel msmm;
+	private MarketShareMsg msm;
+
+	/** Datum des zuletzt gestarteten Ticks */
+	private LocalDate currentDate;
+
+	/**
+	 * Stand fuer Leser ausserhalb des Aktors. Nur der Aktor schreibt, jede
+	 * Aenderung ersetzt den ganzen Stand.
+	 */
+	private final AtomicReference<MarketSnapshot> snapshot = new AtomicReference<>(MarketSnapshot.EMPTY);
+
+	/** Angemeldete Unternehmen, die zu jedem Tick eine Rueckmeldung schicken */
+	private Map<String, ActorRef> reportingCompanies = new HashMap<>();
+
+	/** Regionale Teilmaerkte, leer ohne REGIONS_PROPERTY */
+	private final ActorRef[] regions;
+
+	/** Angemeldete meldende Unternehmen je Teilmarkt */
+	private final int[] regionCompanies;
+
+	/**
+	 * Worauf ein Tick wartet: die meldenden Unternehmen oder die Teilmaerkte
+	 * mit mindestens einem Unternehmen
+	 */
+	private final Map<String, ActorRef> tickMembers;
+
+	/** Preise der Teilmaerkte bis zum zuletzt uebernommenen Tick */
+	private Map<String, RegionPrices> regionPrices = new HashMap<>();
+
+	/** Alle angemeldeten Unternehmen, auch die nicht meldenden */
+	private Map<String, ActorRef> registeredCompanies = new HashMap<>();
+
+	/** Angemeldete Unternehmen, die noch nicht alle Abonnements bestaetigt haben */
+	private Set<String> companiesNotReady = new HashSet<>();
+
+	/**
+	 * Unternehmen, die sich bereit gemeldet haben. Die Bereitschaft kann vor
+	 * der Anmeldung eintreffen, da beide von verschiedenen Absendern kommen.
+	 */
+	private Set<String> readyCompanies = new HashSet<>();
+
+	/** Ticks, die eintreffen, solange noch nicht alle Unternehmen bereit sind */
+	private List<PendingTick> pendingTicks = new ArrayList<>();
+
+	/** Frist fuer die Bereitschaft, solange Ticks zurueckgestellt sind */
+	private Cancellable readyDeadline;
+
+	/** Nummer der zuletzt gesetzten Frist, aeltere sind ueberholt */
+	private int readyDeadlineNumber = 0;
+
+	private int tickCounter = 0;
+
+	private TreeMap<Integer, TickState> ticksInFlight = new TreeMap<>();
+
+	/** Ergebnisse abgeschlossener Ticks, die noch nicht in die Marktanteile eingeflossen sind */
+	private TreeMap<Integer, List<MarketResponseMsg>> completedResults = new TreeMap<>();
+
+	/** Preise der Teilmaerkte zu den Ticks in completedResults */
+	private TreeMap<Integer, Map<String, RegionPrices>> completedRegionPrices = new TreeMap<>();
+
+	/** Checkpoint, der auf den Zustand der Unternehmen wartet, oder null */
+	private PendingCheckpoint pendingCheckpoint;
 
 	/**
 	 * Kunstruktor! Initialisiert den Markt, liest historische Rohstoffpreise
-	 * und berechnet das statische Marktvolumen
+	 * und berechnet das statische Marktvolumen. Mit -Dresume wird statt dessen
+	 * der Stand des Checkpoints uebernommen.
 	 * 
 	 * @param channel
 	 */
 	public Market(String channel) {
-		res.readAllPrices();
 		this.channel = channel;
-		currentMarketVolume = StaticVariables.MARKET_VOLUME;
+		regions = new ActorRef[getRegionCount()];
+		regionCompanies = new int[regions.length];
+		final Checkpoint checkpoint = Checkpoint.getResume();
+		if (checkpoint != null) {
+			final List<Map<String, Long>> cents = restore(checkpoint);
+			for (int i = 0; i < regions.length; i++)
+				regions[i] = getContext().actorOf(Props.create(RegionalMarket.class, REGION_PREFIX + i, cents.get(i), tickCounter),
+						REGION_PREFIX + i);
+		} else {
+			res.readAllPrices();
+			currentMarketVolume = StaticVariables.MARKET_VOLUME;
+			for (int i = 0; i < regions.length; i++)
+				regions[i] = getContext().actorOf(Props.create(RegionalMarket.class, REGION_PREFIX + i), REGION_PREFIX + i);
+		}
+		tickMembers = regions.length > 0 ? new HashMap<String, ActorRef>() : reportingCompanies;
 		MarketContainer.getInstance().setMarket(this);
 	}
 
+	/**
+	 * Uebernimmt den Stand eines Checkpoints. Die Preise der Teilmaerkte
+	 * ergeben sich aus der Tabelle und den noch offenen Ergebnissen.
+	 * 
+	 * @param checkpoint
+	 * @return Preise in Cent je Teilmarkt einschliesslich der offenen
+	 *         Ergebnisse, der Anfangsstand der Teilmaerkte
+	 */
+	private List<Map<String, Long>> restore(Checkpoint checkpoint) {
+		res.restore(checkpoint.getSeries(), checkpoint.getDraws(), checkpoint.getStartDate());
+		tickCounter = checkpoint.getTick();
+		counter = checkpoint.getCounter();
+		currentMarketVolume = checkpoint.getMarketVolume();
+		for (Map.Entry<String, Long> entry : checkpoint.getPrices().entrySet())
+			shareTable.put(entry.getKey(), BigDecimal.valueOf(entry.getValue(), 2));
+		completedResults.putAll(checkpoint.getCompletedResults());
+		final List<Map<String, Long>> cents = new ArrayList<>(regions.length);
+		for (int i = 0; i < regions.length; i++)
+			cents.add(new HashMap<String, Long>());
+		if (regions.length == 0)
+			return cents;
+		for (Map.Entry<String, Long> entry : checkpoint.getPrices().entrySet())
+			cents.get(getRegion(entry.getKey(), regions.length)).put(entry.getKey(), entry.getValue());
+		putRegionPrices(regionPrices, cents);
+		for (Map.Entry<Integer, List<MarketResponseMsg>> entry : completedResults.entrySet()) {
+			for (MarketResponseMsg mrm : entry.getValue())
+				cents.get(getRegion(mrm.getCompany(), regions.length)).put(mrm.getCompany(), MarketShareCalc.toCents(mrm.getRevenue()));
+			final Map<String, RegionPrices> prices = new HashMap<>();
+			putRegionPrices(prices, cents);
+			completedRegionPrices.put(entry.getKey(), prices);
+		}
+		return cents;
+	}
+
+	private static void putRegionPrices(Map<String, RegionPrices> target, List<Map<String, Long>> cents) {
+		for (int i = 0; i < cents.size(); i++)
+			if (!cents.get(i).isEmpty())
+				target.put(REGION_PREFIX + i, RegionPrices.of(cents.get(i)));
+	}
+
+	/**
+	 * @return Anzahl der regionalen Teilmaerkte aus REGIONS_PROPERTY, 0 ohne
+	 *         Teilmaerkte
+	 */
+	public static int getRegionCount() {
+		final int regions = Integer.getInteger(REGIONS_PROPERTY, 0);
+		if (regions < 0)
+			throw new IllegalArgumentException("Regions must not be negative: " + regions);
+		return regions;
+	}
+
+	/**
+	 * Ordnet die Handyhersteller reihum den Teilmaerkten zu, andere Namen
+	 * gestreut.
+	 *
+	 * @param company
+	 * @param regions
+	 * @return Nummer des Teilmarktes
+	 */
+	public static int getRegion(String company, int regions) {
+		final int mobile = AgentTopology.getIndex(company, AgentTopology.MOBILE_PREFIX);
+		if (mobile >= 0)
+			return mobile % regions;
+		return Math.abs(company.hashCode() % regions);
+	}
+
+	/**
+	 * @return Sekunden aus READY_TIMEOUT_PROPERTY, ohne Angabe 60
+	 */
+	public static long getReadyTimeout() {
+		return Long.getLong(READY_TIMEOUT_PROPERTY, DEFAULT_READY_TIMEOUT);
+	}
+
 	/*
 	 * Diese Methode reagiert auf ankommende Nachrichten, sollte die Nachricht
 	 * "Tick" sein, so werden die aktuellen Rohstoffpreise verffentlicht und
@@ -75,69 +276,393 @@ public class Market extends UntypedActor {
 	 */
 	@Override
 	public void onReceive(Object msg) throws Exception {
-		if (msg instanceof String) {
+		if (msg instanceof MarketResponseMsg) {
+			handleMarketResponse((MarketResponseMsg) msg);
+		} else if (msg instanceof ResourceMsg) {
+			handleResourceResponse((ResourceMsg) msg);
+			publishSnapshot(true, false);
+		} else if (msg instanceof TickAckMsg) {
+			TickAckMsg tam = (TickAckMsg) msg;
+			if (regions.length > 0)
+				regions[getRegion(tam.getCompany(), regions.length)].forward(tam, getContext());
+			else
+				reportTick(tam.getCompany(), tam.getTick(), null);
+		} else if (msg instanceof RegionReportMsg) {
+			handleRegionReport((RegionReportMsg) msg);
+		} else if (msg instanceof TickMsg) {
+			handleTick(((TickMsg) msg).getWindow());
+		} else if (msg instanceof CompanyRegisterMsg) {
+			handleCompanyRegister((CompanyRegisterMsg) msg);
+		} else if (msg instanceof CompanyReadyMsg) {
+			readyCompanies.add(((CompanyReadyMsg) msg).getCompany());
+			companiesNotReady.remove(((CompanyReadyMsg) msg).getCompany());
+			startPendingTicks();
+		} else if (msg instanceof CheckpointMsg) {
+			handleCheckpoint((CheckpointMsg) msg);
+		} else if (msg instanceof CompanyStateMsg) {
+			handleCompanyState((CompanyStateMsg) msg);
+		} else if (msg instanceof Terminated) {
+			handleTerminated(((Terminated) msg).getActor());
+		} else if (msg instanceof ReadyDeadline) {
+			handleReadyDeadline((ReadyDeadline) msg);
+		} else if (msg instanceof String) {
 			if (msg.equals("Tick")) {
-				publishResources();
-				calculateMarketVolumeAShares();
+				handleTick(1);
 			} else {
-				handleMarketResponse(msg, new ObjectMapper());
-				handleResourceResponse(msg, new ObjectMapper());
+				handleJsonMsg((String) msg);
 			}
 		} else {
 			unhandled(msg);
 		}
 	}
 
+	/**
+	 * Nimmt Nachrichten im JSON-Format von ausserhalb der Simulation entgegen
+	 * und verarbeitet sie wie die entsprechenden typisierten Nachrichten.
+	 * 
+	 * @param json
+	 * @throws IOException
+	 */
+	private void handleJsonMsg(String json) throws IOException {
+		final Object msg = MsgModelMapper.fromJson(json);
+		if (msg instanceof MarketResponseMsg)
+			handleMarketResponse((MarketResponseMsg) msg);
+		else if (msg instanceof ResourceMsg) {
+			handleResourceResponse((ResourceMsg) msg);
+			publishSnapshot(true, false);
+		} else
+			unhandled(msg);
+	}
+
 	/**
 	 * Speichert die Rohstoff-Nachrichten ab. Diese werden dann von der GUI
 	 * ausgelesen.
 	 * 
-	 * @param msg
-	 * @param om
-	 * @throws IOException
-	 * @throws JsonParseException
-	 * @throws JsonMappingException
+	 * @param rm
 	 */
-	private void handleResourceResponse(Object msg, ObjectMapper om) throws IOException, JsonParseException, JsonMappingException {
-		try {
-			ResourceMsgModel rmm = om.readValue((String) msg, ResourceMsgModel.class);
-			if (resourceMarketResponses.containsKey(rmm.getType()))
-				resourceMarketResponses.replace(rmm.getType(), rmm);
-			else
-				resourceMarketResponses.put(rmm.getType(), rmm);
-		} catch (UnrecognizedPropertyException e) {
-		}
+	private void handleResourceResponse(ResourceMsg rm) {
+		resourceMarketResponses.put(rm.getType().getName(), rm);
 	}
 
 	/**
 	 * Speichert die Markt-Nachrichten ab. Diese werden dann von der GUI
 	 * ausgelesen.
 	 * 
-	 * @param msg
-	 * @param om
-	 * @throws IOException
-	 * @throws JsonParseException
-	 * @throws JsonMappingException
+	 * @param mrm
 	 */
-	private void handleMarketResponse(Object msg, ObjectMapper om) throws IOException, JsonParseException, JsonMappingException {
+	private void handleMarketResponse(MarketResponseMsg mrm) {
+		if (mrm.getType() == ProductTypeEnum.MOBILE_PHONE && regions.length > 0) {
+			// Rueckmeldungen zu einem Tick zaehlt der Teilmarkt, Ergebnisse
+			// ausserhalb eines Ticks braucht er fuer seine Preise
+			regions[getRegion(mrm.getCompany(), regions.length)].forward(mrm, getContext());
+			if (ticksInFlight.containsKey(mrm.getTick()))
+				return;
+		}
+		if (mrm.getType() == ProductTypeEnum.MOBILE_PHONE && (regions.length > 0 || !reportTick(mrm.getCompany(), mrm.getTick(), mrm))) {
+			// Ergebnisse ausserhalb eines laufenden Ticks, z.B. von ausserhalb der
+			// Simulation, werden sofort uebernommen
+			shareTable.put(mrm.getCompany(), mrm.getRevenue());
+			mobileMarketResponses.put(mrm.getCompany(), mrm);
+			if (journal != null)
+				journal.append(mrm.getTick(), mrm);
+			publishSnapshot(false, true);
+		}
+	}
+
+	private void handleCompanyRegister(CompanyRegisterMsg crm) {
+		if (!readyCompanies.contains(crm.getCompany()))
+			companiesNotReady.add(crm.getCompany());
+		registeredCompanies.put(crm.getCompany(), getSender());
+		getContext().watch(getSender());
+		if (crm.isReporting() && regions.length > 0) {
+			final int region = getRegion(crm.getCompany(), regions.length);
+			if (reportingCompanies.put(crm.getCompany(), getSender()) == null && regionCompanies[region]++ == 0) {
+				tickMembers.put(REGION_PREFIX + region, regions[region]);
+				countReported(REGION_PREFIX + region, 1);
+			}
+			// Bestaetigung vom Teilmarkt, das Unternehmen meldet sich danach
+			// bei ihm
+			regions[region].forward(crm, getContext());
+			return;
+		}
+		if (crm.isReporting() && reportingCompanies.put(crm.getCompany(), getSender()) == null)
+			countReported(crm.getCompany(), 1);
+		// Bestaetigung an das Unternehmen
+		getSender().tell(crm, getSelf());
+	}
+
+	/**
+	 * Passt die Anzahl der Rueckmeldungen laufender Ticks an, zu denen sich
+	 * ein Mitglied schon gemeldet hat, das hinzukommt oder wegfaellt.
+	 */
+	private void countReported(String member, int delta) {
+		for (TickState state : ticksInFlight.values())
+			if (state.reportedCompanies.contains(member))
+				state.reportedReporting += delta;
+	}
+
+	/**
+	 * Meldung eines Teilmarktes: zaehlt wie die Rueckmeldung eines
+	 * Unternehmens und bringt alle Ergebnisse der Region mit.
+	 * 
+	 * @param rrm
+	 */
+	private void handleRegionReport(RegionReportMsg rrm) {
+		final TickState state = ticksInFlight.get(rrm.getTick());
+		if (state == null || !state.reportedCompanies.add(rrm.getRegion())) {
+			regionPrices.put(rrm.getRegion(), rrm.getPrices());
+			return;
+		}
+		if (tickMembers.containsKey(rrm.getRegion()))
+			state.reportedReporting++;
+		state.results.addAll(rrm.getResults());
+		state.regionPrices.put(rrm.getRegion(), rrm.getPrices());
+		checkTicksCompleted();
+	}
+
+	private void handleTerminated(ActorRef actor) {
+		// Auch nicht meldende Unternehmen wie Oel und Elektroteile werden
+		// nicht mehr bereit
+		final Iterator<Map.Entry<String, ActorRef>> registered = registeredCompanies.entrySet().iterator();
+		while (registered.hasNext()) {
+			final Map.Entry<String, ActorRef> entry = registered.next();
+			if (entry.getValue().equals(actor)) {
+				registered.remove();
+				companiesNotReady.remove(entry.getKey());
+			}
+		}
+		final Iterator<Map.Entry<String, ActorRef>> entries = reportingCompanies.entrySet().iterator();
+		while (entries.hasNext()) {
+			final Map.Entry<String, ActorRef> entry = entries.next();
+			if (!entry.getValue().equals(actor))
+				continue;
+			entries.remove();
+			if (pendingCheckpoint != null)
+				pendingCheckpoint.missing.remove(entry.getKey());
+			if (regions.length == 0) {
+				countReported(entry.getKey(), -1);
+				continue;
+			}
+			final int region = getRegion(entry.getKey(), regions.length);
+			if (--regionCompanies[region] == 0) {
+				tickMembers.remove(REGION_PREFIX + region);
+				countReported(REGION_PREFIX + region, -1);
+			}
+		}
+		checkTicksCompleted();
+		completeCheckpoint();
+		startPendingTicks();
+	}
+
+	/**
+	 * Beginnt einen Checkpoint im Verzeichnis aus der Nachricht und fragt
+	 * dazu alle meldenden Unternehmen nach ihrem Zustand. Es darf kein Tick
+	 * laufen, sonst erhaelt der Absender ein Status.Failure. Ticks, die
+	 * waehrenddessen eintreffen, werden zurueckgestellt.
+	 * 
+	 * @param cm
+	 */
+	private void handleCheckpoint(CheckpointMsg cm) {
+		if (!ticksInFlight.isEmpty() || !pendingTicks.isEmpty() || pendingCheckpoint != null) {
+			getSender().tell(new Status.Failure(new IllegalStateException("Ticks or a checkpoint are still running")), getSelf());
+			return;
+		}
+		pendingCheckpoint = new PendingCheckpoint(getSender(), Checkpoint.getFile(new File(cm.getPath()), tickCounter));
+		final CheckpointMsg request = new CheckpointMsg(cm.getPath(), tickCounter);
+		for (Map.Entry<String, ActorRef> entry : reportingCompanies.entrySet()) {
+			pendingCheckpoint.missing.add(entry.getKey());
+			entry.getValue().tell(request, getSelf());
+		}
+		completeCheckpoint();
+	}
+
+	private void handleCompanyState(CompanyStateMsg csm) {
+		if (pendingCheckpoint == null || !pendingCheckpoint.missing.remove(csm.getCompany()))
+			return;
+		pendingCheckpoint.states.put(csm.getCompany(), csm);
+		completeCheckpoint();
+	}
+
+	/**
+	 * Schreibt den Checkpoint, sobald alle Unternehmen geantwortet haben, und
+	 * meldet dem Absender die Datei.
+	 */
+	private void completeCheckpoint() {
+		if (pendingCheckpoint == null || !pendingCheckpoint.missing.isEmpty())
+			return;
+		final PendingCheckpoint pending = pendingCheckpoint;
+		pendingCheckpoint = null;
+		final Map<String, Long> prices = new LinkedHashMap<>();
+		for (Map.Entry<String, BigDecimal> entry : getCompanyMarketPrices().entrySet())
+			prices.put(entry.getKey(), MarketShareCalc.toCents(entry.getValue()));
+		final Checkpoint checkpoint = new Checkpoint(SimulationRandom.getInstance().getSeed(), tickCounter, counter, currentMarketVolume,
+				res.getStartDate(), res.getPrices(), res.getDraws(), prices, completedResults, pending.states);
 		try {
-			MarketResponseMsgModel mrmm = om.readValue((String) msg, MarketResponseMsgModel.class);
-			if (mrmm.getType().equals("Mobile_Phone")) {
-				if (companyMarketPrices.containsKey(mrmm.getCompany())) {
-					companyMarketPrices.replace(mrmm.getCompany(), StaticVariables.convertToBigDecimal(mrmm.getRevenue()));
-				} else {
-					companyMarketPrices.put(mrmm.getCompany(), StaticVariables.convertToBigDecimal(mrmm.getRevenue()));
-				}
-				if (mobileMarketResponses.containsKey(mrmm.getCompany())) {
-					mobileMarketResponses.replace(mrmm.getCompany(), mrmm);
-				} else {
-					mobileMarketResponses.put(mrmm.getCompany(), mrmm);
-				}
+			checkpoint.write(pending.file);
+			pending.sender.tell(new CheckpointMsg(pending.file.getPath(), tickCounter), getSelf());
+		} catch (IOException e) {
+			pending.sender.tell(new Status.Failure(e), getSelf());
+		}
+		startPendingTicks();
+	}
+
+	/**
+	 * Startet einen Tick, sobald alle angemeldeten Unternehmen bereit sind.
+	 * Bis dahin wird der Tick zurueckgestellt, hoechstens getReadyTimeout()
+	 * Sekunden lang.
+	 * 
+	 * @param window
+	 */
+	private void handleTick(int window) {
+		pendingTicks.add(new PendingTick(getSender(), window));
+		startPendingTicks();
+	}
+
+	private void startPendingTicks() {
+		if (!companiesNotReady.isEmpty()) {
+			if (readyDeadline == null && !pendingTicks.isEmpty())
+				readyDeadline = getContext().system().scheduler().scheduleOnce(new FiniteDuration(getReadyTimeout(), TimeUnit.SECONDS), getSelf(),
+						new ReadyDeadline(++readyDeadlineNumber), getContext().dispatcher(), getSelf());
+			return;
+		}
+		cancelReadyDeadline();
+		if (pendingCheckpoint != null)
+			return;
+		for (PendingTick pendingTick : pendingTicks)
+			startTick(pendingTick.sender, pendingTick.window);
+		pendingTicks.clear();
+	}
+
+	/**
+	 * Die Frist ist abgelaufen: protokolliert die Unternehmen, die noch nicht
+	 * bereit sind, und meldet den Absendern der zurueckgestellten Ticks ein
+	 * Status.Failure.
+	 * 
+	 * @param deadline
+	 */
+	private void handleReadyDeadline(ReadyDeadline deadline) {
+		if (readyDeadline == null || deadline.number != readyDeadlineNumber)
+			return;
+		readyDeadline = null;
+		if (companiesNotReady.isEmpty() || pendingTicks.isEmpty())
+			return;
+		final String message = "Companies not ready after " + getReadyTimeout() + " s: " + new TreeSet<>(companiesNotReady);
+		getContext().system().log().error("{}, failing {} pending ticks", message, pendingTicks.size());
+		for (PendingTick pendingTick : pendingTicks)
+			pendingTick.sender.tell(new Status.Failure(new IllegalStateException(message)), getSelf());
+		pendingTicks.clear();
+	}
+
+	private void cancelReadyDeadline() {
+		if (readyDeadline != null) {
+			readyDeadline.cancel();
+			readyDeadline = null;
+		}
+	}
+
+	@Override
+	public void postStop() {
+		cancelReadyDeadline();
+	}
+
+	/**
+	 * Startet Tick t: Die Ergebnisse aller abgeschlossenen Ticks bis t - window
+	 * fliessen in die Marktanteile ein, danach werden Rohstoffpreise und
+	 * Marktanteile mit der Ticknummer t veroeffentlicht.
+	 * 
+	 * @param sender
+	 *            erhaelt die Meldung ueber den Abschluss des Ticks
+	 * @param window
+	 */
+	private void startTick(ActorRef sender, int window) {
+		final int tick = ++tickCounter;
+		applyCompletedResults(tick - window);
+		final LocalDate date = publishResources(tick);
+		currentDate = date;
+		final TickState state = new TickState(tick, date, sender);
+		ticksInFlight.put(tick, state);
+		state.shares = calculateMarketVolumeAShares(tick, date);
+		publishSnapshot(true, false);
+		checkTicksCompleted();
+	}
+
+	private void applyCompletedResults(int lastTick) {
+		final Map<Integer, List<MarketResponseMsg>> applicable = completedResults.headMap(lastTick, true);
+		for (List<MarketResponseMsg> results : applicable.values())
+			for (MarketResponseMsg mrm : results)
+				shareTable.put(mrm.getCompany(), mrm.getRevenue());
+		applicable.clear();
+		final Map<Integer, Map<String, RegionPrices>> applicablePrices = completedRegionPrices.headMap(lastTick, true);
+		for (Map<String, RegionPrices> prices : applicablePrices.values())
+			regionPrices.putAll(prices);
+		applicablePrices.clear();
+	}
+
+	/**
+	 * Vermerkt die Rueckmeldung eines Unternehmens zu einem laufenden Tick.
+	 * 
+	 * @param company
+	 * @param tick
+	 * @param result
+	 *            das Ergebnis des Unternehmens oder null
+	 * @return false, wenn der Tick nicht laeuft oder das Unternehmen sich schon
+	 *         gemeldet hat
+	 */
+	private boolean reportTick(String company, int tick, MarketResponseMsg result) {
+		final TickState state = ticksInFlight.get(tick);
+		if (state == null || !state.reportedCompanies.add(company))
+			return false;
+		if (tickMembers.containsKey(company))
+			state.reportedReporting++;
+		if (result != null)
+			state.results.add(result);
+		checkTicksCompleted();
+		return true;
+	}
+
+	/**
+	 * Schliesst die aeltesten laufenden Ticks ab, zu denen sich alle
+	 * angemeldeten Unternehmen gemeldet haben. Da jedes Unternehmen seine Ticks
+	 * der Reihe nach abarbeitet, werden auch die Ticks der Reihe nach fertig.
+	 */
+	private void checkTicksCompleted() {
+		boolean completed = false;
+		while (!ticksInFlight.isEmpty()) {
+			final TickState state = ticksInFlight.firstEntry().getValue();
+			// Gezaehlt statt containsAll, damit eine Rueckmeldung nicht alle
+			// Unternehmen durchlaeuft
+			if (state.reportedReporting < tickMembers.size())
+				break;
+			completed = true;
+			ticksInFlight.pollFirstEntry();
+			TimerEnum.TICK_LATENCY.recordSince(state.startNanos);
+			// Reihenfolge unabhaengig vom Eintreffen, damit Laeufe mit gleichem seed gleich ausgeben
+			state.results.sort(Comparator.comparing(MarketResponseMsg::getCompany));
+			for (MarketResponseMsg mrm : state.results) {
+				mobileMarketResponses.put(mrm.getCompany(), mrm);
+				if (journal != null)
+					journal.append(state.tick, mrm);
 			}
-			// System.out.println(msg);
-			publish((String) msg);
-		} catch (UnrecognizedPropertyException e) {
+			completedResults.put(state.tick, state.results);
+			if (!state.regionPrices.isEmpty())
+				completedRegionPrices.put(state.tick, state.regionPrices);
+			if (state.sender != null && !state.sender.equals(getSelf()) && !state.sender.equals(getContext().system().deadLetters()))
+				state.sender.tell(new TickCompletedMsg(state.tick, state.date, state.results, state.shares), getSelf());
 		}
+		if (completed)
+			publishSnapshot(false, true);
+	}
+
+	/**
+	 * Veroeffentlicht den aktuellen Stand als neue Version. Nur geaenderte
+	 * Maps werden kopiert.
+	 * 
+	 * @param resourcesChanged
+	 * @param mobileChanged
+	 */
+	private void publishSnapshot(boolean resourcesChanged, boolean mobileChanged) {
+		snapshot.set(snapshot.get().next(tickCounter, currentDate, resourcesChanged ? resourceMarketResponses : null,
+				mobileChanged ? mobileMarketResponses : null, msm, currentMarketVolume));
 	}
 
 	/**
@@ -147,166 +672,224 @@ public class Market extends UntypedActor {
 	 * Anschliessend werden die Marktanteile der einzelnen Unternehmen
 	 * berechnet.
 	 * 
-	 * @throws JsonGenerationException
-	 * @throws JsonMappingException
-	 * @throws IOException
-	 * @throws CloneNotSupportedException
-	 */
-	private void calculateMarketVolumeAShares() throws JsonGenerationException, JsonMappingException, IOException, CloneNotSupportedException {
-		if (counter.compareTo(BigDecimal.ZERO) != 0) {
-			final BigDecimal volume = StaticVariables.MARKET_VOLUME.divide(counter.divide(StaticVariables.MONTH, 10, RoundingMode.HALF_UP), 0,
-					RoundingMode.HALF_DOWN);
-			if (volume.compareTo(StaticVariables.MARKET_VOLUME) > 0)
-				currentMarketVolume = StaticVariables.MARKET_VOLUME;
-			else
-				currentMarketVolume = volume;
-		}
-		if (companyMarketPrices.size() > 0) {
-			final String generateShares = generateShares();
-			publish(generateShares);
+	 * @param tick
+	 * @param date
+	 * @return die veroeffentlichten Marktanteile
+	 */
+	private MarketShareMsg calculateMarketVolumeAShares(int tick, LocalDate date) {
+		currentMarketVolume = MarketShareCalc.calculateMarketVolume(counter, currentMarketVolume);
+		// Auch ohne Ergebnisse wird eine (leere) Liste veroeffentlicht, damit die
+		// Unternehmen wissen, dass zu diesem Tick keine Anteile kommen
+		MarketShareMsg shares = new MarketShareMsg(new ArrayList<CompanyShareMsg>(), tick, date);
+		if (shareTable.size() > 0) {
+			final long start = System.nanoTime();
+			shares = generateShares(tick, date);
+			TimerEnum.GENERATE_SHARES.recordSince(start);
+			msm = shares;
 		}
+		if (shareMode == ShareModeEnum.DIRECT && regions.length > 0)
+			// Die Teilmaerkte verteilen die eigenen Anteile
+			for (ActorRef region : tickMembers.values())
+				region.tell(shares, getSelf());
+		else if (shareMode == ShareModeEnum.DIRECT)
+			sendOwnShares(tick, date);
+		else
+			publish(shares);
+		if (journal != null)
+			journal.append(tick, shares);
 		counter = counter.add(BigDecimal.ONE);
+		return shares;
 	}
 
 	/**
-	 * Hier werden die Rohstoffe im Markt verffentlicht
+	 * Hier werden die Rohstoffe im Markt verffentlicht, alle Preise eines Tages
+	 * gemeinsam in einer Nachricht.
 	 * 
-	 * @throws JsonGenerationException
-	 * @throws JsonMappingException
-	 * @throws IOException
+	 * @param tick
+	 * @return der Tag der veroeffentlichten Preise
 	 */
-	private void publishResources() throws JsonGenerationException, JsonMappingException, IOException {
-		final String resOilMsg = mapToJson("Oil", res.getOilPrice());
-		publish(resOilMsg);
-		final String resKupferMsg = mapToJson("Kupfer", res.getKupferPrice());
-		publish(resKupferMsg);
-		final String resAluminiumMsg = mapToJson("Aluminium", res.getAluminiumPrice());
-		publish(resAluminiumMsg);
-		final String resGoldMsg = mapToJson("Gold", res.getGoldPrice());
-		publish(resGoldMsg);
-		final String resNickelMsg = mapToJson("Nickel", res.getNickelPrice());
-		publish(resNickelMsg);
-		final String resPalladiumMsg = mapToJson("Palladium", res.getPalladiumPrice());
-		publish(resPalladiumMsg);
-		final String resPlatinMsg = mapToJson("Platin", res.getPlatinPrice());
-		publish(resPlatinMsg);
-		final String resSilberMsg = mapToJson("Silber", res.getSilberPrice());
-		publish(resSilberMsg);
-		final String resZinnMsg = mapToJson("Zinn", res.getZinnPrice());
-		publish(resZinnMsg);
+	private LocalDate publishResources(int tick) {
+		BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		LocalDate date = null;
+		for (ResourceEnum type : ResourceEnum.values()) {
+			final ResourceMsg rm = nextResourceMsg(type);
+			prices[type.ordinal()] = rm.getValue();
+			date = rm.getDate();
+		}
+		final ResourcePriceVectorMsg rpvm = new ResourcePriceVectorMsg(tick, date, prices);
+		// Vor dem Versand, damit der Index eines Ticks auf dessen Preise zeigt
+		if (journal != null)
+			journal.append(tick, rpvm);
+		publish(rpvm);
+		return date;
 	}
 
 	/**
 	 * Hier werden die Marktanteile der Unternehmen berechnet. Dabei bestehen
 	 * die Marktanteile aus einem fixen und einem variablen Teil.
 	 * 
+	 * @param tick
+	 * @param date
 	 * @return
-	 * @throws JsonGenerationException
-	 * @throws JsonMappingException
-	 * @throws IOException
-	 * @throws CloneNotSupportedException
-	 */
-	private String generateShares() throws JsonGenerationException, JsonMappingException, IOException, CloneNotSupportedException {
-		ObjectMapper om = new ObjectMapper();
-		// Fixe Anteile pro Unternehmen = FIXED_MARKET_SHARE /
-		// Anzahl_der_Unternehmen
-		BigDecimal fixedMarketSharePerCompany = StaticVariables.FIXED_MARKET_SHARE.divide(new BigDecimal(companyMarketPrices.size()), RoundingMode.HALF_DOWN);
-		BigDecimal sumPrice = BigDecimal.ZERO;
-		// Variabler Anteil in Prozent = 100 - FIXED_MARKET_SHARE
-		BigDecimal variableShare = StaticVariables.HUNDRED.subtract(StaticVariables.FIXED_MARKET_SHARE);
-		List<CompanyShareMsgModel> companyShareMsgModels = new ArrayList<>();
-		// Alle Preise von Unternehmen werden auf addiert. Damit der prozentuale
-		// Anteil am Preis bestimmt werden kann.
-		for (String company : companyMarketPrices.keySet())
-			sumPrice = sumPrice.add(companyMarketPrices.get(company));
-		for (String company : companyMarketPrices.keySet()) {
-			// Berechnung erfolgt nur wenn ein Unternehmen noch am Markt ist, also Verkaufspreis > 0
-			if (companyMarketPrices.get(company).compareTo(BigDecimal.ZERO) != 0) {
-				// sumPriceOnePercent = sumPrice / 100 
-				BigDecimal sumPriceOnePercent = sumPrice.divide(StaticVariables.HUNDRED, 10, RoundingMode.HALF_DOWN);
-				// percentPerPrice = companyMarketPrice / sumPriceOnePercent
-				BigDecimal percentPerPrice = companyMarketPrices.get(company).divide(sumPriceOnePercent, 10, RoundingMode.HALF_DOWN);
-				// 
-				BigDecimal variableShareOnePercent = variableShare.divide(StaticVariables.HUNDRED, 10, RoundingMode.HALF_DOWN);
-				BigDecimal variableSharePerComp = percentPerPrice.multiply(variableShareOnePercent);
-				BigDecimal perCompMarketShare = (fixedMarketSharePerCompany.add(variableSharePerComp));
-				companyShareMsgModels.add(new CompanyShareMsgModel(company, perCompMarketShare.toString()));
+	 */
+	private MarketShareMsg generateShares(int tick, LocalDate date) {
+		// Mit Teilmaerkten aus deren vorsortierten Preisen
+		if (regions.length > 0)
+			return new MarketShareMsg(MarketShareCalc.calculateShares(regionPrices.values(), currentMarketVolume.longValueExact()), tick, date);
+		shareTable.calculate(currentMarketVolume);
+		return new MarketShareMsg(shareTable.getShares(), tick, date);
+	}
+
+	/**
+	 * Schickt jedem meldenden Unternehmen nur den eigenen Anteil. Ein
+	 * Unternehmen ohne Anteil erhaelt den Anteil 0, eine leere Liste bedeutet
+	 * wie beim Thema, dass noch keine Anteile berechnet wurden.
+	 * 
+	 * @param tick
+	 * @param date
+	 */
+	private void sendOwnShares(int tick, LocalDate date) {
+		final boolean hasShares = shareTable.hasShares();
+		for (Map.Entry<String, ActorRef> entry : reportingCompanies.entrySet()) {
+			final List<CompanyShareMsg> own = new ArrayList<>(1);
+			if (hasShares) {
+				final CompanyShareMsg csm = shareTable.getShare(entry.getKey());
+				own.add(csm != null ? csm : new CompanyShareMsg(entry.getKey(), BigDecimal.ZERO, BigDecimal.ZERO));
 			}
+			entry.getValue().tell(new MarketShareMsg(own, tick, date), getSelf());
 		}
-		companyShareMsgModels = sortShares(companyShareMsgModels);
-		calculateShareVolume(companyShareMsgModels);
-		MarketShareMsgModel msmm = new MarketShareMsgModel();
-		msmm.setType("Market_Share");
-		msmm.setCompanyShareMsgModels(companyShareMsgModels);
-		msmm.setDate(ResourceCalc.getFinalDate(res.getOilPrice()).toString(StaticVariables.DE_DATE_FORMATTER));
-		this.msmm = msmm;
-		return om.writeValueAsString(msmm);
-	}
-
-	private void calculateShareVolume(List<CompanyShareMsgModel> companyShareMsgModels) {
-		for (CompanyShareMsgModel companyShareMsgModel : companyShareMsgModels)
-			companyShareMsgModel.setShareVolume(currentMarketVolume.divide(StaticVariables.HUNDRED, RoundingMode.HALF_DOWN)
-					.multiply(StaticVariables.convertToBigDecimal(companyShareMsgModel.getShareValue())).setScale(0, RoundingMode.HALF_DOWN).toString());
-	}
-
-	private List<CompanyShareMsgModel> sortShares(List<CompanyShareMsgModel> companyShareMsgModels) throws CloneNotSupportedException {
-		Collections.sort(companyShareMsgModels);
-		CompanyShareMsgModel[] csmmArray = new CompanyShareMsgModel[companyShareMsgModels.size()];
-		for (int i = 0; i < companyShareMsgModels.size(); i++) {
-			csmmArray[i] = (CompanyShareMsgModel) companyShareMsgModels.get(i).clone();
-		}
-		Arrays.sort(csmmArray, Collections.reverseOrder());
-		for (int i = 0; i < csmmArray.length; i++)
-			csmmArray[i].setShareValue(companyShareMsgModels.get(i).getShareValue());
-		List<CompanyShareMsgModel> newCompanyShareMsgModels = new ArrayList<>();
-		for (int i = 0; i < csmmArray.length; i++) {
-			newCompanyShareMsgModels.add(csmmArray[i]);
-		}
-		return newCompanyShareMsgModels;
 	}
 
-	private void publish(String msg) {
-		mediator.tell(new DistributedPubSubMediator.Publish(channel, msg), getSelf());
+	private void publish(ResourcePriceVectorMsg msg) {
+		publish(TopicEnum.RESOURCES, msg);
 	}
 
-	public String mapToJson(String type, Map<DateTime, BigDecimal> ressource) throws JsonGenerationException, JsonMappingException, IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		ResourceMsgModel rmm = new ResourceMsgModel();
-		final BigDecimal newPrice = ResourceCalc.nextRandomStockPrice(ressource);
-		final DateTime date = ResourceCalc.getFinalDate(ressource).plusDays(1);
-		rmm.setDate(date.toString(StaticVariables.DE_DATE_FORMATTER));
-		rmm.setValue(newPrice.setScale(2, RoundingMode.HALF_DOWN).toString());
-		rmm.setType(type);
-		ressource.put(date, newPrice);
-		addResourceMsg(rmm);
-		return mapper.writeValueAsString(rmm);
+	private void publish(MarketShareMsg msg) {
+		publish(TopicEnum.MARKET_SHARE, msg);
 	}
 
-	private void addResourceMsg(ResourceMsgModel rmm) {
-		if (resourceMarketResponses.containsKey(rmm.getType()))
-			resourceMarketResponses.replace(rmm.getType(), rmm);
-		else
-			resourceMarketResponses.put(rmm.getType(), rmm);
+	private void publish(TopicEnum topic, Object msg) {
+		mediator.tell(new DistributedPubSubMediator.Publish(topic.getTopic(channel), msg), getSelf());
+	}
+
+	/**
+	 * Erzeugt den naechsten Tagespreis eines Rohstoffes und haengt ihn an die
+	 * Historie an. Die Statistik wird dabei fortgeschrieben, der Aufwand pro
+	 * Tick haengt nicht von der Laenge der Historie ab.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public ResourceMsg nextResourceMsg(ResourceEnum type) {
+		final BigDecimal newPrice = ResourceCalc.nextRandomStockPrice(res.getStatistics(type), priceMode, res.nextRandom(type));
+		final LocalDate date = res.getFinalDate(type).plusDays(1);
+		res.appendPrice(type, date, newPrice);
+		ResourceMsg rm = new ResourceMsg(type, date, newPrice.setScale(2, RoundingMode.HALF_DOWN));
+		handleResourceResponse(rm);
+		return rm;
 	}
 
-	public Map<String, BigDecimal> getCompanyMarketPrices() {
-		return companyMarketPrices;
+	/**
+	 * Liest die Tabelle des Aktors, daher nicht oeffentlich. Von aussen gilt
+	 * getSnapshot.
+	 */
+	private Map<String, BigDecimal> getCompanyMarketPrices() {
+		return shareTable.getPrices();
+	}
+
+	/**
+	 * Der zuletzt veroeffentlichte Stand, aus jedem Thread lesbar.
+	 * 
+	 * @return
+	 */
+	public MarketSnapshot getSnapshot() {
+		return snapshot.get();
 	}
 
 	public BigDecimal getCurrentMarketVolume() {
-		return currentMarketVolume;
+		return getSnapshot().getMarketVolume();
 	}
 
-	public Map<String, MarketResponseMsgModel> getMobileMarketResponses() {
-		return mobileMarketResponses;
+	public Map<String, MarketResponseMsg> getMobileMarketResponses() {
+		return getSnapshot().getMobileResponses();
 	}
 
-	public Map<String, ResourceMsgModel> getResourceMarketResponses() {
-		return resourceMarketResponses;
+	public Map<String, ResourceMsg> getResourceMarketResponses() {
+		return getSnapshot().getResourceResponses();
 	}
 
-	public MarketShareMsgModel getMsmm() {
-		return msmm;
+	public MarketShareMsg getMsm() {
+		return getSnapshot().getShares();
+	}
+
+	/**
+	 * Ein Tick, der auf die Bereitschaft aller Unternehmen wartet.
+	 */
+	private static class PendingTick {
+
+		private final ActorRef sender;
+		private final int window;
+
+		private PendingTick(ActorRef sender, int window) {
+			this.sender = sender;
+			this.window = window;
+		}
+	}
+
+	/**
+	 * Ablauf der Frist fuer die Bereitschaft mit der Nummer, unter der sie
+	 * gesetzt wurde.
+	 */
+	private static class ReadyDeadline {
+
+		private final int number;
+
+		private ReadyDeadline(int number) {
+			this.number = number;
+		}
+	}
+
+	/**
+	 * Ein Checkpoint, der auf die Antworten der Unternehmen wartet.
+	 */
+	private static class PendingCheckpoint {
+
+		private final ActorRef sender;
+		private final File file;
+		private final Set<String> missing = new HashSet<>();
+		/** Nach Namen sortiert, damit gleiche Laeufe gleiche Dateien schreiben */
+		private final Map<String, CompanyStateMsg> states = new TreeMap<>();
+
+		private PendingCheckpoint(ActorRef sender, File file) {
+			this.sender = sender;
+			this.file = file;
+		}
+	}
+
+	/**
+	 * Zustand eines laufenden Ticks: wer sich schon gemeldet hat und welche
+	 * Ergebnisse dabei eingegangen sind.
+	 */
+	private static class TickState {
+
+		private final int tick;
+		private final LocalDate date;
+		private final ActorRef sender;
+		private final Set<String> reportedCompanies = new HashSet<>();
+		/** Davon die aktuell angemeldeten, meldenden Unternehmen */
+		private int reportedReporting;
+		private final List<MarketResponseMsg> results = new ArrayList<>();
+		/** Preise der Teilmaerkte nach diesem Tick */
+		private final Map<String, RegionPrices> regionPrices = new HashMap<>();
+		private MarketShareMsg shares;
+		/** System.nanoTime() beim Start des Ticks */
+		private final long startNanos = System.nanoTime();
+
+		private TickState(int tick, LocalDate date, ActorRef sender) {
+			this.tick = tick;
+			this.date = date;
+			this.sender = sender;
+		}
 	}
 
 }
@@ -12,7 +12,8 @@ public class MarketContainer {
 
 	private Map<String, ActorRef> publisher;
 	
-	private Market market;
+	/** Vom Aktor gesetzt, von anderen Threads gelesen */
+	private volatile Market market;
 
 	public MarketContainer() {
 		publisher = new HashMap<>();
@@ -29,6 +30,17 @@ public class MarketContainer {
 		return publishActor;
 	}
 
+	/**
+	 * Setzt den Markt eines Kanals, z.B. den Proxy eines Cluster-Singletons.
+	 * getPublisher legt dann keinen lokalen Markt mehr an.
+	 * 
+	 * @param channel
+	 * @param publishActor
+	 */
+	public void setPublisher(String channel, ActorRef publishActor) {
+		publisher.put(channel, publishActor);
+	}
+
 	public static synchronized MarketContainer getInstance() {
 		if (instance == null) {
 			instance = new MarketContainer();
@@ -40,6 +52,15 @@ public class MarketContainer {
 		return market;
 	}
 
+	/**
+	 * @return der zuletzt veroeffentlichte Stand des Marktes, EMPTY solange
+	 *         es keinen Markt gibt
+	 */
+	public MarketSnapshot getSnapshot() {
+		final Market current = market;
+		return current == null ? MarketSnapshot.EMPTY : current.getSnapshot();
+	}
+
 	public void setMarket(Market market) {
 		this.market = market;
 	}
@@ -0,0 +1,109 @@
+package de.haw.md.akka.main;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.msg.MarketMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Unveraenderlicher Stand des Marktes fuer Leser ausserhalb des Aktors, z.B.
+ * die GUI. Der Markt veroeffentlicht zu jedem Tick eine neue Version ueber
+ * Market.getSnapshot, alle Werte einer Version passen zueinander.
+ */
+public final class MarketSnapshot {
+
+	public static final MarketSnapshot EMPTY = new MarketSnapshot(0, MarketMsg.NO_TICK, null, Collections.<String, ResourceMsg> emptyMap(), Collections
+			.<String, MarketResponseMsg> emptyMap(), null, StaticVariables.MARKET_VOLUME);
+
+	private final long version;
+	private final int tick;
+	private final LocalDate date;
+	private final Map<String, ResourceMsg> resourceResponses;
+	private final Map<String, MarketResponseMsg> mobileResponses;
+	private final MarketShareMsg shares;
+	private final BigDecimal marketVolume;
+
+	private MarketSnapshot(long version, int tick, LocalDate date, Map<String, ResourceMsg> resourceResponses,
+			Map<String, MarketResponseMsg> mobileResponses, MarketShareMsg shares, BigDecimal marketVolume) {
+		this.version = version;
+		this.tick = tick;
+		this.date = date;
+		this.resourceResponses = resourceResponses;
+		this.mobileResponses = mobileResponses;
+		this.shares = shares;
+		this.marketVolume = marketVolume;
+	}
+
+	/**
+	 * Naechste Version. Unveraenderte Maps werden aus dieser Version
+	 * uebernommen statt kopiert.
+	 *
+	 * @param tick
+	 * @param date
+	 * @param resourceResponses
+	 *            neue Rohstoffpreise oder null, wenn unveraendert
+	 * @param mobileResponses
+	 *            neue Ergebnisse der Handyhersteller oder null, wenn
+	 *            unveraendert
+	 * @param shares
+	 * @param marketVolume
+	 * @return
+	 */
+	public MarketSnapshot next(int tick, LocalDate date, Map<String, ResourceMsg> resourceResponses, Map<String, MarketResponseMsg> mobileResponses,
+			MarketShareMsg shares, BigDecimal marketVolume) {
+		return new MarketSnapshot(version + 1, tick, date, resourceResponses == null ? this.resourceResponses : Collections
+				.unmodifiableMap(new HashMap<>(resourceResponses)), mobileResponses == null ? this.mobileResponses : Collections
+				.unmodifiableMap(new HashMap<>(mobileResponses)), shares, marketVolume);
+	}
+
+	/**
+	 * @return 0 vor dem ersten Stand, danach aufsteigend
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return zuletzt gestarteter Tick
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public Map<String, ResourceMsg> getResourceResponses() {
+		return resourceResponses;
+	}
+
+	public Map<String, MarketResponseMsg> getMobileResponses() {
+		return mobileResponses;
+	}
+
+	/**
+	 * @return zuletzt berechnete Marktanteile oder null
+	 */
+	public MarketShareMsg getShares() {
+		return shares;
+	}
+
+	public BigDecimal getMarketVolume() {
+		return marketVolume;
+	}
+
+	@Override
+	public String toString() {
+		return "MarketSnapshot[v" + version + ", #" + tick + ", " + date + ", " + resourceResponses.size() + " resources, " + mobileResponses.size()
+				+ " companies]";
+	}
+}
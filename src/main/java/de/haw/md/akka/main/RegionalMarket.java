@@ -0,0 +1,179 @@
+package de.haw.md.akka.main;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import akka.actor.ActorRef;
+import akka.actor.Terminated;
+
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.RegionReportMsg;
+import de.haw.md.akka.main.msg.TickAckMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.sups.MarketShareCalc;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.RegionPrices;
+
+/**
+ * Regionaler Teilmarkt als Kind des Marktes. Die Handyhersteller einer Region
+ * schicken ihre Rueckmeldungen zu jedem Tick an ihn statt an den Markt. Sobald
+ * sich alle gemeldet haben, schickt er dem Markt eine RegionReportMsg mit den
+ * Ergebnissen und den Preisen der Region. Der Markt wartet damit nur noch auf
+ * eine Meldung je Region.
+ */
+public class RegionalMarket extends MeteredActor {
+
+	private final String region;
+
+	/** Angemeldete Unternehmen der Region */
+	private Map<String, ActorRef> companies = new HashMap<>();
+
+	/** Letzter Verkaufspreis je Unternehmen in Cent */
+	private Map<String, Long> prices = new HashMap<>();
+
+	private TreeMap<Integer, RegionTick> ticksInFlight = new TreeMap<>();
+
+	/** Spaetere Meldungen zu diesem Tick kommen von ausserhalb eines Ticks */
+	private int lastCompletedTick;
+
+	public RegionalMarket(String region) {
+		this.region = region;
+	}
+
+	/**
+	 * Teilmarkt nach einem Checkpoint.
+	 * 
+	 * @param region
+	 * @param prices
+	 *            Verkaufspreise der Region in Cent
+	 * @param lastCompletedTick
+	 *            letzter Tick des Checkpoints
+	 */
+	public RegionalMarket(String region, Map<String, Long> prices, int lastCompletedTick) {
+		this.region = region;
+		this.prices = new HashMap<>(prices);
+		this.lastCompletedTick = lastCompletedTick;
+	}
+
+	@Override
+	public void onReceive(Object msg) throws Exception {
+		if (msg instanceof MarketResponseMsg) {
+			final MarketResponseMsg mrm = (MarketResponseMsg) msg;
+			if (mrm.getType() == ProductTypeEnum.MOBILE_PHONE && !reportTick(mrm.getCompany(), mrm.getTick(), mrm))
+				prices.put(mrm.getCompany(), MarketShareCalc.toCents(mrm.getRevenue()));
+		} else if (msg instanceof TickAckMsg) {
+			final TickAckMsg tam = (TickAckMsg) msg;
+			reportTick(tam.getCompany(), tam.getTick(), null);
+		} else if (msg instanceof CompanyRegisterMsg) {
+			handleCompanyRegister((CompanyRegisterMsg) msg);
+		} else if (msg instanceof MarketShareMsg) {
+			sendOwnShares((MarketShareMsg) msg);
+		} else if (msg instanceof Terminated) {
+			handleTerminated(((Terminated) msg).getActor());
+		} else {
+			unhandled(msg);
+		}
+	}
+
+	/**
+	 * Vom Markt weitergeleitete Anmeldung. Die Bestaetigung kommt von hier,
+	 * das Unternehmen schickt seine Rueckmeldungen danach an die Region.
+	 */
+	private void handleCompanyRegister(CompanyRegisterMsg crm) {
+		if (companies.put(crm.getCompany(), getSender()) == null)
+			for (RegionTick state : ticksInFlight.values())
+				if (state.reportedCompanies.contains(crm.getCompany()))
+					state.reportedRegistered++;
+		getContext().watch(getSender());
+		getSender().tell(crm, getSelf());
+	}
+
+	private void handleTerminated(ActorRef actor) {
+		final Iterator<Map.Entry<String, ActorRef>> entries = companies.entrySet().iterator();
+		while (entries.hasNext()) {
+			final Map.Entry<String, ActorRef> entry = entries.next();
+			if (!entry.getValue().equals(actor))
+				continue;
+			entries.remove();
+			for (RegionTick state : ticksInFlight.values())
+				if (state.reportedCompanies.contains(entry.getKey()))
+					state.reportedRegistered--;
+		}
+		checkTicksCompleted();
+	}
+
+	/**
+	 * @return false, wenn der Tick schon abgeschlossen ist oder das
+	 *         Unternehmen sich schon gemeldet hat
+	 */
+	private boolean reportTick(String company, int tick, MarketResponseMsg result) {
+		if (tick <= lastCompletedTick)
+			return false;
+		RegionTick state = ticksInFlight.get(tick);
+		if (state == null) {
+			state = new RegionTick();
+			ticksInFlight.put(tick, state);
+		}
+		if (!state.reportedCompanies.add(company))
+			return false;
+		if (companies.containsKey(company))
+			state.reportedRegistered++;
+		if (result != null)
+			state.results.add(result);
+		checkTicksCompleted();
+		return true;
+	}
+
+	/**
+	 * Meldet die aeltesten Ticks, zu denen sich alle Unternehmen der Region
+	 * gemeldet haben, der Reihe nach an den Markt.
+	 */
+	private void checkTicksCompleted() {
+		while (!ticksInFlight.isEmpty() && ticksInFlight.firstEntry().getValue().reportedRegistered >= companies.size()) {
+			lastCompletedTick = ticksInFlight.firstKey();
+			final RegionTick state = ticksInFlight.pollFirstEntry().getValue();
+			state.results.sort(Comparator.comparing(MarketResponseMsg::getCompany));
+			for (MarketResponseMsg mrm : state.results)
+				prices.put(mrm.getCompany(), MarketShareCalc.toCents(mrm.getRevenue()));
+			getContext().parent().tell(new RegionReportMsg(region, lastCompletedTick, state.results, RegionPrices.of(prices)), getSelf());
+		}
+	}
+
+	/**
+	 * Schickt jedem Unternehmen der Region den eigenen Anteil aus den Anteilen
+	 * des Marktes, wie Market bei ShareModeEnum.DIRECT.
+	 */
+	private void sendOwnShares(MarketShareMsg msm) {
+		final boolean hasShares = !msm.getCompanyShares().isEmpty();
+		for (Map.Entry<String, ActorRef> entry : companies.entrySet()) {
+			final List<CompanyShareMsg> own = new ArrayList<>(1);
+			if (hasShares) {
+				final CompanyShareMsg csm = msm.findShareByCompanyName(entry.getKey());
+				own.add(csm != null ? csm : new CompanyShareMsg(entry.getKey(), BigDecimal.ZERO, BigDecimal.ZERO));
+			}
+			entry.getValue().tell(new MarketShareMsg(own, msm.getTick(), msm.getDate()), getSelf());
+		}
+	}
+
+	/**
+	 * Rueckmeldungen der Region zu einem Tick.
+	 */
+	private static class RegionTick {
+
+		private final Set<String> reportedCompanies = new HashSet<>();
+		/** Davon die aktuell angemeldeten Unternehmen */
+		private int reportedRegistered;
+		private final List<MarketResponseMsg> results = new ArrayList<>();
+	}
+}
@@ -0,0 +1,196 @@
+package de.haw.md.akka.main;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import scala.concurrent.Await;
+import scala.concurrent.Future;
+import scala.concurrent.duration.FiniteDuration;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.PoisonPill;
+import akka.actor.Props;
+import akka.cluster.sharding.ClusterSharding;
+import akka.cluster.sharding.ClusterShardingSettings;
+import akka.cluster.sharding.ShardRegion;
+import akka.cluster.singleton.ClusterSingletonManager;
+import akka.cluster.singleton.ClusterSingletonManagerSettings;
+import akka.cluster.singleton.ClusterSingletonProxy;
+import akka.cluster.singleton.ClusterSingletonProxySettings;
+import akka.dispatch.Futures;
+import akka.pattern.Patterns;
+import akka.util.Timeout;
+
+import de.haw.md.akka.main.msg.EntityStartMsg;
+import de.haw.md.akka.main.msg.ShardEnvelope;
+import de.haw.md.sups.SimulationRandom;
+
+/**
+ * Verteilt die Unternehmen per Cluster Sharding auf mehrere Knoten. Der Markt
+ * laeuft als Cluster-Singleton, jeder Knoten erreicht ihn ueber einen Proxy
+ * unter /user/channel, also unter demselben Pfad wie den lokalen Markt.
+ *
+ * Alle Unternehmen sind Entities eines Typs, die Entity-ID ist der Name des
+ * Unternehmens. Der Shard eines Handyherstellers ist der seines Zulieferers,
+ * ein Zulieferer und seine Kunden laufen daher auf demselben Knoten und die
+ * Angebote verlassen den Knoten nicht. Die Anzahl der Shards ist damit die
+ * Anzahl der Zulieferer.
+ *
+ * Die Kennzahlen eines Unternehmens kommen wie in AgentTopology aus seinem
+ * Strom in SimulationRandom. Alle Knoten muessen daher mit demselben -Dseed
+ * laufen. Die Simulation haelt ihren Zustand nur im Speicher, ein Umzug von
+ * Shards waehrend eines Laufs ist in der application.conf abgeschaltet.
+ */
+public class ShardedTopology {
+
+	public static final String TYPE_NAME = "Company";
+
+	private static final String SINGLETON_SUFFIX = "Singleton";
+
+	private static final FiniteDuration START_TIMEOUT = new FiniteDuration(60, TimeUnit.SECONDS);
+
+	private ShardedTopology() {
+	}
+
+	/**
+	 * Startet auf diesem Knoten den Singleton-Manager und den Proxy des
+	 * Marktes, die TopicProbe und die Sharding-Region der Unternehmen. Muss auf jedem Knoten
+	 * mit denselben Werten aufgerufen werden.
+	 *
+	 * @param system
+	 * @param channel
+	 * @param electroPartFactories
+	 * @return die Sharding-Region
+	 */
+	public static ActorRef start(ActorSystem system, String channel, int electroPartFactories) {
+		if (electroPartFactories < 1)
+			throw new IllegalArgumentException("Suppliers must be positive");
+		system.actorOf(ClusterSingletonManager.props(Props.create(Market.class, channel), PoisonPill.getInstance(), ClusterSingletonManagerSettings
+				.create(system)), channel + SINGLETON_SUFFIX);
+		final ActorRef proxy = system.actorOf(ClusterSingletonProxy.props("/user/" + channel + SINGLETON_SUFFIX, ClusterSingletonProxySettings
+				.create(system)), channel);
+		MarketContainer.getInstance().setPublisher(channel, proxy);
+		system.actorOf(Props.create(TopicProbe.class, channel), TopicProbe.NAME);
+		return ClusterSharding.get(system).start(TYPE_NAME, Props.create(CompanyEntity.class, channel, electroPartFactories),
+				ClusterShardingSettings.create(system), new CompanyMessageExtractor(electroPartFactories));
+	}
+
+	/**
+	 * Wartet, bis die Themen des Kanals alle Knoten erreichen (TopicProbe),
+	 * startet alle Unternehmen in der Region und wartet, bis jedes beim Markt
+	 * angemeldet ist. Danach wartet der Markt vom ersten Tick an auf alle.
+	 *
+	 * @param channel
+	 * @param electroPartFactories
+	 * @param mobileFactories
+	 * @return der Markt
+	 * @throws Exception
+	 *             wenn nicht alle Unternehmen rechtzeitig gestartet sind
+	 */
+	public static ActorRef create(String channel, int electroPartFactories, int mobileFactories) throws Exception {
+		final ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+		final ActorRef region = ClusterSharding.get(system).shardRegion(TYPE_NAME);
+		// Erst wenn die Themen alle Knoten erreichen, sonst gehen die ersten
+		// Ticks verloren
+		TopicProbe.await(system, channel, START_TIMEOUT);
+		final Timeout timeout = new Timeout(START_TIMEOUT);
+		final List<Future<Object>> started = new ArrayList<>();
+		started.add(Patterns.ask(region, new EntityStartMsg(AgentTopology.OIL_COMPANY), timeout));
+		for (int i = 0; i < electroPartFactories; i++)
+			started.add(Patterns.ask(region, new EntityStartMsg(AgentTopology.ELECTRO_PART_PREFIX + i), timeout));
+		for (int i = 0; i < mobileFactories; i++)
+			started.add(Patterns.ask(region, new EntityStartMsg(AgentTopology.MOBILE_PREFIX + i), timeout));
+		Await.result(Futures.sequence(started, system.dispatcher()), START_TIMEOUT);
+		return MarketContainer.getInstance().getPublisher(channel);
+	}
+
+	/**
+	 * Baut das Unternehmen zu einem Namen wie AgentTopology.create.
+	 *
+	 * @param channel
+	 * @param company
+	 * @param electroPartFactories
+	 * @param region
+	 *            ueber sie meldet sich ein Handyhersteller bei seinem
+	 *            Zulieferer an
+	 * @return
+	 */
+	static Props companyProps(String channel, String company, int electroPartFactories, ActorRef region) {
+		final SimulationRandom random = SimulationRandom.getInstance();
+		final int mobile = AgentTopology.getIndex(company, AgentTopology.MOBILE_PREFIX);
+		if (mobile >= 0) {
+			final BigDecimal[] values = AgentTopology.mobileValues(random.forAgent(company));
+			return Props.create(CompanyMobile.class, channel, company, values[0], values[1], values[2], AgentTopology.getSupplier(mobile,
+					electroPartFactories), values[3], values[4], values[5], values[6], values[7], region);
+		}
+		if (AgentTopology.getIndex(company, AgentTopology.ELECTRO_PART_PREFIX) >= 0) {
+			final BigDecimal[] values = AgentTopology.electroPartValues(random.forAgent(company));
+			return Props.create(CompanyElectrPartProd.class, channel, company, values[0], values[1], values[2], values[3]);
+		}
+		if (company.equals(AgentTopology.OIL_COMPANY))
+			return Props.create(CompanyOil.class, channel, company);
+		throw new IllegalArgumentException("Unknown company: " + company);
+	}
+
+	/**
+	 * @return true fuer die Handyhersteller, die sich zu jedem Tick
+	 *         zurueckmelden
+	 */
+	static boolean isReporting(String company) {
+		return AgentTopology.getIndex(company, AgentTopology.MOBILE_PREFIX) >= 0;
+	}
+
+	/**
+	 * Shard eines Unternehmens: die Nummer des Zulieferers, fuer den
+	 * Kunststoffhersteller aus dem Namen gestreut.
+	 *
+	 * @param company
+	 * @param electroPartFactories
+	 * @return
+	 */
+	public static String getShardId(String company, int electroPartFactories) {
+		final int mobile = AgentTopology.getIndex(company, AgentTopology.MOBILE_PREFIX);
+		if (mobile >= 0)
+			return String.valueOf(mobile % electroPartFactories);
+		final int electroPart = AgentTopology.getIndex(company, AgentTopology.ELECTRO_PART_PREFIX);
+		if (electroPart >= 0)
+			return String.valueOf(electroPart % electroPartFactories);
+		return String.valueOf(Math.abs(company.hashCode() % electroPartFactories));
+	}
+
+	/**
+	 * Entity-ID und Shard aus EntityStartMsg und ShardEnvelope.
+	 */
+	public static class CompanyMessageExtractor implements ShardRegion.MessageExtractor {
+
+		private final int electroPartFactories;
+
+		public CompanyMessageExtractor(int electroPartFactories) {
+			this.electroPartFactories = electroPartFactories;
+		}
+
+		@Override
+		public String entityId(Object msg) {
+			if (msg instanceof ShardEnvelope)
+				return ((ShardEnvelope) msg).getCompany();
+			if (msg instanceof EntityStartMsg)
+				return ((EntityStartMsg) msg).getCompany();
+			return null;
+		}
+
+		@Override
+		public Object entityMessage(Object msg) {
+			if (msg instanceof ShardEnvelope)
+				return ((ShardEnvelope) msg).getMsg();
+			return msg;
+		}
+
+		@Override
+		public String shardId(Object msg) {
+			final String company = entityId(msg);
+			return company == null ? null : getShardId(company, electroPartFactories);
+		}
+	}
+}
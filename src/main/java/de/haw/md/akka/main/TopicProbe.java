@@ -0,0 +1,116 @@
+package de.haw.md.akka.main;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import scala.concurrent.duration.FiniteDuration;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Address;
+import akka.actor.Inbox;
+import akka.actor.UntypedActor;
+import akka.cluster.Cluster;
+import akka.cluster.Member;
+import akka.cluster.MemberStatus;
+import akka.cluster.pubsub.DistributedPubSub;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+
+import de.haw.md.akka.main.msg.TopicProbeMsg;
+import de.haw.md.sups.TopicEnum;
+
+/**
+ * Abonnent aller Themen eines Kanals auf jedem Knoten des Clusters.
+ *
+ * Der Mediator eines Knotens erfaehrt von den Abonnenten anderer Knoten erst
+ * per Gossip. Bis dahin gehen Nachrichten auf einem Thema an diesen Knoten
+ * verloren, und die Unternehmen warten dann ewig auf ihren ersten Tick. Ein
+ * Knoten meldet sich beim Mediator der anderen aber nur mit dem ersten
+ * Abonnenten eines Themas an. Abonniert TopicProbe alle Themen, bevor die
+ * Unternehmen starten, und hat jeder Knoten auf jedem Thema jeden anderen
+ * erreicht (await), kommen auch die Nachrichten an die Unternehmen an.
+ */
+public class TopicProbe extends UntypedActor {
+
+	public static final String NAME = "TopicProbe";
+
+	/** Abstand, in dem unbeantwortete Proben wiederholt werden */
+	private static final FiniteDuration RETRY = new FiniteDuration(1, TimeUnit.SECONDS);
+
+	private final String channel;
+
+	private final String address;
+
+	private final ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
+
+	public TopicProbe(String channel) {
+		this.channel = channel;
+		this.address = Cluster.get(getContext().system()).selfAddress().toString();
+	}
+
+	@Override
+	public void preStart() {
+		for (TopicEnum topic : TopicEnum.values())
+			mediator.tell(new DistributedPubSubMediator.Subscribe(topic.getTopic(channel), getSelf()), getSelf());
+	}
+
+	@Override
+	public void onReceive(Object msg) throws Exception {
+		if (msg instanceof TopicProbeMsg) {
+			final TopicProbeMsg tpm = (TopicProbeMsg) msg;
+			if (tpm.getPublisher().isEmpty())
+				// Aufforderung: Probe auf dem Thema, Antworten an den Absender
+				mediator.tell(new DistributedPubSubMediator.Publish(tpm.getTopic(), new TopicProbeMsg(tpm.getTopic(), address, "")), getSender());
+			else if (tpm.getSubscriber().isEmpty())
+				getSender().tell(new TopicProbeMsg(tpm.getTopic(), tpm.getPublisher(), address), getSelf());
+		} else if (!(msg instanceof DistributedPubSubMediator.SubscribeAck)) {
+			unhandled(msg);
+		}
+	}
+
+	/**
+	 * Wartet, bis jedes Thema des Kanals von jedem Knoten mit Status Up aus
+	 * die TopicProbe jedes dieser Knoten erreicht.
+	 *
+	 * @param system
+	 * @param channel
+	 * @param timeout
+	 * @throws TimeoutException
+	 *             wenn nicht alle Proben rechtzeitig ankommen
+	 */
+	public static void await(ActorSystem system, String channel, FiniteDuration timeout) throws TimeoutException {
+		final List<Address> nodes = new ArrayList<>();
+		for (Member member : Cluster.get(system).state().getMembers())
+			if (member.status() == MemberStatus.up())
+				nodes.add(member.address());
+		final Set<String> missing = new HashSet<>();
+		for (Address publisher : nodes)
+			for (Address subscriber : nodes)
+				for (TopicEnum topic : TopicEnum.values())
+					missing.add(key(topic.getTopic(channel), publisher.toString(), subscriber.toString()));
+		final Inbox inbox = Inbox.create(system);
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		while (!missing.isEmpty()) {
+			if (System.nanoTime() > deadline)
+				throw new TimeoutException("Topics not reachable: " + missing);
+			for (Address node : nodes)
+				for (TopicEnum topic : TopicEnum.values())
+					system.actorSelection(node + "/user/" + NAME).tell(new TopicProbeMsg(topic.getTopic(channel)), inbox.getRef());
+			try {
+				while (!missing.isEmpty()) {
+					final TopicProbeMsg answer = (TopicProbeMsg) inbox.receive(RETRY);
+					missing.remove(key(answer.getTopic(), answer.getPublisher(), answer.getSubscriber()));
+				}
+			} catch (TimeoutException e) {
+				// Noch nicht alle Mediatoren kennen alle Knoten, neue Runde
+			}
+		}
+	}
+
+	private static String key(String topic, String publisher, String subscriber) {
+		return topic + " " + publisher + " -> " + subscriber;
+	}
+}
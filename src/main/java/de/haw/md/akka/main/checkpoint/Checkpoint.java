@@ -0,0 +1,327 @@
+package de.haw.md.akka.main.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.serialization.BinaryReader;
+import de.haw.md.akka.main.serialization.BinaryWriter;
+import de.haw.md.akka.main.serialization.MsgCodec;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Stand der Simulation zwischen zwei Ticks, aus dem ein Lauf spaeter
+ * fortgesetzt werden kann: Seed, Zaehler des Marktes, die Preisreihen samt
+ * erzeugter Preise und Position in den Zufallsstroemen, die Preistabelle der
+ * Marktanteile, die noch nicht uebernommenen Ergebnisse und der Zustand jedes
+ * Handyherstellers. Mit dem Starttag der erzeugten Preise beginnt der
+ * fortgesetzte Lauf im selben Kalender. Der Rest der Simulation haengt nur vom Seed ab oder wird
+ * in jedem Tick neu berechnet.
+ *
+ * Aufbau im Format von BinaryWriter:
+ *
+ * <pre>
+ * int MAGIC, int VERSION (big endian)
+ * Seed, Tick, Zaehler, Marktvolumen, Starttag
+ * je ResourceEnum nach Kennung (getCode): Anzahl gezogener Zufallszahlen
+ * je Preisreihe: Name, Anzahl Preise, je Preis Tag (Abstand zum vorigen) und Wert
+ * je Unternehmen der Tabelle: Name, Preis in Cent
+ * je Tick mit offenen Ergebnissen: Tick, Ergebnisse (MsgCodec)
+ * je Handyhersteller: CompanyStateMsg (MsgCodec)
+ * </pre>
+ *
+ * Geschrieben wird in eine temporaere Datei, die danach umbenannt wird. Ein
+ * abgebrochener Lauf hinterlaesst also keinen halben Checkpoint.
+ */
+public final class Checkpoint {
+
+	public static final int MAGIC = 0x4D44434B;
+	public static final int VERSION = 1;
+
+	/** Systemeigenschaft mit dem Verzeichnis, ohne sie werden keine Checkpoints geschrieben */
+	public static final String PROPERTY = "checkpoint";
+	/** Systemeigenschaft mit dem Abstand der Checkpoints in Ticks */
+	public static final String INTERVAL_PROPERTY = "checkpointInterval";
+	/** Systemeigenschaft mit der Datei, aus der der Lauf fortgesetzt wird */
+	public static final String RESUME_PROPERTY = "resume";
+
+	public static final int DEFAULT_INTERVAL = 1000;
+
+	private static final String PREFIX = "checkpoint-";
+	private static final String SUFFIX = ".bin";
+
+	private static Checkpoint resume = null;
+	private static boolean resumeRead = false;
+
+	private final long seed;
+	private final int tick;
+	private final BigDecimal counter;
+	private final BigDecimal marketVolume;
+	private final LocalDate startDate;
+	private final Map<String, PriceSeries> series;
+	private final long[] draws;
+	private final Map<String, Long> prices;
+	private final TreeMap<Integer, List<MarketResponseMsg>> completedResults;
+	private final Map<String, CompanyStateMsg> companies;
+
+	/**
+	 * @param seed
+	 * @param tick
+	 *            letzter abgeschlossener Tick
+	 * @param counter
+	 *            Zaehler des Marktvolumens
+	 * @param marketVolume
+	 * @param startDate
+	 *            Tag des ersten erzeugten Preises
+	 * @param series
+	 *            Preisreihe je Rohstoffname
+	 * @param draws
+	 *            Anzahl der gezogenen Zufallszahlen je Rohstoff (ordinal)
+	 * @param prices
+	 *            Preise der Tabelle in Cent, in der Reihenfolge der Indizes
+	 * @param completedResults
+	 *            Ergebnisse je Tick, die noch nicht in die Marktanteile
+	 *            eingeflossen sind
+	 * @param companies
+	 *            Zustand je Handyhersteller
+	 */
+	public Checkpoint(long seed, int tick, BigDecimal counter, BigDecimal marketVolume, LocalDate startDate, Map<String, PriceSeries> series,
+			long[] draws, Map<String, Long> prices, TreeMap<Integer, List<MarketResponseMsg>> completedResults, Map<String, CompanyStateMsg> companies) {
+		if (draws.length != ResourceEnum.values().length)
+			throw new IllegalArgumentException("Expected " + ResourceEnum.values().length + " draw counts, got " + draws.length);
+		this.seed = seed;
+		this.tick = tick;
+		this.counter = counter;
+		this.marketVolume = marketVolume;
+		this.startDate = startDate;
+		this.series = series;
+		this.draws = draws;
+		this.prices = prices;
+		this.completedResults = completedResults;
+		this.companies = companies;
+	}
+
+	/**
+	 * @param directory
+	 * @param tick
+	 * @return Datei des Checkpoints nach dem Tick, z.B. checkpoint-500.bin
+	 */
+	public static File getFile(File directory, int tick) {
+		return new File(directory, PREFIX + tick + SUFFIX);
+	}
+
+	/**
+	 * @return Verzeichnis aus -Dcheckpoint oder null
+	 */
+	public static File getDirectory() {
+		final String path = System.getProperty(PROPERTY);
+		return path != null ? new File(path) : null;
+	}
+
+	/**
+	 * @return Abstand der Checkpoints aus -DcheckpointInterval
+	 */
+	public static int getInterval() {
+		final int interval = Integer.getInteger(INTERVAL_PROPERTY, DEFAULT_INTERVAL);
+		if (interval <= 0)
+			throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+		return interval;
+	}
+
+	/**
+	 * Der Checkpoint aus -Dresume, beim ersten Aufruf gelesen.
+	 *
+	 * @return null, wenn nicht fortgesetzt wird
+	 */
+	public static synchronized Checkpoint getResume() {
+		if (!resumeRead) {
+			resumeRead = true;
+			final String path = System.getProperty(RESUME_PROPERTY);
+			if (path != null) {
+				try {
+					resume = read(new File(path));
+				} catch (IOException e) {
+					throw new IllegalStateException("Cannot read checkpoint " + path, e);
+				}
+			}
+		}
+		return resume;
+	}
+
+	/**
+	 * Schreibt den Checkpoint, eine vorhandene Datei wird ersetzt.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		final BinaryWriter out = new BinaryWriter(1 << 16);
+		out.writeBytes(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).array());
+		out.writeZigZag(seed);
+		out.writeVarLong(tick);
+		out.writeDecimal(counter);
+		out.writeDecimal(marketVolume);
+		out.writeDate(startDate);
+		out.writeVarLong(draws.length);
+		for (int code = 0; code < draws.length; code++)
+			out.writeVarLong(draws[ResourceEnum.getByCode(code).ordinal()]);
+		out.writeVarLong(series.size());
+		for (Map.Entry<String, PriceSeries> entry : series.entrySet()) {
+			out.writeString(entry.getKey());
+			final PriceSeries prices = entry.getValue();
+			out.writeVarLong(prices.size());
+			int day = 0;
+			for (int i = 0; i < prices.size(); i++) {
+				out.writeZigZag(prices.getEpochDay(i) - day);
+				day = prices.getEpochDay(i);
+				out.writeDecimal(prices.getValue(i));
+			}
+		}
+		out.writeVarLong(prices.size());
+		for (Map.Entry<String, Long> entry : prices.entrySet()) {
+			out.writeString(entry.getKey());
+			out.writeZigZag(entry.getValue());
+		}
+		out.writeVarLong(completedResults.size());
+		for (Map.Entry<Integer, List<MarketResponseMsg>> entry : completedResults.entrySet()) {
+			out.writeVarLong(entry.getKey());
+			out.writeVarLong(entry.getValue().size());
+			for (MarketResponseMsg mrm : entry.getValue())
+				MsgCodec.encode(mrm, out);
+		}
+		out.writeVarLong(companies.size());
+		for (CompanyStateMsg state : companies.values())
+			MsgCodec.encode(state, out);
+		final File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create " + directory);
+		final File temp = new File(directory, file.getName() + ".tmp");
+		Files.write(temp.toPath(), out.toByteArray());
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * @param file
+	 * @return der gelesene Checkpoint
+	 * @throws IOException
+	 */
+	public static Checkpoint read(File file) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+			throw new IOException(file + " is no checkpoint");
+		final int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException(file + " has unsupported version " + version);
+		final BinaryReader in = new BinaryReader(buffer);
+		final long seed = in.readZigZag();
+		final int tick = (int) in.readVarLong();
+		final BigDecimal counter = in.readDecimal();
+		final BigDecimal marketVolume = in.readDecimal();
+		final LocalDate startDate = in.readDate();
+		final long drawCount = in.readVarLong();
+		if (drawCount != ResourceEnum.values().length)
+			throw new IOException(file + " has " + drawCount + " draw counts, expected " + ResourceEnum.values().length);
+		final long[] draws = new long[ResourceEnum.values().length];
+		for (int code = 0; code < draws.length; code++)
+			draws[ResourceEnum.getByCode(code).ordinal()] = in.readVarLong();
+		final Map<String, PriceSeries> series = new LinkedHashMap<>();
+		for (int n = (int) in.readVarLong(); n > 0; n--) {
+			final String name = in.readString();
+			final PriceSeries prices = new PriceSeries();
+			int day = 0;
+			for (int i = (int) in.readVarLong(); i > 0; i--) {
+				day += (int) in.readZigZag();
+				prices.append(day, in.readDecimal());
+			}
+			series.put(name, prices);
+		}
+		final Map<String, Long> prices = new LinkedHashMap<>();
+		for (int n = (int) in.readVarLong(); n > 0; n--)
+			prices.put(in.readString(), in.readZigZag());
+		final TreeMap<Integer, List<MarketResponseMsg>> completedResults = new TreeMap<>();
+		for (int n = (int) in.readVarLong(); n > 0; n--) {
+			final int resultTick = (int) in.readVarLong();
+			final int size = (int) in.readVarLong();
+			final List<MarketResponseMsg> results = new ArrayList<>(size);
+			for (int i = 0; i < size; i++)
+				results.add((MarketResponseMsg) MsgCodec.decode(in));
+			completedResults.put(resultTick, results);
+		}
+		final Map<String, CompanyStateMsg> companies = new LinkedHashMap<>();
+		for (int n = (int) in.readVarLong(); n > 0; n--) {
+			final CompanyStateMsg state = (CompanyStateMsg) MsgCodec.decode(in);
+			companies.put(state.getCompany(), state);
+		}
+		return new Checkpoint(seed, tick, counter, marketVolume, startDate, series, draws, prices, completedResults, companies);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return letzter abgeschlossener Tick, der naechste Lauf beginnt mit
+	 *         tick + 1
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	public BigDecimal getCounter() {
+		return counter;
+	}
+
+	public BigDecimal getMarketVolume() {
+		return marketVolume;
+	}
+
+	/**
+	 * @return Tag des ersten erzeugten Preises
+	 */
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public Map<String, PriceSeries> getSeries() {
+		return Collections.unmodifiableMap(series);
+	}
+
+	public long[] getDraws() {
+		return draws.clone();
+	}
+
+	public Map<String, Long> getPrices() {
+		return Collections.unmodifiableMap(prices);
+	}
+
+	public TreeMap<Integer, List<MarketResponseMsg>> getCompletedResults() {
+		return new TreeMap<>(completedResults);
+	}
+
+	/**
+	 * @param company
+	 * @return Zustand des Handyherstellers oder null, wenn er nicht im
+	 *         Checkpoint ist
+	 */
+	public CompanyStateMsg getCompany(String company) {
+		return companies.get(company);
+	}
+
+	public Map<String, CompanyStateMsg> getCompanies() {
+		return Collections.unmodifiableMap(companies);
+	}
+}
@@ -0,0 +1,264 @@
+package de.haw.md.akka.main.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.haw.md.akka.main.serialization.BinaryWriter;
+import de.haw.md.akka.main.serialization.MsgCodec;
+
+/**
+ * Fortlaufendes Protokoll der Marktnachrichten einer JVM: Rohstoffpreise,
+ * Angebote der Zulieferer, Ergebnisse der Unternehmen und Marktanteile. Die
+ * Nachrichten werden im Format von MsgCodec in eingeblendete Segmentdateien
+ * fester Groesse geschrieben, ist ein Segment voll, beginnt das naechste. Ein
+ * Thread schreibt die Segmente im Abstand syncMillis auf die Platte, append
+ * wartet also nie auf die Platte.
+ *
+ * Aufbau (big endian):
+ *
+ * <pre>
+ * Segment   int MAGIC, int VERSION, Eintraege bis zur Laenge 0
+ * Eintrag   int Laenge der Nachricht, int Tick, Nachricht (MsgCodec)
+ * index.dat je Oeffnen: int RUN, int erstes Segment, int Position, int 0
+ *           je Tick, der im Lauf zum ersten Mal vorkommt: int Tick, int Segment,
+ *           int Position, int kleinster Tick seit dem vorigen Eintrag
+ * </pre>
+ *
+ * Die Segmente heissen nach ihrer Nummer, z.B. 00000001.seg. Jedes Oeffnen
+ * beginnt einen neuen Lauf in einem neuen Segment mit eigenem Index, ein
+ * fortgesetzter oder neuer Lauf im selben Verzeichnis vermischt sich also
+ * nicht mit dem vorigen. Mit dem kleinsten Tick je Abschnitt weiss der Leser,
+ * ab wo keine Eintraege eines Ticks mehr folgen. Lesen mit JournalReader.
+ */
+public final class Journal implements Closeable {
+
+	public static final int MAGIC = 0x4D444A4C;
+	public static final int VERSION = 1;
+
+	/** Systemeigenschaft mit dem Verzeichnis, ohne sie wird nichts protokolliert */
+	public static final String PROPERTY = "journal";
+	/** Systemeigenschaft mit der Groesse der Segmente in Bytes */
+	public static final String SEGMENT_SIZE_PROPERTY = "journalSegmentSize";
+	/** Systemeigenschaft mit dem Abstand der Schreibvorgaenge auf die Platte */
+	public static final String SYNC_MILLIS_PROPERTY = "journalSyncMillis";
+
+	public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+	public static final long DEFAULT_SYNC_MILLIS = 1000;
+
+	static final String SEGMENT_SUFFIX = ".seg";
+	static final String INDEX_FILE = "index.dat";
+	static final int HEADER_SIZE = 8;
+	static final int RECORD_HEADER_SIZE = 8;
+	static final int INDEX_ENTRY_SIZE = 16;
+	/** Tick des Indexeintrags, mit dem ein Lauf beginnt */
+	static final int RUN = Integer.MIN_VALUE;
+
+	private static final ThreadLocal<BinaryWriter> WRITERS = ThreadLocal.withInitial(() -> new BinaryWriter(256));
+
+	private static Journal active = null;
+	private static boolean activeOpened = false;
+
+	private final File directory;
+	private final long segmentSize;
+
+	private final FileChannel indexChannel;
+	private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+
+	/** Vom Sync-Thread gelesen */
+	private volatile MappedByteBuffer segment;
+	private int segmentNumber;
+
+	/** Groesster Tick im Index dieses Laufs */
+	private int maxTick = Integer.MIN_VALUE;
+
+	/** Kleinster Tick seit dem letzten Indexeintrag */
+	private int lowTick = Integer.MAX_VALUE;
+
+	private final ScheduledExecutorService sync;
+
+	private boolean closed = false;
+
+	private Journal(File directory, long segmentSize, long syncMillis) throws IOException {
+		if (segmentSize <= HEADER_SIZE + RECORD_HEADER_SIZE || segmentSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create " + directory);
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		final int[] segments = JournalReader.listSegments(directory);
+		segmentNumber = segments.length == 0 ? 0 : segments[segments.length - 1];
+		indexChannel = FileChannel.open(new File(directory, INDEX_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		// Ein abgeschnittener letzter Eintrag wird ueberschrieben
+		final long entries = indexChannel.size() / INDEX_ENTRY_SIZE;
+		indexChannel.truncate(entries * INDEX_ENTRY_SIZE);
+		indexChannel.position(entries * INDEX_ENTRY_SIZE);
+		nextSegment();
+		writeIndex(RUN, HEADER_SIZE, 0);
+		sync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "journal-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sync.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param directory
+	 * @param segmentSize
+	 *            Groesse der Segmente in Bytes
+	 * @param syncMillis
+	 *            Abstand der Schreibvorgaenge auf die Platte
+	 * @return ein Protokoll, das nach dem letzten vorhandenen Segment einen
+	 *         neuen Lauf beginnt
+	 * @throws IOException
+	 */
+	public static Journal open(File directory, long segmentSize, long syncMillis) throws IOException {
+		return new Journal(directory, segmentSize, syncMillis);
+	}
+
+	/**
+	 * Das Protokoll aus -Djournal, beim ersten Aufruf geoeffnet und beim Ende
+	 * der JVM geschlossen.
+	 *
+	 * @return null, wenn nicht protokolliert wird
+	 */
+	public static synchronized Journal getActive() {
+		if (!activeOpened) {
+			activeOpened = true;
+			final String path = System.getProperty(PROPERTY);
+			if (path != null) {
+				try {
+					active = open(new File(path), Long.getLong(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE),
+							Long.getLong(SYNC_MILLIS_PROPERTY, DEFAULT_SYNC_MILLIS));
+				} catch (IOException e) {
+					throw new IllegalStateException("Cannot open journal " + path, e);
+				}
+				Runtime.getRuntime().addShutdownHook(new Thread(active::close, "journal-close"));
+			}
+		}
+		return active;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Haengt eine Nachricht an. Die Nachricht wird vor der Sperre kodiert,
+	 * unter der Sperre nur noch in das Segment kopiert. Nach close wird nichts
+	 * mehr angehaengt.
+	 *
+	 * @param tick
+	 *            Tick der Nachricht, bestimmt den Index
+	 * @param msg
+	 *            eine Nachricht, die MsgCodec kodieren kann
+	 */
+	public void append(int tick, Object msg) {
+		final BinaryWriter out = WRITERS.get();
+		out.reset();
+		MsgCodec.encode(msg, out);
+		final int length = out.size();
+		if (RECORD_HEADER_SIZE + length > segmentSize - HEADER_SIZE)
+			throw new IllegalArgumentException("Message of " + length + " bytes does not fit into a segment");
+		synchronized (this) {
+			if (closed)
+				return;
+			if (segment.remaining() < RECORD_HEADER_SIZE + length)
+				roll();
+			final MappedByteBuffer current = segment;
+			final int position = current.position();
+			if (tick > maxTick) {
+				writeIndex(tick, position, lowTick);
+				maxTick = tick;
+				lowTick = tick;
+			} else if (tick < lowTick) {
+				lowTick = tick;
+			}
+			current.position(position + 4);
+			current.putInt(tick);
+			out.writeTo(current);
+			// Laenge zuletzt, ein halb geschriebener Eintrag gilt als Ende
+			current.putInt(position, length);
+		}
+	}
+
+	/**
+	 * Schreibt Segment und Index sofort auf die Platte.
+	 *
+	 * @throws IOException
+	 */
+	public void sync() throws IOException {
+		segment.force();
+		indexChannel.force(false);
+	}
+
+	/**
+	 * Beendet den Sync-Thread und schreibt alles auf die Platte.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		sync.shutdown();
+		try {
+			sync.awaitTermination(10, TimeUnit.SECONDS);
+			sync();
+			indexChannel.close();
+		} catch (IOException e) {
+			System.err.println(directory + ": " + e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void syncQuietly() {
+		try {
+			sync();
+		} catch (IOException e) {
+			System.err.println(directory + ": " + e);
+		}
+	}
+
+	private void roll() {
+		segment.force();
+		try {
+			nextSegment();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void nextSegment() throws IOException {
+		segmentNumber++;
+		final File file = new File(directory, JournalReader.segmentName(segmentNumber));
+		final MappedByteBuffer next;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		next.putInt(MAGIC).putInt(VERSION);
+		segment = next;
+	}
+
+	private void writeIndex(int tick, int position, int low) {
+		indexEntry.clear();
+		indexEntry.putInt(tick).putInt(segmentNumber).putInt(position).putInt(low).flip();
+		try {
+			while (indexEntry.hasRemaining())
+				indexChannel.write(indexEntry);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package de.haw.md.akka.main.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import de.haw.md.akka.main.serialization.BinaryReader;
+import de.haw.md.akka.main.serialization.MsgCodec;
+
+/**
+ * Liest ein Verzeichnis des Journal, auch waehrend noch geschrieben wird.
+ * Die Segmente werden eingeblendet und ohne Kopie dekodiert.
+ *
+ * Der Index zeigt auf den ersten Eintrag eines Ticks. Da mehrere Ticks
+ * gleichzeitig laufen, koennen danach noch Eintraege frueherer Ticks folgen,
+ * die Eintraege sind also nur ungefaehr nach Tick sortiert. Wie weit, steht
+ * mit dem kleinsten Tick je Abschnitt ebenfalls im Index, read liest daher
+ * nur bis zum letzten Abschnitt mit Eintraegen der gesuchten Ticks und den
+ * noch offenen Rest nach dem letzten Indexeintrag.
+ *
+ * Gelesen wird immer ein Lauf, d.h. alles zwischen zwei Oeffnungen des
+ * Journal, ohne Angabe der letzte.
+ */
+public final class JournalReader {
+
+	private final File directory;
+
+	/** Nummern der Segmente des Laufs, aufsteigend */
+	private final int[] segments;
+
+	private final int runCount;
+
+	private final int[] ticks;
+	private final int[] tickSegments;
+	private final int[] tickPositions;
+
+	/** Kleinster Tick zwischen einem Indexeintrag und dem letzten */
+	private final int[] lowTicks;
+
+	/**
+	 * Liest den letzten Lauf.
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	public JournalReader(File directory) throws IOException {
+		this(directory, -1);
+	}
+
+	/**
+	 * @param directory
+	 * @param run
+	 *            Nummer des Laufs ab 0, negativ vom Ende gezaehlt, -1 ist der
+	 *            letzte
+	 * @throws IOException
+	 */
+	public JournalReader(File directory, int run) throws IOException {
+		this.directory = directory;
+		final File indexFile = new File(directory, Journal.INDEX_FILE);
+		final int entries = indexFile.isFile() ? (int) (indexFile.length() / Journal.INDEX_ENTRY_SIZE) : 0;
+		final ByteBuffer buffer = ByteBuffer.allocate(entries * Journal.INDEX_ENTRY_SIZE);
+		if (entries > 0) {
+			try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+					;
+			}
+		}
+		// Anfaenge der Laeufe im Index
+		final int[] runs = new int[entries];
+		int count = 0;
+		for (int i = 0; i < entries; i++)
+			if (buffer.getInt(i * Journal.INDEX_ENTRY_SIZE) == Journal.RUN)
+				runs[count++] = i;
+		runCount = count;
+		if (count == 0 && run == -1) {
+			segments = new int[0];
+			ticks = tickSegments = tickPositions = lowTicks = new int[0];
+			return;
+		}
+		final int selected = run < 0 ? count + run : run;
+		if (selected < 0 || selected >= count)
+			throw new IllegalArgumentException("No run " + run + " in " + directory + " with " + count + " runs");
+		final int first = runs[selected] + 1;
+		final int end = selected + 1 < count ? runs[selected + 1] : entries;
+		final int firstSegment = buffer.getInt(runs[selected] * Journal.INDEX_ENTRY_SIZE + 4);
+		final int endSegment = end < entries ? buffer.getInt(end * Journal.INDEX_ENTRY_SIZE + 4) : Integer.MAX_VALUE;
+		segments = Arrays.stream(listSegments(directory)).filter(number -> number >= firstSegment && number < endSegment).toArray();
+
+		ticks = new int[end - first];
+		tickSegments = new int[ticks.length];
+		tickPositions = new int[ticks.length];
+		lowTicks = new int[ticks.length];
+		buffer.position(first * Journal.INDEX_ENTRY_SIZE);
+		for (int i = 0; i < ticks.length; i++) {
+			ticks[i] = buffer.getInt();
+			tickSegments[i] = buffer.getInt();
+			tickPositions[i] = buffer.getInt();
+			// Der Eintrag nennt den kleinsten Tick des Abschnitts davor
+			if (i > 0)
+				lowTicks[i - 1] = buffer.getInt();
+			else
+				buffer.getInt();
+		}
+		// Kleinster Tick ab jedem Indexeintrag bis zum letzten
+		int low = Integer.MAX_VALUE;
+		for (int i = ticks.length - 1; i >= 0; i--) {
+			if (i < ticks.length - 1)
+				low = Math.min(low, lowTicks[i]);
+			lowTicks[i] = low;
+		}
+	}
+
+	/**
+	 * @return Anzahl der Laeufe im Verzeichnis
+	 */
+	public int getRunCount() {
+		return runCount;
+	}
+
+	/**
+	 * @return kleinster Tick im Index oder MarketMsg.NO_TICK, wenn er leer ist
+	 */
+	public int getFirstTick() {
+		return ticks.length == 0 ? 0 : ticks[0];
+	}
+
+	/**
+	 * @return groesster Tick im Index oder MarketMsg.NO_TICK, wenn er leer ist
+	 */
+	public int getLastTick() {
+		return ticks.length == 0 ? 0 : ticks[ticks.length - 1];
+	}
+
+	/**
+	 * @return alle Eintraege des Laufs in der Reihenfolge des Schreibens
+	 */
+	public Iterator<JournalRecord> iterator() {
+		return new RecordIterator(0, Journal.HEADER_SIZE, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * @param fromTick
+	 * @return die Eintraege ab dem ersten Eintrag von fromTick, ohne die
+	 *         Eintraege frueherer Ticks
+	 */
+	public Iterator<JournalRecord> iterator(int fromTick) {
+		final int i = indexOf(fromTick);
+		if (i == ticks.length)
+			return new RecordIterator(Integer.MAX_VALUE, 0, fromTick, Integer.MAX_VALUE, 0);
+		return new RecordIterator(tickSegments[i], tickPositions[i], fromTick, Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Liest ab dem ersten Eintrag von fromTick bis zum Indexeintrag, nach dem
+	 * bis zum letzten Indexeintrag nur noch spaetere Ticks folgen, und den Rest
+	 * nach dem letzten Indexeintrag.
+	 *
+	 * @param fromTick
+	 * @param toTick
+	 * @return die Eintraege der Ticks von fromTick bis einschliesslich toTick
+	 */
+	public List<JournalRecord> read(int fromTick, int toTick) {
+		final List<JournalRecord> records = new ArrayList<>();
+		final int i = indexOf(fromTick);
+		if (i == ticks.length)
+			return records;
+		final int last = ticks.length - 1;
+		int stop = i + 1;
+		while (stop < last && lowTicks[stop] <= toTick)
+			stop++;
+		if (stop >= last) {
+			add(records, new RecordIterator(tickSegments[i], tickPositions[i], fromTick, Integer.MAX_VALUE, 0), toTick);
+		} else {
+			add(records, new RecordIterator(tickSegments[i], tickPositions[i], fromTick, tickSegments[stop], tickPositions[stop]), toTick);
+			add(records, new RecordIterator(tickSegments[last], tickPositions[last], fromTick, Integer.MAX_VALUE, 0), toTick);
+		}
+		return records;
+	}
+
+	private static void add(List<JournalRecord> records, Iterator<JournalRecord> iterator, int toTick) {
+		while (iterator.hasNext()) {
+			final JournalRecord record = iterator.next();
+			if (record.getTick() <= toTick)
+				records.add(record);
+		}
+	}
+
+	/**
+	 * @return Index des ersten Indexeintrags ab tick
+	 */
+	private int indexOf(int tick) {
+		final int i = Arrays.binarySearch(ticks, tick);
+		return i < 0 ? -i - 1 : i;
+	}
+
+	static String segmentName(int number) {
+		return String.format("%08d", number) + Journal.SEGMENT_SUFFIX;
+	}
+
+	/**
+	 * @return Nummern der Segmente im Verzeichnis, aufsteigend
+	 */
+	static int[] listSegments(File directory) {
+		final String[] names = directory.list((dir, name) -> name.endsWith(Journal.SEGMENT_SUFFIX));
+		if (names == null)
+			return new int[0];
+		final int[] numbers = new int[names.length];
+		int count = 0;
+		for (String name : names) {
+			try {
+				numbers[count] = Integer.parseInt(name.substring(0, name.length() - Journal.SEGMENT_SUFFIX.length()));
+				count++;
+			} catch (NumberFormatException e) {
+				// fremde Datei
+			}
+		}
+		final int[] result = Arrays.copyOf(numbers, count);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private MappedByteBuffer map(int number) {
+		final File file = new File(directory, segmentName(number));
+		final MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (buffer.getInt() != Journal.MAGIC || buffer.getInt() != Journal.VERSION)
+			throw new IllegalStateException(file + " is no journal segment of version " + Journal.VERSION);
+		return buffer;
+	}
+
+	/**
+	 * Laeuft ab einer Position durch dieses und die folgenden Segmente des
+	 * Laufs bis vor eine Endposition.
+	 */
+	private class RecordIterator implements Iterator<JournalRecord> {
+
+		private final int fromTick;
+
+		private final int endSegment;
+		private final int endPosition;
+
+		/** Index in segments */
+		private int segmentIndex;
+		private ByteBuffer buffer;
+
+		private JournalRecord next;
+
+		private RecordIterator(int segment, int position, int fromTick, int endSegment, int endPosition) {
+			this.fromTick = fromTick;
+			this.endSegment = endSegment;
+			this.endPosition = endPosition;
+			segmentIndex = Arrays.binarySearch(segments, segment);
+			if (segmentIndex < 0)
+				segmentIndex = -segmentIndex - 1;
+			buffer = mapSegment();
+			if (buffer != null)
+				buffer.position(position);
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public JournalRecord next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			final JournalRecord record = next;
+			advance();
+			return record;
+		}
+
+		private void advance() {
+			next = null;
+			while (buffer != null) {
+				final int length = buffer.remaining() < Journal.RECORD_HEADER_SIZE ? 0 : buffer.getInt(buffer.position());
+				if (length <= 0 || length > buffer.remaining() - Journal.RECORD_HEADER_SIZE) {
+					// Ende des Segments
+					segmentIndex++;
+					buffer = mapSegment();
+					continue;
+				}
+				final int tick = buffer.getInt(buffer.position() + 4);
+				final int start = buffer.position() + Journal.RECORD_HEADER_SIZE;
+				buffer.position(start + length);
+				if (tick < fromTick)
+					continue;
+				final ByteBuffer slice = buffer.duplicate();
+				slice.position(start);
+				slice.limit(start + length);
+				next = new JournalRecord(tick, MsgCodec.decode(new BinaryReader(slice.slice())));
+				return;
+			}
+		}
+
+		/**
+		 * @return das Segment an segmentIndex bis vor die Endposition oder null
+		 *         nach dem Ende
+		 */
+		private ByteBuffer mapSegment() {
+			if (segmentIndex >= segments.length || segments[segmentIndex] > endSegment)
+				return null;
+			final MappedByteBuffer mapped = map(segments[segmentIndex]);
+			if (segments[segmentIndex] == endSegment)
+				mapped.limit(Math.min(endPosition, mapped.limit()));
+			return mapped;
+		}
+	}
+}
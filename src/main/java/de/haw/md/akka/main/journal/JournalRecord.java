@@ -0,0 +1,28 @@
+package de.haw.md.akka.main.journal;
+
+/**
+ * Ein gelesener Eintrag des Journal.
+ */
+public final class JournalRecord {
+
+	private final int tick;
+	private final Object msg;
+
+	public JournalRecord(int tick, Object msg) {
+		this.tick = tick;
+		this.msg = msg;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public Object getMsg() {
+		return msg;
+	}
+
+	@Override
+	public String toString() {
+		return tick + ": " + msg;
+	}
+}
@@ -0,0 +1,38 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Aufforderung an den Markt, zwischen zwei Ticks einen Checkpoint zu
+ * schreiben, und seine Antwort. In der Aufforderung ist path das Verzeichnis
+ * und tick NO_TICK, in der Antwort die geschriebene Datei und der letzte
+ * enthaltene Tick. Der Markt fragt damit auch die Unternehmen nach ihrem
+ * Zustand (CompanyStateMsg).
+ */
+public final class CheckpointMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String path;
+	private final int tick;
+
+	public CheckpointMsg(String path) {
+		this(path, NO_TICK);
+	}
+
+	public CheckpointMsg(String path, int tick) {
+		this.path = path;
+		this.tick = tick;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	@Override
+	public String toString() {
+		return "CheckpointMsg[" + path + ", #" + tick + "]";
+	}
+}
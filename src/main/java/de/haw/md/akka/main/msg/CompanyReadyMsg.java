@@ -0,0 +1,25 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Meldung eines Unternehmens an den Markt, dass alle seine Abonnements
+ * bestaetigt sind und es keine Nachricht eines Ticks mehr verpassen kann.
+ */
+public final class CompanyReadyMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+
+	public CompanyReadyMsg(String company) {
+		this.company = company;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	@Override
+	public String toString() {
+		return "CompanyReadyMsg[" + company + "]";
+	}
+}
@@ -0,0 +1,38 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Anmeldung eines Unternehmens beim Markt. Der Markt startet den ersten Tick
+ * erst, wenn alle angemeldeten Unternehmen bereit sind, und wartet bei jedem
+ * Tick auf eine Rueckmeldung der Unternehmen, die Ergebnisse melden.
+ */
+public final class CompanyRegisterMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final boolean reporting;
+
+	/**
+	 * @param company
+	 * @param reporting
+	 *            true, wenn das Unternehmen zu jedem Tick eine Rueckmeldung
+	 *            schickt
+	 */
+	public CompanyRegisterMsg(String company, boolean reporting) {
+		this.company = company;
+		this.reporting = reporting;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public boolean isReporting() {
+		return reporting;
+	}
+
+	@Override
+	public String toString() {
+		return "CompanyRegisterMsg[" + company + ", " + reporting + "]";
+	}
+}
@@ -0,0 +1,44 @@
+package de.haw.md.akka.main.msg;
+
+import java.math.BigDecimal;
+
+/**
+ * Unveraenderlicher Marktanteil (in Prozent) und das daraus resultierende
+ * Absatzvolumen eines Unternehmens.
+ */
+public final class CompanyShareMsg implements Comparable<CompanyShareMsg>, MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final BigDecimal shareValue;
+	private final BigDecimal shareVolume;
+
+	public CompanyShareMsg(String company, BigDecimal shareValue, BigDecimal shareVolume) {
+		this.company = company;
+		this.shareValue = shareValue;
+		this.shareVolume = shareVolume;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public BigDecimal getShareValue() {
+		return shareValue;
+	}
+
+	public BigDecimal getShareVolume() {
+		return shareVolume;
+	}
+
+	@Override
+	public int compareTo(CompanyShareMsg csm) {
+		return shareValue.compareTo(csm.getShareValue());
+	}
+
+	@Override
+	public String toString() {
+		return "CompanyShareMsg[" + company + ", " + shareValue + ", " + shareVolume + "]";
+	}
+}
@@ -0,0 +1,74 @@
+package de.haw.md.akka.main.msg;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Zustand eines Handyherstellers zwischen zwei Ticks, Antwort auf
+ * CheckpointMsg. Genau das, was MobileCompanyModel ueber einen Tick hinaus
+ * behaelt.
+ */
+public final class CompanyStateMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final int tick;
+	private final BigDecimal shareVolume;
+	private final BigDecimal basisPrice;
+	/** null, solange das Unternehmen noch keinen Tick verarbeitet hat */
+	private final LocalDate dateTicker;
+	private final LocalDate nextMonthTicker;
+	private final BigDecimal completeProfit;
+	private final int exitTick;
+
+	public CompanyStateMsg(String company, int tick, BigDecimal shareVolume, BigDecimal basisPrice, LocalDate dateTicker, LocalDate nextMonthTicker,
+			BigDecimal completeProfit, int exitTick) {
+		this.company = company;
+		this.tick = tick;
+		this.shareVolume = shareVolume;
+		this.basisPrice = basisPrice;
+		this.dateTicker = dateTicker;
+		this.nextMonthTicker = nextMonthTicker;
+		this.completeProfit = completeProfit;
+		this.exitTick = exitTick;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public BigDecimal getShareVolume() {
+		return shareVolume;
+	}
+
+	public BigDecimal getBasisPrice() {
+		return basisPrice;
+	}
+
+	public LocalDate getDateTicker() {
+		return dateTicker;
+	}
+
+	public LocalDate getNextMonthTicker() {
+		return nextMonthTicker;
+	}
+
+	public BigDecimal getCompleteProfit() {
+		return completeProfit;
+	}
+
+	public int getExitTick() {
+		return exitTick;
+	}
+
+	@Override
+	public String toString() {
+		return "CompanyStateMsg[" + company + ", #" + tick + ", " + completeProfit + "]";
+	}
+}
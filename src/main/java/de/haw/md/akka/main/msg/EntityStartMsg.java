@@ -0,0 +1,26 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Startet ein Unternehmen als Entity der Cluster-Sharding-Region. Das
+ * Unternehmen meldet sich beim Markt an und bestaetigt den Start mit derselben
+ * Nachricht, sobald der Markt die Anmeldung erhalten hat.
+ */
+public final class EntityStartMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+
+	public EntityStartMsg(String company) {
+		this.company = company;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityStartMsg[" + company + "]";
+	}
+}
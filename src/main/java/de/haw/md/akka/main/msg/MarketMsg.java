@@ -0,0 +1,17 @@
+package de.haw.md.akka.main.msg;
+
+import java.io.Serializable;
+
+/**
+ * Markierung fuer alle Nachrichten, die zwischen den Akteuren der Simulation
+ * verschickt werden. Ueber dieses Interface wird der binaere Serializer in der
+ * application.conf gebunden.
+ */
+public interface MarketMsg extends Serializable {
+
+	/**
+	 * Ticknummer fuer Nachrichten, die keinem Tick des Marktes angehoeren, z.B.
+	 * Nachrichten von ausserhalb der Simulation.
+	 */
+	int NO_TICK = 0;
+}
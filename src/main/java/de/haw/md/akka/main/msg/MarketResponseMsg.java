@@ -0,0 +1,80 @@
+package de.haw.md.akka.main.msg;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.ProductTypeEnum;
+
+/**
+ * Unveraenderliche Antwort eines Unternehmens an den Markt. Zulieferer melden
+ * nur ihren Verkaufspreis (revenue), Mobilfunkhersteller zusaetzlich die
+ * verkauften Produkte, den Gewinn und die Produktionskosten.
+ */
+public final class MarketResponseMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final ProductTypeEnum type;
+	private final int tick;
+	private final LocalDate date;
+	private final BigDecimal revenue;
+	private final BigDecimal selledProducts;
+	private final BigDecimal profit;
+	private final BigDecimal productionCost;
+
+	public MarketResponseMsg(String company, ProductTypeEnum type, int tick, LocalDate date, BigDecimal revenue) {
+		this(company, type, tick, date, revenue, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+	}
+
+	public MarketResponseMsg(String company, ProductTypeEnum type, int tick, LocalDate date, BigDecimal revenue, BigDecimal selledProducts,
+			BigDecimal profit, BigDecimal productionCost) {
+		this.company = company;
+		this.type = type;
+		this.tick = tick;
+		this.date = date;
+		this.revenue = revenue;
+		this.selledProducts = selledProducts;
+		this.profit = profit;
+		this.productionCost = productionCost;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public ProductTypeEnum getType() {
+		return type;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+
+	public BigDecimal getSelledProducts() {
+		return selledProducts;
+	}
+
+	public BigDecimal getProfit() {
+		return profit;
+	}
+
+	public BigDecimal getProductionCost() {
+		return productionCost;
+	}
+
+	@Override
+	public String toString() {
+		return "MarketResponseMsg[" + company + ", " + type.getName() + ", #" + tick + ", " + date + ", " + revenue + ", " + selledProducts + ", " + profit + ", "
+				+ productionCost + "]";
+	}
+}
@@ -0,0 +1,62 @@
+package de.haw.md.akka.main.msg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Unveraenderliche Liste der Marktanteile aller Unternehmen an einem
+ * simulierten Tag.
+ */
+public final class MarketShareMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<CompanyShareMsg> companyShares;
+	private final int tick;
+	private final LocalDate date;
+
+	/**
+	 * Anteile nach Unternehmen, erst beim ersten Suchen aufgebaut. Alle
+	 * Empfaenger einer Nachricht suchen so nicht jeweils in der ganzen Liste.
+	 */
+	private transient volatile Map<String, CompanyShareMsg> sharesByCompany;
+
+	public MarketShareMsg(List<CompanyShareMsg> companyShares, int tick, LocalDate date) {
+		this.companyShares = Collections.unmodifiableList(new ArrayList<>(companyShares));
+		this.tick = tick;
+		this.date = date;
+	}
+
+	public List<CompanyShareMsg> getCompanyShares() {
+		return companyShares;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public CompanyShareMsg findShareByCompanyName(String name) {
+		Map<String, CompanyShareMsg> map = sharesByCompany;
+		if (map == null) {
+			map = new HashMap<>();
+			for (CompanyShareMsg companyShareMsg : companyShares)
+				map.putIfAbsent(companyShareMsg.getCompany(), companyShareMsg);
+			sharesByCompany = map;
+		}
+		return map.get(name);
+	}
+
+	@Override
+	public String toString() {
+		return "MarketShareMsg[#" + tick + ", " + date + ", " + companyShares + "]";
+	}
+}
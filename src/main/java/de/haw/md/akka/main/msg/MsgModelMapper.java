@@ -0,0 +1,150 @@
+package de.haw.md.akka.main.msg;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Uebersetzt die typisierten Nachrichten in das bisherige JSON-Format der
+ * *MsgModel-Klassen und zurueck. Innerhalb der Simulation werden nur noch die
+ * typisierten Nachrichten verschickt, JSON dient lediglich als Austauschformat
+ * nach aussen.
+ */
+public class MsgModelMapper {
+
+	private static final ObjectMapper OM = new ObjectMapper();
+
+	private MsgModelMapper() {
+	}
+
+	public static String toJson(Object msg) throws IOException {
+		if (msg instanceof ResourceMsg)
+			return OM.writeValueAsString(toModel((ResourceMsg) msg));
+		if (msg instanceof MarketResponseMsg)
+			return OM.writeValueAsString(toModel((MarketResponseMsg) msg));
+		if (msg instanceof MarketShareMsg)
+			return OM.writeValueAsString(toModel((MarketShareMsg) msg));
+		if (msg instanceof ResourcePriceVectorMsg)
+			return OM.writeValueAsString(toModels((ResourcePriceVectorMsg) msg));
+		throw new IllegalArgumentException("No JSON model for " + msg.getClass().getName());
+	}
+
+	/**
+	 * Liest eine JSON-Nachricht ein. Der Nachrichtentyp wird anhand der
+	 * vorhandenen Felder bestimmt, ein Array steht fuer alle Rohstoffpreise
+	 * eines Tages.
+	 * 
+	 * @param json
+	 * @return ResourceMsg, ResourcePriceVectorMsg, MarketResponseMsg oder
+	 *         MarketShareMsg
+	 * @throws IOException
+	 */
+	public static Object fromJson(String json) throws IOException {
+		final JsonNode node = OM.readTree(json);
+		if (node.isArray()) {
+			List<ResourceMsgModel> rmms = new ArrayList<>();
+			for (JsonNode element : node)
+				rmms.add(OM.treeToValue(element, ResourceMsgModel.class));
+			return fromModels(rmms);
+		}
+		if (node.has("companyShare"))
+			return fromModel(OM.treeToValue(node, MarketShareMsgModel.class));
+		if (node.has("company"))
+			return fromModel(OM.treeToValue(node, MarketResponseMsgModel.class));
+		if (node.has("value"))
+			return fromModel(OM.treeToValue(node, ResourceMsgModel.class));
+		throw new IllegalArgumentException("Unknown message: " + json);
+	}
+
+	public static ResourceMsgModel toModel(ResourceMsg msg) {
+		ResourceMsgModel rmm = new ResourceMsgModel();
+		rmm.setType(msg.getType().getName());
+		rmm.setDate(formatDate(msg.getDate()));
+		rmm.setValue(msg.getValue().toString());
+		return rmm;
+	}
+
+	public static List<ResourceMsgModel> toModels(ResourcePriceVectorMsg msg) {
+		List<ResourceMsgModel> rmms = new ArrayList<>();
+		for (ResourceEnum type : ResourceEnum.values())
+			rmms.add(toModel(msg.getResourceMsg(type)));
+		return rmms;
+	}
+
+	public static MarketResponseMsgModel toModel(MarketResponseMsg msg) {
+		MarketResponseMsgModel mrmm = new MarketResponseMsgModel();
+		mrmm.setCompany(msg.getCompany());
+		mrmm.setType(msg.getType().getName());
+		mrmm.setDate(formatDate(msg.getDate()));
+		mrmm.setRevenue(msg.getRevenue().toString());
+		mrmm.setSelledProducts(msg.getSelledProducts().toString());
+		mrmm.setProfit(msg.getProfit().toString());
+		mrmm.setProductionCost(msg.getProductionCost().toString());
+		return mrmm;
+	}
+
+	public static MarketShareMsgModel toModel(MarketShareMsg msg) {
+		List<CompanyShareMsgModel> companyShareMsgModels = new ArrayList<>();
+		for (CompanyShareMsg csm : msg.getCompanyShares()) {
+			CompanyShareMsgModel csmm = new CompanyShareMsgModel(csm.getCompany(), csm.getShareValue().toString());
+			csmm.setShareVolume(csm.getShareVolume().toString());
+			companyShareMsgModels.add(csmm);
+		}
+		MarketShareMsgModel msmm = new MarketShareMsgModel();
+		msmm.setType("Market_Share");
+		msmm.setCompanyShareMsgModels(companyShareMsgModels);
+		msmm.setDate(formatDate(msg.getDate()));
+		return msmm;
+	}
+
+	public static ResourceMsg fromModel(ResourceMsgModel rmm) {
+		return new ResourceMsg(ResourceEnum.getByName(rmm.getType()), parseDate(rmm.getDate()), StaticVariables.convertToBigDecimal(rmm.getValue()));
+	}
+
+	public static ResourcePriceVectorMsg fromModels(List<ResourceMsgModel> rmms) {
+		BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		LocalDate date = null;
+		for (ResourceMsgModel rmm : rmms) {
+			final ResourceMsg rm = fromModel(rmm);
+			prices[rm.getType().ordinal()] = rm.getValue();
+			date = rm.getDate();
+		}
+		return new ResourcePriceVectorMsg(MarketMsg.NO_TICK, date, prices);
+	}
+
+	public static MarketResponseMsg fromModel(MarketResponseMsgModel mrmm) {
+		return new MarketResponseMsg(mrmm.getCompany(), ProductTypeEnum.getByName(mrmm.getType()), MarketMsg.NO_TICK, parseDate(mrmm.getDate()), toBigDecimal(mrmm.getRevenue()),
+				toBigDecimal(mrmm.getSelledProducts()), toBigDecimal(mrmm.getProfit()), toBigDecimal(mrmm.getProductionCost()));
+	}
+
+	public static MarketShareMsg fromModel(MarketShareMsgModel msmm) {
+		List<CompanyShareMsg> companyShares = new ArrayList<>();
+		for (CompanyShareMsgModel csmm : msmm.getCompanyShareMsgModels())
+			companyShares.add(new CompanyShareMsg(csmm.getCompany(), toBigDecimal(csmm.getShareValue()), toBigDecimal(csmm.getShareVolume())));
+		return new MarketShareMsg(companyShares, MarketMsg.NO_TICK, parseDate(msmm.getDate()));
+	}
+
+	private static BigDecimal toBigDecimal(String value) {
+		if (value == null)
+			return BigDecimal.ZERO;
+		return StaticVariables.convertToBigDecimal(value);
+	}
+
+	private static String formatDate(LocalDate date) {
+		return date.toString(StaticVariables.DE_DATE_FORMATTER);
+	}
+
+	private static LocalDate parseDate(String date) {
+		return LocalDate.parse(date, StaticVariables.DE_DATE_FORMATTER);
+	}
+}
@@ -0,0 +1,50 @@
+package de.haw.md.akka.main.msg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.haw.md.sups.RegionPrices;
+
+/**
+ * Meldung eines regionalen Teilmarktes an den Markt, dass alle seine
+ * Unternehmen einen Tick abgeschlossen haben. Enthaelt die Ergebnisse der
+ * Region nach Namen sortiert und die Preise der Region nach diesem Tick.
+ */
+public final class RegionReportMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String region;
+	private final int tick;
+	private final List<MarketResponseMsg> results;
+	private final RegionPrices prices;
+
+	public RegionReportMsg(String region, int tick, List<MarketResponseMsg> results, RegionPrices prices) {
+		this.region = region;
+		this.tick = tick;
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		this.prices = prices;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public List<MarketResponseMsg> getResults() {
+		return results;
+	}
+
+	public RegionPrices getPrices() {
+		return prices;
+	}
+
+	@Override
+	public String toString() {
+		return "RegionReportMsg[" + region + ", #" + tick + ", " + results + ", " + prices + "]";
+	}
+}
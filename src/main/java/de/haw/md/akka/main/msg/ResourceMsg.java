@@ -0,0 +1,43 @@
+package de.haw.md.akka.main.msg;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Unveraenderliche Nachricht mit dem Preis eines Rohstoffes an einem
+ * simulierten Tag.
+ */
+public final class ResourceMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final ResourceEnum type;
+	private final LocalDate date;
+	private final BigDecimal value;
+
+	public ResourceMsg(ResourceEnum type, LocalDate date, BigDecimal value) {
+		this.type = type;
+		this.date = date;
+		this.value = value;
+	}
+
+	public ResourceEnum getType() {
+		return type;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public BigDecimal getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "ResourceMsg[" + type.getName() + ", " + date + ", " + value + "]";
+	}
+}
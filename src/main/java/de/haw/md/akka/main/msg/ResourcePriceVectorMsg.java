@@ -0,0 +1,57 @@
+package de.haw.md.akka.main.msg;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Unveraenderlicher Satz aller Rohstoffpreise eines simulierten Tages. Der
+ * Markt verschickt pro Tick genau eine dieser Nachrichten, damit alle
+ * Unternehmen ihre Kosten mit denselben Preisen berechnen.
+ */
+public final class ResourcePriceVectorMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int tick;
+	private final LocalDate date;
+	private final BigDecimal[] prices;
+
+	/**
+	 * @param tick
+	 * @param date
+	 * @param prices
+	 *            Preise in der Reihenfolge von {@link ResourceEnum#values()}
+	 */
+	public ResourcePriceVectorMsg(int tick, LocalDate date, BigDecimal[] prices) {
+		if (prices.length != ResourceEnum.values().length)
+			throw new IllegalArgumentException("Expected " + ResourceEnum.values().length + " prices, got " + prices.length);
+		this.tick = tick;
+		this.date = date;
+		this.prices = prices.clone();
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public BigDecimal getPrice(ResourceEnum type) {
+		return prices[type.ordinal()];
+	}
+
+	public ResourceMsg getResourceMsg(ResourceEnum type) {
+		return new ResourceMsg(type, date, getPrice(type));
+	}
+
+	@Override
+	public String toString() {
+		return "ResourcePriceVectorMsg[#" + tick + ", " + date + ", " + Arrays.toString(prices) + "]";
+	}
+}
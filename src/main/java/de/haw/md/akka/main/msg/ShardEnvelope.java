@@ -0,0 +1,32 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Nachricht an ein Unternehmen, das als Entity der Cluster-Sharding-Region
+ * laeuft. Die Region stellt die eingepackte Nachricht dem Unternehmen mit dem
+ * angegebenen Namen zu, auf welchem Knoten es auch laeuft.
+ */
+public final class ShardEnvelope implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final MarketMsg msg;
+
+	public ShardEnvelope(String company, MarketMsg msg) {
+		this.company = company;
+		this.msg = msg;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public MarketMsg getMsg() {
+		return msg;
+	}
+
+	@Override
+	public String toString() {
+		return "ShardEnvelope[" + company + ", " + msg + "]";
+	}
+}
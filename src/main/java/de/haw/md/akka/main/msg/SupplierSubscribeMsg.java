@@ -0,0 +1,25 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Anmeldung eines Kunden bei seinem Zulieferer. Der Zulieferer schickt seine
+ * Angebote danach direkt an den Absender dieser Nachricht.
+ */
+public final class SupplierSubscribeMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String customer;
+
+	public SupplierSubscribeMsg(String customer) {
+		this.customer = customer;
+	}
+
+	public String getCustomer() {
+		return customer;
+	}
+
+	@Override
+	public String toString() {
+		return "SupplierSubscribeMsg[" + customer + "]";
+	}
+}
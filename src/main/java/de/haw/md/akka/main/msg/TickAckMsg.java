@@ -0,0 +1,39 @@
+package de.haw.md.akka.main.msg;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Rueckmeldung eines Unternehmens, das einen Tick abgeschlossen hat, ohne ein
+ * Ergebnis an den Markt zu schicken.
+ */
+public final class TickAckMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String company;
+	private final int tick;
+	private final LocalDate date;
+
+	public TickAckMsg(String company, int tick, LocalDate date) {
+		this.company = company;
+		this.tick = tick;
+		this.date = date;
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	@Override
+	public String toString() {
+		return "TickAckMsg[" + company + ", #" + tick + ", " + date + "]";
+	}
+}
@@ -0,0 +1,54 @@
+package de.haw.md.akka.main.msg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Meldung des Marktes, dass alle angemeldeten Unternehmen einen Tick
+ * abgeschlossen haben. Enthaelt die Ergebnisse dieses Ticks und die
+ * Marktanteile, mit denen die Unternehmen in diesem Tick gerechnet haben.
+ */
+public final class TickCompletedMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int tick;
+	private final LocalDate date;
+	private final List<MarketResponseMsg> results;
+	private final MarketShareMsg shares;
+
+	public TickCompletedMsg(int tick, LocalDate date, List<MarketResponseMsg> results, MarketShareMsg shares) {
+		this.tick = tick;
+		this.date = date;
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		this.shares = shares;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public List<MarketResponseMsg> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return die Marktanteile des Ticks, die Liste ist leer, solange noch
+	 *         keine Ergebnisse vorlagen
+	 */
+	public MarketShareMsg getShares() {
+		return shares;
+	}
+
+	@Override
+	public String toString() {
+		return "TickCompletedMsg[#" + tick + ", " + date + ", " + results + ", " + shares + "]";
+	}
+}
@@ -0,0 +1,29 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Startet beim Markt den naechsten Tick. Das Fenster gibt an, wie viele Ticks
+ * der Absender gleichzeitig laufen laesst. Die Marktanteile eines Ticks t
+ * werden deshalb aus den Ergebnissen von Tick t - window berechnet, denn nur
+ * dieser ist beim Start von t sicher abgeschlossen.
+ */
+public final class TickMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int window;
+
+	public TickMsg(int window) {
+		if (window < 1)
+			throw new IllegalArgumentException("Window must be positive: " + window);
+		this.window = window;
+	}
+
+	public int getWindow() {
+		return window;
+	}
+
+	@Override
+	public String toString() {
+		return "TickMsg[" + window + "]";
+	}
+}
@@ -0,0 +1,43 @@
+package de.haw.md.akka.main.msg;
+
+/**
+ * Prueft im Cluster, ob ein Thema von jedem Knoten aus jeden Knoten erreicht
+ * (siehe TopicProbe). Als Aufforderung an einen Knoten sind publisher und
+ * subscriber leer, als Probe auf dem Thema nur subscriber, in der Antwort ist
+ * alles gesetzt. Knoten werden mit ihrer Adresse angegeben.
+ */
+public final class TopicProbeMsg implements MarketMsg {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String topic;
+	private final String publisher;
+	private final String subscriber;
+
+	public TopicProbeMsg(String topic) {
+		this(topic, "", "");
+	}
+
+	public TopicProbeMsg(String topic, String publisher, String subscriber) {
+		this.topic = topic;
+		this.publisher = publisher;
+		this.subscriber = subscriber;
+	}
+
+	public String getTopic() {
+		return topic;
+	}
+
+	public String getPublisher() {
+		return publisher;
+	}
+
+	public String getSubscriber() {
+		return subscriber;
+	}
+
+	@Override
+	public String toString() {
+		return "TopicProbeMsg[" + topic + ", " + publisher + " -> " + subscriber + "]";
+	}
+}
@@ -0,0 +1,74 @@
+package de.haw.md.akka.main.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Gegenstueck zum {@link BinaryWriter}. Liest von einem ByteBuffer, damit auch
+ * gemappte Dateien ohne Kopie gelesen werden koennen.
+ */
+public class BinaryReader {
+
+	private final ByteBuffer buffer;
+
+	public BinaryReader(byte[] bytes) {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	public BinaryReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	public int readByte() {
+		return buffer.get() & 0xFF;
+	}
+
+	public long readVarLong() {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if (shift > 63)
+				throw new IllegalArgumentException("Malformed varint");
+			b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	public long readZigZag() {
+		final long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public String readString() {
+		final byte[] bytes = new byte[(int) readVarLong()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public BigDecimal readDecimal() {
+		final long head = readZigZag();
+		final int scale = (int) (head >> 1);
+		if ((head & 1) == 0)
+			return BigDecimal.valueOf(readZigZag(), scale);
+		final byte[] bytes = new byte[(int) readVarLong()];
+		buffer.get(bytes);
+		return new BigDecimal(new BigInteger(bytes), scale);
+	}
+
+	public LocalDate readDate() {
+		return StaticVariables.fromEpochDay((int) readZigZag());
+	}
+
+	public boolean hasRemaining() {
+		return buffer.hasRemaining();
+	}
+}
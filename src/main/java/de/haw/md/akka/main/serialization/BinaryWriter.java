@@ -0,0 +1,111 @@
+package de.haw.md.akka.main.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Schreibt die Felder der Nachrichten in ein wachsendes Byte-Array. Ganzzahlen
+ * werden als Varint (ZigZag fuer vorzeichenbehaftete Werte), Dezimalzahlen als
+ * Festkommazahl (Skala + unskalierter Wert) und Datumswerte als Tage seit dem
+ * 01.01.1970 abgelegt.
+ */
+public class BinaryWriter {
+
+	private byte[] buffer;
+	private int position;
+
+	public BinaryWriter() {
+		this(64);
+	}
+
+	public BinaryWriter(int initialCapacity) {
+		buffer = new byte[initialCapacity];
+	}
+
+	public void writeByte(int value) {
+		ensureCapacity(1);
+		buffer[position++] = (byte) value;
+	}
+
+	public void writeBytes(byte[] bytes) {
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	public void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	public void writeZigZag(long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	public void writeString(String value) {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length);
+		writeBytes(bytes);
+	}
+
+	/**
+	 * Das niedrigste Bit des Kopfes gibt an, ob der unskalierte Wert in einen
+	 * long passt (0) oder als BigInteger-Bytes folgt (1).
+	 * 
+	 * @param value
+	 */
+	public void writeDecimal(BigDecimal value) {
+		final BigInteger unscaled = value.unscaledValue();
+		if (unscaled.bitLength() < 64) {
+			writeZigZag(((long) value.scale()) << 1);
+			writeZigZag(unscaled.longValue());
+		} else {
+			writeZigZag((((long) value.scale()) << 1) | 1);
+			final byte[] bytes = unscaled.toByteArray();
+			writeVarLong(bytes.length);
+			writeBytes(bytes);
+		}
+	}
+
+	public void writeDate(LocalDate date) {
+		writeZigZag(StaticVariables.toEpochDay(date));
+	}
+
+	public int size() {
+		return position;
+	}
+
+	public void reset() {
+		position = 0;
+	}
+
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, position);
+	}
+
+	/**
+	 * Kopiert das Geschriebene ohne Zwischenkopie, z.B. in eine eingeblendete
+	 * Datei.
+	 *
+	 * @param target
+	 */
+	public void writeTo(ByteBuffer target) {
+		target.put(buffer, 0, position);
+	}
+
+	private void ensureCapacity(int additional) {
+		if (position + additional > buffer.length)
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+	}
+}
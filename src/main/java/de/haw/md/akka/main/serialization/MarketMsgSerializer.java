@@ -0,0 +1,40 @@
+package de.haw.md.akka.main.serialization;
+
+import akka.serialization.JSerializer;
+
+import de.haw.md.metrics.TimerEnum;
+
+/**
+ * Akka-Serializer fuer die Nachrichten der Simulation. Wird in der
+ * application.conf an {@link de.haw.md.akka.main.msg.MarketMsg} gebunden und
+ * ersetzt beim Versand zwischen JVMs die Java-Serialisierung bzw. JSON.
+ */
+public class MarketMsgSerializer extends JSerializer {
+
+	public static final int IDENTIFIER = 4711;
+
+	@Override
+	public int identifier() {
+		return IDENTIFIER;
+	}
+
+	@Override
+	public boolean includeManifest() {
+		return false;
+	}
+
+	@Override
+	public byte[] toBinary(Object obj) {
+		BinaryWriter out = new BinaryWriter();
+		MsgCodec.encode(obj, out);
+		return out.toByteArray();
+	}
+
+	@Override
+	public Object fromBinaryJava(byte[] bytes, Class<?> manifest) {
+		final long start = System.nanoTime();
+		final Object msg = MsgCodec.decode(new BinaryReader(bytes));
+		TimerEnum.DESERIALIZATION.recordSince(start);
+		return msg;
+	}
+}
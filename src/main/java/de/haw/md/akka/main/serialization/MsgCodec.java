@@ -0,0 +1,349 @@
+package de.haw.md.akka.main.serialization;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.msg.CheckpointMsg;
+import de.haw.md.akka.main.msg.CompanyReadyMsg;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.EntityStartMsg;
+import de.haw.md.akka.main.msg.MarketMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.RegionReportMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.ShardEnvelope;
+import de.haw.md.akka.main.msg.SupplierSubscribeMsg;
+import de.haw.md.akka.main.msg.TickAckMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.akka.main.msg.TickMsg;
+import de.haw.md.akka.main.msg.TopicProbeMsg;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.RegionPrices;
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Binaeres Format der Marktnachrichten. Jede Nachricht beginnt mit der
+ * Schema-Version und einer Typkennung, danach folgen die Felder in fester
+ * Reihenfolge. Neue Felder werden nur mit einer neuen Version angehaengt, aeltere
+ * Versionen bleiben lesbar.
+ *
+ * Rohstoffe und Produkttypen stehen mit ihrer festen Kennung (getCode) im
+ * Format, nicht mit ihrer Position in der Aufzaehlung. Die Preise eines
+ * ResourcePriceVectorMsg folgen der Reihenfolge der Kennungen.
+ */
+public class MsgCodec {
+
+	/**
+	 * Version 2 haengt die Ticknummer an die Nachrichten an. Nachrichten der
+	 * Version 1 werden mit {@link MarketMsg#NO_TICK} gelesen.
+	 */
+	public static final int VERSION = 2;
+
+	public static final int TAG_RESOURCE = 1;
+	public static final int TAG_MARKET_RESPONSE = 2;
+	public static final int TAG_MARKET_SHARE = 3;
+	public static final int TAG_RESOURCE_VECTOR = 4;
+	public static final int TAG_SUPPLIER_SUBSCRIBE = 5;
+	public static final int TAG_COMPANY_REGISTER = 6;
+	public static final int TAG_TICK_ACK = 7;
+	public static final int TAG_TICK_COMPLETED = 8;
+	public static final int TAG_TICK = 9;
+	public static final int TAG_COMPANY_READY = 10;
+	public static final int TAG_ENTITY_START = 11;
+	public static final int TAG_SHARD_ENVELOPE = 12;
+	public static final int TAG_TOPIC_PROBE = 13;
+	public static final int TAG_REGION_REPORT = 14;
+	public static final int TAG_CHECKPOINT = 15;
+	public static final int TAG_COMPANY_STATE = 16;
+
+	private MsgCodec() {
+	}
+
+	public static void encode(Object msg, BinaryWriter out) {
+		out.writeByte(VERSION);
+		if (msg instanceof ResourceMsg) {
+			out.writeByte(TAG_RESOURCE);
+			writeResource((ResourceMsg) msg, out);
+		} else if (msg instanceof MarketResponseMsg) {
+			out.writeByte(TAG_MARKET_RESPONSE);
+			writeMarketResponse((MarketResponseMsg) msg, out);
+		} else if (msg instanceof MarketShareMsg) {
+			out.writeByte(TAG_MARKET_SHARE);
+			writeMarketShare((MarketShareMsg) msg, out);
+		} else if (msg instanceof ResourcePriceVectorMsg) {
+			out.writeByte(TAG_RESOURCE_VECTOR);
+			writeResourceVector((ResourcePriceVectorMsg) msg, out);
+		} else if (msg instanceof SupplierSubscribeMsg) {
+			out.writeByte(TAG_SUPPLIER_SUBSCRIBE);
+			out.writeString(((SupplierSubscribeMsg) msg).getCustomer());
+		} else if (msg instanceof CompanyRegisterMsg) {
+			out.writeByte(TAG_COMPANY_REGISTER);
+			out.writeString(((CompanyRegisterMsg) msg).getCompany());
+			out.writeByte(((CompanyRegisterMsg) msg).isReporting() ? 1 : 0);
+		} else if (msg instanceof TickAckMsg) {
+			out.writeByte(TAG_TICK_ACK);
+			out.writeString(((TickAckMsg) msg).getCompany());
+			out.writeDate(((TickAckMsg) msg).getDate());
+			out.writeVarLong(((TickAckMsg) msg).getTick());
+		} else if (msg instanceof TickCompletedMsg) {
+			out.writeByte(TAG_TICK_COMPLETED);
+			writeTickCompleted((TickCompletedMsg) msg, out);
+		} else if (msg instanceof TickMsg) {
+			out.writeByte(TAG_TICK);
+			out.writeVarLong(((TickMsg) msg).getWindow());
+		} else if (msg instanceof CompanyReadyMsg) {
+			out.writeByte(TAG_COMPANY_READY);
+			out.writeString(((CompanyReadyMsg) msg).getCompany());
+		} else if (msg instanceof EntityStartMsg) {
+			out.writeByte(TAG_ENTITY_START);
+			out.writeString(((EntityStartMsg) msg).getCompany());
+		} else if (msg instanceof ShardEnvelope) {
+			out.writeByte(TAG_SHARD_ENVELOPE);
+			out.writeString(((ShardEnvelope) msg).getCompany());
+			// Die eingepackte Nachricht mit eigener Version und Typkennung
+			encode(((ShardEnvelope) msg).getMsg(), out);
+		} else if (msg instanceof TopicProbeMsg) {
+			out.writeByte(TAG_TOPIC_PROBE);
+			out.writeString(((TopicProbeMsg) msg).getTopic());
+			out.writeString(((TopicProbeMsg) msg).getPublisher());
+			out.writeString(((TopicProbeMsg) msg).getSubscriber());
+		} else if (msg instanceof RegionReportMsg) {
+			out.writeByte(TAG_REGION_REPORT);
+			writeRegionReport((RegionReportMsg) msg, out);
+		} else if (msg instanceof CheckpointMsg) {
+			out.writeByte(TAG_CHECKPOINT);
+			out.writeString(((CheckpointMsg) msg).getPath());
+			out.writeVarLong(((CheckpointMsg) msg).getTick());
+		} else if (msg instanceof CompanyStateMsg) {
+			out.writeByte(TAG_COMPANY_STATE);
+			writeCompanyState((CompanyStateMsg) msg, out);
+		} else {
+			throw new IllegalArgumentException("Cannot encode " + msg.getClass().getName());
+		}
+	}
+
+	public static Object decode(BinaryReader in) {
+		final int version = in.readByte();
+		if (version < 1 || version > VERSION)
+			throw new IllegalArgumentException("Unsupported schema version: " + version);
+		final int tag = in.readByte();
+		switch (tag) {
+		case TAG_RESOURCE:
+			return readResource(in);
+		case TAG_MARKET_RESPONSE:
+			return readMarketResponse(in, version);
+		case TAG_MARKET_SHARE:
+			return readMarketShare(in, version);
+		case TAG_RESOURCE_VECTOR:
+			return readResourceVector(in, version);
+		case TAG_SUPPLIER_SUBSCRIBE:
+			return new SupplierSubscribeMsg(in.readString());
+		case TAG_COMPANY_REGISTER:
+			return readCompanyRegister(in, version);
+		case TAG_TICK_ACK:
+			return readTickAck(in, version);
+		case TAG_TICK_COMPLETED:
+			return readTickCompleted(in, version);
+		case TAG_TICK:
+			return new TickMsg((int) in.readVarLong());
+		case TAG_COMPANY_READY:
+			return new CompanyReadyMsg(in.readString());
+		case TAG_ENTITY_START:
+			return new EntityStartMsg(in.readString());
+		case TAG_SHARD_ENVELOPE:
+			return new ShardEnvelope(in.readString(), (MarketMsg) decode(in));
+		case TAG_TOPIC_PROBE:
+			return new TopicProbeMsg(in.readString(), in.readString(), in.readString());
+		case TAG_REGION_REPORT:
+			return readRegionReport(in, version);
+		case TAG_CHECKPOINT:
+			return new CheckpointMsg(in.readString(), (int) in.readVarLong());
+		case TAG_COMPANY_STATE:
+			return readCompanyState(in);
+		default:
+			throw new IllegalArgumentException("Unknown message tag: " + tag);
+		}
+	}
+
+	private static void writeResource(ResourceMsg msg, BinaryWriter out) {
+		out.writeByte(msg.getType().getCode());
+		out.writeDate(msg.getDate());
+		out.writeDecimal(msg.getValue());
+	}
+
+	private static ResourceMsg readResource(BinaryReader in) {
+		return new ResourceMsg(ResourceEnum.getByCode(in.readByte()), in.readDate(), in.readDecimal());
+	}
+
+	private static void writeResourceVector(ResourcePriceVectorMsg msg, BinaryWriter out) {
+		out.writeDate(msg.getDate());
+		out.writeVarLong(ResourceEnum.values().length);
+		for (int code = 0; code < ResourceEnum.values().length; code++)
+			out.writeDecimal(msg.getPrice(ResourceEnum.getByCode(code)));
+		out.writeVarLong(msg.getTick());
+	}
+
+	private static ResourcePriceVectorMsg readResourceVector(BinaryReader in, int version) {
+		final LocalDate date = in.readDate();
+		final long count = in.readVarLong();
+		if (count != ResourceEnum.values().length)
+			throw new IllegalArgumentException("Expected " + ResourceEnum.values().length + " resource prices, got " + count);
+		final BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		for (int code = 0; code < prices.length; code++)
+			prices[ResourceEnum.getByCode(code).ordinal()] = in.readDecimal();
+		return new ResourcePriceVectorMsg(readTick(in, version), date, prices);
+	}
+
+	private static void writeMarketResponse(MarketResponseMsg msg, BinaryWriter out) {
+		out.writeString(msg.getCompany());
+		out.writeByte(msg.getType().getCode());
+		out.writeDate(msg.getDate());
+		out.writeDecimal(msg.getRevenue());
+		out.writeDecimal(msg.getSelledProducts());
+		out.writeDecimal(msg.getProfit());
+		out.writeDecimal(msg.getProductionCost());
+		out.writeVarLong(msg.getTick());
+	}
+
+	private static MarketResponseMsg readMarketResponse(BinaryReader in, int version) {
+		final String company = in.readString();
+		final ProductTypeEnum type = ProductTypeEnum.getByCode(in.readByte());
+		final LocalDate date = in.readDate();
+		final BigDecimal revenue = in.readDecimal();
+		final BigDecimal selledProducts = in.readDecimal();
+		final BigDecimal profit = in.readDecimal();
+		final BigDecimal productionCost = in.readDecimal();
+		return new MarketResponseMsg(company, type, readTick(in, version), date, revenue, selledProducts, profit, productionCost);
+	}
+
+	private static void writeMarketShare(MarketShareMsg msg, BinaryWriter out) {
+		out.writeDate(msg.getDate());
+		out.writeVarLong(msg.getCompanyShares().size());
+		for (CompanyShareMsg csm : msg.getCompanyShares()) {
+			out.writeString(csm.getCompany());
+			out.writeDecimal(csm.getShareValue());
+			out.writeDecimal(csm.getShareVolume());
+		}
+		out.writeVarLong(msg.getTick());
+	}
+
+	private static MarketShareMsg readMarketShare(BinaryReader in, int version) {
+		final LocalDate date = in.readDate();
+		final int size = (int) in.readVarLong();
+		List<CompanyShareMsg> companyShares = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			companyShares.add(new CompanyShareMsg(in.readString(), in.readDecimal(), in.readDecimal()));
+		return new MarketShareMsg(companyShares, readTick(in, version), date);
+	}
+
+	private static void writeTickCompleted(TickCompletedMsg msg, BinaryWriter out) {
+		out.writeDate(msg.getDate());
+		out.writeVarLong(msg.getResults().size());
+		for (MarketResponseMsg mrm : msg.getResults())
+			writeMarketResponse(mrm, out);
+		if (msg.getShares() == null) {
+			out.writeByte(0);
+		} else {
+			out.writeByte(1);
+			writeMarketShare(msg.getShares(), out);
+		}
+		out.writeVarLong(msg.getTick());
+	}
+
+	private static TickCompletedMsg readTickCompleted(BinaryReader in, int version) {
+		final LocalDate date = in.readDate();
+		final int size = (int) in.readVarLong();
+		List<MarketResponseMsg> results = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			results.add(readMarketResponse(in, version));
+		final MarketShareMsg shares = in.readByte() == 0 ? null : readMarketShare(in, version);
+		return new TickCompletedMsg(readTick(in, version), date, results, shares);
+	}
+
+	private static void writeRegionReport(RegionReportMsg msg, BinaryWriter out) {
+		out.writeString(msg.getRegion());
+		out.writeVarLong(msg.getResults().size());
+		for (MarketResponseMsg mrm : msg.getResults())
+			writeMarketResponse(mrm, out);
+		final RegionPrices prices = msg.getPrices();
+		out.writeVarLong(prices.getCount());
+		out.writeVarLong(prices.getSumPrice());
+		out.writeVarLong(prices.size());
+		for (int i = 0; i < prices.size(); i++) {
+			out.writeString(prices.getCompany(i));
+			out.writeVarLong(prices.getPrice(i));
+		}
+		out.writeVarLong(msg.getTick());
+	}
+
+	private static RegionReportMsg readRegionReport(BinaryReader in, int version) {
+		final String region = in.readString();
+		final int size = (int) in.readVarLong();
+		List<MarketResponseMsg> results = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			results.add(readMarketResponse(in, version));
+		final int count = (int) in.readVarLong();
+		final long sumPrice = in.readVarLong();
+		final String[] companies = new String[(int) in.readVarLong()];
+		final long[] prices = new long[companies.length];
+		for (int i = 0; i < companies.length; i++) {
+			companies[i] = in.readString();
+			prices[i] = in.readVarLong();
+		}
+		return new RegionReportMsg(region, readTick(in, version), results, new RegionPrices(companies, prices, count, sumPrice));
+	}
+
+	private static void writeCompanyState(CompanyStateMsg msg, BinaryWriter out) {
+		out.writeString(msg.getCompany());
+		out.writeVarLong(msg.getTick());
+		out.writeDecimal(msg.getShareVolume());
+		out.writeDecimal(msg.getBasisPrice());
+		// Die Tage fehlen, solange noch kein Tick verarbeitet wurde
+		out.writeByte(msg.getDateTicker() != null ? 1 : 0);
+		if (msg.getDateTicker() != null) {
+			out.writeDate(msg.getDateTicker());
+			out.writeDate(msg.getNextMonthTicker());
+		}
+		out.writeDecimal(msg.getCompleteProfit());
+		out.writeVarLong(msg.getExitTick());
+	}
+
+	private static CompanyStateMsg readCompanyState(BinaryReader in) {
+		final String company = in.readString();
+		final int tick = (int) in.readVarLong();
+		final BigDecimal shareVolume = in.readDecimal();
+		final BigDecimal basisPrice = in.readDecimal();
+		LocalDate dateTicker = null;
+		LocalDate nextMonthTicker = null;
+		if (in.readByte() != 0) {
+			dateTicker = in.readDate();
+			nextMonthTicker = in.readDate();
+		}
+		final BigDecimal completeProfit = in.readDecimal();
+		return new CompanyStateMsg(company, tick, shareVolume, basisPrice, dateTicker, nextMonthTicker, completeProfit, (int) in.readVarLong());
+	}
+
+	private static TickAckMsg readTickAck(BinaryReader in, int version) {
+		final String company = in.readString();
+		final LocalDate date = in.readDate();
+		return new TickAckMsg(company, readTick(in, version), date);
+	}
+
+	private static CompanyRegisterMsg readCompanyRegister(BinaryReader in, int version) {
+		final String company = in.readString();
+		return new CompanyRegisterMsg(company, version < 2 || in.readByte() != 0);
+	}
+
+	private static int readTick(BinaryReader in, int version) {
+		if (version < 2)
+			return MarketMsg.NO_TICK;
+		return (int) in.readVarLong();
+	}
+}
@@ -30,32 +30,40 @@ import javafx.scene.chart.XYChart.Series;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.stage.Stage;
+
+import org.apache.commons.lang.StringUtils;
+
 import scala.concurrent.duration.Duration;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
-import akka.actor.Props;
 import de.haw.md.akka.main.ActorSystemContainer;
-import de.haw.md.akka.main.CompanyElectrPartProd;
-import de.haw.md.akka.main.CompanyMobile;
-import de.haw.md.akka.main.CompanyOil;
+import de.haw.md.akka.main.AgentTopology;
 import de.haw.md.akka.main.MarketContainer;
-import de.haw.md.akka.main.msg.CompanyShareMsgModel;
-import de.haw.md.akka.main.msg.MarketResponseMsgModel;
-import de.haw.md.akka.main.msg.MarketShareMsgModel;
-import de.haw.md.akka.main.msg.ResourceMsgModel;
-import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.akka.main.MarketSnapshot;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
 import de.haw.md.sups.GUIChartHelperEnum;
 import de.haw.md.sups.GUIMenueItemsEnum;
 import de.haw.md.sups.StaticVariables;
 
+/**
+ * Startet die Multi-Agenten-Simulation mit GUI.
+ * 
+ * Aufruf: GuiMultiAgentMain [Handyhersteller] [Zulieferer]
+ */
 @SuppressWarnings("restriction")
 public class GuiMultiAgentMain extends Application {
 
 	private static final double SCREEN_X = 1600;
 	private static final double SCREEN_Y = 1000;
 
-	private static final int ELECTRO_PART_FACTORIES = 7;
-	private static final int MOBILE_FACTORIES = 15;
+	private static final int DEFAULT_ELECTRO_PART_FACTORIES = 7;
+	private static final int DEFAULT_MOBILE_FACTORIES = 15;
+
+	private static int electroPartFactories = DEFAULT_ELECTRO_PART_FACTORIES;
+	private static int mobileFactories = DEFAULT_MOBILE_FACTORIES;
 
 	private static final long SEQUENCE_DURATION = 1000;
 
@@ -72,20 +80,13 @@ public class GuiMultiAgentMain extends Application {
 	private final static ActorSystem system = ActorSystemContainer.getInstance().getSystem();
 
 	public static void main(String[] args) {
-		system.actorOf(Props.create(CompanyOil.class, StaticVariables.CHANNEL, "Company_Oil"), "Company_Oil");
-		for (int i = 0; i < ELECTRO_PART_FACTORIES; i++)
-			system.actorOf(
-					Props.create(CompanyElectrPartProd.class, StaticVariables.CHANNEL, "Company_ElectroPart_" + i,
-							StaticVariables.generateRandomBigDecimalFromRange(new BigDecimal("15"), new BigDecimal("30")),
-							StaticVariables.generateRandomBigDecimalFromRange(new BigDecimal("1.20"), new BigDecimal("1.30")),
-							StaticVariables.generateRandomBigDecimalFromRange(new BigDecimal("1.2"), new BigDecimal("1.7")),
-							StaticVariables.generateRandomBigDecimalFromRange(new BigDecimal("1.6"), new BigDecimal("1.9"))), "Company_ElectroPart_" + i);
-		for (int i = 0; i < MOBILE_FACTORIES; i++)
-			system.actorOf(Props.create(CompanyMobile.class, StaticVariables.CHANNEL, "Company_Mobile_" + i, CompanyValuesEnum.COST_MAN_HOUR.getRandomValue(),
-					CompanyValuesEnum.PROD_MAN_HOUR.getRandomValue(), CompanyValuesEnum.BONUS.getRandomValue(), "Company_ElectroPart_" + i
-							% ELECTRO_PART_FACTORIES, CompanyValuesEnum.SUPPLIER_DISCOUNT.getRandomValue(), CompanyValuesEnum.FIX_COST.getRandomValue(),
-					CompanyValuesEnum.PRODUCTION_LINES.getRandomValue(), CompanyValuesEnum.PRODUCTION_LINES_CAP.getRandomValue(),
-					CompanyValuesEnum.MONTHLY_COSTS.getRandomValue()), "Company_Mobile_" + i);
+		if (args.length > 0)
+			mobileFactories = Integer.parseInt(args[0]);
+		if (args.length > 1)
+			electroPartFactories = Integer.parseInt(args[1]);
+		if (mobileFactories < 1 || electroPartFactories < 1)
+			throw new IllegalArgumentException("Companies and suppliers must be positive");
+		AgentTopology.create(StaticVariables.CHANNEL, electroPartFactories, mobileFactories);
 		launch(args);
 	}
 
@@ -98,56 +99,53 @@ public class GuiMultiAgentMain extends Application {
 			public void handle(ActionEvent actionEvent) {
 				final ActorRef publisher = MarketContainer.getInstance().getPublisher(StaticVariables.CHANNEL);
 				system.scheduler().scheduleOnce(Duration.Zero(), publisher, "Tick", system.dispatcher(), publisher);
-				try {
-					if (counter > 0) {
-						Map<String, ResourceMsgModel> marketMap = MarketContainer.getInstance().getMarket().getResourceMarketResponses();
-						for (String type : marketMap.keySet()) {
-							ResourceMsgModel rmm = marketMap.get(type);
-							final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(type).getData();
-							final BigDecimal convertToBigDecimal = StaticVariables.convertToBigDecimal(rmm.getValue());
-							series.add(new XYChart.Data<Number, Number>(counter, convertToBigDecimal));
-						}
-						Map<String, MarketResponseMsgModel> mobileMarktMap = MarketContainer.getInstance().getMarket().getMobileMarketResponses();
-						for (String company : mobileMarktMap.keySet()) {
-							MarketResponseMsgModel mrmm = mobileMarktMap.get(company);
-							for (GUIChartHelperEnum guiChartHelperEnum : GUIChartHelperEnum.getChartElementsWithGroupName("Company")) {
-								final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(mrmm.getCompany() + "_" + guiChartHelperEnum.getName())
-										.getData();
-								Class<?> mrmmClass = mrmm.getClass();
-								try {
-									PropertyDescriptor pd = new PropertyDescriptor(guiChartHelperEnum.getMethodName(), mrmmClass);
-									Method getter = pd.getReadMethod();
-									String value = (String) getter.invoke(mrmm);
-									BigDecimal convertToBigDecimal = StaticVariables.convertToBigDecimal(value);
-									if (series.size() > 0 && guiChartHelperEnum.getMethodName().equals("profit"))
-										convertToBigDecimal = StaticVariables.convertToBigDecimal(series.get(series.size() - 1).getYValue().toString()).add(
-												convertToBigDecimal);
-									series.add(new XYChart.Data<Number, Number>(counter, convertToBigDecimal));
-								} catch (SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-										| IntrospectionException e) {
-									e.printStackTrace();
-								}
+				if (counter > 0) {
+					// Ein Stand fuer das ganze Bild, der Markt aendert ihn nicht mehr
+					final MarketSnapshot snapshot = MarketContainer.getInstance().getSnapshot();
+					Map<String, ResourceMsg> marketMap = snapshot.getResourceResponses();
+					for (String type : marketMap.keySet()) {
+						ResourceMsg rm = marketMap.get(type);
+						final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(type).getData();
+						series.add(new XYChart.Data<Number, Number>(counter, rm.getValue()));
+					}
+					Map<String, MarketResponseMsg> mobileMarktMap = snapshot.getMobileResponses();
+					for (String company : mobileMarktMap.keySet()) {
+						MarketResponseMsg mrm = mobileMarktMap.get(company);
+						for (GUIChartHelperEnum guiChartHelperEnum : GUIChartHelperEnum.getChartElementsWithGroupName("Company")) {
+							final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(mrm.getCompany() + "_" + guiChartHelperEnum.getName())
+									.getData();
+							Class<?> mrmClass = mrm.getClass();
+							try {
+								final String methodName = guiChartHelperEnum.getMethodName();
+								PropertyDescriptor pd = new PropertyDescriptor(methodName, mrmClass, "get" + StringUtils.capitalize(methodName), null);
+								Method getter = pd.getReadMethod();
+								BigDecimal convertToBigDecimal = (BigDecimal) getter.invoke(mrm);
+								if (series.size() > 0 && guiChartHelperEnum.getMethodName().equals("profit"))
+									convertToBigDecimal = StaticVariables.convertToBigDecimal(series.get(series.size() - 1).getYValue().toString()).add(
+											convertToBigDecimal);
+								series.add(new XYChart.Data<Number, Number>(counter, convertToBigDecimal));
+							} catch (SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
+									| IntrospectionException e) {
+								e.printStackTrace();
 							}
 						}
-						MarketShareMsgModel msmm = MarketContainer.getInstance().getMarket().getMsmm();
-						if (msmm != null) {
-							for (int i = 0; i < MOBILE_FACTORIES; i++) {
-								final String companyName = "Company_Mobile_" + i;
-								BigDecimal csmmShareValue = BigDecimal.ZERO;
-								final CompanyShareMsgModel csmm = msmm.findShareByCompanyName(companyName);
-								if (csmm != null)
-									csmmShareValue = StaticVariables.convertToBigDecimal(csmm.getShareValue());
-								final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(companyName + "_share").getData();
-								series.add(new XYChart.Data<Number, Number>(counter, csmmShareValue));
-							}
+					}
+					MarketShareMsg msm = snapshot.getShares();
+					if (msm != null) {
+						for (int i = 0; i < mobileFactories; i++) {
+							final String companyName = "Company_Mobile_" + i;
+							BigDecimal csmShareValue = BigDecimal.ZERO;
+							final CompanyShareMsg csm = msm.findShareByCompanyName(companyName);
+							if (csm != null)
+								csmShareValue = csm.getShareValue();
+							final ObservableList<Data<Number, Number>> series = chartSeriesMap.get(companyName + "_share").getData();
+							series.add(new XYChart.Data<Number, Number>(counter, csmShareValue));
 						}
 					}
-					counter++;
-					if (counter - 2 >= xAxisList.get(0).getUpperBound())
-						setNewBoundsForAllAxis();
-				} catch (NullPointerException e) {
-					e.printStackTrace();
 				}
+				counter++;
+				if (counter - 2 >= xAxisList.get(0).getUpperBound())
+					setNewBoundsForAllAxis();
 			}
 
 			private void setNewBoundsForAllAxis() {
@@ -191,7 +189,7 @@ public class GuiMultiAgentMain extends Application {
 
 	private List<Series<Number, Number>> createShareXYSeries() {
 		List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>();
-		for (int i = 0; i < MOBILE_FACTORIES; i++) {
+		for (int i = 0; i < mobileFactories; i++) {
 			final String seriesName = "Company_Mobile_" + i;
 			Series<Number, Number> series = new XYChart.Series<>();
 			series.setName(seriesName);
@@ -215,7 +213,7 @@ public class GuiMultiAgentMain extends Application {
 
 	private List<Series<Number, Number>> createMobileXYSeries(String name) {
 		List<XYChart.Series<Number, Number>> seriesList = new ArrayList<>();
-		for (int i = 0; i < MOBILE_FACTORIES; i++) {
+		for (int i = 0; i < mobileFactories; i++) {
 			final String seriesName = "Company_Mobile_" + i;
 			Series<Number, Number> series = new XYChart.Series<>();
 			series.setName(seriesName);
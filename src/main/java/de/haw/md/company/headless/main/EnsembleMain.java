@@ -0,0 +1,114 @@
+package de.haw.md.company.headless.main;
+
+import java.io.FileWriter;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import org.joda.time.LocalDate;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+import de.haw.md.akka.main.AgentTopology;
+import de.haw.md.simulation.EnsembleRunner;
+import de.haw.md.simulation.EnsembleSummary;
+import de.haw.md.simulation.QuantileSketch;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+/**
+ * Startet eine Monte-Carlo-Versuchsreihe ohne Aktoren und schreibt die
+ * Verteilungen als CSV.
+ *
+ * Aufruf: EnsembleMain [Laeufe] [Ticks] [Handyhersteller] [Zulieferer]
+ * [Ausgabedatei] [Threads] [Starttag]
+ *
+ * Jede Zeile enthaelt Anzahl, Mittelwert, Minimum, Quantile und Maximum einer
+ * Kennzahl: profit und share je Unternehmen und ueber alle (all), exitTick
+ * ueber die ausgeschiedenen Unternehmen, exitRate je Unternehmen im
+ * Mittelwert und price je Rohstoff und Tick. -Dseed, -DcostMode und
+ * -DpriceMode wirken wie bei HeadlessMultiAgentMain. Der Starttag (z.B.
+ * 2016-06-01) kommt sonst wie dort aus -DstartDate oder der Historie.
+ */
+public class EnsembleMain {
+
+	private static final int DEFAULT_RUNS = 1000;
+	private static final int DEFAULT_TICKS = 365;
+	private static final int DEFAULT_MOBILE_FACTORIES = 15;
+	private static final int DEFAULT_ELECTRO_PART_FACTORIES = 7;
+	private static final String DEFAULT_OUTPUT_FILE = "ensemble.csv";
+
+	private static final double[] QUANTILES = { 0.05, 0.25, 0.5, 0.75, 0.95 };
+
+	private static final String[] HEADER = { "metric", "key", "tick", "count", "mean", "min", "p05", "p25", "p50", "p75", "p95", "max" };
+
+	public static void main(String[] args) throws Exception {
+		final int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+		final int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+		final int mobileFactories = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MOBILE_FACTORIES;
+		final int electroPartFactories = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ELECTRO_PART_FACTORIES;
+		final String outputFile = args.length > 4 ? args[4] : DEFAULT_OUTPUT_FILE;
+		final int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+		if (runs < 1 || ticks < 1 || mobileFactories < 1 || electroPartFactories < 1 || threads < 1)
+			throw new IllegalArgumentException("Runs, ticks, companies, suppliers and threads must be positive");
+		final SimulationRandom random = SimulationRandom.getInstance();
+		System.out.println("Seed: " + random.getSeed());
+		final Resources history = new Resources();
+		history.readHistory();
+		final LocalDate startDate = args.length > 6 ? LocalDate.parse(args[6]) : history.resolveStartDate();
+		System.out.println("Start: " + startDate);
+		final EnsembleRunner runner = new EnsembleRunner(history, random, electroPartFactories, mobileFactories, ticks, CostModeEnum.getActive(),
+				PriceModeEnum.getActive(), startDate);
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		final long start = System.currentTimeMillis();
+		final EnsembleSummary summary;
+		try {
+			summary = runner.run(runs, pool);
+		} finally {
+			pool.shutdown();
+		}
+		final long duration = System.currentTimeMillis() - start;
+		System.out.println("Simulated " + runs + " runs of " + ticks + " ticks in " + duration + " ms on " + threads + " threads");
+		System.out.println("Profit p05/p50/p95: " + format(summary.getProfit().getQuantile(0.05)) + " / " + format(summary.getProfit().getQuantile(0.5))
+				+ " / " + format(summary.getProfit().getQuantile(0.95)) + ", exits: " + summary.getExitTick().getCount());
+		try (CSVWriter writer = new CSVWriter(new FileWriter(outputFile), ';')) {
+			write(writer, summary);
+		}
+	}
+
+	private static void write(CSVWriter writer, EnsembleSummary summary) {
+		writer.writeNext(HEADER);
+		writer.writeNext(row("profit", "all", "", summary.getProfit()));
+		writer.writeNext(row("share", "all", "", summary.getShare()));
+		writer.writeNext(row("exitTick", "all", "", summary.getExitTick()));
+		for (int i = 0; i < summary.getCompanies(); i++) {
+			final String company = AgentTopology.MOBILE_PREFIX + i;
+			writer.writeNext(row("profit", company, "", summary.getProfit(i)));
+			writer.writeNext(row("share", company, "", summary.getShare(i)));
+			writer.writeNext(new String[] { "exitRate", company, "", String.valueOf(summary.getRuns()), format(summary.getExitRate(i)) });
+		}
+		for (ResourceEnum type : ResourceEnum.values())
+			for (int tick = 1; tick <= summary.getTicks(); tick++)
+				writer.writeNext(row("price", type.getName(), String.valueOf(tick), summary.getPrice(type, tick)));
+	}
+
+	private static String[] row(String metric, String key, String tick, QuantileSketch sketch) {
+		final String[] row = new String[HEADER.length];
+		row[0] = metric;
+		row[1] = key;
+		row[2] = tick;
+		row[3] = String.valueOf(sketch.getCount());
+		row[4] = format(sketch.getMean());
+		row[5] = format(sketch.getMin());
+		for (int i = 0; i < QUANTILES.length; i++)
+			row[6 + i] = format(sketch.getQuantile(QUANTILES[i]));
+		row[HEADER.length - 1] = format(sketch.getMax());
+		return row;
+	}
+
+	private static String format(double value) {
+		return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+	}
+}
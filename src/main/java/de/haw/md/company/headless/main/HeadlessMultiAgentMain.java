@@ -0,0 +1,65 @@
+package de.haw.md.company.headless.main;
+
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+
+import de.haw.md.akka.main.ActorSystemContainer;
+import de.haw.md.akka.main.AgentTopology;
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Startet die Multi-Agenten-Simulation ohne GUI.
+ * 
+ * Aufruf: HeadlessMultiAgentMain [Ticks] [Handyhersteller] [Zulieferer]
+ * [Ausgabedatei] [Fenster]
+ * 
+ * Das Fenster gibt an, wie viele Ticks gleichzeitig laufen. Das Rechenwerk
+ * fuer die Produktionskosten wird mit -DcostMode=FIXED_POINT umgestellt, die
+ * Zufallspreise der Rohstoffe mit -DpriceMode=DOUBLE. Mit -Dseed=... liefern
+ * zwei Laeufe dieselben Ergebnisse, der verwendete seed wird ausgegeben. Bei
+ * sehr vielen Handyherstellern erhaelt mit -DshareMode=DIRECT jedes nur den
+ * eigenen Marktanteil statt aller, mit -DmarketRegions=8 melden sie sich bei
+ * acht regionalen Teilmaerkten statt alle beim Markt. Mit -Djournal=Verzeichnis
+ * werden alle Preise, Angebote, Ergebnisse und Marktanteile dort protokolliert
+ * (siehe Journal).
+ * 
+ * Mit -Dcheckpoint=Verzeichnis wird alle -DcheckpointInterval=1000 Ticks und
+ * am Ende ein Checkpoint geschrieben, mit -Dresume=Datei setzt ein Lauf nach
+ * dessen letztem Tick fort. Ticks gibt dann die Anzahl weiterer Ticks an, der
+ * seed kommt aus dem Checkpoint. Andere Einstellungen duerfen sich aendern,
+ * z.B. fuer einen Zweig mit anderem -DpriceMode.
+ */
+public class HeadlessMultiAgentMain {
+
+	private static final int DEFAULT_TICKS = 365;
+	private static final int DEFAULT_MOBILE_FACTORIES = 15;
+	private static final int DEFAULT_ELECTRO_PART_FACTORIES = 7;
+	private static final String DEFAULT_OUTPUT_FILE = "results.csv";
+	private static final int DEFAULT_WINDOW = 1;
+
+	public static void main(String[] args) throws Exception {
+		final int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+		final int mobileFactories = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MOBILE_FACTORIES;
+		final int electroPartFactories = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ELECTRO_PART_FACTORIES;
+		final String outputFile = args.length > 3 ? args[3] : DEFAULT_OUTPUT_FILE;
+		final int window = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_WINDOW;
+		if (ticks < 1 || mobileFactories < 1 || electroPartFactories < 1 || window < 1)
+			throw new IllegalArgumentException("Ticks, companies, suppliers and window must be positive");
+		final Checkpoint checkpoint = Checkpoint.getResume();
+		if (checkpoint != null) {
+			// Die Parameter der Unternehmen haengen am seed
+			SimulationRandom.init(checkpoint.getSeed());
+			System.out.println("Resuming after tick " + checkpoint.getTick());
+		}
+		System.out.println("Seed: " + SimulationRandom.getInstance().getSeed());
+		final ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+		final ActorRef market = AgentTopology.create(StaticVariables.CHANNEL, electroPartFactories, mobileFactories);
+		system.actorOf(Props.create(SimulationDriver.class, market, ticks, window, outputFile), "SimulationDriver");
+		Await.result(system.whenTerminated(), Duration.Inf());
+	}
+}
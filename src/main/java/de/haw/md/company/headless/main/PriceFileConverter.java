@@ -0,0 +1,28 @@
+package de.haw.md.company.headless.main;
+
+import java.io.File;
+
+import de.haw.md.sups.PriceFile;
+import de.haw.md.sups.Resources;
+
+/**
+ * Liest die Kursdateien des CommodityCatalog einmal ein und schreibt sie als
+ * PriceFile.
+ *
+ * Aufruf: PriceFileConverter [Ausgabedatei]
+ *
+ * Ohne Ausgabedatei wird prices.bin neben die Kursdateien geschrieben, dort
+ * findet Resources sie beim naechsten Start. Nach einer Aenderung der
+ * Kursdateien erkennt Resources die veraltete Datei und liest wieder die
+ * Kursdateien, bis erneut konvertiert wird.
+ */
+public class PriceFileConverter {
+
+	public static void main(String[] args) throws Exception {
+		final Resources resources = new Resources();
+		final File file = args.length > 0 ? new File(args[0]) : PriceFile.getDefaultFile(resources.getCatalog());
+		resources.readCsvPrices();
+		PriceFile.write(file, resources);
+		System.out.println("Wrote " + file.getAbsolutePath() + " (" + file.length() + " bytes)");
+	}
+}
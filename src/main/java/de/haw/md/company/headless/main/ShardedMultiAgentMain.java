@@ -0,0 +1,113 @@
+package de.haw.md.company.headless.main;
+
+import java.util.concurrent.CountDownLatch;
+
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.cluster.Cluster;
+import akka.cluster.ClusterEvent;
+
+import de.haw.md.akka.main.ActorSystemContainer;
+import de.haw.md.akka.main.CompanyEntity;
+import de.haw.md.akka.main.ShardedTopology;
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Startet einen Knoten der verteilten Simulation ohne GUI. Die Unternehmen
+ * verteilen sich per Cluster Sharding auf alle Knoten, der Markt laeuft als
+ * Cluster-Singleton.
+ *
+ * Aufruf: ShardedMultiAgentMain worker [Zulieferer]
+ *
+ * bzw. ShardedMultiAgentMain driver [Ticks] [Handyhersteller] [Zulieferer]
+ * [Ausgabedatei] [Fenster]
+ *
+ * Die Seed-Knoten aus der application.conf laufen mit
+ * -Dakka.remote.netty.tcp.port=2551 bzw. 2552. Der Treiber startet die
+ * Unternehmen, sobald -Dakka.cluster.min-nr-of-members Knoten im Cluster sind,
+ * und schreibt die Ergebnisse wie HeadlessMultiAgentMain. Die Worker beenden
+ * sich, wenn ein anderer Knoten den Cluster verlaesst. Alle Knoten brauchen
+ * dasselbe -Dseed und dieselbe Anzahl Zulieferer, dann sind die Ergebnisse
+ * dieselben wie bei HeadlessMultiAgentMain. Zum Fortsetzen aus einem
+ * Checkpoint brauchen alle Knoten dasselbe -Dresume.
+ */
+public class ShardedMultiAgentMain {
+
+	private static final int DEFAULT_TICKS = 365;
+	private static final int DEFAULT_MOBILE_FACTORIES = 15;
+	private static final int DEFAULT_ELECTRO_PART_FACTORIES = 7;
+	private static final String DEFAULT_OUTPUT_FILE = "results.csv";
+	private static final int DEFAULT_WINDOW = 1;
+
+	public static void main(String[] args) throws Exception {
+		final boolean driver = args.length > 0 && args[0].equals("driver");
+		if (!driver && args.length > 0 && !args[0].equals("worker"))
+			throw new IllegalArgumentException("Unknown role: " + args[0]);
+		final int ticks = driver && args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+		final int mobileFactories = driver && args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MOBILE_FACTORIES;
+		final int electroPartFactories = driver ? (args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ELECTRO_PART_FACTORIES)
+				: (args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ELECTRO_PART_FACTORIES);
+		final String outputFile = driver && args.length > 4 ? args[4] : DEFAULT_OUTPUT_FILE;
+		final int window = driver && args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_WINDOW;
+		if (ticks < 1 || mobileFactories < 1 || electroPartFactories < 1 || window < 1)
+			throw new IllegalArgumentException("Ticks, companies, suppliers and window must be positive");
+		final Checkpoint checkpoint = Checkpoint.getResume();
+		if (checkpoint != null) {
+			// Die Parameter der Unternehmen haengen am seed
+			SimulationRandom.init(checkpoint.getSeed());
+			System.out.println("Resuming after tick " + checkpoint.getTick());
+		}
+		System.out.println("Seed: " + SimulationRandom.getInstance().getSeed());
+		final ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+		ShardedTopology.start(system, StaticVariables.CHANNEL, electroPartFactories);
+		if (driver) {
+			final CountDownLatch up = new CountDownLatch(1);
+			Cluster.get(system).registerOnMemberUp(new Runnable() {
+				@Override
+				public void run() {
+					up.countDown();
+				}
+			});
+			up.await();
+			final ActorRef market = ShardedTopology.create(StaticVariables.CHANNEL, electroPartFactories, mobileFactories);
+			system.actorOf(Props.create(SimulationDriver.class, market, ticks, window, outputFile), "SimulationDriver");
+		} else {
+			system.actorOf(Props.create(ClusterExitWatcher.class), "ClusterExitWatcher");
+		}
+		Await.result(system.whenTerminated(), Duration.Inf());
+		System.out.println("Companies on this node: " + CompanyEntity.getStarted());
+	}
+
+	/**
+	 * Beendet das Aktorsystem eines Workers, sobald ein anderer Knoten den
+	 * Cluster verlassen hat oder nicht mehr erreichbar ist.
+	 */
+	public static class ClusterExitWatcher extends UntypedActor {
+
+		private final Cluster cluster = Cluster.get(getContext().system());
+
+		@Override
+		public void preStart() {
+			cluster.subscribe(getSelf(), ClusterEvent.initialStateAsEvents(), ClusterEvent.MemberRemoved.class, ClusterEvent.UnreachableMember.class);
+		}
+
+		@Override
+		public void postStop() {
+			cluster.unsubscribe(getSelf());
+		}
+
+		@Override
+		public void onReceive(Object msg) throws Exception {
+			if (msg instanceof ClusterEvent.MemberRemoved || msg instanceof ClusterEvent.UnreachableMember)
+				getContext().system().terminate();
+			else
+				unhandled(msg);
+		}
+	}
+}
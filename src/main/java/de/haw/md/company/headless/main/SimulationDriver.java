@@ -0,0 +1,141 @@
+package de.haw.md.company.headless.main;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import akka.actor.ActorRef;
+import akka.actor.Status;
+import au.com.bytecode.opencsv.CSVWriter;
+
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.akka.main.msg.CheckpointMsg;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.akka.main.msg.TickMsg;
+import de.haw.md.metrics.MeteredActor;
+import de.haw.md.metrics.Metrics;
+
+/**
+ * Treibt die Simulation ohne GUI so schnell wie moeglich voran: Es laufen
+ * hoechstens window Ticks gleichzeitig, ein neuer Tick wird erst geschickt, wenn
+ * der Markt den Abschluss eines laufenden meldet. Die Ergebnisse jedes Ticks
+ * werden als CSV geschrieben, nach dem letzten Tick wird das Aktorsystem
+ * beendet.
+ *
+ * Mit -Dcheckpoint=Verzeichnis haelt der Treiber alle -DcheckpointInterval
+ * Ticks und nach dem letzten Tick an, wartet, bis kein Tick mehr laeuft, und
+ * laesst den Markt einen Checkpoint schreiben. Danach geht es weiter.
+ *
+ * Lehnt der Markt einen Tick ab, z.B. weil nicht alle Unternehmen bereit
+ * wurden, wird das Aktorsystem ohne weitere Ticks beendet.
+ */
+public class SimulationDriver extends MeteredActor {
+
+	private static final String[] HEADER = { "tick", "date", "company", "revenue", "selledProducts", "profit", "productionCost", "shareValue",
+			"shareVolume" };
+
+	private final ActorRef market;
+	private final int ticks;
+	private final int window;
+	private final String outputFile;
+
+	/** Verzeichnis der Checkpoints oder null */
+	private final File checkpointDirectory = Checkpoint.getDirectory();
+
+	private CSVWriter writer;
+	private int sentTicks = 0;
+	private int completedTicks = 0;
+	/** Anzahl der Ticks dieses Laufs, nach der der naechste Checkpoint kommt */
+	private int nextCheckpoint = Integer.MAX_VALUE;
+	/** Ein Checkpoint ist angefordert und noch nicht bestaetigt */
+	private boolean checkpointRunning = false;
+	private long start;
+
+	public SimulationDriver(ActorRef market, int ticks, int window, String outputFile) {
+		this.market = market;
+		this.ticks = ticks;
+		this.window = window;
+		this.outputFile = outputFile;
+	}
+
+	@Override
+	public void preStart() throws IOException {
+		writer = new CSVWriter(new FileWriter(outputFile), ';');
+		writer.writeNext(HEADER);
+		if (checkpointDirectory != null)
+			nextCheckpoint = Checkpoint.getInterval();
+		start = System.currentTimeMillis();
+		sendTicks();
+	}
+
+	@Override
+	public void onReceive(Object msg) throws Exception {
+		if (msg instanceof TickCompletedMsg) {
+			writeResults((TickCompletedMsg) msg);
+			completedTicks++;
+			if (checkpointDirectory != null && completedTicks == sentTicks && (completedTicks == nextCheckpoint || completedTicks == ticks))
+				requestCheckpoint();
+			else
+				continueRun();
+		} else if (msg instanceof CheckpointMsg) {
+			checkpointRunning = false;
+			System.out.println("Checkpoint after tick " + ((CheckpointMsg) msg).getTick() + ": " + ((CheckpointMsg) msg).getPath());
+			nextCheckpoint += Checkpoint.getInterval();
+			continueRun();
+		} else if (msg instanceof Status.Failure && checkpointRunning) {
+			checkpointRunning = false;
+			System.err.println("Checkpoint failed: " + ((Status.Failure) msg).cause());
+			nextCheckpoint += Checkpoint.getInterval();
+			continueRun();
+		} else if (msg instanceof Status.Failure) {
+			System.err.println("Tick failed after " + completedTicks + " ticks: " + ((Status.Failure) msg).cause());
+			getContext().system().terminate();
+		} else {
+			unhandled(msg);
+		}
+	}
+
+	private void requestCheckpoint() {
+		checkpointRunning = true;
+		market.tell(new CheckpointMsg(checkpointDirectory.getPath()), getSelf());
+	}
+
+	private void continueRun() {
+		if (completedTicks < ticks) {
+			sendTicks();
+			return;
+		}
+		final long duration = System.currentTimeMillis() - start;
+		System.out.println("Simulated " + ticks + " ticks in " + duration + " ms");
+		getContext().system().log().info(Metrics.getInstance().getSummary());
+		getContext().system().terminate();
+	}
+
+	@Override
+	public void postStop() throws IOException {
+		if (writer != null)
+			writer.close();
+	}
+
+	/**
+	 * Fuellt das Fenster auf, aber nicht ueber den naechsten Checkpoint
+	 * hinaus.
+	 */
+	private void sendTicks() {
+		while (sentTicks < ticks && sentTicks - completedTicks < window && sentTicks < nextCheckpoint) {
+			market.tell(new TickMsg(window), getSelf());
+			sentTicks++;
+		}
+	}
+
+	private void writeResults(TickCompletedMsg tcm) {
+		for (MarketResponseMsg mrm : tcm.getResults()) {
+			final CompanyShareMsg csm = tcm.getShares() == null ? null : tcm.getShares().findShareByCompanyName(mrm.getCompany());
+			writer.writeNext(new String[] { String.valueOf(tcm.getTick()), tcm.getDate().toString(), mrm.getCompany(), mrm.getRevenue().toPlainString(),
+					mrm.getSelledProducts().toPlainString(), mrm.getProfit().toPlainString(), mrm.getProductionCost().toPlainString(),
+					csm == null ? "" : csm.getShareValue().toPlainString(), csm == null ? "" : csm.getShareVolume().toPlainString() });
+		}
+	}
+}
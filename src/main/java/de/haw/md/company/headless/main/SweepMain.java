@@ -0,0 +1,127 @@
+package de.haw.md.company.headless.main;
+
+import java.io.FileWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.joda.time.LocalDate;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+import de.haw.md.simulation.ParameterSweep;
+import de.haw.md.simulation.SweepDesignEnum;
+import de.haw.md.simulation.SweepResult;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+/**
+ * Startet eine Parameterstudie ueber die Bereiche aus CompanyValuesEnum und
+ * schreibt eine Zeile je Punkt als CSV.
+ *
+ * Aufruf: SweepMain [GRID|LATIN_HYPERCUBE|SOBOL] [Groesse] [Wiederholungen]
+ * [Ticks] [Handyhersteller] [Zulieferer] [Ausgabedatei] [Threads] [Starttag]
+ *
+ * Die Groesse ist bei GRID die Anzahl der Stufen je Kennzahl, sonst die Anzahl
+ * der Punkte. Untersucht werden alle Kennzahlen oder die mit
+ * -Dparameters=BONUS,FIX_COST angegebenen. -Dseed, -DcostMode und -DpriceMode
+ * wirken wie bei HeadlessMultiAgentMain. Der Starttag (z.B. 2016-06-01) kommt
+ * sonst wie dort aus -DstartDate oder der Historie.
+ */
+public class SweepMain {
+
+	public static final String PARAMETERS_PROPERTY = "parameters";
+
+	private static final SweepDesignEnum DEFAULT_DESIGN = SweepDesignEnum.LATIN_HYPERCUBE;
+	private static final int DEFAULT_SIZE = 64;
+	private static final int DEFAULT_REPLICATIONS = 10;
+	private static final int DEFAULT_TICKS = 365;
+	private static final int DEFAULT_MOBILE_FACTORIES = 15;
+	private static final int DEFAULT_ELECTRO_PART_FACTORIES = 7;
+	private static final String DEFAULT_OUTPUT_FILE = "sweep.csv";
+
+	private static final String[] RESULT_HEADER = { "runs", "profitMean", "profitP05", "profitP50", "profitP95", "exitRate", "meanExitTick", "meanShare" };
+
+	public static void main(String[] args) throws Exception {
+		final SweepDesignEnum design = args.length > 0 ? SweepDesignEnum.valueOf(args[0]) : DEFAULT_DESIGN;
+		final int size = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SIZE;
+		final int replications = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_REPLICATIONS;
+		final int ticks = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TICKS;
+		final int mobileFactories = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MOBILE_FACTORIES;
+		final int electroPartFactories = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_ELECTRO_PART_FACTORIES;
+		final String outputFile = args.length > 6 ? args[6] : DEFAULT_OUTPUT_FILE;
+		final int threads = args.length > 7 ? Integer.parseInt(args[7]) : Runtime.getRuntime().availableProcessors();
+		if (size < 1 || replications < 1 || ticks < 1 || mobileFactories < 1 || electroPartFactories < 1 || threads < 1)
+			throw new IllegalArgumentException("Size, replications, ticks, companies, suppliers and threads must be positive");
+		final List<CompanyValuesEnum> parameters = getParameters();
+		final SimulationRandom random = SimulationRandom.getInstance();
+		System.out.println("Seed: " + random.getSeed());
+		final Resources history = new Resources();
+		history.readHistory();
+		final LocalDate startDate = args.length > 8 ? LocalDate.parse(args[8]) : history.resolveStartDate();
+		System.out.println("Start: " + startDate);
+		final ParameterSweep sweep = new ParameterSweep(history, random, electroPartFactories, mobileFactories, ticks, CostModeEnum.getActive(),
+				PriceModeEnum.getActive(), startDate);
+		final List<Map<CompanyValuesEnum, BigDecimal>> points = sweep.createPoints(design, parameters, size);
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		final long start = System.currentTimeMillis();
+		final List<SweepResult> results;
+		try {
+			results = sweep.run(points, replications, pool);
+		} finally {
+			pool.shutdown();
+		}
+		final long duration = System.currentTimeMillis() - start;
+		System.out.println("Simulated " + points.size() + " points x " + replications + " runs of " + ticks + " ticks in " + duration + " ms on "
+				+ threads + " threads");
+		try (CSVWriter writer = new CSVWriter(new FileWriter(outputFile), ';')) {
+			write(writer, parameters, results);
+		}
+	}
+
+	private static List<CompanyValuesEnum> getParameters() {
+		final String property = System.getProperty(PARAMETERS_PROPERTY);
+		if (property == null || property.trim().isEmpty())
+			return Arrays.asList(CompanyValuesEnum.values());
+		final List<CompanyValuesEnum> parameters = new ArrayList<>();
+		for (String name : property.split(","))
+			parameters.add(CompanyValuesEnum.valueOf(name.trim()));
+		return parameters;
+	}
+
+	private static void write(CSVWriter writer, List<CompanyValuesEnum> parameters, List<SweepResult> results) {
+		final String[] header = new String[1 + parameters.size() + RESULT_HEADER.length];
+		header[0] = "point";
+		for (int i = 0; i < parameters.size(); i++)
+			header[1 + i] = parameters.get(i).name();
+		System.arraycopy(RESULT_HEADER, 0, header, 1 + parameters.size(), RESULT_HEADER.length);
+		writer.writeNext(header);
+		for (SweepResult result : results) {
+			final String[] row = new String[header.length];
+			row[0] = String.valueOf(result.getPoint());
+			for (int i = 0; i < parameters.size(); i++)
+				row[1 + i] = result.getValues().get(parameters.get(i)).toPlainString();
+			int column = 1 + parameters.size();
+			row[column++] = String.valueOf(result.getRuns());
+			row[column++] = format(result.getMeanProfit());
+			row[column++] = format(result.getProfit(0.05));
+			row[column++] = format(result.getProfit(0.5));
+			row[column++] = format(result.getProfit(0.95));
+			row[column++] = format(result.getExitRate());
+			row[column++] = format(result.getMeanExitTick());
+			row[column] = format(result.getMeanShare());
+			writer.writeNext(row);
+		}
+	}
+
+	private static String format(double value) {
+		return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+	}
+}
@@ -70,7 +70,7 @@ public class Company {
 	}
 
 	private BigDecimal calcProdKost(boolean topProd, BigDecimal prognoseVerkauf) {
-		BigDecimal varKost = CompanyMainTwo.generateRandomBigDecimalFromRange(ekMatX, ekMatY);
+		BigDecimal varKost = cmt.generateRandomBigDecimalFromRange(ekMatX, ekMatY);
 		if (topProd)
 			return varKost.add(fixKosten.divide(anzProdZyk, RoundingMode.HALF_UP));
 		final BigDecimal prodMprodStufe = prognoseVerkauf.multiply(prodStufen);
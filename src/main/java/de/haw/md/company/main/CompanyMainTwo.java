@@ -4,6 +4,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
 
 public class CompanyMainTwo {
 
@@ -15,6 +19,9 @@ public class CompanyMainTwo {
 
 	public int currentZyklus = 0;
 
+	/** Zufallszahlen der Unternehmen, mit -Dseed reproduzierbar */
+	private final SplittableRandom random = SimulationRandom.getInstance().stream("CompanyMainTwo");
+
 	private Company c1;
 
 	private Company c2;
@@ -114,13 +121,12 @@ public class CompanyMainTwo {
 		cmt.simulate();
 	}
 
-	public static BigDecimal generateRandomBigDecimalFromRange(BigDecimal min, BigDecimal max) {
-		BigDecimal randomBigDecimal = min.add(new BigDecimal(Math.random()).multiply(max.subtract(min)));
-		return randomBigDecimal.setScale(2, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal generateRandomBigDecimalFromRange(BigDecimal min, BigDecimal max) {
+		return StaticVariables.generateRandomBigDecimalFromRange(random, min, max);
 	}
 	
-	public static BigDecimal generateRandomBigDecimalFromRangeScale0(BigDecimal min, BigDecimal max) {
-		return generateRandomBigDecimalFromRange(min, max).setScale(0, RoundingMode.HALF_UP);
+	public BigDecimal generateRandomBigDecimalFromRangeScale0(BigDecimal min, BigDecimal max) {
+		return StaticVariables.generateRandomBigDecimalFromRangeScale0(random, min, max);
 	}
 
 	public Company getC1() {
@@ -0,0 +1,93 @@
+package de.haw.md.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Messwerte aller Aktoren einer Art: empfangene und gesendete Nachrichten,
+ * Verarbeitungszeit je Nachricht und die Anzahl der Nachrichten, die beim
+ * Verarbeiten noch im Postfach warten.
+ */
+public class ActorMetrics implements ActorMetricsMBean {
+
+	private final String type;
+
+	private final LongAdder received = new LongAdder();
+	private final LongAdder sent = new LongAdder();
+	private final Histogram processing = new Histogram();
+	private final Histogram mailboxDepth = new Histogram();
+
+	public ActorMetrics(String type) {
+		this.type = type;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	void recordReceived(long processingNanos, int depth) {
+		received.increment();
+		processing.record(processingNanos);
+		mailboxDepth.record(depth);
+	}
+
+	void recordSent() {
+		sent.increment();
+	}
+
+	@Override
+	public long getReceived() {
+		return received.sum();
+	}
+
+	@Override
+	public long getSent() {
+		return sent.sum();
+	}
+
+	public Histogram getProcessing() {
+		return processing;
+	}
+
+	public Histogram getMailboxDepth() {
+		return mailboxDepth;
+	}
+
+	@Override
+	public double getProcessingMean() {
+		return processing.getMean();
+	}
+
+	@Override
+	public long getProcessing99thPercentile() {
+		return processing.get99thPercentile();
+	}
+
+	@Override
+	public long getProcessingMax() {
+		return processing.getMax();
+	}
+
+	@Override
+	public double getMailboxDepthMean() {
+		return mailboxDepth.getMean();
+	}
+
+	@Override
+	public long getMailboxDepthMax() {
+		return mailboxDepth.getMax();
+	}
+
+	@Override
+	public void reset() {
+		received.reset();
+		sent.reset();
+		processing.reset();
+		mailboxDepth.reset();
+	}
+
+	@Override
+	public String toString() {
+		return type + " received=" + getReceived() + " sent=" + getSent() + " processing[" + processing + "] mailbox[n=" + mailboxDepth.getCount()
+				+ " mean=" + Math.round(getMailboxDepthMean()) + " max=" + getMailboxDepthMax() + "]";
+	}
+}
@@ -0,0 +1,23 @@
+package de.haw.md.metrics;
+
+/**
+ * JMX-Sicht der Messwerte einer Aktor-Art. Zeiten in Nanosekunden.
+ */
+public interface ActorMetricsMBean {
+
+	long getReceived();
+
+	long getSent();
+
+	double getProcessingMean();
+
+	long getProcessing99thPercentile();
+
+	long getProcessingMax();
+
+	double getMailboxDepthMean();
+
+	long getMailboxDepthMax();
+
+	void reset();
+}
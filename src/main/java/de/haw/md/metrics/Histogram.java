@@ -0,0 +1,118 @@
+package de.haw.md.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramm nicht negativer Werte, z.B. Zeiten in Nanosekunden, mit
+ * festen Faechern: je Zweierpotenz acht gleich breite Faecher, also hoechstens
+ * 12,5 % Abweichung. record legt keine Objekte an und darf aus beliebig
+ * vielen Threads aufgerufen werden. Die Auswertung liest die Faecher ohne
+ * Sperre, waehrend weiter aufgezeichnet wird, und ist damit nur ungefaehr
+ * zeitgleich.
+ */
+public class Histogram implements HistogramMBean {
+
+	/** Faecher je Zweierpotenz als Bits */
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param value
+	 *            negative Werte zaehlen als 0
+	 */
+	public void record(long value) {
+		final long v = Math.max(0, value);
+		counts.incrementAndGet(getBucket(v));
+		sum.addAndGet(v);
+		long current = max.get();
+		while (v > current && !max.compareAndSet(current, v))
+			current = max.get();
+	}
+
+	static int getBucket(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return groesster Wert des Fachs
+	 */
+	static long getUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		final int shift = bucket / SUB_BUCKETS - 1;
+		final long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	@Override
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			count += counts.get(i);
+		return count;
+	}
+
+	@Override
+	public double getMean() {
+		final long count = getCount();
+		return count == 0 ? 0 : (double) sum.get() / count;
+	}
+
+	@Override
+	public long getMedian() {
+		return getPercentile(50);
+	}
+
+	@Override
+	public long get99thPercentile() {
+		return getPercentile(99);
+	}
+
+	@Override
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @param percent
+	 *            0 bis 100
+	 * @return Obergrenze des Fachs, in dem das Perzentil liegt, hoechstens
+	 *         getMax
+	 */
+	public long getPercentile(double percent) {
+		final long count = getCount();
+		if (count == 0)
+			return 0;
+		final long rank = Math.max(1, (long) Math.ceil(count * percent / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return Math.min(getUpperBound(i), getMax());
+		}
+		return getMax();
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "n=" + getCount() + " mean=" + Math.round(getMean()) + " p50=" + getMedian() + " p99=" + get99thPercentile() + " max=" + getMax();
+	}
+}
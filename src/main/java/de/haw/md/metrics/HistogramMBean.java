@@ -0,0 +1,19 @@
+package de.haw.md.metrics;
+
+/**
+ * JMX-Sicht eines Histogram. Zeiten in Nanosekunden.
+ */
+public interface HistogramMBean {
+
+	long getCount();
+
+	double getMean();
+
+	long getMedian();
+
+	long get99thPercentile();
+
+	long getMax();
+
+	void reset();
+}
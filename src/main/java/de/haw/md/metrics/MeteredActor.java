@@ -0,0 +1,36 @@
+package de.haw.md.metrics;
+
+import scala.PartialFunction;
+import scala.runtime.BoxedUnit;
+import akka.actor.UntypedActor;
+
+/**
+ * UntypedActor, der je Nachricht Verarbeitungszeit und Postfachlaenge in der
+ * ActorMetrics seiner Klasse festhaelt. Nachrichten, die er dabei in ein
+ * MeteredMailbox-Postfach stellt, zaehlen als gesendet.
+ */
+public abstract class MeteredActor extends UntypedActor {
+
+	private final ActorMetrics metrics = Metrics.getInstance().getActor(getClass().getSimpleName());
+
+	@Override
+	public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+		final MeteredMailbox.MeteredQueue queue = MeteredMailbox.DEQUEUED.get();
+		// set statt remove, damit der Eintrag des Threads erhalten bleibt
+		MeteredMailbox.DEQUEUED.set(null);
+		final int depth = queue == null ? 0 : queue.numberOfMessages();
+		final ActorMetrics previous = MeteredMailbox.CURRENT_SENDER.get();
+		MeteredMailbox.CURRENT_SENDER.set(metrics);
+		final long start = System.nanoTime();
+		try {
+			super.aroundReceive(receive, msg);
+		} finally {
+			metrics.recordReceived(System.nanoTime() - start, depth);
+			MeteredMailbox.CURRENT_SENDER.set(previous);
+		}
+	}
+
+	protected ActorMetrics getMetrics() {
+		return metrics;
+	}
+}
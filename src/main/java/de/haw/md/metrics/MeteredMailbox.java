@@ -0,0 +1,90 @@
+package de.haw.md.metrics;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import scala.Option;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.MultipleConsumerSemantics;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedMessageQueueSemantics;
+
+import com.typesafe.config.Config;
+
+/**
+ * Unbegrenztes Postfach wie akka.dispatch.UnboundedMailbox, das seine Laenge
+ * mitzaehlt und gesendete Nachrichten dem gerade laufenden MeteredActor
+ * zuordnet. In der application.conf als Standardpostfach eingetragen.
+ */
+public class MeteredMailbox implements MailboxType, ProducesMessageQueue<MeteredMailbox.MeteredQueue> {
+
+	/** Der MeteredActor, der auf diesem Thread gerade eine Nachricht verarbeitet */
+	static final ThreadLocal<ActorMetrics> CURRENT_SENDER = new ThreadLocal<>();
+
+	/**
+	 * Das Postfach der zuletzt auf diesem Thread entnommenen Nachricht. Der
+	 * Dispatcher verarbeitet sie direkt danach auf demselben Thread.
+	 */
+	static final ThreadLocal<MeteredQueue> DEQUEUED = new ThreadLocal<>();
+
+	public MeteredMailbox(ActorSystem.Settings settings, Config config) {
+	}
+
+	@Override
+	public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+		return new MeteredQueue();
+	}
+
+	/**
+	 * Warteschlange eines Aktors. Die Laenge wird mitgezaehlt, da
+	 * ConcurrentLinkedQueue.size die ganze Schlange durchlaeuft.
+	 */
+	public static class MeteredQueue implements MessageQueue, UnboundedMessageQueueSemantics, MultipleConsumerSemantics {
+
+		private final ConcurrentLinkedQueue<Envelope> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		@Override
+		public void enqueue(ActorRef receiver, Envelope handle) {
+			queue.offer(handle);
+			size.incrementAndGet();
+			final ActorMetrics sender = CURRENT_SENDER.get();
+			if (sender != null)
+				sender.recordSent();
+		}
+
+		@Override
+		public Envelope dequeue() {
+			final Envelope handle = queue.poll();
+			if (handle != null) {
+				size.decrementAndGet();
+				DEQUEUED.set(this);
+			}
+			return handle;
+		}
+
+		@Override
+		public int numberOfMessages() {
+			return Math.max(0, size.get());
+		}
+
+		@Override
+		public boolean hasMessages() {
+			return !queue.isEmpty();
+		}
+
+		@Override
+		public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+			Envelope handle;
+			while ((handle = queue.poll()) != null) {
+				size.decrementAndGet();
+				deadLetters.enqueue(owner, handle);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package de.haw.md.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import scala.concurrent.duration.FiniteDuration;
+import akka.actor.ActorSystem;
+
+import com.typesafe.config.Config;
+
+/**
+ * Sammelt die Messwerte der Simulation: die Abschnitte aus TimerEnum und je
+ * Aktor-Art eine ActorMetrics. Alle Messwerte sind als MBeans unter
+ * de.haw.md:type=Timer bzw. de.haw.md:type=Actor registriert, z.B. fuer
+ * jconsole. Zusaetzlich schreibt startLogSummary in festen Abstaenden eine
+ * Zusammenfassung ins Log des Aktorsystems.
+ */
+public class Metrics {
+
+	public static final String DOMAIN = "de.haw.md";
+
+	/** Abstand der Zusammenfassungen im Log, 0 schaltet sie ab */
+	public static final String LOG_INTERVAL_PATH = "simulation.metrics.log-interval";
+
+	private static Metrics instance = null;
+
+	private final ConcurrentHashMap<String, ActorMetrics> actors = new ConcurrentHashMap<>();
+
+	private Metrics() {
+		for (TimerEnum timer : TimerEnum.values())
+			register("Timer", timer.getName(), timer.getHistogram());
+	}
+
+	public static synchronized Metrics getInstance() {
+		if (instance == null) {
+			instance = new Metrics();
+		}
+		return instance;
+	}
+
+	/**
+	 * @param type
+	 *            Art des Aktors, z.B. der einfache Klassenname
+	 * @return die Messwerte dieser Art, beim ersten Aufruf angelegt
+	 */
+	public ActorMetrics getActor(String type) {
+		final ActorMetrics metrics = actors.get(type);
+		if (metrics != null)
+			return metrics;
+		final ActorMetrics created = new ActorMetrics(type);
+		final ActorMetrics previous = actors.putIfAbsent(type, created);
+		if (previous != null)
+			return previous;
+		register("Actor", type, created);
+		return created;
+	}
+
+	/**
+	 * @return Messwerte aller Aktor-Arten, nach Art sortiert
+	 */
+	public List<ActorMetrics> getActors() {
+		final List<ActorMetrics> list = new ArrayList<>(actors.values());
+		list.sort(Comparator.comparing(ActorMetrics::getType));
+		return list;
+	}
+
+	/**
+	 * @return eine Zeile je Abschnitt und Aktor-Art mit Werten, Zeiten in
+	 *         Nanosekunden
+	 */
+	public String getSummary() {
+		final StringBuilder summary = new StringBuilder("Metrics");
+		for (TimerEnum timer : TimerEnum.values())
+			if (timer.getHistogram().getCount() > 0)
+				summary.append("\n  ").append(timer.getName()).append(' ').append(timer.getHistogram());
+		for (ActorMetrics metrics : getActors())
+			if (metrics.getReceived() > 0 || metrics.getSent() > 0)
+				summary.append("\n  ").append(metrics);
+		return summary.toString();
+	}
+
+	/**
+	 * Schreibt die Zusammenfassung im Abstand aus LOG_INTERVAL_PATH ins Log
+	 * des Aktorsystems.
+	 *
+	 * @param system
+	 */
+	public void startLogSummary(final ActorSystem system) {
+		final Config config = system.settings().config();
+		if (!config.hasPath(LOG_INTERVAL_PATH))
+			return;
+		final long millis = config.getDuration(LOG_INTERVAL_PATH, TimeUnit.MILLISECONDS);
+		if (millis <= 0)
+			return;
+		final FiniteDuration interval = new FiniteDuration(millis, TimeUnit.MILLISECONDS);
+		system.scheduler().schedule(interval, interval, new Runnable() {
+			@Override
+			public void run() {
+				system.log().info(getSummary());
+			}
+		}, system.dispatcher());
+	}
+
+	private static void register(String type, String name, Object mbean) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(DOMAIN + ":type=" + type + ",name=" + name));
+		} catch (InstanceAlreadyExistsException e) {
+			// Schon von einem anderen Klassenlader registriert
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register MBean " + name, e);
+		}
+	}
+}
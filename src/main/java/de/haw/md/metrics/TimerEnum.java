@@ -0,0 +1,43 @@
+package de.haw.md.metrics;
+
+/**
+ * Gemessene Abschnitte der Simulation, jeweils mit einem Histogram der
+ * Dauer in Nanosekunden.
+ */
+public enum TimerEnum {
+
+	/** Vom Start eines Ticks im Markt bis zur letzten Rueckmeldung */
+	TICK_LATENCY("TickLatency"),
+	/** Market.generateShares */
+	GENERATE_SHARES("GenerateShares"),
+	/** MobileCostCalc.calculateProdPrice */
+	CALCULATE_PROD_PRICE("CalculateProdPrice"),
+	/** MobileCostCalc.recalculatePrice */
+	RECALCULATE_PRICE("RecalculatePrice"),
+	/** MarketMsgSerializer.fromBinary */
+	DESERIALIZATION("Deserialization");
+
+	private final String name;
+
+	private final Histogram histogram = new Histogram();
+
+	private TimerEnum(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Histogram getHistogram() {
+		return histogram;
+	}
+
+	/**
+	 * @param startNanos
+	 *            System.nanoTime() zu Beginn des Abschnitts
+	 */
+	public void recordSince(long startNanos) {
+		histogram.record(System.nanoTime() - startNanos);
+	}
+}
@@ -0,0 +1,147 @@
+package de.haw.md.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+/**
+ * Monte-Carlo-Versuchsreihe ueber das Marktmodell: viele unabhaengige Laeufe
+ * der SimulationEngine auf allen Kernen. Lauf i zieht seine Zahlen aus
+ * SimulationRandom.forRun(i), die Ergebnisse haengen daher nicht von der
+ * Anzahl der Threads ab.
+ *
+ * Die Laeufe werden im ForkJoinPool rekursiv geteilt, jeder Teil sammelt in
+ * einer eigenen EnsembleSummary, die beim Zusammenfuehren gemischt werden.
+ */
+public class EnsembleRunner {
+
+	/** Teile pro Thread, damit ungleich lange Laeufe die Kerne nicht leer lassen */
+	private static final int SPLITS_PER_THREAD = 4;
+
+	private final Resources history;
+	private final SimulationRandom random;
+	private final int electroPartFactories;
+	private final int mobileFactories;
+	private final int ticks;
+	private final CostModeEnum costMode;
+	private final PriceModeEnum priceMode;
+	private final LocalDate start;
+
+	/**
+	 * Versuchsreihe mit den Rechenwegen aus -DcostMode und -DpriceMode, Start
+	 * am Tag aus Resources.resolveStartDate.
+	 */
+	public EnsembleRunner(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, int ticks) {
+		this(history, random, electroPartFactories, mobileFactories, ticks, CostModeEnum.getActive(), PriceModeEnum.getActive(), history
+				.resolveStartDate());
+	}
+
+	/**
+	 * @param history
+	 *            mit Resources.readHistory eingelesen, von allen Laeufen
+	 *            geteilt
+	 * @param random
+	 *            seed der Versuchsreihe
+	 * @param electroPartFactories
+	 * @param mobileFactories
+	 * @param ticks
+	 *            Ticks je Lauf
+	 * @param costMode
+	 * @param priceMode
+	 * @param start
+	 *            Tag des ersten erzeugten Preises
+	 */
+	public EnsembleRunner(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, int ticks, CostModeEnum costMode,
+			PriceModeEnum priceMode, LocalDate start) {
+		if (ticks < 1)
+			throw new IllegalArgumentException("Ticks must be positive");
+		this.history = history;
+		this.random = random;
+		this.electroPartFactories = electroPartFactories;
+		this.mobileFactories = mobileFactories;
+		this.ticks = ticks;
+		this.costMode = costMode;
+		this.priceMode = priceMode;
+		this.start = start;
+	}
+
+	public EnsembleSummary run(int runs) {
+		return run(runs, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param runs
+	 *            Anzahl der Laeufe
+	 * @param pool
+	 * @return Verteilungen ueber alle Laeufe
+	 */
+	public EnsembleSummary run(int runs, ForkJoinPool pool) {
+		if (runs < 1)
+			throw new IllegalArgumentException("Runs must be positive");
+		final int threshold = Math.max(1, runs / (pool.getParallelism() * SPLITS_PER_THREAD));
+		return pool.invoke(new RunTask(0, runs, threshold));
+	}
+
+	/**
+	 * Rechnet Lauf run vollstaendig und nimmt ihn in die Zusammenfassung auf.
+	 *
+	 * @param run
+	 * @param summary
+	 */
+	public void run(int run, EnsembleSummary summary) {
+		final SimulationEngine engine = createEngine(run);
+		for (int i = 0; i < ticks; i++) {
+			engine.tick();
+			summary.addTick(engine);
+		}
+		summary.addRun(engine);
+	}
+
+	public SimulationEngine createEngine(int run) {
+		return new SimulationEngine(history, random.forRun(run), electroPartFactories, mobileFactories, costMode, priceMode, start);
+	}
+
+	public EnsembleSummary createSummary() {
+		return new EnsembleSummary(mobileFactories, ticks);
+	}
+
+	/**
+	 * Laeufe from bis to - 1, bis zur Schwelle geteilt.
+	 */
+	private class RunTask extends RecursiveTask<EnsembleSummary> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		private RunTask(int from, int to, int threshold) {
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected EnsembleSummary compute() {
+			if (to - from <= threshold) {
+				final EnsembleSummary summary = createSummary();
+				for (int run = from; run < to; run++)
+					run(run, summary);
+				return summary;
+			}
+			final int middle = (from + to) >>> 1;
+			final RunTask right = new RunTask(middle, to, threshold);
+			right.fork();
+			final EnsembleSummary summary = new RunTask(from, middle, threshold).compute();
+			summary.merge(right.join());
+			return summary;
+		}
+	}
+}
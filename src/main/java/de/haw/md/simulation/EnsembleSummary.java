@@ -0,0 +1,168 @@
+package de.haw.md.simulation;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.sups.MobileCompanyModel;
+import de.haw.md.sups.ResourceEnum;
+
+/**
+ * Verteilungen ueber die Laeufe einer Versuchsreihe: Gesamtgewinn, Tick des
+ * Ausscheidens und letzter Marktanteil je Handyhersteller sowie der Preis
+ * jedes Rohstoffes je Tick. Einzelne Laeufe werden nicht aufbewahrt, der
+ * Speicher haengt nur von der Anzahl der Unternehmen und Ticks ab.
+ *
+ * Teilergebnisse verschiedener Threads werden mit merge zusammengefuehrt.
+ * Nicht threadsicher.
+ */
+public class EnsembleSummary {
+
+	private final int ticks;
+
+	private long runs;
+
+	private final QuantileSketch profit;
+	private final QuantileSketch[] companyProfits;
+
+	/** Nur Unternehmen, die ausgeschieden sind */
+	private final QuantileSketch exitTick;
+	private final long[] companyExits;
+
+	private final QuantileSketch share;
+	private final QuantileSketch[] companyShares;
+
+	/** Preis je Rohstoff und Tick */
+	private final QuantileSketch[][] prices;
+
+	public EnsembleSummary(int mobileFactories, int ticks) {
+		this(mobileFactories, ticks, QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+	}
+
+	public EnsembleSummary(int mobileFactories, int ticks, double relativeAccuracy) {
+		this.ticks = ticks;
+		this.profit = new QuantileSketch(relativeAccuracy);
+		this.exitTick = new QuantileSketch(relativeAccuracy);
+		this.share = new QuantileSketch(relativeAccuracy);
+		this.companyProfits = sketches(mobileFactories, relativeAccuracy);
+		this.companyShares = sketches(mobileFactories, relativeAccuracy);
+		this.companyExits = new long[mobileFactories];
+		this.prices = new QuantileSketch[ResourceEnum.values().length][];
+		for (int i = 0; i < prices.length; i++)
+			prices[i] = sketches(ticks, relativeAccuracy);
+	}
+
+	private static QuantileSketch[] sketches(int size, double relativeAccuracy) {
+		final QuantileSketch[] sketches = new QuantileSketch[size];
+		for (int i = 0; i < size; i++)
+			sketches[i] = new QuantileSketch(relativeAccuracy);
+		return sketches;
+	}
+
+	/**
+	 * Uebernimmt die Preise des zuletzt gerechneten Ticks.
+	 *
+	 * @param engine
+	 */
+	public void addTick(SimulationEngine engine) {
+		for (ResourceEnum type : ResourceEnum.values())
+			prices[type.ordinal()][engine.getTick() - 1].add(engine.getPrice(type));
+	}
+
+	/**
+	 * Uebernimmt Gewinne, Ausscheiden und Marktanteile eines beendeten Laufs.
+	 *
+	 * @param engine
+	 */
+	public void addRun(SimulationEngine engine) {
+		final MobileCompanyModel[] companies = engine.getCompanies();
+		final MarketShareMsg lastShares = engine.getLastShares();
+		for (int i = 0; i < companies.length; i++) {
+			final double completeProfit = companies[i].getCompleteProfit().doubleValue();
+			profit.add(completeProfit);
+			companyProfits[i].add(completeProfit);
+			if (companies[i].getExitTick() > 0) {
+				exitTick.add(companies[i].getExitTick());
+				companyExits[i]++;
+			}
+			final CompanyShareMsg csm = lastShares == null ? null : lastShares.findShareByCompanyName(companies[i].getName());
+			final double shareValue = csm == null ? 0 : csm.getShareValue().doubleValue();
+			share.add(shareValue);
+			companyShares[i].add(shareValue);
+		}
+		runs++;
+	}
+
+	/**
+	 * Fuehrt die Ergebnisse einer anderen Zusammenfassung derselben
+	 * Versuchsreihe hinzu.
+	 *
+	 * @param other
+	 */
+	public void merge(EnsembleSummary other) {
+		if (other.ticks != ticks || other.companyExits.length != companyExits.length)
+			throw new IllegalArgumentException("Summaries of different ensembles");
+		runs += other.runs;
+		profit.merge(other.profit);
+		exitTick.merge(other.exitTick);
+		share.merge(other.share);
+		for (int i = 0; i < companyExits.length; i++) {
+			companyProfits[i].merge(other.companyProfits[i]);
+			companyShares[i].merge(other.companyShares[i]);
+			companyExits[i] += other.companyExits[i];
+		}
+		for (int i = 0; i < prices.length; i++)
+			for (int j = 0; j < ticks; j++)
+				prices[i][j].merge(other.prices[i][j]);
+	}
+
+	public long getRuns() {
+		return runs;
+	}
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	public int getCompanies() {
+		return companyExits.length;
+	}
+
+	/** Gesamtgewinn aller Handyhersteller */
+	public QuantileSketch getProfit() {
+		return profit;
+	}
+
+	public QuantileSketch getProfit(int company) {
+		return companyProfits[company];
+	}
+
+	/** Tick des Ausscheidens, nur ueber die ausgeschiedenen Unternehmen */
+	public QuantileSketch getExitTick() {
+		return exitTick;
+	}
+
+	/**
+	 * @return Anteil der Laeufe, in denen das Unternehmen ausgeschieden ist
+	 */
+	public double getExitRate(int company) {
+		return runs == 0 ? Double.NaN : (double) companyExits[company] / runs;
+	}
+
+	/** Letzter Marktanteil in Prozent, 0 fuer Unternehmen ohne Anteil */
+	public QuantileSketch getShare() {
+		return share;
+	}
+
+	public QuantileSketch getShare(int company) {
+		return companyShares[company];
+	}
+
+	/**
+	 * @param type
+	 * @param tick
+	 *            ab 1
+	 * @return Preis des Rohstoffes in diesem Tick
+	 */
+	public QuantileSketch getPrice(ResourceEnum type, int tick) {
+		return prices[type.ordinal()][tick - 1];
+	}
+}
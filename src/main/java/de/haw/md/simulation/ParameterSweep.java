@@ -0,0 +1,177 @@
+package de.haw.md.simulation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.MobileCompanyModel;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+/**
+ * Parameterstudie ueber die Bereiche aus CompanyValuesEnum. Jeder Punkt des
+ * Versuchsplans legt die untersuchten Kennzahlen fuer alle Handyhersteller
+ * fest, die uebrigen werden wie sonst gezogen. Je Punkt laufen mehrere
+ * Wiederholungen der SimulationEngine.
+ *
+ * Wiederholung r verwendet an jedem Punkt SimulationRandom.forRun(r). Die
+ * Punkte unterscheiden sich daher nur in den festen Kennzahlen, nicht in den
+ * Zufallspreisen, was die Unterschiede zwischen den Punkten schaerfer zeigt.
+ *
+ * Die Punkte laufen parallel im ForkJoinPool, die Wiederholungen eines Punktes
+ * nacheinander.
+ */
+public class ParameterSweep {
+
+	private final Resources history;
+	private final SimulationRandom random;
+	private final int electroPartFactories;
+	private final int mobileFactories;
+	private final int ticks;
+	private final CostModeEnum costMode;
+	private final PriceModeEnum priceMode;
+	private final LocalDate start;
+
+	/**
+	 * Parameterstudie mit den Rechenwegen aus -DcostMode und -DpriceMode,
+	 * Start am Tag aus Resources.resolveStartDate.
+	 */
+	public ParameterSweep(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, int ticks) {
+		this(history, random, electroPartFactories, mobileFactories, ticks, CostModeEnum.getActive(), PriceModeEnum.getActive(), history
+				.resolveStartDate());
+	}
+
+	public ParameterSweep(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, int ticks, CostModeEnum costMode,
+			PriceModeEnum priceMode, LocalDate start) {
+		if (ticks < 1)
+			throw new IllegalArgumentException("Ticks must be positive");
+		this.history = history;
+		this.random = random;
+		this.electroPartFactories = electroPartFactories;
+		this.mobileFactories = mobileFactories;
+		this.ticks = ticks;
+		this.costMode = costMode;
+		this.priceMode = priceMode;
+		this.start = start;
+	}
+
+	/**
+	 * Bildet die Punkte des Versuchsplans auf die Bereiche der Kennzahlen ab.
+	 *
+	 * @param design
+	 * @param parameters
+	 *            untersuchte Kennzahlen
+	 * @param size
+	 *            Stufen je Kennzahl bei GRID, sonst Anzahl der Punkte
+	 * @return feste Kennzahlen je Punkt
+	 */
+	public List<Map<CompanyValuesEnum, BigDecimal>> createPoints(SweepDesignEnum design, List<CompanyValuesEnum> parameters, int size) {
+		final double[][] unitPoints = design.createPoints(parameters.size(), size, random.stream("sweep:" + design.name()));
+		final List<Map<CompanyValuesEnum, BigDecimal>> points = new ArrayList<>(unitPoints.length);
+		for (double[] unitPoint : unitPoints) {
+			final Map<CompanyValuesEnum, BigDecimal> values = new EnumMap<>(CompanyValuesEnum.class);
+			for (int i = 0; i < parameters.size(); i++)
+				values.put(parameters.get(i), parameters.get(i).getValue(unitPoint[i]));
+			points.add(values);
+		}
+		return points;
+	}
+
+	/**
+	 * @param points
+	 *            aus createPoints
+	 * @param replications
+	 *            Laeufe je Punkt
+	 * @param pool
+	 * @return Ergebnisse in der Reihenfolge der Punkte
+	 */
+	public List<SweepResult> run(List<Map<CompanyValuesEnum, BigDecimal>> points, int replications, ForkJoinPool pool) {
+		if (replications < 1)
+			throw new IllegalArgumentException("Replications must be positive");
+		final SweepResult[] results = new SweepResult[points.size()];
+		if (!points.isEmpty())
+			pool.invoke(new PointTask(points, replications, results, 0, points.size()));
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Rechnet alle Wiederholungen eines Punktes.
+	 *
+	 * @param point
+	 *            Nummer des Punktes
+	 * @param values
+	 *            feste Kennzahlen
+	 * @param replications
+	 * @return
+	 */
+	public SweepResult run(int point, Map<CompanyValuesEnum, BigDecimal> values, int replications) {
+		final QuantileSketch profit = new QuantileSketch();
+		long exits = 0;
+		long exitTicks = 0;
+		double shares = 0;
+		for (int run = 0; run < replications; run++) {
+			final SimulationEngine engine = new SimulationEngine(history, random.forRun(run), electroPartFactories, mobileFactories, costMode, priceMode,
+					start, values);
+			for (int i = 0; i < ticks; i++)
+				engine.tick();
+			final MarketShareMsg lastShares = engine.getLastShares();
+			for (MobileCompanyModel company : engine.getCompanies()) {
+				profit.add(company.getCompleteProfit().doubleValue());
+				if (company.getExitTick() > 0) {
+					exits++;
+					exitTicks += company.getExitTick();
+				}
+				final CompanyShareMsg csm = lastShares == null ? null : lastShares.findShareByCompanyName(company.getName());
+				if (csm != null)
+					shares += csm.getShareValue().doubleValue();
+			}
+		}
+		final long companies = (long) replications * mobileFactories;
+		return new SweepResult(point, values, replications, profit, companies, exits, exits == 0 ? Double.NaN : (double) exitTicks / exits, shares
+				/ companies);
+	}
+
+	/**
+	 * Punkte from bis to - 1, geteilt bis auf einzelne Punkte.
+	 */
+	private class PointTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Map<CompanyValuesEnum, BigDecimal>> points;
+		private final int replications;
+		private final SweepResult[] results;
+		private final int from;
+		private final int to;
+
+		private PointTask(List<Map<CompanyValuesEnum, BigDecimal>> points, int replications, SweepResult[] results, int from, int to) {
+			this.points = points;
+			this.replications = replications;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				results[from] = run(from, points.get(from), replications);
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new PointTask(points, replications, results, from, middle), new PointTask(points, replications, results, middle, to));
+		}
+	}
+}
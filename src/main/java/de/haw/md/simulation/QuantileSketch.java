@@ -0,0 +1,176 @@
+package de.haw.md.simulation;
+
+/**
+ * Mischbare Verteilung einer Kennzahl mit festem relativem Fehler
+ * (DDSketch). Jeder Wert zaehlt in einem logarithmischen Eimer, zwei Skizzen
+ * mit derselben Genauigkeit werden durch Addieren der Eimer gemischt. Der
+ * Speicher haengt nur vom Wertebereich ab, nicht von der Anzahl der Werte.
+ *
+ * Betraege unter MIN_VALUE zaehlen als 0.
+ */
+public final class QuantileSketch {
+
+	public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+	public static final double MIN_VALUE = 1e-9;
+
+	private final double relativeAccuracy;
+	private final double gamma;
+	private final double logGamma;
+
+	private final Buckets positive = new Buckets();
+	private final Buckets negative = new Buckets();
+	private long zeroCount;
+
+	private long count;
+	private double sum;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public QuantileSketch() {
+		this(DEFAULT_RELATIVE_ACCURACY);
+	}
+
+	/**
+	 * @param relativeAccuracy
+	 *            hoechster relativer Fehler der Quantile, aus (0, 1)
+	 */
+	public QuantileSketch(double relativeAccuracy) {
+		if (!(relativeAccuracy > 0 && relativeAccuracy < 1))
+			throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+		this.relativeAccuracy = relativeAccuracy;
+		this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.logGamma = Math.log(gamma);
+	}
+
+	public void add(double value) {
+		if (Double.isNaN(value))
+			throw new IllegalArgumentException("Value must not be NaN");
+		if (value >= MIN_VALUE)
+			positive.add(index(value), 1);
+		else if (value <= -MIN_VALUE)
+			negative.add(index(-value), 1);
+		else
+			zeroCount++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Uebernimmt alle Werte einer anderen Skizze derselben Genauigkeit.
+	 *
+	 * @param other
+	 */
+	public void merge(QuantileSketch other) {
+		if (other.relativeAccuracy != relativeAccuracy)
+			throw new IllegalArgumentException("Cannot merge sketches with accuracy " + relativeAccuracy + " and " + other.relativeAccuracy);
+		positive.merge(other.positive);
+		negative.merge(other.negative);
+		zeroCount += other.zeroCount;
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * @param quantile
+	 *            aus [0, 1]
+	 * @return Naeherung mit hoechstens relativeAccuracy relativem Fehler, NaN
+	 *         ohne Werte
+	 */
+	public double getQuantile(double quantile) {
+		if (quantile < 0 || quantile > 1)
+			throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+		if (count == 0)
+			return Double.NaN;
+		final long rank = (long) (quantile * (count - 1));
+		long seen = 0;
+		for (int i = negative.counts.length - 1; i >= 0; i--) {
+			seen += negative.counts[i];
+			if (seen > rank)
+				return clamp(-value(negative.offset + i));
+		}
+		seen += zeroCount;
+		if (seen > rank)
+			return clamp(0);
+		for (int i = 0; i < positive.counts.length; i++) {
+			seen += positive.counts[i];
+			if (seen > rank)
+				return clamp(value(positive.offset + i));
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
+	public double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	public double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	public double getRelativeAccuracy() {
+		return relativeAccuracy;
+	}
+
+	private int index(double value) {
+		return (int) Math.ceil(Math.log(value) / logGamma);
+	}
+
+	/** Wert mit gleichem relativem Abstand zu beiden Grenzen des Eimers */
+	private double value(int index) {
+		return 2 * Math.pow(gamma, index) / (gamma + 1);
+	}
+
+	private double clamp(double value) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * Anzahl je Eimer, dicht ab dem kleinsten belegten Index.
+	 */
+	private static final class Buckets {
+
+		private long[] counts = new long[0];
+		private int offset;
+
+		private void add(int index, long n) {
+			if (counts.length == 0) {
+				counts = new long[8];
+				offset = index - 4;
+			} else if (index < offset || index >= offset + counts.length) {
+				grow(index);
+			}
+			counts[index - offset] += n;
+		}
+
+		private void grow(int index) {
+			final int from = Math.min(offset, index);
+			final int to = Math.max(offset + counts.length, index + 1);
+			// etwas Reserve in Wachstumsrichtung, damit nicht jeder neue Index kopiert
+			final int reserve = Math.max(8, (to - from) / 2);
+			final int newOffset = index < offset ? from - reserve : from;
+			final long[] grown = new long[to - newOffset + (index < offset ? 0 : reserve)];
+			System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+			counts = grown;
+			offset = newOffset;
+		}
+
+		private void merge(Buckets other) {
+			for (int i = 0; i < other.counts.length; i++)
+				if (other.counts[i] != 0)
+					add(other.offset + i, other.counts[i]);
+		}
+	}
+}
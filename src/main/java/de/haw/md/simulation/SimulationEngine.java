@@ -0,0 +1,216 @@
+package de.haw.md.simulation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.AgentTopology;
+import de.haw.md.akka.main.CompanyOil;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.ElectrPartCostCalc;
+import de.haw.md.sups.LogReturnStatistics;
+import de.haw.md.sups.MarketShareCalc;
+import de.haw.md.sups.MarketShareTable;
+import de.haw.md.sups.MobileCompanyModel;
+import de.haw.md.sups.MobileCostCalc;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceCalc;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
+
+/**
+ * Ein Lauf des Marktmodells ohne Aktoren, in einem Thread. Ein Tick rechnet
+ * der Reihe nach, was im Aktorsystem Market, CompanyOil,
+ * CompanyElectrPartProd und CompanyMobile mit Fenster 1 tun: Rohstoffpreise,
+ * Marktanteile aus den Ergebnissen des Vortages, Kunststoffpreis, Angebote
+ * der Zulieferer und die Ergebnisse der Handyhersteller.
+ *
+ * Die Unternehmen ziehen ihre Kennzahlen wie in AgentTopology aus ihren
+ * Stroemen, bei gleichem seed und gleichem Starttag liefert die Engine daher
+ * dieselben Ergebnisse wie HeadlessMultiAgentMain. Der gesamte Zustand gehoert
+ * dem Lauf, die Historie wird nur gelesen. Mehrere Engines koennen so mit
+ * derselben Historie parallel laufen.
+ */
+public class SimulationEngine {
+
+	private static final ResourceEnum[] RESOURCES = ResourceEnum.values();
+
+	private final PriceModeEnum priceMode;
+
+	private final LogReturnStatistics[] statistics = new LogReturnStatistics[RESOURCES.length];
+	private final SplittableRandom[] randoms = new SplittableRandom[RESOURCES.length];
+	private LocalDate date;
+
+	private final BigDecimal markUp;
+
+	private final String[] suppliers;
+	private final ElectrPartCostCalc[] supplierCalcs;
+
+	private final MobileCompanyModel[] companies;
+	/** Index des Zulieferers je Handyhersteller */
+	private final int[] companySuppliers;
+
+	private final MarketShareTable shareTable = new MarketShareTable();
+	private List<MarketResponseMsg> lastResults = Collections.emptyList();
+	private MarketShareMsg lastShares;
+
+	private BigDecimal counter = BigDecimal.ZERO;
+	private BigDecimal currentMarketVolume = StaticVariables.MARKET_VOLUME;
+
+	private int tick = 0;
+
+	/**
+	 * @param history
+	 *            mit Resources.readHistory eingelesen, wird nicht veraendert
+	 * @param random
+	 *            Zufallszahlen dieses Laufs
+	 * @param electroPartFactories
+	 * @param mobileFactories
+	 * @param costMode
+	 * @param priceMode
+	 * @param start
+	 *            Tag des ersten erzeugten Preises, wie
+	 *            Resources.resolveStartDate in Resources.readAllPrices
+	 */
+	public SimulationEngine(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, CostModeEnum costMode,
+			PriceModeEnum priceMode, LocalDate start) {
+		this(history, random, electroPartFactories, mobileFactories, costMode, priceMode, start, Collections.<CompanyValuesEnum, BigDecimal> emptyMap());
+	}
+
+	/**
+	 * Wie oben, aber die angegebenen Kennzahlen gelten fuer alle
+	 * Handyhersteller. Die uebrigen werden wie sonst gezogen, bei gleichem
+	 * seed also unabhaengig davon, welche Kennzahlen fest sind.
+	 * 
+	 * @param mobileValues
+	 *            feste Kennzahlen der Handyhersteller
+	 */
+	public SimulationEngine(Resources history, SimulationRandom random, int electroPartFactories, int mobileFactories, CostModeEnum costMode,
+			PriceModeEnum priceMode, LocalDate start, Map<CompanyValuesEnum, BigDecimal> mobileValues) {
+		if (electroPartFactories < 1 || mobileFactories < 1)
+			throw new IllegalArgumentException("Companies and suppliers must be positive");
+		this.priceMode = priceMode;
+		for (ResourceEnum type : RESOURCES) {
+			final LogReturnStatistics lrs = new LogReturnStatistics(history.getStatistics(type));
+			randoms[type.ordinal()] = random.forResource(type);
+			// Der erste erzeugte Preis wie in Resources.readAllPrices
+			lrs.add(ResourceCalc.nextRandomStockPrice(lrs, priceMode, randoms[type.ordinal()].nextDouble()));
+			statistics[type.ordinal()] = lrs;
+		}
+		this.date = start;
+		this.markUp = CompanyOil.randomMarkUp(random.forAgent(AgentTopology.OIL_COMPANY));
+		this.suppliers = new String[electroPartFactories];
+		this.supplierCalcs = new ElectrPartCostCalc[electroPartFactories];
+		for (int i = 0; i < electroPartFactories; i++) {
+			suppliers[i] = AgentTopology.ELECTRO_PART_PREFIX + i;
+			final BigDecimal[] values = AgentTopology.electroPartValues(random.forAgent(suppliers[i]));
+			supplierCalcs[i] = new ElectrPartCostCalc(costMode, values[0], values[2], values[1], values[3]);
+		}
+		this.companies = new MobileCompanyModel[mobileFactories];
+		this.companySuppliers = new int[mobileFactories];
+		for (int i = 0; i < mobileFactories; i++) {
+			final String name = AgentTopology.MOBILE_PREFIX + i;
+			final BigDecimal[] values = AgentTopology.mobileValues(random.forAgent(name));
+			for (Map.Entry<CompanyValuesEnum, BigDecimal> value : mobileValues.entrySet())
+				values[value.getKey().ordinal()] = value.getValue();
+			companies[i] = new MobileCompanyModel(name, new MobileCostCalc(costMode, values[0], values[1], values[2], values[3], values[4], values[5],
+					values[6]), values[2], values[7]);
+			companySuppliers[i] = i % electroPartFactories;
+		}
+	}
+
+	/**
+	 * Rechnet den naechsten Tick.
+	 *
+	 * @return Ergebnisse des Ticks wie vom Markt an SimulationDriver gemeldet
+	 */
+	public TickCompletedMsg tick() {
+		tick++;
+		for (MarketResponseMsg mrm : lastResults)
+			shareTable.put(mrm.getCompany(), mrm.getRevenue());
+		final ResourcePriceVectorMsg prices = nextPrices();
+		final MarketShareMsg shares = nextShares();
+		final MarketResponseMsg plastic = new MarketResponseMsg(AgentTopology.OIL_COMPANY, ProductTypeEnum.PLASTIC, tick, date,
+				CompanyOil.calculatePlasticPrice(prices.getPrice(ResourceEnum.OIL), markUp));
+		final MarketResponseMsg[] quotes = new MarketResponseMsg[suppliers.length];
+		for (int i = 0; i < suppliers.length; i++) {
+			final ElectrPartCostCalc costCalc = supplierCalcs[i];
+			for (ResourceEnum re : RESOURCES)
+				costCalc.setResourcePrice(re, prices.getPrice(re));
+			costCalc.setPlasticPrice(plastic.getRevenue());
+			if (costCalc.pricesNotNull())
+				quotes[i] = new MarketResponseMsg(suppliers[i], ProductTypeEnum.ELECTRONIC_PART, tick, date, costCalc.calculateQuote());
+		}
+		final List<MarketResponseMsg> results = new ArrayList<>();
+		for (int i = 0; i < companies.length; i++) {
+			// Ohne Angebot wartet der Aktor vergeblich, hier faellt der Tick fuer das Unternehmen aus
+			final MarketResponseMsg quote = quotes[companySuppliers[i]];
+			final MarketResponseMsg result = quote == null ? null : companies[i].processTick(prices, plastic, quote, shares);
+			if (result != null)
+				results.add(result);
+		}
+		results.sort(Comparator.comparing(MarketResponseMsg::getCompany));
+		lastResults = results;
+		return new TickCompletedMsg(tick, date, results, shares);
+	}
+
+	private ResourcePriceVectorMsg nextPrices() {
+		final BigDecimal[] prices = new BigDecimal[RESOURCES.length];
+		for (int i = 0; i < RESOURCES.length; i++) {
+			prices[i] = ResourceCalc.nextRandomStockPrice(statistics[i], priceMode, randoms[i].nextDouble());
+			statistics[i].add(prices[i]);
+		}
+		date = date.plusDays(1);
+		return new ResourcePriceVectorMsg(tick, date, prices);
+	}
+
+	private MarketShareMsg nextShares() {
+		currentMarketVolume = MarketShareCalc.calculateMarketVolume(counter, currentMarketVolume);
+		MarketShareMsg shares = new MarketShareMsg(new ArrayList<CompanyShareMsg>(), tick, date);
+		if (shareTable.size() > 0) {
+			shareTable.calculate(currentMarketVolume);
+			shares = new MarketShareMsg(shareTable.getShares(), tick, date);
+			lastShares = shares;
+		}
+		counter = counter.add(BigDecimal.ONE);
+		return shares;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public MobileCompanyModel[] getCompanies() {
+		return companies.clone();
+	}
+
+	/**
+	 * @return zuletzt berechnete Marktanteile oder null vor der ersten
+	 *         Berechnung
+	 */
+	public MarketShareMsg getLastShares() {
+		return lastShares;
+	}
+
+	/**
+	 * @return letzter Preis des Rohstoffes
+	 */
+	public double getPrice(ResourceEnum type) {
+		return statistics[type.ordinal()].getLastDoublePrice();
+	}
+}
@@ -0,0 +1,129 @@
+package de.haw.md.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Versuchsplaene einer Parameterstudie. Jeder Plan liefert Punkte im
+ * Einheitswuerfel [0, 1]^d, ParameterSweep bildet sie auf die Bereiche aus
+ * CompanyValuesEnum ab.
+ */
+public enum SweepDesignEnum {
+
+	/** Vollfaktoriell, size Stufen je Parameter, also size^d Punkte */
+	GRID,
+	/** size Punkte, jeder Parameter trifft jedes der size Teilintervalle genau einmal */
+	LATIN_HYPERCUBE,
+	/** Die ersten size Punkte der Sobol-Folge (Richtungszahlen nach Joe und Kuo) */
+	SOBOL;
+
+	/** Richtungszahlen der Dimensionen 2 bis 8: Grad s, Koeffizienten a, Startwerte m */
+	private static final int[] SOBOL_S = { 1, 2, 3, 3, 4, 4, 5 };
+	private static final int[] SOBOL_A = { 0, 1, 1, 2, 1, 4, 2 };
+	private static final int[][] SOBOL_M = { { 1 }, { 1, 3 }, { 1, 3, 1 }, { 1, 1, 1 }, { 1, 1, 3, 3 }, { 1, 3, 5, 13 }, { 1, 1, 5, 5, 17 } };
+
+	private static final int SOBOL_BITS = 31;
+
+	public static final int MAX_SOBOL_DIMENSIONS = SOBOL_S.length + 1;
+
+	/**
+	 * @param dimensions
+	 *            Anzahl der Parameter
+	 * @param size
+	 *            Stufen je Parameter bei GRID, sonst Anzahl der Punkte
+	 * @param random
+	 *            nur fuer LATIN_HYPERCUBE
+	 * @return Punkte im Einheitswuerfel, [Punkt][Parameter]
+	 */
+	public double[][] createPoints(int dimensions, int size, SplittableRandom random) {
+		if (dimensions < 1 || size < 1)
+			throw new IllegalArgumentException("Dimensions and size must be positive");
+		switch (this) {
+		case GRID:
+			return grid(dimensions, size);
+		case LATIN_HYPERCUBE:
+			return latinHypercube(dimensions, size, random);
+		default:
+			return sobol(dimensions, size);
+		}
+	}
+
+	/**
+	 * Stufen bei 0, 1 / (size - 1), ..., 1, damit die Grenzen der Bereiche
+	 * enthalten sind. Eine Stufe liegt in der Mitte.
+	 */
+	private static double[][] grid(int dimensions, int levels) {
+		long count = 1;
+		for (int i = 0; i < dimensions; i++) {
+			count *= levels;
+			if (count > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Grid too large: " + levels + "^" + dimensions);
+		}
+		final double[][] points = new double[(int) count][dimensions];
+		for (int p = 0; p < points.length; p++) {
+			int rest = p;
+			for (int d = dimensions - 1; d >= 0; d--) {
+				points[p][d] = levels == 1 ? 0.5 : (double) (rest % levels) / (levels - 1);
+				rest /= levels;
+			}
+		}
+		return points;
+	}
+
+	private static double[][] latinHypercube(int dimensions, int size, SplittableRandom random) {
+		final double[][] points = new double[size][dimensions];
+		final int[] strata = new int[size];
+		for (int d = 0; d < dimensions; d++) {
+			for (int i = 0; i < size; i++)
+				strata[i] = i;
+			// Fisher-Yates
+			for (int i = size - 1; i > 0; i--) {
+				final int j = random.nextInt(i + 1);
+				final int swap = strata[i];
+				strata[i] = strata[j];
+				strata[j] = swap;
+			}
+			for (int i = 0; i < size; i++)
+				points[i][d] = (strata[i] + random.nextDouble()) / size;
+		}
+		return points;
+	}
+
+	/**
+	 * Sobol-Folge mit Gray-Code, beginnend beim Ursprung. Die ersten 2^k Punkte
+	 * treffen in jeder Dimension jedes Intervall der Breite 2^-k genau einmal.
+	 */
+	private static double[][] sobol(int dimensions, int size) {
+		if (dimensions > MAX_SOBOL_DIMENSIONS)
+			throw new IllegalArgumentException("Sobol supports at most " + MAX_SOBOL_DIMENSIONS + " dimensions");
+		final int[][] directions = new int[dimensions][SOBOL_BITS];
+		for (int k = 0; k < SOBOL_BITS; k++)
+			directions[0][k] = 1 << (SOBOL_BITS - 1 - k);
+		for (int d = 1; d < dimensions; d++) {
+			final int s = SOBOL_S[d - 1];
+			final int a = SOBOL_A[d - 1];
+			final int[] m = SOBOL_M[d - 1];
+			final int[] v = directions[d];
+			for (int k = 0; k < SOBOL_BITS; k++) {
+				if (k < s) {
+					v[k] = m[k] << (SOBOL_BITS - 1 - k);
+				} else {
+					v[k] = v[k - s] ^ (v[k - s] >>> s);
+					for (int j = 1; j < s; j++)
+						if (((a >>> (s - 1 - j)) & 1) != 0)
+							v[k] ^= v[k - j];
+				}
+			}
+		}
+		final double[][] points = new double[size][dimensions];
+		final int[] x = new int[dimensions];
+		for (int i = 1; i < size; i++) {
+			// Index des niedrigsten 0-Bits von i - 1
+			final int c = Integer.numberOfTrailingZeros(~(i - 1));
+			for (int d = 0; d < dimensions; d++) {
+				x[d] ^= directions[d][c];
+				points[i][d] = x[d] / (double) (1L << SOBOL_BITS);
+			}
+		}
+		return points;
+	}
+}
@@ -0,0 +1,76 @@
+package de.haw.md.simulation;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import de.haw.md.sups.CompanyValuesEnum;
+
+/**
+ * Unveraenderliches Ergebnis eines Punktes einer Parameterstudie: die festen
+ * Kennzahlen und die Verteilung der Ergebnisse ueber alle Wiederholungen und
+ * Handyhersteller.
+ */
+public final class SweepResult {
+
+	private final int point;
+	private final Map<CompanyValuesEnum, BigDecimal> values;
+	private final int runs;
+	private final QuantileSketch profit;
+	private final long companies;
+	private final long exits;
+	private final double meanExitTick;
+	private final double meanShare;
+
+	SweepResult(int point, Map<CompanyValuesEnum, BigDecimal> values, int runs, QuantileSketch profit, long companies, long exits, double meanExitTick,
+			double meanShare) {
+		this.point = point;
+		this.values = Collections.unmodifiableMap(new EnumMap<>(values));
+		this.runs = runs;
+		this.profit = profit;
+		this.companies = companies;
+		this.exits = exits;
+		this.meanExitTick = meanExitTick;
+		this.meanShare = meanShare;
+	}
+
+	/** Nummer des Punktes im Versuchsplan */
+	public int getPoint() {
+		return point;
+	}
+
+	public Map<CompanyValuesEnum, BigDecimal> getValues() {
+		return values;
+	}
+
+	public int getRuns() {
+		return runs;
+	}
+
+	public double getProfit(double quantile) {
+		return profit.getQuantile(quantile);
+	}
+
+	public double getMeanProfit() {
+		return profit.getMean();
+	}
+
+	/**
+	 * @return Anteil der Handyhersteller, die HIGHEST_ACCEPTEBLE_DEFICIT
+	 *         erreicht haben
+	 */
+	public double getExitRate() {
+		return (double) exits / companies;
+	}
+
+	/** Mittlerer Tick des Ausscheidens, NaN ohne ausgeschiedene Unternehmen */
+	public double getMeanExitTick() {
+		return meanExitTick;
+	}
+
+	/** Mittlerer letzter Marktanteil in Prozent */
+	public double getMeanShare() {
+		return meanShare;
+	}
+}
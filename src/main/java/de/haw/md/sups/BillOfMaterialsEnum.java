@@ -0,0 +1,41 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+
+/**
+ * Stueckliste je Produkt: verbaute Menge jedes Materials in Gramm. Die Mengen
+ * stehen in der Reihenfolge von MaterialEnum.
+ */
+public enum BillOfMaterialsEnum {
+
+	// PLASTIC, KUPFER, ALUMINIUM, NICKEL, ZINN, GOLD, SILBER, PLATIN, PALLADIUM
+	ELECTRONIC_PART(ProductTypeEnum.ELECTRONIC_PART, "39", "16.9", "2.6", "2.6", "1.3", "0.02", "0.2", "0.02", "0.007"),
+	MOBILE_PHONE(ProductTypeEnum.MOBILE_PHONE, "55.9", "7.67", "1.3", "1.3", "1.3", "0.004", "0.05", "0.004", "0.002");
+
+	private ProductTypeEnum productType;
+	private BigDecimal[] partInG;
+
+	private BillOfMaterialsEnum(ProductTypeEnum productType, String... partInG) {
+		if (partInG.length != MaterialEnum.values().length)
+			throw new IllegalArgumentException("One quantity per material expected for " + productType.getName());
+		this.productType = productType;
+		this.partInG = new BigDecimal[partInG.length];
+		for (int i = 0; i < partInG.length; i++)
+			this.partInG[i] = StaticVariables.convertToBigDecimal(partInG[i]);
+	}
+
+	public ProductTypeEnum getProductType() {
+		return productType;
+	}
+
+	public BigDecimal getPartInG(MaterialEnum material) {
+		return partInG[material.ordinal()];
+	}
+
+	public static BillOfMaterialsEnum getByProductType(ProductTypeEnum productType) {
+		for (BillOfMaterialsEnum bome : BillOfMaterialsEnum.values())
+			if (bome.productType == productType)
+				return bome;
+		throw new IllegalArgumentException("No bill of materials for " + productType.getName());
+	}
+}
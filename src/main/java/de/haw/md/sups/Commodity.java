@@ -0,0 +1,88 @@
+package de.haw.md.sups;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Eintrag im CommodityCatalog: woher die Kurse eines Rohstoffes kommen und wie
+ * sie zu lesen sind. Die Quelle ist ein Dateipfad oder, wenn es dort keine
+ * Datei gibt, eine Ressource im Klassenpfad (auch innerhalb der jar).
+ */
+public final class Commodity {
+
+	private final String name;
+	private final String source;
+	private final String datePattern;
+	private final DateTimeFormatter dateFormatter;
+	private final CurrencyEnum currency;
+	private final String unit;
+
+	public Commodity(String name, String source, String datePattern, CurrencyEnum currency, String unit) {
+		this.name = name;
+		this.source = source;
+		this.datePattern = datePattern;
+		this.dateFormatter = DateTimeFormat.forPattern(datePattern);
+		this.currency = currency;
+		this.unit = unit;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public String getDatePattern() {
+		return datePattern;
+	}
+
+	/** Datum, optional mit Uhrzeit bei Kursen innerhalb eines Tages */
+	public DateTimeFormatter getDateFormatter() {
+		return dateFormatter;
+	}
+
+	public CurrencyEnum getCurrency() {
+		return currency;
+	}
+
+	/** Mengeneinheit des Preises, z.B. t oder oz */
+	public String getUnit() {
+		return unit;
+	}
+
+	/**
+	 * @return URL der Kursdatei oder null, wenn es sie nicht gibt
+	 */
+	public URL getUrl() {
+		final File file = new File(source);
+		if (file.isFile()) {
+			try {
+				return file.toURI().toURL();
+			} catch (MalformedURLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return Commodity.class.getClassLoader().getResource(source);
+	}
+
+	public InputStream open() throws IOException {
+		final URL url = getUrl();
+		if (url == null)
+			throw new FileNotFoundException(source + " (" + name + ")");
+		return url.openStream();
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + source + ")";
+	}
+}
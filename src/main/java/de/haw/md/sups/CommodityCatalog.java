@@ -0,0 +1,114 @@
+package de.haw.md.sups;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+/**
+ * Liste der Rohstoffe mit ihren Kursdateien. Eine Zeile je Rohstoff:
+ *
+ * <pre>
+ * Name,Datei,Datumsformat,Waehrung,Einheit
+ * Oil,DCOILWTICO.csv,yyyy-MM-dd,USD,bbl
+ * </pre>
+ *
+ * Die erste Zeile ist die Ueberschrift. Ohne -DcommodityCatalog wird
+ * commodities.csv aus dem Klassenpfad gelesen.
+ */
+public final class CommodityCatalog {
+
+	/** Systemeigenschaft mit dem Pfad eines eigenen Katalogs */
+	public static final String PROPERTY = "commodityCatalog";
+	public static final String DEFAULT_RESOURCE = "commodities.csv";
+
+	private static volatile CommodityCatalog defaultCatalog;
+
+	private final Map<String, Commodity> commodities;
+
+	public CommodityCatalog(List<Commodity> commodities) {
+		final Map<String, Commodity> byName = new LinkedHashMap<>();
+		for (Commodity commodity : commodities)
+			if (byName.put(commodity.getName(), commodity) != null)
+				throw new IllegalArgumentException("Duplicate commodity: " + commodity.getName());
+		this.commodities = Collections.unmodifiableMap(byName);
+	}
+
+	/**
+	 * Katalog aus -DcommodityCatalog oder commodities.csv, wird nur einmal
+	 * gelesen.
+	 */
+	public static CommodityCatalog getDefault() {
+		CommodityCatalog catalog = defaultCatalog;
+		if (catalog == null) {
+			synchronized (CommodityCatalog.class) {
+				catalog = defaultCatalog;
+				if (catalog == null) {
+					try {
+						catalog = read(System.getProperty(PROPERTY, DEFAULT_RESOURCE));
+					} catch (IOException e) {
+						throw new IllegalStateException("Cannot read commodity catalog", e);
+					}
+					defaultCatalog = catalog;
+				}
+			}
+		}
+		return catalog;
+	}
+
+	/**
+	 * @param location
+	 *            Dateipfad oder Ressource im Klassenpfad
+	 */
+	public static CommodityCatalog read(String location) throws IOException {
+		final File file = new File(location);
+		final InputStream in = file.isFile() ? new FileInputStream(file) : CommodityCatalog.class.getClassLoader().getResourceAsStream(location);
+		if (in == null)
+			throw new FileNotFoundException(location);
+		try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	public static CommodityCatalog read(Reader in) throws IOException {
+		final List<Commodity> commodities = new ArrayList<>();
+		final CSVReader reader = new CSVReader(in);
+		String[] nextLine = reader.readNext();
+		while ((nextLine = reader.readNext()) != null) {
+			if (nextLine.length == 1 && nextLine[0].trim().isEmpty())
+				continue;
+			if (nextLine.length < 5)
+				throw new IOException("Expected name, file, date format, currency and unit: " + String.join(",", nextLine));
+			commodities.add(new Commodity(nextLine[0].trim(), nextLine[1].trim(), nextLine[2].trim(), CurrencyEnum.valueOf(nextLine[3].trim()),
+					nextLine[4].trim()));
+		}
+		return new CommodityCatalog(commodities);
+	}
+
+	public List<Commodity> getCommodities() {
+		return new ArrayList<>(commodities.values());
+	}
+
+	/**
+	 * @param name
+	 * @return Eintrag oder null
+	 */
+	public Commodity get(String name) {
+		return commodities.get(name);
+	}
+
+	public int size() {
+		return commodities.size();
+	}
+}
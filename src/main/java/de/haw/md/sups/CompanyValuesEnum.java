@@ -1,6 +1,8 @@
 package de.haw.md.sups;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
 
 public enum CompanyValuesEnum {
 
@@ -23,9 +25,31 @@ public enum CompanyValuesEnum {
 		this.shortScale = shortScale;
 	}
 	
-	public BigDecimal getRandomValue(){
-		if(shortScale)
-			return StaticVariables.generateRandomBigDecimalFromRangeScale0(min, max);
-		return StaticVariables.generateRandomBigDecimalFromRange(min, max);
+	/**
+	 * @param random
+	 *            Strom des Unternehmens aus SimulationRandom
+	 */
+	public BigDecimal getRandomValue(SplittableRandom random) {
+		return getValue(random.nextDouble());
+	}
+
+	/**
+	 * Wert an einer festen Stelle des Bereichs, z.B. fuer einen Punkt einer
+	 * Parameterstudie. Gerundet wie getRandomValue.
+	 * 
+	 * @param fraction
+	 *            aus [0, 1], 0 fuer min und 1 fuer max
+	 */
+	public BigDecimal getValue(double fraction) {
+		final BigDecimal value = StaticVariables.bigDecimalFromRange(fraction, min, max);
+		return shortScale ? value.setScale(0, RoundingMode.HALF_UP) : value;
+	}
+
+	public BigDecimal getMin() {
+		return min;
+	}
+
+	public BigDecimal getMax() {
+		return max;
 	}
 }
@@ -0,0 +1,25 @@
+package de.haw.md.sups;
+
+/**
+ * Rechenwerk fuer die Produktionskosten. Gewaehlt wird pro Lauf ueber die
+ * System-Property costMode, z.B. -DcostMode=FIXED_POINT.
+ */
+public enum CostModeEnum {
+
+	/** Referenzrechnung mit BigDecimal */
+	BIG_DECIMAL,
+	/** Festkommarechnung mit FixedPoint, ohne Objekterzeugung pro Rechenschritt */
+	FIXED_POINT;
+
+	public static final String PROPERTY = "costMode";
+
+	public static CostModeEnum getActive() {
+		final String mode = System.getProperty(PROPERTY);
+		if (mode == null || mode.isEmpty())
+			return BIG_DECIMAL;
+		for (CostModeEnum cme : CostModeEnum.values())
+			if (cme.name().equalsIgnoreCase(mode))
+				return cme;
+		throw new IllegalArgumentException("Unknown cost mode: " + mode);
+	}
+}
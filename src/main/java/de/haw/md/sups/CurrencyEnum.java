@@ -0,0 +1,26 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Waehrung einer Kursdatei. Alle Preise der Simulation sind in Euro.
+ */
+public enum CurrencyEnum {
+
+	EUR,
+	USD;
+
+	/**
+	 * @param price
+	 * @return Preis in Euro, Dollarpreise auf Cent gerundet
+	 */
+	public BigDecimal toEuro(BigDecimal price) {
+		switch (this) {
+		case USD:
+			return price.multiply(StaticVariables.US_TO_EURO).setScale(2, RoundingMode.HALF_UP);
+		default:
+			return price;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Angebotspreis eines Elektronikteils: Materialkosten plus Lohnkosten, mal
+ * Fixkostenfaktor und Bonus, aufgerundet auf Cent.
+ */
+public class ElectrPartCostCalc extends ProdCostCalc {
+
+	private final BigDecimal complManCost;
+	private final BigDecimal fixCost;
+	private final BigDecimal bonus;
+
+	private final long fixedComplManCost;
+	private final long fixedFixCost;
+	private final long fixedBonus;
+
+	public ElectrPartCostCalc(CostModeEnum mode, BigDecimal costManHour, BigDecimal prodManHour, BigDecimal fixCost, BigDecimal bonus) {
+		super(mode, BillOfMaterialsEnum.ELECTRONIC_PART);
+		this.complManCost = costManHour.divide(prodManHour, RoundingMode.HALF_DOWN);
+		this.fixCost = fixCost;
+		this.bonus = bonus;
+		this.fixedComplManCost = FixedPoint.fromBigDecimal(complManCost);
+		this.fixedFixCost = FixedPoint.fromBigDecimal(fixCost);
+		this.fixedBonus = FixedPoint.fromBigDecimal(bonus);
+	}
+
+	public BigDecimal calculateQuote() {
+		if (mode == CostModeEnum.FIXED_POINT)
+			return FixedPoint.toBigDecimal(calculateFixedQuote(), 2);
+		final BigDecimal prodPrice = (getComponentPrice().add(complManCost)).multiply(fixCost);
+		return prodPrice.multiply(bonus).setScale(2, RoundingMode.UP);
+	}
+
+	public long calculateFixedQuote() {
+		final long prodPrice = FixedPoint.multiply(getFixedComponentPrice() + fixedComplManCost, fixedFixCost, FixedPoint.DIGITS, RoundingMode.HALF_UP);
+		return FixedPoint.multiply(prodPrice, fixedBonus, 2, RoundingMode.UP);
+	}
+}
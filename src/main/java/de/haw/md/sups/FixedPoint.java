@@ -0,0 +1,156 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Festkommaarithmetik auf long-Werten mit 8 Nachkommastellen (10^-8, also
+ * Mikro-Cent). Jede Operation rundet wie die entsprechende BigDecimal-Operation
+ * mit derselben Nachkommastellenzahl und demselben RoundingMode, sofern die
+ * Operanden hoechstens 8 Nachkommastellen haben. Ueberlaeufe werfen eine
+ * ArithmeticException, es wird nie still abgeschnitten.
+ *
+ * Der Wertebereich liegt bei etwa +-9,2 * 10^10, Produkte werden vor der
+ * Rundung exakt berechnet und muessen nach dem Kuerzen gemeinsamer
+ * Zehnerpotenzen in einen long passen.
+ */
+public final class FixedPoint {
+
+	public static final int DIGITS = 8;
+
+	public static final long ONE = 100000000L;
+
+	private static final long[] POW10 = new long[19];
+
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	private FixedPoint() {
+	}
+
+	public static long fromBigDecimal(BigDecimal value) {
+		return value.setScale(DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	public static BigDecimal toBigDecimal(long value) {
+		return BigDecimal.valueOf(value, DIGITS);
+	}
+
+	/**
+	 * Wandelt in ein BigDecimal mit der angegebenen Nachkommastellenzahl um. Der
+	 * Wert muss sich ohne Rundung darstellen lassen.
+	 *
+	 * @param value
+	 * @param scale
+	 *            0 bis 8
+	 * @return BigDecimal mit genau dieser Nachkommastellenzahl
+	 */
+	public static BigDecimal toBigDecimal(long value, int scale) {
+		return BigDecimal.valueOf(roundDiv(value, POW10[DIGITS - checkDigits(scale)], RoundingMode.UNNECESSARY), scale);
+	}
+
+	/**
+	 * Nachkommastellen, mit denen ein BigDecimal im Festkommaformat abgebildet
+	 * wird, begrenzt auf 0 bis 8.
+	 *
+	 * @param value
+	 * @return Nachkommastellen
+	 */
+	public static int scaleOf(BigDecimal value) {
+		return Math.max(0, Math.min(DIGITS, value.scale()));
+	}
+
+	/**
+	 * a * b, gerundet auf digits Nachkommastellen.
+	 */
+	public static long multiply(long a, long b, int digits, RoundingMode mode) {
+		int exponent = 2 * DIGITS - checkDigits(digits);
+		if (!fitsProduct(a, b)) {
+			// Nur bei grossen Werten: gemeinsame Zehnerpotenzen vorher kuerzen
+			while (exponent > 0 && b != 0 && b % 10 == 0) {
+				b /= 10;
+				exponent--;
+			}
+			while (exponent > 0 && a != 0 && a % 10 == 0) {
+				a /= 10;
+				exponent--;
+			}
+		}
+		return Math.multiplyExact(roundDiv(Math.multiplyExact(a, b), POW10[exponent], mode), POW10[DIGITS - digits]);
+	}
+
+	/**
+	 * a / b, gerundet auf digits Nachkommastellen wie
+	 * BigDecimal.divide(divisor, digits, mode).
+	 */
+	public static long divide(long a, long b, int digits, RoundingMode mode) {
+		int exponent = checkDigits(digits);
+		if (!fitsProduct(a, POW10[exponent])) {
+			while (exponent > 0 && b != 0 && b % 10 == 0) {
+				b /= 10;
+				exponent--;
+			}
+		}
+		return Math.multiplyExact(roundDiv(Math.multiplyExact(a, POW10[exponent]), b, mode), POW10[DIGITS - digits]);
+	}
+
+	public static long setScale(long a, int digits, RoundingMode mode) {
+		final long unit = POW10[DIGITS - checkDigits(digits)];
+		return Math.multiplyExact(roundDiv(a, unit, mode), unit);
+	}
+
+	/**
+	 * Ganzzahlige Division mit den Rundungsregeln von RoundingMode.
+	 *
+	 * @param dividend
+	 * @param divisor
+	 * @param mode
+	 * @return gerundeter Quotient
+	 * @throws ArithmeticException
+	 *             bei Division durch 0 oder wenn mit UNNECESSARY gerundet
+	 *             werden muesste
+	 */
+	public static long roundDiv(long dividend, long divisor, RoundingMode mode) {
+		final long quotient = dividend / divisor;
+		final long remainder = dividend % divisor;
+		if (remainder == 0)
+			return quotient;
+		final int sign = (dividend ^ divisor) < 0 ? -1 : 1;
+		final long absRemainder = Math.abs(remainder);
+		final long absRest = Math.abs(divisor) - absRemainder;
+		switch (mode) {
+		case UP:
+			return quotient + sign;
+		case DOWN:
+			return quotient;
+		case CEILING:
+			return sign > 0 ? quotient + 1 : quotient;
+		case FLOOR:
+			return sign < 0 ? quotient - 1 : quotient;
+		case HALF_UP:
+			return absRemainder >= absRest ? quotient + sign : quotient;
+		case HALF_DOWN:
+			return absRemainder > absRest ? quotient + sign : quotient;
+		case HALF_EVEN:
+			if (absRemainder == absRest)
+				return (quotient & 1) != 0 ? quotient + sign : quotient;
+			return absRemainder > absRest ? quotient + sign : quotient;
+		default:
+			throw new ArithmeticException("Rounding necessary");
+		}
+	}
+
+	/** Schnelle, vorsichtige Pruefung: true heisst, a * b laeuft sicher nicht ueber */
+	private static boolean fitsProduct(long a, long b) {
+		return Long.numberOfLeadingZeros(Math.abs(a)) + Long.numberOfLeadingZeros(Math.abs(b)) > 65;
+	}
+
+	private static int checkDigits(int digits) {
+		if (digits < 0 || digits > DIGITS)
+			throw new IllegalArgumentException("Digits must be between 0 and " + DIGITS + ": " + digits);
+		return digits;
+	}
+}
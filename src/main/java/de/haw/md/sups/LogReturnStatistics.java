@@ -0,0 +1,125 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+
+/**
+ * Laufende Statistik der Log-Renditen einer Preisreihe. Jeder neue Preis
+ * aktualisiert Mittelwert und Streuung in O(1) (Welford), die Historie muss
+ * nicht erneut durchlaufen werden.
+ *
+ * Wie in ResourceCalc ist die Rendite log(p[i] / p[i + 1]) und Mittelwert und
+ * Varianz werden durch die Anzahl der Preise, nicht der Renditen, geteilt.
+ *
+ * Mit einem Fenster > 0 zaehlen nur die letzten Renditen, aeltere werden beim
+ * Anhaengen wieder herausgerechnet.
+ */
+public class LogReturnStatistics {
+
+	/** Anzahl der Renditen im Fenster, 0 fuer die gesamte Historie */
+	private final int window;
+	private final double[] returns;
+	private int oldest;
+
+	private int count;
+	private double mean;
+	private double m2;
+
+	private BigDecimal lastPrice;
+	private double lastDoublePrice;
+
+	public LogReturnStatistics() {
+		this(0);
+	}
+
+	public LogReturnStatistics(int window) {
+		if (window < 0)
+			throw new IllegalArgumentException("Window must not be negative: " + window);
+		this.window = window;
+		this.returns = window > 0 ? new double[window] : null;
+	}
+
+	/**
+	 * Unabhaengige Kopie, z.B. als Ausgangspunkt mehrerer Simulationslaeufe
+	 * mit derselben Historie.
+	 */
+	public LogReturnStatistics(LogReturnStatistics statistics) {
+		this.window = statistics.window;
+		this.returns = statistics.returns != null ? statistics.returns.clone() : null;
+		this.oldest = statistics.oldest;
+		this.count = statistics.count;
+		this.mean = statistics.mean;
+		this.m2 = statistics.m2;
+		this.lastPrice = statistics.lastPrice;
+		this.lastDoublePrice = statistics.lastDoublePrice;
+	}
+
+	/**
+	 * Haengt den naechsten Preis der Reihe an.
+	 *
+	 * @param price
+	 */
+	public void add(BigDecimal price) {
+		if (lastPrice != null) {
+			final double logReturn = Math.log(lastDoublePrice / price.doubleValue());
+			if (window > 0 && count == window) {
+				remove(returns[oldest]);
+				returns[oldest] = logReturn;
+				oldest = (oldest + 1) % window;
+			} else if (window > 0) {
+				returns[(oldest + count) % window] = logReturn;
+			}
+			count++;
+			final double delta = logReturn - mean;
+			mean += delta / count;
+			m2 += delta * (logReturn - mean);
+		}
+		lastPrice = price;
+		lastDoublePrice = price.doubleValue();
+	}
+
+	private void remove(double logReturn) {
+		if (count == 1) {
+			count = 0;
+			mean = 0;
+			m2 = 0;
+			return;
+		}
+		count--;
+		final double delta = logReturn - mean;
+		mean -= delta / count;
+		m2 = Math.max(0, m2 - delta * (logReturn - mean));
+	}
+
+	/**
+	 * @return Summe der Renditen geteilt durch die Anzahl der Preise
+	 */
+	public double getAverage() {
+		if (count == 0)
+			return 0;
+		return mean * count / (count + 1);
+	}
+
+	/**
+	 * @return Wurzel aus der Summe der quadrierten Abweichungen vom
+	 *         Durchschnitt, geteilt durch die Anzahl der Preise
+	 */
+	public double getDeviation() {
+		if (count == 0)
+			return 0;
+		final double shift = mean - getAverage();
+		return Math.sqrt((m2 + count * shift * shift) / (count + 1));
+	}
+
+	/** Anzahl der Renditen in der Statistik */
+	public int getCount() {
+		return count;
+	}
+
+	public BigDecimal getLastPrice() {
+		return lastPrice;
+	}
+
+	public double getLastDoublePrice() {
+		return lastDoublePrice;
+	}
+}
@@ -0,0 +1,277 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+
+/**
+ * Marktvolumen und Marktanteile der Handyhersteller, wie sie der Markt zu
+ * jedem Tick berechnet. Ohne Zustand, damit Market und SimulationEngine
+ * dieselbe Rechnung verwenden.
+ *
+ * Die Anteile werden ueber long-Felder in festen Einheiten gerechnet: Preise in
+ * Cent, Anteile in 1e-11 Prozent. Die Rundungen entsprechen dabei genau der
+ * frueheren Rechnung mit BigDecimal, d.h. Anteil und Volumen sind bis auf die
+ * letzte Stelle gleich.
+ */
+public final class MarketShareCalc {
+
+	/** Nachkommastellen der Anteile in long-Einheiten */
+	public static final int SHARE_SCALE = 11;
+
+	/** Nachkommastellen der Anteile in CompanyShareMsg wie bei der BigDecimal-Rechnung */
+	public static final int SHARE_MSG_SCALE = 20;
+
+	/** Nachkommastellen des prozentualen Preisanteils */
+	private static final int PERCENT_SCALE = 10;
+
+	private static final long SHARE_ONE = 100000000000L;
+
+	/** 100 * 10^PERCENT_SCALE */
+	private static final long PERCENT_ONE = 1000000000000L;
+
+	/** Der Index steckt in den unteren Bits des Sortierschluessels */
+	private static final int INDEX_BITS = 24;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	public static final int MAX_COMPANIES = 1 << INDEX_BITS;
+	public static final long MAX_PRICE = (1L << (Long.SIZE - 1 - INDEX_BITS)) - 1;
+
+	private static final long FIXED_MARKET_SHARE = StaticVariables.FIXED_MARKET_SHARE.longValueExact();
+
+	/**
+	 * Variabler Anteil (100 - FIXED_MARKET_SHARE) in Zehnteln, da
+	 * Preisanteil (1e-10) mal variabler Anteil / 100 in 1e-11 gerechnet wird
+	 */
+	private static final long VARIABLE_SHARE_TENTHS = StaticVariables.HUNDRED.subtract(StaticVariables.FIXED_MARKET_SHARE).divide(BigDecimal.TEN)
+			.longValueExact();
+
+	private MarketShareCalc() {
+	}
+
+	/**
+	 * Volume = Gesammt_Markt_Volume / (Zaehler / (laenge_des_Monats)),
+	 * hoechstens Gesammt_Markt_Volume.
+	 *
+	 * @param counter
+	 *            Anzahl der bisher veroeffentlichten Marktanteile
+	 * @param currentMarketVolume
+	 *            bisheriges Volumen, bleibt beim Zaehler 0 erhalten
+	 * @return
+	 */
+	public static BigDecimal calculateMarketVolume(BigDecimal counter, BigDecimal currentMarketVolume) {
+		if (counter.compareTo(BigDecimal.ZERO) == 0)
+			return currentMarketVolume;
+		final BigDecimal volume = StaticVariables.MARKET_VOLUME.divide(counter.divide(StaticVariables.MONTH, 10, RoundingMode.HALF_UP), 0,
+				RoundingMode.HALF_DOWN);
+		if (volume.compareTo(StaticVariables.MARKET_VOLUME) > 0)
+			return StaticVariables.MARKET_VOLUME;
+		return volume;
+	}
+
+	/**
+	 * Marktanteile zu Verkaufspreisen in einer Map. Bei gleichen Preisen
+	 * entscheidet die Reihenfolge der Map.
+	 *
+	 * @param companyMarketPrices
+	 *            letzter Verkaufspreis je Unternehmen, 0 fuer ausgeschiedene
+	 * @param marketVolume
+	 * @return
+	 */
+	public static List<CompanyShareMsg> calculateShares(Map<String, BigDecimal> companyMarketPrices, BigDecimal marketVolume) {
+		final MarketShareTable table = new MarketShareTable();
+		for (Map.Entry<String, BigDecimal> entry : companyMarketPrices.entrySet())
+			table.put(entry.getKey(), entry.getValue());
+		table.calculate(marketVolume);
+		return table.getShares();
+	}
+
+	/**
+	 * Hier werden die Marktanteile der Unternehmen berechnet. Dabei bestehen
+	 * die Marktanteile aus einem fixen und einem variablen Teil. Anschliessend
+	 * werden die Anteile getauscht: Das Unternehmen mit dem hoechsten Preis
+	 * erhaelt den kleinsten Anteil und umgekehrt, bei gleichem Preis erhaelt
+	 * das Unternehmen mit dem kleineren Index den kleineren Anteil.
+	 *
+	 * @param prices
+	 *            Verkaufspreise in Cent, 0 fuer ausgeschiedene
+	 * @param count
+	 *            Anzahl der Unternehmen, auch der ausgeschiedenen
+	 * @param marketVolume
+	 * @param shareValues
+	 *            Anteil je Unternehmen in 1e-11 Prozent, 0 fuer ausgeschiedene
+	 * @param shareVolumes
+	 *            Absatzvolumen je Unternehmen, 0 fuer ausgeschiedene
+	 * @param order
+	 *            Indizes der Unternehmen am Markt, absteigend nach Preis
+	 * @return Anzahl der Unternehmen am Markt, also die belegte Laenge von
+	 *         order
+	 */
+	public static int calculateShares(long[] prices, int count, long marketVolume, long[] shareValues, long[] shareVolumes, int[] order) {
+		if (count > MAX_COMPANIES)
+			throw new IllegalArgumentException("Too many companies: " + count);
+		final long[] keys = new long[count];
+		long sumPrice = 0;
+		int active = 0;
+		for (int i = 0; i < count; i++) {
+			final long price = prices[i];
+			if (price < 0 || price > MAX_PRICE)
+				throw new IllegalArgumentException("Price out of range: " + price);
+			shareValues[i] = 0;
+			shareVolumes[i] = 0;
+			// Berechnung erfolgt nur wenn ein Unternehmen noch am Markt ist, also Verkaufspreis > 0
+			if (price != 0) {
+				sumPrice = Math.addExact(sumPrice, price);
+				// Aufsteigend nach Preis, bei gleichem Preis absteigend nach Index
+				keys[active++] = price << INDEX_BITS | (INDEX_MASK - i);
+			}
+		}
+		Arrays.sort(keys, 0, active);
+		// Fixe Anteile pro Unternehmen = FIXED_MARKET_SHARE / Anzahl_der_Unternehmen
+		final long fixedShare = Math.multiplyExact(divideHalfDown(FIXED_MARKET_SHARE, count), SHARE_ONE);
+		final long marketVolumeOnePercent = divideHalfDown(marketVolume, 100);
+		for (int k = 0; k < active; k++) {
+			final int company = (int) (INDEX_MASK - (keys[k] & INDEX_MASK));
+			// Der Anteil zum Preis an der gespiegelten Stelle
+			final long share = shareOf(keys[active - 1 - k] >>> INDEX_BITS, sumPrice, fixedShare);
+			shareValues[company] = share;
+			shareVolumes[company] = divideHalfDown(Math.multiplyExact(marketVolumeOnePercent, share), SHARE_ONE);
+			order[active - 1 - k] = company;
+		}
+		return active;
+	}
+
+	/**
+	 * Marktanteile aus den Teilsummen regionaler Teilmaerkte. Anzahl und
+	 * Preissumme ergeben sich aus den Regionen allein. Fuer das Tauschen der
+	 * Anteile braucht es aber die Rangfolge aller Preise, dafuer werden die
+	 * bereits sortierten Listen der Regionen zusammengefuehrt statt alle Preise
+	 * neu zu sortieren.
+	 *
+	 * @param regions
+	 * @param marketVolume
+	 * @return Anteile aller Unternehmen am Markt, absteigend nach Preis wie
+	 *         MarketShareTable.getShares
+	 */
+	public static List<CompanyShareMsg> calculateShares(Collection<RegionPrices> regions, long marketVolume) {
+		long count = 0;
+		long sumPrice = 0;
+		int active = 0;
+		final PriorityQueue<RegionCursor> cursors = new PriorityQueue<>(Math.max(1, regions.size()));
+		for (RegionPrices region : regions) {
+			count += region.getCount();
+			sumPrice = Math.addExact(sumPrice, region.getSumPrice());
+			active += region.size();
+			if (region.size() > 0)
+				cursors.add(new RegionCursor(region));
+		}
+		if (active == 0)
+			return Collections.emptyList();
+		if (count > MAX_COMPANIES)
+			throw new IllegalArgumentException("Too many companies: " + count);
+		final String[] companies = new String[active];
+		final long[] prices = new long[active];
+		for (int i = 0; i < active; i++) {
+			final RegionCursor cursor = cursors.poll();
+			companies[i] = cursor.getCompany();
+			prices[i] = cursor.getPrice();
+			if (++cursor.position < cursor.region.size())
+				cursors.add(cursor);
+		}
+		final long fixedShare = Math.multiplyExact(divideHalfDown(FIXED_MARKET_SHARE, count), SHARE_ONE);
+		final long marketVolumeOnePercent = divideHalfDown(marketVolume, 100);
+		final List<CompanyShareMsg> shares = new ArrayList<>(active);
+		for (int i = 0; i < active; i++) {
+			final long share = shareOf(prices[active - 1 - i], sumPrice, fixedShare);
+			shares.add(new CompanyShareMsg(companies[i], toShareValue(share), BigDecimal.valueOf(divideHalfDown(Math.multiplyExact(
+					marketVolumeOnePercent, share), SHARE_ONE))));
+		}
+		return shares;
+	}
+
+	/**
+	 * @return Anteil in CompanyShareMsg
+	 */
+	public static BigDecimal toShareValue(long share) {
+		return BigDecimal.valueOf(share, SHARE_SCALE).setScale(SHARE_MSG_SCALE);
+	}
+
+	/**
+	 * @return Preis in Cent, auf Cent gerundet
+	 */
+	public static long toCents(BigDecimal price) {
+		return price.setScale(2, RoundingMode.HALF_DOWN).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Fixer plus variabler Anteil zum gespiegelten Preis in 1e-11 Prozent.
+	 */
+	private static long shareOf(long mirroredPrice, long sumPrice, long fixedShare) {
+		return fixedShare + VARIABLE_SHARE_TENTHS * percentOfSum(mirroredPrice, sumPrice);
+	}
+
+	/**
+	 * Preisanteil in Prozent mit PERCENT_SCALE Nachkommastellen, wie
+	 * price / (sumPrice / 100). Bei sehr hohen Preisen werden die
+	 * Nachkommastellen einzeln geteilt, damit nichts ueberlaeuft.
+	 */
+	private static long percentOfSum(long price, long sumPrice) {
+		if (price <= Long.MAX_VALUE / PERCENT_ONE)
+			return divideHalfDown(price * PERCENT_ONE, sumPrice);
+		final long dividend = price * 100;
+		long quotient = dividend / sumPrice;
+		long remainder = dividend % sumPrice;
+		for (int i = 0; i < PERCENT_SCALE; i++) {
+			remainder = Math.multiplyExact(remainder, 10);
+			quotient = quotient * 10 + remainder / sumPrice;
+			remainder %= sumPrice;
+		}
+		return remainder > sumPrice - remainder ? quotient + 1 : quotient;
+	}
+
+	/**
+	 * Ganzzahlige Division mit RoundingMode.HALF_DOWN fuer nicht negative
+	 * Werte.
+	 */
+	private static long divideHalfDown(long dividend, long divisor) {
+		final long quotient = dividend / divisor;
+		final long remainder = dividend % divisor;
+		return remainder > divisor - remainder ? quotient + 1 : quotient;
+	}
+
+	/**
+	 * Naechstes Unternehmen einer Region beim Zusammenfuehren, geordnet wie
+	 * RegionPrices.
+	 */
+	private static class RegionCursor implements Comparable<RegionCursor> {
+
+		private final RegionPrices region;
+		private int position;
+
+		private RegionCursor(RegionPrices region) {
+			this.region = region;
+		}
+
+		private String getCompany() {
+			return region.getCompany(position);
+		}
+
+		private long getPrice() {
+			return region.getPrice(position);
+		}
+
+		@Override
+		public int compareTo(RegionCursor other) {
+			if (getPrice() != other.getPrice())
+				return Long.compare(other.getPrice(), getPrice());
+			return getCompany().compareTo(other.getCompany());
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+
+/**
+ * Letzte Verkaufspreise und Marktanteile aller Handyhersteller in Feldern, fuer
+ * Maerkte mit sehr vielen Unternehmen. Jedes Unternehmen erhaelt beim ersten
+ * Preis einen festen Index, bei gleichem Preis entscheidet dieser Index. Market
+ * und SimulationEngine tragen die Ergebnisse eines Ticks nach Namen sortiert
+ * ein und vergeben die Indizes daher gleich.
+ */
+public class MarketShareTable {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Map<String, Integer> indices = new HashMap<>();
+
+	private String[] companies = new String[INITIAL_CAPACITY];
+	private long[] prices = new long[INITIAL_CAPACITY];
+	private long[] shareValues = new long[INITIAL_CAPACITY];
+	private long[] shareVolumes = new long[INITIAL_CAPACITY];
+	private int[] order = new int[INITIAL_CAPACITY];
+
+	private int size;
+	/** Anzahl der Unternehmen am Markt bei der letzten Berechnung */
+	private int active;
+	private boolean calculated;
+
+	/**
+	 * Setzt den Verkaufspreis eines Unternehmens, auf Cent gerundet.
+	 *
+	 * @param company
+	 * @param price
+	 *            0 fuer ausgeschiedene
+	 */
+	public void put(String company, BigDecimal price) {
+		final long cents = MarketShareCalc.toCents(price);
+		final Integer index = indices.get(company);
+		if (index != null) {
+			prices[index] = cents;
+			return;
+		}
+		if (size == companies.length)
+			grow();
+		indices.put(company, size);
+		companies[size] = company;
+		prices[size] = cents;
+		size++;
+	}
+
+	private void grow() {
+		final int capacity = companies.length * 2;
+		companies = Arrays.copyOf(companies, capacity);
+		prices = Arrays.copyOf(prices, capacity);
+		shareValues = Arrays.copyOf(shareValues, capacity);
+		shareVolumes = Arrays.copyOf(shareVolumes, capacity);
+		order = Arrays.copyOf(order, capacity);
+	}
+
+	/**
+	 * @return Anzahl der Unternehmen mit Preis, auch der ausgeschiedenen
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Berechnet die Marktanteile zu den aktuellen Preisen.
+	 *
+	 * @param marketVolume
+	 */
+	public void calculate(BigDecimal marketVolume) {
+		active = MarketShareCalc.calculateShares(prices, size, marketVolume.longValueExact(), shareValues, shareVolumes, order);
+		calculated = true;
+	}
+
+	/**
+	 * @return true, wenn bei der letzten Berechnung mindestens ein
+	 *         Unternehmen am Markt war
+	 */
+	public boolean hasShares() {
+		return calculated && active > 0;
+	}
+
+	/**
+	 * @return Anteil des Unternehmens aus der letzten Berechnung oder null,
+	 *         wenn es keinen Preis hat oder ausgeschieden ist
+	 */
+	public CompanyShareMsg getShare(String company) {
+		final Integer index = indices.get(company);
+		if (!calculated || index == null || prices[index] == 0)
+			return null;
+		return toMsg(index);
+	}
+
+	/**
+	 * @return Anteile aller Unternehmen am Markt aus der letzten Berechnung,
+	 *         absteigend nach Preis
+	 */
+	public List<CompanyShareMsg> getShares() {
+		if (!calculated)
+			return Collections.emptyList();
+		final List<CompanyShareMsg> shares = new ArrayList<>(active);
+		for (int i = 0; i < active; i++)
+			shares.add(toMsg(order[i]));
+		return shares;
+	}
+
+	/**
+	 * @return Verkaufspreise in der Reihenfolge der Indizes
+	 */
+	public Map<String, BigDecimal> getPrices() {
+		final Map<String, BigDecimal> map = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++)
+			map.put(companies[i], BigDecimal.valueOf(prices[i], 2));
+		return map;
+	}
+
+	private CompanyShareMsg toMsg(int index) {
+		return new CompanyShareMsg(companies[index], MarketShareCalc.toShareValue(shareValues[index]), BigDecimal.valueOf(shareVolumes[index]));
+	}
+}
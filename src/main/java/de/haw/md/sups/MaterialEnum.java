@@ -0,0 +1,50 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+
+/**
+ * Materialien, aus denen die Produkte gefertigt werden, mit der Einheit, in
+ * der ihr Preis notiert wird. Kunststoff wird nicht als Rohstoff gehandelt,
+ * sondern von der Oelfirma pro kg angeboten.
+ */
+public enum MaterialEnum {
+
+	PLASTIC(null, StaticVariables.KG_IN_GRAMM),
+	KUPFER(ResourceEnum.KUPFER, StaticVariables.T_IN_GRAMM),
+	ALUMINIUM(ResourceEnum.ALUMINIUM, StaticVariables.T_IN_GRAMM),
+	NICKEL(ResourceEnum.NICKEL, StaticVariables.T_IN_GRAMM),
+	ZINN(ResourceEnum.ZINN, StaticVariables.T_IN_GRAMM),
+	GOLD(ResourceEnum.GOLD, StaticVariables.OZ_TO_GRAMM),
+	SILBER(ResourceEnum.SILBER, StaticVariables.OZ_TO_GRAMM),
+	PLATIN(ResourceEnum.PLATIN, StaticVariables.OZ_TO_GRAMM),
+	PALLADIUM(ResourceEnum.PALLADIUM, StaticVariables.OZ_TO_GRAMM);
+
+	private ResourceEnum resource;
+	private BigDecimal unitInGramm;
+
+	private MaterialEnum(ResourceEnum resource, BigDecimal unitInGramm) {
+		this.resource = resource;
+		this.unitInGramm = unitInGramm;
+	}
+
+	public ResourceEnum getResource() {
+		return resource;
+	}
+
+	/** Gramm je Preiseinheit (t, kg oder Feinunze) */
+	public BigDecimal getUnitInGramm() {
+		return unitInGramm;
+	}
+
+	/**
+	 * @param resource
+	 * @return Material zum Rohstoff oder null, wenn der Rohstoff nicht direkt
+	 *         verbaut wird (Oel)
+	 */
+	public static MaterialEnum getByResource(ResourceEnum resource) {
+		for (MaterialEnum me : MaterialEnum.values())
+			if (me.resource == resource)
+				return me;
+		return null;
+	}
+}
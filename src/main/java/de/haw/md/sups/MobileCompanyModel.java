@@ -0,0 +1,174 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.joda.time.LocalDate;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.metrics.TimerEnum;
+
+/**
+ * Rechnung eines Handyherstellers pro Tick: Produktionskosten, Preis, Gewinn
+ * und das Ausscheiden bei zu hohem Verlust. Ohne Nachrichtenversand, damit
+ * der Aktor CompanyMobile und die SimulationEngine dieselbe Rechnung
+ * verwenden.
+ */
+public class MobileCompanyModel {
+
+	private final String name;
+
+	private final MobileCostCalc costCalc;
+
+	private final BigDecimal bonus;
+	private final BigDecimal monthlyCosts;
+
+	private BigDecimal shareVolume = StaticVariables.ESTIMATED_MARKT_VOLUME.divide(StaticVariables.MONTH.subtract(new BigDecimal("15")), 0,
+			RoundingMode.HALF_DOWN);
+	private BigDecimal selledProducts;
+
+	private BigDecimal basisPrice = BigDecimal.ZERO;
+
+	private LocalDate dateTicker;
+	private LocalDate nextMonthTicker;
+
+	private BigDecimal prodPrice;
+
+	private BigDecimal completeProfit = BigDecimal.ZERO;
+
+	/** Tick, in dem der Verlust HIGHEST_ACCEPTEBLE_DEFICIT erreicht hat, sonst 0 */
+	private int exitTick;
+
+	public MobileCompanyModel(String name, MobileCostCalc costCalc, BigDecimal bonus, BigDecimal monthlyCosts) {
+		this.name = name;
+		this.costCalc = costCalc;
+		this.bonus = bonus;
+		this.monthlyCosts = monthlyCosts;
+	}
+
+	/**
+	 * Verarbeitet einen Tick, sobald alle Eingaenge vorliegen.
+	 *
+	 * @param resourcePrices
+	 * @param plastic
+	 *            Kunststoffpreis des Ticks
+	 * @param electronicPart
+	 *            Angebot des eigenen Zulieferers
+	 * @param shares
+	 *            Marktanteile, eine leere Liste vor der ersten Berechnung
+	 * @return das Ergebnis fuer den Markt oder null, wenn es in diesem Tick
+	 *         keines gibt
+	 */
+	public MarketResponseMsg processTick(ResourcePriceVectorMsg resourcePrices, MarketResponseMsg plastic, MarketResponseMsg electronicPart,
+			MarketShareMsg shares) {
+		final int tick = resourcePrices.getTick();
+		setResourcePrices(resourcePrices);
+		costCalc.setPlasticPrice(plastic.getRevenue());
+		costCalc.setElectronicPartPrice(electronicPart.getRevenue());
+		// Eine leere Liste bedeutet, dass noch keine Anteile berechnet wurden
+		if (!shares.getCompanyShares().isEmpty())
+			shareVolume = setShareVolume(shares.findShareByCompanyName(name)).divide(StaticVariables.MONTH, 0, RoundingMode.HALF_DOWN);
+		final LocalDate date = plastic.getDate();
+		if (dateTicker == null) {
+			dateTicker = date;
+			nextMonthTicker = dateTicker.plusMonths(1);
+		}
+		if (!costCalc.pricesNotNull() || shareVolume.compareTo(BigDecimal.ZERO) == 0)
+			return null;
+		long start = System.nanoTime();
+		prodPrice = costCalc.calculateProdPrice(shareVolume);
+		TimerEnum.CALCULATE_PROD_PRICE.recordSince(start);
+		selledProducts = costCalc.getSelledProducts();
+		if (basisPrice.compareTo(BigDecimal.ZERO) == 0)
+			basisPrice = prodPrice.multiply(bonus);
+		BigDecimal revenue = basisPrice.setScale(2, RoundingMode.UP);
+		BigDecimal profit = (revenue.subtract(prodPrice)).multiply(selledProducts).setScale(2, RoundingMode.HALF_UP);
+		if (profit.compareTo(BigDecimal.ZERO) < 0) {
+			start = System.nanoTime();
+			BigDecimal newRevenue = costCalc.recalculatePrice(basisPrice, shareVolume);
+			TimerEnum.RECALCULATE_PRICE.recordSince(start);
+			prodPrice = costCalc.getProdPrice();
+			selledProducts = costCalc.getSelledProducts();
+			if (newRevenue.compareTo(BigDecimal.ZERO) <= 0) {
+				revenue = BigDecimal.ZERO;
+				profit = BigDecimal.ZERO;
+			} else {
+				revenue = newRevenue.setScale(2, RoundingMode.HALF_DOWN);
+				profit = (newRevenue.subtract(prodPrice)).multiply(selledProducts).setScale(2, RoundingMode.HALF_UP);
+			}
+		}
+		if (!dateTicker.isBefore(date))
+			return null;
+		if (nextMonthTicker.isBefore(dateTicker)) {
+			profit = profit.subtract(monthlyCosts);
+			nextMonthTicker = nextMonthTicker.plusMonths(1);
+		}
+		completeProfit = completeProfit.add(profit);
+		dateTicker = date;
+		if (completeProfit.compareTo(StaticVariables.HIGHEST_ACCEPTEBLE_DEFICIT) <= 0) {
+			if (exitTick == 0)
+				exitTick = tick;
+			revenue = BigDecimal.ZERO;
+			profit = BigDecimal.ZERO;
+		}
+		BigDecimal productionCost = BigDecimal.ZERO;
+		if (revenue.compareTo(BigDecimal.ZERO) != 0)
+			productionCost = prodPrice.setScale(2, RoundingMode.HALF_UP);
+		return new MarketResponseMsg(name, ProductTypeEnum.MOBILE_PHONE, tick, date, revenue, selledProducts, profit, productionCost);
+	}
+
+	private BigDecimal setShareVolume(CompanyShareMsg csm) {
+		if (csm != null)
+			return csm.getShareVolume();
+		return BigDecimal.ZERO;
+	}
+
+	private void setResourcePrices(ResourcePriceVectorMsg rpvm) {
+		for (ResourceEnum re : ResourceEnum.values())
+			costCalc.setResourcePrice(re, rpvm.getPrice(re));
+	}
+
+	/**
+	 * @param tick
+	 *            letzter verarbeiteter Tick
+	 * @return alles, was ueber den Tick hinaus erhalten bleibt, fuer einen
+	 *         Checkpoint
+	 */
+	public CompanyStateMsg getState(int tick) {
+		return new CompanyStateMsg(name, tick, shareVolume, basisPrice, dateTicker, nextMonthTicker, completeProfit, exitTick);
+	}
+
+	/**
+	 * Setzt den Zustand aus einem Checkpoint ein, vor dem ersten Tick.
+	 *
+	 * @param state
+	 */
+	public void restore(CompanyStateMsg state) {
+		shareVolume = state.getShareVolume();
+		basisPrice = state.getBasisPrice();
+		dateTicker = state.getDateTicker();
+		nextMonthTicker = state.getNextMonthTicker();
+		completeProfit = state.getCompleteProfit();
+		exitTick = state.getExitTick();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BigDecimal getCompleteProfit() {
+		return completeProfit;
+	}
+
+	/**
+	 * @return Tick des Ausscheidens oder 0, solange das Unternehmen am Markt
+	 *         ist
+	 */
+	public int getExitTick() {
+		return exitTick;
+	}
+}
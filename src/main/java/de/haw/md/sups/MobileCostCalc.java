@@ -0,0 +1,197 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Stueckkosten eines Handys aus Materialkosten, Lohnkosten, dem Preis des
+ * Zulieferers und den Kosten der Produktionslinien.
+ *
+ * Im Modus FIXED_POINT sind Stueckkosten und verkaufte Menge exakt gleich der
+ * BigDecimal-Rechnung. Einzige Abweichung ist der neue Preis in
+ * recalculatePrice, der mit 8 statt 10 Nachkommastellen berechnet wird. Umsatz
+ * und Gewinn koennen daher nach einer Preisanpassung um hoechstens einen Cent
+ * abweichen.
+ */
+public class MobileCostCalc extends ProdCostCalc {
+
+	private static final BigDecimal MIN_MARGIN = new BigDecimal("1.02");
+	private static final long FIXED_MIN_MARGIN = FixedPoint.fromBigDecimal(MIN_MARGIN);
+	private static final long FIXED_PRICE_ADJUSTMENT = FixedPoint.fromBigDecimal(StaticVariables.PRICE_ADJUSTMENT);
+
+	private final BigDecimal supDiscount;
+	private final BigDecimal complManCost;
+	private final BigDecimal fixCost;
+	private final BigDecimal productionLines;
+	private final BigDecimal productionLineCapacity;
+	private final BigDecimal bonus;
+
+	private final long fixedSupDiscount;
+	private final long fixedComplManCost;
+	private final long fixedProductionLines;
+	private final long fixedProductionLineCapacity;
+	private final long fixedCostOfOne;
+	private final long fixedMaxSelledProducts;
+	private final long fixedMaxLinesCost;
+	private final long fixedDoubleBonus;
+
+	private BigDecimal electronicPartPrice;
+	private long fixedElectronicPartPrice;
+	private int electronicPartPriceScale;
+
+	private BigDecimal prodPrice;
+	private BigDecimal selledProducts;
+
+	private long fixedProdPrice;
+	private long fixedSelledProducts;
+	private int selledProductsScale;
+
+	public MobileCostCalc(CostModeEnum mode, BigDecimal costManHour, BigDecimal prodManHour, BigDecimal bonus, BigDecimal supDiscount, BigDecimal fixCost,
+			BigDecimal productionLines, BigDecimal productionLineCapacity) {
+		super(mode, BillOfMaterialsEnum.MOBILE_PHONE);
+		this.supDiscount = supDiscount;
+		this.complManCost = costManHour.divide(prodManHour, RoundingMode.HALF_DOWN);
+		this.fixCost = fixCost;
+		this.productionLines = productionLines;
+		this.productionLineCapacity = productionLineCapacity;
+		this.bonus = bonus;
+		this.fixedSupDiscount = FixedPoint.fromBigDecimal(supDiscount);
+		this.fixedComplManCost = FixedPoint.fromBigDecimal(complManCost);
+		this.fixedProductionLines = FixedPoint.fromBigDecimal(productionLines);
+		this.fixedProductionLineCapacity = FixedPoint.fromBigDecimal(productionLineCapacity);
+		final BigDecimal maxSelledProducts = productionLines.multiply(productionLineCapacity).setScale(0, RoundingMode.UP);
+		this.fixedCostOfOne = FixedPoint.fromBigDecimal(fixCost.divide(productionLines, 2, RoundingMode.HALF_UP));
+		this.fixedMaxSelledProducts = FixedPoint.fromBigDecimal(maxSelledProducts);
+		this.fixedMaxLinesCost = FixedPoint.fromBigDecimal(fixCost.divide(maxSelledProducts, 2, RoundingMode.HALF_UP));
+		this.fixedDoubleBonus = FixedPoint.fromBigDecimal(bonus.multiply(new BigDecimal(2)));
+	}
+
+	public void setElectronicPartPrice(BigDecimal price) {
+		electronicPartPrice = price;
+		if (mode == CostModeEnum.FIXED_POINT && price != null) {
+			fixedElectronicPartPrice = FixedPoint.fromBigDecimal(price);
+			electronicPartPriceScale = FixedPoint.scaleOf(price);
+		}
+	}
+
+	@Override
+	public boolean pricesNotNull() {
+		return electronicPartPrice != null && super.pricesNotNull();
+	}
+
+	/**
+	 * Berechnet die Stueckkosten fuer die angegebene Absatzmenge. Die verkaufte
+	 * Menge ist danach ueber getSelledProducts abrufbar.
+	 *
+	 * @param shareVolume
+	 * @return Stueckkosten
+	 */
+	public BigDecimal calculateProdPrice(BigDecimal shareVolume) {
+		if (mode == CostModeEnum.FIXED_POINT) {
+			calculateFixedProdPrice(FixedPoint.fromBigDecimal(shareVolume), FixedPoint.scaleOf(shareVolume));
+			prodPrice = FixedPoint.toBigDecimal(fixedProdPrice);
+			selledProducts = FixedPoint.toBigDecimal(fixedSelledProducts, selledProductsScale);
+			return prodPrice;
+		}
+		final BigDecimal supPriceWithDisc = electronicPartPrice.divide(supDiscount, RoundingMode.HALF_UP);
+		final BigDecimal numberOfProdLines = shareVolume.divide(productionLineCapacity, 0, RoundingMode.UP);
+		BigDecimal prodLinesCost;
+		if (numberOfProdLines.compareTo(productionLines) > 0) {
+			selledProducts = productionLines.multiply(productionLineCapacity).setScale(0, RoundingMode.UP);
+			prodLinesCost = fixCost.divide(selledProducts, 2, RoundingMode.HALF_UP);
+		} else {
+			selledProducts = shareVolume;
+			final BigDecimal costOfOne = fixCost.divide(productionLines, 2, RoundingMode.HALF_UP);
+			prodLinesCost = costOfOne.multiply(numberOfProdLines).divide(selledProducts, 2, RoundingMode.HALF_UP);
+		}
+		prodPrice = (getComponentPrice().add(complManCost).add(supPriceWithDisc)).add(prodLinesCost);
+		return prodPrice;
+	}
+
+	/**
+	 * Sucht einen Preis unterhalb von basisPrice, der bei der dadurch
+	 * steigenden Absatzmenge noch ueber den Stueckkosten liegt.
+	 *
+	 * @param basisPrice
+	 * @param shareVolume
+	 * @return neuer Preis oder 0, wenn es keinen gibt
+	 */
+	public BigDecimal recalculatePrice(BigDecimal basisPrice, BigDecimal shareVolume) {
+		if (mode == CostModeEnum.FIXED_POINT) {
+			final long newPrice = recalculateFixedPrice(FixedPoint.fromBigDecimal(basisPrice), FixedPoint.fromBigDecimal(shareVolume),
+					FixedPoint.scaleOf(shareVolume));
+			prodPrice = FixedPoint.toBigDecimal(fixedProdPrice);
+			selledProducts = FixedPoint.toBigDecimal(fixedSelledProducts, selledProductsScale);
+			return newPrice == 0 ? BigDecimal.ZERO : FixedPoint.toBigDecimal(newPrice);
+		}
+		BigDecimal newPrice = basisPrice;
+		BigDecimal adjustment = StaticVariables.PRICE_ADJUSTMENT;
+		do {
+			calculateProdPrice(shareVolume.multiply(BigDecimal.ONE.add(adjustment)));
+			newPrice = basisPrice.divide(BigDecimal.ONE.add(adjustment), 10, RoundingMode.HALF_UP);
+			if (newPrice.subtract(prodPrice).compareTo(BigDecimal.ZERO) > 0) {
+				return newPrice;
+			}
+			adjustment = adjustment.add(StaticVariables.PRICE_ADJUSTMENT);
+		} while (newPrice.compareTo(prodPrice.multiply(MIN_MARGIN)) > 0 || adjustment.compareTo(bonus.multiply(new BigDecimal(2))) <= 0);
+		return BigDecimal.ZERO;
+	}
+
+	public long calculateFixedProdPrice(long shareVolume, int shareVolumeScale) {
+		return calculateFixedProdPrice(calculateFixedUnitCost(), shareVolume, shareVolumeScale);
+	}
+
+	/**
+	 * Material-, Lohn- und Zulieferkosten haengen nicht von der Absatzmenge ab
+	 * und werden in recalculateFixedPrice nur einmal berechnet.
+	 */
+	private long calculateFixedUnitCost() {
+		final long supPriceWithDisc = FixedPoint.divide(fixedElectronicPartPrice, fixedSupDiscount, electronicPartPriceScale, RoundingMode.HALF_UP);
+		return getFixedComponentPrice() + fixedComplManCost + supPriceWithDisc;
+	}
+
+	private long calculateFixedProdPrice(long unitCost, long shareVolume, int shareVolumeScale) {
+		final long numberOfProdLines = FixedPoint.divide(shareVolume, fixedProductionLineCapacity, 0, RoundingMode.UP);
+		long prodLinesCost;
+		if (numberOfProdLines > fixedProductionLines) {
+			fixedSelledProducts = fixedMaxSelledProducts;
+			selledProductsScale = 0;
+			prodLinesCost = fixedMaxLinesCost;
+		} else {
+			fixedSelledProducts = shareVolume;
+			selledProductsScale = shareVolumeScale;
+			// numberOfProdLines ist ganzzahlig, das Produkt ist daher exakt
+			prodLinesCost = FixedPoint.divide(Math.multiplyExact(fixedCostOfOne, numberOfProdLines / FixedPoint.ONE), shareVolume, 2, RoundingMode.HALF_UP);
+		}
+		fixedProdPrice = unitCost + prodLinesCost;
+		return fixedProdPrice;
+	}
+
+	/**
+	 * Wie recalculatePrice, der neue Preis wird aber mit 8 statt 10
+	 * Nachkommastellen (HALF_UP) berechnet.
+	 */
+	public long recalculateFixedPrice(long basisPrice, long shareVolume, int shareVolumeScale) {
+		final int adjustedScale = Math.min(FixedPoint.DIGITS, shareVolumeScale + StaticVariables.PRICE_ADJUSTMENT.scale());
+		final long unitCost = calculateFixedUnitCost();
+		long newPrice;
+		long adjustment = FIXED_PRICE_ADJUSTMENT;
+		do {
+			final long factor = FixedPoint.ONE + adjustment;
+			calculateFixedProdPrice(unitCost, FixedPoint.multiply(shareVolume, factor, FixedPoint.DIGITS, RoundingMode.HALF_UP), adjustedScale);
+			newPrice = FixedPoint.divide(basisPrice, factor, FixedPoint.DIGITS, RoundingMode.HALF_UP);
+			if (newPrice > fixedProdPrice)
+				return newPrice;
+			adjustment += FIXED_PRICE_ADJUSTMENT;
+		} while (newPrice > FixedPoint.multiply(fixedProdPrice, FIXED_MIN_MARGIN, FixedPoint.DIGITS, RoundingMode.HALF_UP) || adjustment <= fixedDoubleBonus);
+		return 0;
+	}
+
+	public BigDecimal getProdPrice() {
+		return prodPrice;
+	}
+
+	public BigDecimal getSelledProducts() {
+		return selledProducts;
+	}
+}
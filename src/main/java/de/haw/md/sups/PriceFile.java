@@ -0,0 +1,203 @@
+package de.haw.md.sups;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Vorbereitete Binaerdatei mit der Historie aller Rohstoffe eines
+ * CommodityCatalog. Die Kursdateien
+ * sind bereits sortiert, in Euro umgerechnet und Luecken gefuellt, die Reihen
+ * werden per FileChannel.map eingeblendet und ohne Kopie gelesen.
+ *
+ * Aufbau (big endian):
+ *
+ * <pre>
+ * Kopf      int MAGIC, int VERSION, int Anzahl Reihen, int 0
+ * je Reihe  short Laenge des Namens, Name (UTF-8), int Anzahl Preise, long Pruefsumme, long Position
+ * Daten     long[] Preise (FixedPoint), int[] Tage seit 1970-01-01, byte[] Nachkommastellen
+ * </pre>
+ *
+ * Die Daten jeder Reihe beginnen auf einer durch 8 teilbaren Position. Die
+ * Pruefsumme (CRC32) umfasst Kursdatei, Datumsformat, Waehrung und
+ * Umrechnungskurs. Passt sie fuer eine vorhandene Kursdatei nicht oder fehlt
+ * ein Rohstoff des Katalogs, gilt die Datei als veraltet und wird nicht
+ * verwendet.
+ */
+public final class PriceFile {
+
+	public static final int MAGIC = 0x4D445053;
+	public static final int VERSION = 2;
+
+	/** Systemeigenschaft mit dem Pfad der Datei */
+	public static final String PROPERTY = "priceFile";
+	public static final String FILE_NAME = "prices.bin";
+
+	private static final int HEADER_SIZE = 16;
+	/** ohne den Namen */
+	private static final int ENTRY_SIZE = 22;
+	private static final long NO_CHECKSUM = -1;
+
+	private PriceFile() {
+	}
+
+	/**
+	 * @return Pfad aus -DpriceFile, sonst prices.bin neben der ersten
+	 *         Kursdatei des Katalogs
+	 */
+	public static File getDefaultFile(CommodityCatalog catalog) {
+		final String path = System.getProperty(PROPERTY);
+		if (path != null)
+			return new File(path);
+		final URL url = catalog.size() > 0 ? catalog.getCommodities().get(0).getUrl() : null;
+		if (url == null || !"file".equals(url.getProtocol()))
+			return new File(FILE_NAME);
+		return new File(new File(url.getFile()).getParentFile(), FILE_NAME);
+	}
+
+	/**
+	 * Schreibt die Historie aller Rohstoffe des Katalogs. Die Reihen sollten
+	 * mit Resources.readCsvPrices gelesen sein, damit die Pruefsummen passen.
+	 *
+	 * @param file
+	 * @param resources
+	 * @throws IOException
+	 */
+	public static void write(File file, Resources resources) throws IOException {
+		final List<Commodity> commodities = resources.getCatalog().getCommodities();
+		final byte[][] names = new byte[commodities.size()][];
+		long position = HEADER_SIZE;
+		for (int i = 0; i < names.length; i++) {
+			names[i] = commodities.get(i).getName().getBytes(StandardCharsets.UTF_8);
+			position += ENTRY_SIZE + names[i].length;
+		}
+		final long[] offsets = new long[names.length];
+		for (int i = 0; i < names.length; i++) {
+			position = align(position);
+			offsets[i] = position;
+			position += 13L * resources.getPrice(commodities.get(i).getName()).size();
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(align(position)));
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(names.length).putInt(0);
+		for (int i = 0; i < names.length; i++) {
+			final Commodity commodity = commodities.get(i);
+			buffer.putShort((short) names[i].length).put(names[i]);
+			buffer.putInt(resources.getPrice(commodity.getName()).size()).putLong(checksum(commodity)).putLong(offsets[i]);
+		}
+		for (int i = 0; i < names.length; i++) {
+			final PriceSeries series = resources.getPrice(commodities.get(i).getName());
+			buffer.position((int) offsets[i]);
+			for (int j = 0; j < series.size(); j++)
+				buffer.putLong(FixedPoint.fromBigDecimal(series.getValue(j)));
+			for (int j = 0; j < series.size(); j++)
+				buffer.putInt(series.getEpochDay(j));
+			for (int j = 0; j < series.size(); j++)
+				buffer.put((byte) FixedPoint.scaleOf(series.getValue(j)));
+		}
+		buffer.clear();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Blendet die Datei ein. Die Reihen bleiben auch nach dem Schliessen des
+	 * Kanals gueltig.
+	 *
+	 * @param file
+	 * @param catalog
+	 * @return Reihe je Rohstoffname oder null, wenn die Datei fehlt, nicht
+	 *         lesbar oder veraltet ist
+	 */
+	public static Map<String, PriceSeries> read(File file, CommodityCatalog catalog) {
+		if (!file.isFile())
+			return null;
+		final MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			System.err.println(e);
+			return null;
+		}
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				System.err.println(file + " is no price file of version " + VERSION);
+				return null;
+			}
+			final int seriesCount = buffer.getInt();
+			buffer.getInt();
+			final Map<String, PriceSeries> result = new LinkedHashMap<>();
+			for (int i = 0; i < seriesCount; i++) {
+				final byte[] name = new byte[buffer.getShort()];
+				buffer.get(name);
+				final Commodity commodity = catalog.get(new String(name, StandardCharsets.UTF_8));
+				final int count = buffer.getInt();
+				final long storedChecksum = buffer.getLong();
+				final int offset = Math.toIntExact(buffer.getLong());
+				if (commodity == null)
+					continue;
+				final long checksum = checksum(commodity);
+				if (checksum != NO_CHECKSUM && checksum != storedChecksum) {
+					System.err.println(file + " is stale for " + commodity + ", using csv files");
+					return null;
+				}
+				result.put(commodity.getName(), PriceSeries.wrap(slice(buffer, offset + 8 * count, 4 * count).asIntBuffer(),
+						slice(buffer, offset, 8 * count).asLongBuffer(), slice(buffer, offset + 12 * count, count), count));
+			}
+			if (result.size() != catalog.size()) {
+				System.err.println(file + " misses commodities of the catalog, using csv files");
+				return null;
+			}
+			return result;
+		} catch (RuntimeException e) {
+			// abgeschnittene oder beschaedigte Datei
+			System.err.println(file + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return CRC32 aus Datumsformat, Waehrung, Umrechnungskurs und Kursdatei
+	 *         oder -1, wenn es die Kursdatei nicht gibt
+	 */
+	public static long checksum(Commodity commodity) {
+		final URL url = commodity.getUrl();
+		if (url == null)
+			return NO_CHECKSUM;
+		final CRC32 crc = new CRC32();
+		crc.update((commodity.getDatePattern() + ',' + commodity.getCurrency() + ',' + StaticVariables.US_TO_EURO + '\n').getBytes(StandardCharsets.UTF_8));
+		try (InputStream in = url.openStream()) {
+			final byte[] bytes = new byte[8192];
+			int read;
+			while ((read = in.read(bytes)) > 0)
+				crc.update(bytes, 0, read);
+		} catch (IOException e) {
+			System.err.println(e);
+			return NO_CHECKSUM;
+		}
+		return crc.getValue();
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+		final ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(position);
+		duplicate.limit(position + length);
+		return duplicate.slice();
+	}
+
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+}
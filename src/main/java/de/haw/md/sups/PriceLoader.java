@@ -0,0 +1,226 @@
+package de.haw.md.sups;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.joda.time.LocalDateTime;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+/**
+ * Liest die Kursdateien eines CommodityCatalog, auf Wunsch parallel. Jede
+ * Datei wird zeilenweise gelesen, von einer Zeile bleiben nur Tag, Uhrzeit und
+ * Preis als Festkommawert in primitiven Arrays. Danach wird nach Datum
+ * sortiert (bei auf- oder absteigenden Dateien ohne Sortieren), je Tag der
+ * letzte Kurs behalten und Luecken (Preis 0 oder keine Zahl) gefuellt:
+ *
+ * <ul>
+ * <li>am Anfang mit dem folgenden Preis</li>
+ * <li>sonst mit dem Mittel aus vorherigem und folgendem Preis</li>
+ * <li>am Ende mit dem vorherigen Preis</li>
+ * </ul>
+ *
+ * Je Tag zaehlt der Kurs mit der spaetesten Uhrzeit, bei gleicher Uhrzeit der
+ * spaetere in der Datei.
+ */
+public final class PriceLoader {
+
+	private PriceLoader() {
+	}
+
+	/**
+	 * Liest alle Rohstoffe mit einem Thread je Prozessor.
+	 */
+	public static Map<String, PriceSeries> loadAll(CommodityCatalog catalog) {
+		return loadAll(catalog, Math.min(catalog.size(), Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Eine nicht lesbare Kursdatei wird gemeldet und ergibt eine leere Reihe.
+	 *
+	 * @param catalog
+	 * @param threads
+	 *            1 liest nacheinander im aufrufenden Thread
+	 * @return Reihe je Rohstoffname in der Reihenfolge des Katalogs
+	 */
+	public static Map<String, PriceSeries> loadAll(CommodityCatalog catalog, int threads) {
+		final List<Commodity> commodities = catalog.getCommodities();
+		final Map<String, PriceSeries> result = new LinkedHashMap<>();
+		if (threads <= 1) {
+			for (Commodity commodity : commodities)
+				result.put(commodity.getName(), loadOrEmpty(commodity));
+			return result;
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<PriceSeries>> futures = new ArrayList<>();
+			for (Commodity commodity : commodities)
+				futures.add(executor.submit(() -> loadOrEmpty(commodity)));
+			for (int i = 0; i < commodities.size(); i++)
+				result.put(commodities.get(i).getName(), futures.get(i).get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading prices", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Cannot read prices", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+
+	private static PriceSeries loadOrEmpty(Commodity commodity) {
+		try {
+			return load(commodity);
+		} catch (IOException e) {
+			System.err.println(e);
+			return new PriceSeries();
+		}
+	}
+
+	public static PriceSeries load(Commodity commodity) throws IOException {
+		final Rows rows = new Rows();
+		try (CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(commodity.open(), StandardCharsets.ISO_8859_1)))) {
+			String[] nextLine = reader.readNext();
+			while ((nextLine = reader.readNext()) != null) {
+				if (nextLine.length < 2)
+					continue;
+				final LocalDateTime date = commodity.getDateFormatter().parseLocalDateTime(nextLine[0].trim());
+				BigDecimal price;
+				try {
+					price = commodity.getCurrency().toEuro(StaticVariables.convertToBigDecimal(nextLine[1].trim()));
+				} catch (NumberFormatException e) {
+					price = BigDecimal.ZERO;
+				}
+				rows.add(PriceSeries.toEpochDay(date.toLocalDate()), date.getMillisOfDay(), price);
+			}
+		}
+		return rows.toSeries();
+	}
+
+	/** Gelesene Zeilen in Dateireihenfolge */
+	private static final class Rows {
+
+		private int[] days = new int[256];
+		private int[] times = new int[256];
+		private long[] values = new long[256];
+		private byte[] scales = new byte[256];
+		private int size;
+
+		void add(int day, int time, BigDecimal price) {
+			if (size == days.length) {
+				final int capacity = size * 2;
+				days = Arrays.copyOf(days, capacity);
+				times = Arrays.copyOf(times, capacity);
+				values = Arrays.copyOf(values, capacity);
+				scales = Arrays.copyOf(scales, capacity);
+			}
+			days[size] = day;
+			times[size] = time;
+			values[size] = FixedPoint.fromBigDecimal(price);
+			scales[size] = (byte) FixedPoint.scaleOf(price);
+			size++;
+		}
+
+		PriceSeries toSeries() {
+			final int[] order = sortedOrder();
+			// ein Kurs je Tag, nach Datum sortiert
+			final int[] keptDays = new int[size];
+			final long[] keptValues = new long[size];
+			final byte[] keptScales = new byte[size];
+			int count = 0;
+			int kept = -1;
+			for (int i = 0; i < size; i++) {
+				final int row = order[i];
+				if (kept >= 0 && days[row] == days[kept]) {
+					if (times[row] > times[kept] || (times[row] == times[kept] && row > kept))
+						kept = row;
+					continue;
+				}
+				if (kept >= 0)
+					count = keep(kept, keptDays, keptValues, keptScales, count);
+				kept = row;
+			}
+			if (kept >= 0)
+				count = keep(kept, keptDays, keptValues, keptScales, count);
+			fillGaps(keptValues, keptScales, count);
+			final PriceSeries series = new PriceSeries();
+			for (int i = 0; i < count; i++)
+				series.append(keptDays[i], keptValues[i], keptScales[i]);
+			return series;
+		}
+
+		private int keep(int row, int[] keptDays, long[] keptValues, byte[] keptScales, int count) {
+			keptDays[count] = days[row];
+			keptValues[count] = values[row];
+			keptScales[count] = scales[row];
+			return count + 1;
+		}
+
+		/**
+		 * Kursdateien sind meist auf- oder absteigend sortiert und brauchen
+		 * dann keinen Vergleichssort.
+		 */
+		private int[] sortedOrder() {
+			boolean ascending = true;
+			boolean descending = true;
+			for (int i = 1; i < size && (ascending || descending); i++) {
+				final int compare = compare(i - 1, i);
+				ascending &= compare <= 0;
+				descending &= compare >= 0;
+			}
+			final int[] order = new int[size];
+			for (int i = 0; i < size; i++)
+				order[i] = ascending || !descending ? i : size - 1 - i;
+			if (ascending || descending)
+				return order;
+			final Integer[] boxed = new Integer[size];
+			for (int i = 0; i < size; i++)
+				boxed[i] = i;
+			Arrays.sort(boxed, (a, b) -> compare(a, b));
+			for (int i = 0; i < size; i++)
+				order[i] = boxed[i];
+			return order;
+		}
+
+		private int compare(int a, int b) {
+			if (days[a] != days[b])
+				return Integer.compare(days[a], days[b]);
+			return Integer.compare(times[a], times[b]);
+		}
+	}
+
+	private static void fillGaps(long[] values, byte[] scales, int count) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] != 0)
+				continue;
+			if (i == 0) {
+				if (count > 1) {
+					values[0] = values[1];
+					scales[0] = scales[1];
+				}
+			} else if (i == count - 1) {
+				values[i] = values[i - 1];
+				scales[i] = scales[i - 1];
+			} else {
+				final BigDecimal newValue = FixedPoint.toBigDecimal(values[i - 1], scales[i - 1]).add(FixedPoint.toBigDecimal(values[i + 1], scales[i + 1]))
+						.divide(new BigDecimal("2"), 2, RoundingMode.HALF_DOWN);
+				values[i] = FixedPoint.fromBigDecimal(newValue);
+				scales[i] = (byte) FixedPoint.scaleOf(newValue);
+			}
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package de.haw.md.sups;
+
+/**
+ * Rechenweg fuer die Zufallspreise der Rohstoffe. Gewaehlt wird pro Lauf ueber
+ * die System-Property priceMode, z.B. -DpriceMode=DOUBLE.
+ */
+public enum PriceModeEnum {
+
+	/** Referenz: Grenzen mit BigDecimalMath.exp, Zufallspreis mit BigDecimal */
+	BIG_DECIMAL,
+	/** Grenzen und Zufallspreis in double, erst der gerundete Preis wird BigDecimal */
+	DOUBLE;
+
+	public static final String PROPERTY = "priceMode";
+
+	public static PriceModeEnum getActive() {
+		final String mode = System.getProperty(PROPERTY);
+		if (mode == null || mode.isEmpty())
+			return BIG_DECIMAL;
+		for (PriceModeEnum pme : PriceModeEnum.values())
+			if (pme.name().equalsIgnoreCase(mode))
+				return pme;
+		throw new IllegalArgumentException("Unknown price mode: " + mode);
+	}
+}
@@ -0,0 +1,243 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+
+/**
+ * Nach Datum sortierte Preisreihe, an die nur hinten angehaengt wird. Tage
+ * werden als Tage seit 1970-01-01 in einem int-Array gehalten, Preise als
+ * Festkommawerte (FixedPoint) in einem long-Array. Die Nachkommastellen jedes
+ * Preises werden mitgespeichert, getValue liefert daher denselben BigDecimal
+ * zurueck, der angehaengt wurde (bis 8 Nachkommastellen).
+ *
+ * Letzter Wert und letzter Tag in O(1), Suche nach Datum in O(log n).
+ * subSeries liefert eine unveraenderliche Sicht auf einen Bereich ohne Kopie.
+ *
+ * Eine mit wrap erzeugte Reihe liest ihre Historie direkt aus Puffern, z.B.
+ * aus der per FileChannel.map eingeblendeten PriceFile. Neue Preise landen
+ * dahinter in den Arrays.
+ */
+public class PriceSeries {
+
+	private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Unveraenderliche Historie aus Puffern, davor liegt nichts */
+	private final IntBuffer baseDays;
+	private final LongBuffer baseValues;
+	private final ByteBuffer baseScales;
+	private final int baseSize;
+
+	/** Angehaengte Preise, Index 0 folgt auf den letzten Preis der Puffer */
+	private int[] days;
+	private long[] values;
+	private byte[] scales;
+
+	private final int offset;
+	private int size;
+	private final boolean view;
+
+	public PriceSeries() {
+		this(null, null, null, 0, new int[INITIAL_CAPACITY], new long[INITIAL_CAPACITY], new byte[INITIAL_CAPACITY], 0, 0, false);
+	}
+
+	private PriceSeries(IntBuffer baseDays, LongBuffer baseValues, ByteBuffer baseScales, int baseSize, int[] days, long[] values, byte[] scales,
+			int offset, int size, boolean view) {
+		this.baseDays = baseDays;
+		this.baseValues = baseValues;
+		this.baseScales = baseScales;
+		this.baseSize = baseSize;
+		this.days = days;
+		this.values = values;
+		this.scales = scales;
+		this.offset = offset;
+		this.size = size;
+		this.view = view;
+	}
+
+	/**
+	 * Reihe ueber vorhandenen Puffern, ohne die Werte zu kopieren. Die Tage
+	 * muessen aufsteigend sortiert sein, die Werte im Format von FixedPoint.
+	 *
+	 * @param days
+	 * @param values
+	 * @param scales
+	 *            Nachkommastellen je Wert
+	 * @param count
+	 *            Anzahl der Preise in den Puffern
+	 * @return Reihe, an die weiter angehaengt werden kann
+	 */
+	public static PriceSeries wrap(IntBuffer days, LongBuffer values, ByteBuffer scales, int count) {
+		if (days.limit() < count || values.limit() < count || scales.limit() < count)
+			throw new IllegalArgumentException("Buffers hold less than " + count + " prices");
+		return new PriceSeries(days, values, scales, count, new int[INITIAL_CAPACITY], new long[INITIAL_CAPACITY], new byte[INITIAL_CAPACITY], 0, count,
+				false);
+	}
+
+	/**
+	 * Haengt einen Preis an. Der Tag muss nach dem bisher letzten Tag liegen.
+	 *
+	 * @param date
+	 * @param value
+	 */
+	public void append(LocalDate date, BigDecimal value) {
+		append(toEpochDay(date), value);
+	}
+
+	public void append(int epochDay, BigDecimal value) {
+		append(epochDay, FixedPoint.fromBigDecimal(value), FixedPoint.scaleOf(value));
+	}
+
+	/**
+	 * @param epochDay
+	 * @param value
+	 *            Festkommawert (FixedPoint)
+	 * @param scale
+	 *            Nachkommastellen, hoechstens FixedPoint.DIGITS
+	 */
+	void append(int epochDay, long value, int scale) {
+		if (view)
+			throw new UnsupportedOperationException("Sub series are read only");
+		if (size > 0 && epochDay <= day(size - 1))
+			throw new IllegalArgumentException("Date " + fromEpochDay(epochDay) + " is not after " + getLastDate());
+		final int tail = size - baseSize;
+		if (tail == days.length) {
+			final int capacity = days.length * 2;
+			days = Arrays.copyOf(days, capacity);
+			values = Arrays.copyOf(values, capacity);
+			scales = Arrays.copyOf(scales, capacity);
+		}
+		days[tail] = epochDay;
+		values[tail] = value;
+		scales[tail] = (byte) scale;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getEpochDay(int index) {
+		return day(offset + checkIndex(index));
+	}
+
+	public LocalDate getDate(int index) {
+		return fromEpochDay(getEpochDay(index));
+	}
+
+	public BigDecimal getValue(int index) {
+		checkIndex(index);
+		return FixedPoint.toBigDecimal(value(offset + index), scale(offset + index));
+	}
+
+	public double getDoubleValue(int index) {
+		return (double) value(offset + checkIndex(index)) / FixedPoint.ONE;
+	}
+
+	public LocalDate getLastDate() {
+		return getDate(size - 1);
+	}
+
+	public BigDecimal getLastValue() {
+		return getValue(size - 1);
+	}
+
+	/**
+	 * @param date
+	 * @return Index des Tages oder -1, wenn es fuer den Tag keinen Preis gibt
+	 */
+	public int indexOf(LocalDate date) {
+		final int index = binarySearch(toEpochDay(date));
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * @param date
+	 * @return Preis des Tages oder null
+	 */
+	public BigDecimal getValue(LocalDate date) {
+		final int index = indexOf(date);
+		return index < 0 ? null : getValue(index);
+	}
+
+	/**
+	 * Sicht auf die Preise mit Index fromIndex (inklusive) bis toIndex
+	 * (exklusive). Spaeter angehaengte Preise gehoeren nicht zur Sicht.
+	 */
+	public PriceSeries subSeries(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("From " + fromIndex + " to " + toIndex + " of " + size);
+		return new PriceSeries(baseDays, baseValues, baseScales, baseSize, days, values, scales, offset + fromIndex, toIndex - fromIndex, true);
+	}
+
+	/**
+	 * Sicht auf alle Preise von from bis to, beide Tage inklusive.
+	 */
+	public PriceSeries subSeries(LocalDate from, LocalDate to) {
+		return subSeries(lowerBound(toEpochDay(from)), lowerBound(toEpochDay(to) + 1));
+	}
+
+	/** Erster Index, dessen Tag nicht vor epochDay liegt */
+	private int lowerBound(int epochDay) {
+		final int index = binarySearch(epochDay);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	/**
+	 * Wie Arrays.binarySearch, aber ueber Puffer und Arrays hinweg.
+	 *
+	 * @return Index relativ zu dieser Reihe oder -(Einfuegepunkt) - 1
+	 */
+	private int binarySearch(int epochDay) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int midDay = day(offset + mid);
+			if (midDay < epochDay)
+				low = mid + 1;
+			else if (midDay > epochDay)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -(low + 1);
+	}
+
+	private int day(int absoluteIndex) {
+		return absoluteIndex < baseSize ? baseDays.get(absoluteIndex) : days[absoluteIndex - baseSize];
+	}
+
+	private long value(int absoluteIndex) {
+		return absoluteIndex < baseSize ? baseValues.get(absoluteIndex) : values[absoluteIndex - baseSize];
+	}
+
+	private int scale(int absoluteIndex) {
+		return absoluteIndex < baseSize ? baseScales.get(absoluteIndex) : scales[absoluteIndex - baseSize];
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+		return index;
+	}
+
+	public static int toEpochDay(LocalDate date) {
+		return Days.daysBetween(EPOCH, date).getDays();
+	}
+
+	public static LocalDate fromEpochDay(int epochDay) {
+		return EPOCH.plusDays(epochDay);
+	}
+}
@@ -0,0 +1,117 @@
+package de.haw.md.sups;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Materialkosten eines Produkts laut Stueckliste. Jeder Materialanteil
+ * (Preis je Gramm mal verbaute Menge) wird zwischengespeichert, ein neuer
+ * Preis aktualisiert nur seinen Anteil und die Summe. Die Rechnung laeuft je
+ * nach CostModeEnum mit BigDecimal oder mit FixedPoint, beide Wege runden an
+ * denselben Stellen.
+ */
+public abstract class ProdCostCalc {
+
+	private static final MaterialEnum[] MATERIALS = MaterialEnum.values();
+
+	private static final long[] FIXED_UNIT_IN_GRAMM = new long[MATERIALS.length];
+
+	static {
+		for (MaterialEnum me : MATERIALS)
+			FIXED_UNIT_IN_GRAMM[me.ordinal()] = FixedPoint.fromBigDecimal(me.getUnitInGramm());
+	}
+
+	protected final CostModeEnum mode;
+
+	private final BillOfMaterialsEnum billOfMaterials;
+	private final long[] fixedPartInG = new long[MATERIALS.length];
+
+	private final BigDecimal[] prices = new BigDecimal[MATERIALS.length];
+	private final BigDecimal[] partPrices = new BigDecimal[MATERIALS.length];
+	private final long[] fixedPartPrices = new long[MATERIALS.length];
+
+	/** Anzahl der Materialien ohne Preis, die Summe gilt erst bei 0 */
+	private int missingPrices = MATERIALS.length;
+	private BigDecimal componentPrice = BigDecimal.ZERO;
+	private long fixedComponentPrice;
+
+	protected ProdCostCalc(CostModeEnum mode, BillOfMaterialsEnum billOfMaterials) {
+		this.mode = mode;
+		this.billOfMaterials = billOfMaterials;
+		for (MaterialEnum me : MATERIALS)
+			fixedPartInG[me.ordinal()] = FixedPoint.fromBigDecimal(billOfMaterials.getPartInG(me));
+	}
+
+	public BillOfMaterialsEnum getBillOfMaterials() {
+		return billOfMaterials;
+	}
+
+	/**
+	 * Rohstoffe ohne eigenes Material (Oel) werden ignoriert.
+	 */
+	public void setResourcePrice(ResourceEnum resource, BigDecimal price) {
+		final MaterialEnum material = MaterialEnum.getByResource(resource);
+		if (material != null)
+			setMaterialPrice(material, price);
+	}
+
+	public void setPlasticPrice(BigDecimal price) {
+		setMaterialPrice(MaterialEnum.PLASTIC, price);
+	}
+
+	/**
+	 * Aktualisiert den Anteil eines Materials. Ein unveraenderter Preis kostet
+	 * nur den Vergleich.
+	 *
+	 * @param material
+	 * @param price
+	 *            null entfernt den Preis
+	 */
+	public void setMaterialPrice(MaterialEnum material, BigDecimal price) {
+		final int i = material.ordinal();
+		final BigDecimal oldPrice = prices[i];
+		if (price == null ? oldPrice == null : price.equals(oldPrice))
+			return;
+		if (oldPrice == null)
+			missingPrices--;
+		else
+			removePartPrice(i);
+		prices[i] = price;
+		if (price == null) {
+			missingPrices++;
+			return;
+		}
+		// Preis je Gramm wird wie bisher auf die Nachkommastellen des Preises gerundet
+		if (mode == CostModeEnum.FIXED_POINT) {
+			final long pricePerGramm = FixedPoint.divide(FixedPoint.fromBigDecimal(price), FIXED_UNIT_IN_GRAMM[i], FixedPoint.scaleOf(price),
+					RoundingMode.HALF_DOWN);
+			fixedPartPrices[i] = FixedPoint.multiply(pricePerGramm, fixedPartInG[i], FixedPoint.DIGITS, RoundingMode.HALF_UP);
+			fixedComponentPrice = Math.addExact(fixedComponentPrice, fixedPartPrices[i]);
+		} else {
+			partPrices[i] = price.divide(material.getUnitInGramm(), RoundingMode.HALF_DOWN).multiply(billOfMaterials.getPartInG(material));
+			componentPrice = componentPrice.add(partPrices[i]);
+		}
+	}
+
+	private void removePartPrice(int i) {
+		if (mode == CostModeEnum.FIXED_POINT)
+			fixedComponentPrice -= fixedPartPrices[i];
+		else
+			componentPrice = componentPrice.subtract(partPrices[i]);
+	}
+
+	public boolean pricesNotNull() {
+		return missingPrices == 0;
+	}
+
+	/**
+	 * @return Summe der Materialkosten, nur gueltig wenn pricesNotNull
+	 */
+	protected BigDecimal getComponentPrice() {
+		return componentPrice;
+	}
+
+	protected long getFixedComponentPrice() {
+		return fixedComponentPrice;
+	}
+}
@@ -0,0 +1,43 @@
+package de.haw.md.sups;
+
+public enum ProductTypeEnum {
+
+	PLASTIC(0, "Plastic"),
+	ELECTRONIC_PART(1, "Electronic_Part"),
+	MOBILE_PHONE(2, "Mobile_Phone");
+
+	/**
+	 * Kennung im Binaerformat, unabhaengig von der Reihenfolge der
+	 * Konstanten. Aendert sich eine Kennung, muss MsgCodec.VERSION steigen.
+	 */
+	private final int code;
+
+	private String name;
+
+	private ProductTypeEnum(int code, String name) {
+		this.code = code;
+		this.name = name;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public static ProductTypeEnum getByCode(int code) {
+		for (ProductTypeEnum pte : ProductTypeEnum.values())
+			if (pte.code == code)
+				return pte;
+		throw new IllegalArgumentException("Unknown product type code: " + code);
+	}
+
+	public static ProductTypeEnum getByName(String name) {
+		for (ProductTypeEnum pte : ProductTypeEnum.values())
+			if (pte.name.equals(name))
+				return pte;
+		throw new IllegalArgumentException("Unknown product type: " + name);
+	}
+}
@@ -0,0 +1,106 @@
+package de.haw.md.sups;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unveraenderliche Teilsumme eines regionalen Teilmarktes fuer die Berechnung
+ * der Marktanteile: Anzahl der Unternehmen mit Preis, Summe der Preise und die
+ * Unternehmen am Markt absteigend nach Preis. Aus den Teilsummen aller
+ * Regionen berechnet MarketShareCalc dieselben Anteile wie aus einer
+ * MarketShareTable mit allen Unternehmen.
+ */
+public final class RegionPrices implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final RegionPrices EMPTY = new RegionPrices(new String[0], new long[0], 0, 0);
+
+	/** Absteigend nach Preis, bei gleichem Preis aufsteigend nach Namen */
+	private static final Comparator<Map.Entry<String, Long>> DESCENDING = (a, b) -> a.getValue().longValue() != b.getValue().longValue() ? Long
+			.compare(b.getValue(), a.getValue()) : a.getKey().compareTo(b.getKey());
+
+	private final String[] companies;
+	private final long[] prices;
+	private final int count;
+	private final long sumPrice;
+
+	/**
+	 * @param companies
+	 *            Unternehmen am Markt, absteigend nach Preis
+	 * @param prices
+	 *            Preise in Cent zu companies
+	 * @param count
+	 *            Anzahl der Unternehmen mit Preis, auch der ausgeschiedenen
+	 * @param sumPrice
+	 *            Summe der Preise in Cent
+	 */
+	public RegionPrices(String[] companies, long[] prices, int count, long sumPrice) {
+		if (companies.length != prices.length || count < companies.length)
+			throw new IllegalArgumentException("Inconsistent region prices");
+		this.companies = companies;
+		this.prices = prices;
+		this.count = count;
+		this.sumPrice = sumPrice;
+	}
+
+	/**
+	 * Sortiert die Preise einer Region. Bei gleichem Preis entscheidet der
+	 * Name, das entspricht den Indizes der MarketShareTable, solange alle
+	 * Unternehmen im selben Tick ihren ersten Preis melden.
+	 *
+	 * @param cents
+	 *            letzter Preis in Cent je Unternehmen, 0 fuer ausgeschiedene
+	 * @return
+	 */
+	public static RegionPrices of(Map<String, Long> cents) {
+		final List<Map.Entry<String, Long>> active = new ArrayList<>(cents.size());
+		long sumPrice = 0;
+		for (Map.Entry<String, Long> entry : cents.entrySet()) {
+			if (entry.getValue() != 0) {
+				active.add(entry);
+				sumPrice = Math.addExact(sumPrice, entry.getValue());
+			}
+		}
+		active.sort(DESCENDING);
+		final String[] companies = new String[active.size()];
+		final long[] prices = new long[active.size()];
+		for (int i = 0; i < companies.length; i++) {
+			companies[i] = active.get(i).getKey();
+			prices[i] = active.get(i).getValue();
+		}
+		return new RegionPrices(companies, prices, cents.size(), sumPrice);
+	}
+
+	/**
+	 * @return Anzahl der Unternehmen am Markt
+	 */
+	public int size() {
+		return companies.length;
+	}
+
+	public String getCompany(int i) {
+		return companies[i];
+	}
+
+	public long getPrice(int i) {
+		return prices[i];
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public long getSumPrice() {
+		return sumPrice;
+	}
+
+	@Override
+	public String toString() {
+		return "RegionPrices[" + count + ", " + sumPrice + ", " + Arrays.toString(companies) + "]";
+	}
+}
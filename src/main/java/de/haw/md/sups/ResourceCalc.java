@@ -4,45 +4,88 @@ import io.github.miraclefoxx.math.BigDecimalMath;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 
-import org.joda.time.DateTime;
-
-import de.haw.md.company.main.CompanyMainTwo;
+import org.joda.time.LocalDate;
 
 public class ResourceCalc {
 
-	public static BigDecimal nextRandomStockPrice(Map<DateTime, BigDecimal> resourceMap, int max) {
-		final BigDecimal[] analysisValues = stockAnalysis(resourceMap, max);
-		final BigDecimal[] calcPosibleValues = { getFinalCloseValue(resourceMap).multiply(analysisValues[1]),
-				getFinalCloseValue(resourceMap).multiply(analysisValues[0]) };
-		return CompanyMainTwo.generateRandomBigDecimalFromRange(calcPosibleValues[0], calcPosibleValues[1]);
+	/**
+	 * @param series
+	 * @param max
+	 * @param random
+	 *            gleichverteilt aus [0, 1), z.B. aus Resources.nextRandom
+	 * @return naechster Preis
+	 */
+	public static BigDecimal nextRandomStockPrice(PriceSeries series, int max, double random) {
+		final BigDecimal[] analysisValues = stockAnalysis(series, max);
+		final BigDecimal[] calcPosibleValues = { getFinalCloseValue(series).multiply(analysisValues[1]),
+				getFinalCloseValue(series).multiply(analysisValues[0]) };
+		return StaticVariables.bigDecimalFromRange(random, calcPosibleValues[0], calcPosibleValues[1]);
 	}
 	
-	public static BigDecimal nextRandomStockPrice(Map<DateTime, BigDecimal> resourceMap) {
-		return nextRandomStockPrice(resourceMap, resourceMap.size() - 1);
+	public static BigDecimal nextRandomStockPrice(PriceSeries series, double random) {
+		return nextRandomStockPrice(series, series.size() - 1, random);
+	}
+
+	/**
+	 * Naechster Preis zwischen letzterPreis * exp(avg - dev) und letzterPreis *
+	 * exp(avg + dev), auf Cent gerundet.
+	 * 
+	 * @param statistics
+	 * @param mode
+	 * @param random
+	 *            gleichverteilt aus [0, 1)
+	 * @return naechster Preis
+	 */
+	public static BigDecimal nextRandomStockPrice(LogReturnStatistics statistics, PriceModeEnum mode, double random) {
+		if (mode == PriceModeEnum.DOUBLE) {
+			final double price = nextRandomStockPrice(statistics.getLastDoublePrice(), statistics.getAverage(), statistics.getDeviation(), random);
+			return BigDecimal.valueOf(Math.round(price * 100), 2);
+		}
+		final BigDecimal[] analysisValues = stockAnalysis(statistics);
+		final BigDecimal lastPrice = statistics.getLastPrice();
+		final BigDecimal min = lastPrice.multiply(analysisValues[1]);
+		final BigDecimal max = lastPrice.multiply(analysisValues[0]);
+		return min.add(new BigDecimal(random).multiply(max.subtract(min))).setScale(2, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Ungerundeter Zufallspreis des Modus DOUBLE.
+	 */
+	public static double nextRandomStockPrice(double lastPrice, double average, double deviation, double random) {
+		final double min = lastPrice * Math.exp(average - deviation);
+		final double max = lastPrice * Math.exp(average + deviation);
+		return min + random * (max - min);
 	}
 
-	public static BigDecimal[] stockAnalysis(Map<DateTime, BigDecimal> resourceMap, int max) {
-		BigDecimal average = averageValue(resourceMap, max);
-		BigDecimal deviation = deviationValue(average, resourceMap, max);
+	/**
+	 * Grenzen wie stockAnalysis(PriceSeries, int): Durchschnitt und Streuung
+	 * werden auf 10 Stellen gerundet, exp rechnet BigDecimalMath.
+	 * 
+	 * @param statistics
+	 * @return { exp(avg + dev), exp(avg - dev) }
+	 */
+	public static BigDecimal[] stockAnalysis(LogReturnStatistics statistics) {
+		final BigDecimal average = new BigDecimal(statistics.getAverage()).setScale(10, RoundingMode.HALF_DOWN);
+		final BigDecimal deviation = new BigDecimal(statistics.getDeviation()).setScale(10, RoundingMode.HALF_DOWN);
+		BigDecimal[] array = { BigDecimalMath.exp(average.add(deviation)), BigDecimalMath.exp(average.subtract(deviation)) };
+		return array;
+	}
+
+	public static BigDecimal[] stockAnalysis(PriceSeries series, int max) {
+		BigDecimal average = averageValue(series, max);
+		BigDecimal deviation = deviationValue(average, series, max);
 		BigDecimal maxValue = BigDecimalMath.exp(average.add(deviation));
 		BigDecimal minValue = BigDecimalMath.exp(average.subtract(deviation));
 		BigDecimal[] array = { maxValue, minValue };
 		return array;
 	}
 
-	private static BigDecimal deviationValue(BigDecimal average, Map<DateTime, BigDecimal> resourceMap, int max) {
-		final BigDecimal size = new BigDecimal(resourceMap.size());
+	private static BigDecimal deviationValue(BigDecimal average, PriceSeries series, int max) {
+		final BigDecimal size = new BigDecimal(series.size());
 		BigDecimal sum = BigDecimal.ZERO;
-		List<DateTime> keySet = new ArrayList<>();
-		keySet.addAll(resourceMap.keySet());
-		Collections.sort(keySet);
-		for (int i = ((keySet.size() - 1) - max); i < (keySet.size() - 1); i++) {
-			final BigDecimal divide = resourceMap.get(keySet.get(i)).divide(resourceMap.get(keySet.get(i + 1)), 10, RoundingMode.HALF_DOWN);
+		for (int i = ((series.size() - 1) - max); i < (series.size() - 1); i++) {
+			final BigDecimal divide = series.getValue(i).divide(series.getValue(i + 1), 10, RoundingMode.HALF_DOWN);
 			final BigDecimal log = BigDecimalMath.log(divide);
 			BigDecimal substract = log.subtract(average);
 			if (substract.compareTo(BigDecimal.ZERO) < 0)
@@ -55,31 +98,21 @@ public class ResourceCalc {
 		return sqrt;
 	}
 
-	private static BigDecimal averageValue(Map<DateTime, BigDecimal> resourceMap, int max) {
-		final BigDecimal size = new BigDecimal(resourceMap.size());
+	private static BigDecimal averageValue(PriceSeries series, int max) {
+		final BigDecimal size = new BigDecimal(series.size());
 		BigDecimal sum = BigDecimal.ZERO;
-		List<DateTime> keySet = new ArrayList<>();
-		keySet.addAll(resourceMap.keySet());
-		Collections.sort(keySet);
-		for (int i = ((keySet.size() - 1) - max); i < (keySet.size() - 1); i++) {
-			final BigDecimal divide = resourceMap.get(keySet.get(i)).divide(resourceMap.get(keySet.get(i + 1)), 10, RoundingMode.HALF_DOWN);
+		for (int i = ((series.size() - 1) - max); i < (series.size() - 1); i++) {
+			final BigDecimal divide = series.getValue(i).divide(series.getValue(i + 1), 10, RoundingMode.HALF_DOWN);
 			sum = sum.add(BigDecimalMath.log(divide));
 		}
 		return sum.divide(size, 10, RoundingMode.HALF_DOWN);
 	}
 
-	public static BigDecimal getFinalCloseValue(Map<DateTime, BigDecimal> resourceMap) {
-		List<DateTime> keySet = new ArrayList<>();
-		keySet.addAll(resourceMap.keySet());
-		Collections.sort(keySet);
-		final DateTime lastDate = keySet.get(keySet.size() - 1);
-		return resourceMap.get(lastDate);
+	public static BigDecimal getFinalCloseValue(PriceSeries series) {
+		return series.getLastValue();
 	}
-	
-	public static DateTime getFinalDate(Map<DateTime, BigDecimal> resourceMap) {
-		List<DateTime> keySet = new ArrayList<>();
-		keySet.addAll(resourceMap.keySet());
-		Collections.sort(keySet);
-		return keySet.get(keySet.size() - 1);
+
+	public static LocalDate getFinalDate(PriceSeries series) {
+		return series.getLastDate();
 	}
 }
@@ -0,0 +1,49 @@
+package de.haw.md.sups;
+
+public enum ResourceEnum {
+
+	OIL(0, "Oil"),
+	KUPFER(1, "Kupfer"),
+	ALUMINIUM(2, "Aluminium"),
+	GOLD(3, "Gold"),
+	NICKEL(4, "Nickel"),
+	PALLADIUM(5, "Palladium"),
+	PLATIN(6, "Platin"),
+	SILBER(7, "Silber"),
+	ZINN(8, "Zinn");
+
+	/**
+	 * Kennung im Binaerformat, unabhaengig von der Reihenfolge der
+	 * Konstanten. Aendert sich eine Kennung, muss MsgCodec.VERSION steigen.
+	 */
+	private final int code;
+
+	private String name;
+
+	private ResourceEnum(int code, String name) {
+		this.code = code;
+		this.name = name;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public static ResourceEnum getByCode(int code) {
+		for (ResourceEnum re : ResourceEnum.values())
+			if (re.code == code)
+				return re;
+		throw new IllegalArgumentException("Unknown resource code: " + code);
+	}
+
+	public static ResourceEnum getByName(String name) {
+		for (ResourceEnum re : ResourceEnum.values())
+			if (re.name.equals(name))
+				return re;
+		throw new IllegalArgumentException("Unknown resource: " + name);
+	}
+}
@@ -1,150 +1,303 @@
 package de.haw.md.sups;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.SplittableRandom;
 
-import org.joda.time.DateTime;
-
-import au.com.bytecode.opencsv.CSVReader;
+import org.joda.time.LocalDate;
 
 public class Resources {
 
-	private Map<DateTime, BigDecimal> oilPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> aluminiumPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> goldPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> nickelPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> palladiumPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> platinPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> silberPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> zinnPrice = new HashMap<>();
-	private Map<DateTime, BigDecimal> kupferPrice = new HashMap<>();
+	/**
+	 * Systemeigenschaft mit dem Tag des ersten erzeugten Preises, z.B.
+	 * 2016-06-01. Ohne Angabe ist es der Tag nach der Historie.
+	 */
+	public static final String START_DATE_PROPERTY = "startDate";
+
+	private final CommodityCatalog catalog;
+
+	/** Preisreihe je Rohstoffname, in der Reihenfolge des Katalogs */
+	private final Map<String, PriceSeries> prices = new LinkedHashMap<>();
+
+	/** Log-Rendite-Statistik je Rohstoff, wird bei jedem neuen Preis fortgeschrieben */
+	private Map<ResourceEnum, LogReturnStatistics> statistics = new EnumMap<>(ResourceEnum.class);
+
+	private final int statisticsWindow;
+
+	/** Zufallsstrom je Rohstoff fuer die erzeugten Preise */
+	private final Map<ResourceEnum, SplittableRandom> randoms = new EnumMap<>(ResourceEnum.class);
+
+	/** Anzahl der mit nextRandom gezogenen Zahlen je Rohstoff, fuer Checkpoints */
+	private final long[] draws = new long[ResourceEnum.values().length];
 
+	/** Tag des ersten erzeugten Preises, gesetzt von readAllPrices und restore */
+	private LocalDate startDate;
+
+	public Resources() {
+		this(0);
+	}
+
+	/**
+	 * @param statisticsWindow
+	 *            Anzahl der Renditen fuer die Preisstatistik, 0 fuer die
+	 *            gesamte Historie
+	 */
+	public Resources(int statisticsWindow) {
+		this(statisticsWindow, CommodityCatalog.getDefault());
+	}
+
+	public Resources(int statisticsWindow, CommodityCatalog catalog) {
+		this.statisticsWindow = statisticsWindow;
+		this.catalog = catalog;
+		for (ResourceEnum type : ResourceEnum.values()) {
+			prices.put(type.getName(), new PriceSeries());
+			randoms.put(type, SimulationRandom.getInstance().forResource(type));
+		}
+	}
+
+	public CommodityCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * Liest die Historie wie readHistory und erzeugt danach den ersten Preis
+	 * am Tag aus resolveStartDate. Der Lauf haengt damit nicht vom Kalendertag
+	 * ab, an dem er startet.
+	 */
 	public void readAllPrices() {
-		readPrice("DCOILWTICO.csv", oilPrice, true);
-		readPrice("Aluminiumpreis.csv", aluminiumPrice, false);
-		readPrice("Goldpreis.csv", goldPrice, false);
-		readPrice("Nickelpreis.csv", nickelPrice, false);
-		readPrice("Palladiumpreis.csv", palladiumPrice, false);
-		readPrice("Platinpreis.csv", platinPrice, false);
-		readPrice("Silberpreis.csv", silberPrice, false);
-		readPrice("Zinnpreis.csv", zinnPrice, false);
-		readPrice("Kupferpreis.csv", kupferPrice, false);
-		for (Map<DateTime, BigDecimal> resourceElement : getListOfResources()) {
-			resourceElement.put(DateTime.now(), ResourceCalc.nextRandomStockPrice(resourceElement));
+		readHistory();
+		startDate = resolveStartDate();
+		final PriceModeEnum priceMode = PriceModeEnum.getActive();
+		for (ResourceEnum type : ResourceEnum.values())
+			appendPrice(type, startDate, ResourceCalc.nextRandomStockPrice(getStatistics(type), priceMode, nextRandom(type)));
+	}
+
+	/**
+	 * Tag, an dem die erzeugten Preise beginnen: aus -DstartDate, sonst der Tag
+	 * nach dem letzten Preis der Historie. Nach readHistory aufrufen.
+	 *
+	 * @return Tag des ersten erzeugten Preises
+	 */
+	public LocalDate resolveStartDate() {
+		final String property = System.getProperty(START_DATE_PROPERTY);
+		if (property != null)
+			return LocalDate.parse(property);
+		LocalDate last = null;
+		for (ResourceEnum type : ResourceEnum.values())
+			if (!getPrice(type).isEmpty() && (last == null || getFinalDate(type).isAfter(last)))
+				last = getFinalDate(type);
+		if (last == null)
+			throw new IllegalStateException("No price history, set -D" + START_DATE_PROPERTY);
+		return last.plusDays(1);
+	}
+
+	/**
+	 * Liest die Historie aus der vorbereiteten PriceFile, wenn sie vorhanden
+	 * und zu den Kursdateien passt, sonst aus den Kursdateien, und baut die
+	 * Statistik auf.
+	 */
+	public void readHistory() {
+		if (!readPriceFile(PriceFile.getDefaultFile(catalog)))
+			readCsvPrices();
+		for (ResourceEnum type : ResourceEnum.values())
+			initStatistics(type);
+	}
+
+	/**
+	 * Liest alle Kursdateien des Katalogs parallel, ohne Statistik und ohne
+	 * Preis fuer heute. So vorbereitet schreibt PriceFile.write die
+	 * Binaerdatei.
+	 */
+	public void readCsvPrices() {
+		prices.putAll(PriceLoader.loadAll(catalog));
+	}
+
+	/**
+	 * Uebernimmt die Historie aus einer PriceFile. Die Reihen lesen direkt aus
+	 * der eingeblendeten Datei.
+	 *
+	 * @param file
+	 * @return false, wenn die Datei fehlt oder veraltet ist
+	 */
+	public boolean readPriceFile(File file) {
+		final Map<String, PriceSeries> series = PriceFile.read(file, catalog);
+		if (series == null)
+			return false;
+		prices.putAll(series);
+		return true;
+	}
+
+	/**
+	 * Setzt den Stand eines Checkpoints ein statt readAllPrices: die Reihen
+	 * einschliesslich der erzeugten Preise und die Position in den
+	 * Zufallsstroemen. SimulationRandom muss dazu mit dem Seed des Checkpoints
+	 * initialisiert sein.
+	 *
+	 * @param series
+	 *            Preisreihe je Rohstoffname
+	 * @param draws
+	 *            Anzahl der gezogenen Zahlen je Rohstoff (ordinal)
+	 * @param startDate
+	 *            Tag des ersten erzeugten Preises, ein abweichendes
+	 *            -DstartDate ist ein Fehler
+	 */
+	public void restore(Map<String, PriceSeries> series, long[] draws, LocalDate startDate) {
+		final String property = System.getProperty(START_DATE_PROPERTY);
+		if (property != null && !LocalDate.parse(property).equals(startDate))
+			throw new IllegalArgumentException("Start date " + property + " does not match checkpoint start date " + startDate);
+		this.startDate = startDate;
+		prices.putAll(series);
+		for (ResourceEnum type : ResourceEnum.values()) {
+			initStatistics(type);
+			final SplittableRandom random = SimulationRandom.getInstance().forResource(type);
+			for (long i = 0; i < draws[type.ordinal()]; i++)
+				random.nextDouble();
+			randoms.put(type, random);
+			this.draws[type.ordinal()] = draws[type.ordinal()];
 		}
 	}
 
-	public List<Map<DateTime, BigDecimal>> getListOfResources() {
-		List<Map<DateTime, BigDecimal>> resourcesList = new ArrayList<>();
-		resourcesList.addAll(Arrays.asList(oilPrice, aluminiumPrice, goldPrice, nickelPrice, palladiumPrice, platinPrice, silberPrice, zinnPrice, kupferPrice));
+	/**
+	 * Baut die Statistik eines Rohstoffes einmalig aus der eingelesenen
+	 * Historie auf.
+	 */
+	private void initStatistics(ResourceEnum type) {
+		final PriceSeries prices = getPrice(type);
+		final LogReturnStatistics lrs = new LogReturnStatistics(statisticsWindow);
+		for (int i = 0; i < prices.size(); i++)
+			lrs.add(prices.getValue(i));
+		statistics.put(type, lrs);
+	}
+
+	/**
+	 * Haengt einen neuen Preis an die Historie an und schreibt die Statistik in
+	 * O(1) fort. Der Tag muss nach dem bisher letzten liegen.
+	 *
+	 * @param type
+	 * @param date
+	 * @param price
+	 */
+	public void appendPrice(ResourceEnum type, LocalDate date, BigDecimal price) {
+		getPrice(type).append(date, price);
+		getStatistics(type).add(price);
+	}
+
+	/**
+	 * Naechste Zahl aus dem Zufallsstrom des Rohstoffes, wird fuer Checkpoints
+	 * mitgezaehlt. Nur aus dem Thread des Marktes verwenden.
+	 *
+	 * @param type
+	 * @return Zahl in [0, 1)
+	 */
+	public double nextRandom(ResourceEnum type) {
+		draws[type.ordinal()]++;
+		return randoms.get(type).nextDouble();
+	}
+
+	/**
+	 * @return Anzahl der mit nextRandom gezogenen Zahlen je Rohstoff (ordinal)
+	 */
+	public long[] getDraws() {
+		return draws.clone();
+	}
+
+	/**
+	 * @return Zufallsstrom des Rohstoffes aus SimulationRandom, nur aus dem
+	 *         Thread des Marktes verwenden. Hier gezogene Zahlen fehlen in
+	 *         getDraws.
+	 */
+	public SplittableRandom getRandom(ResourceEnum type) {
+		return randoms.get(type);
+	}
+
+	/**
+	 * @return Tag des ersten erzeugten Preises, null vor readAllPrices bzw.
+	 *         restore
+	 */
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public LogReturnStatistics getStatistics(ResourceEnum type) {
+		return statistics.get(type);
+	}
+
+	public LocalDate getFinalDate(ResourceEnum type) {
+		return getPrice(type).getLastDate();
+	}
+
+	public List<PriceSeries> getListOfResources() {
+		List<PriceSeries> resourcesList = new ArrayList<>();
+		resourcesList.addAll(Arrays.asList(getOilPrice(), getAluminiumPrice(), getGoldPrice(), getNickelPrice(), getPalladiumPrice(), getPlatinPrice(),
+				getSilberPrice(), getZinnPrice(), getKupferPrice()));
 		return resourcesList;
 	}
 
-	private void readPrice(String fileName, Map<DateTime, BigDecimal> data, boolean usPrices) {
-		ClassLoader classLoader = getClass().getClassLoader();
-		try {
-			final File file = new File(classLoader.getResource(fileName).getFile());
-			final BufferedReader in = new BufferedReader(new FileReader(file));
-			CSVReader reader = new CSVReader(in);
-			String[] nextLine;
-			int counter = 0;
-			while ((nextLine = reader.readNext()) != null) {
-				if (counter != 0) {
-					BigDecimal bigDecimal;
-					try {
-						final BigDecimal price = StaticVariables.convertToBigDecimal(nextLine[1]);
-						if (usPrices) {
-							bigDecimal = price.multiply(StaticVariables.US_TO_EURO).setScale(2, RoundingMode.HALF_UP);
-						} else {
-							bigDecimal = price;
-						}
-					} catch (NumberFormatException e) {
-						bigDecimal = BigDecimal.ZERO;
-					}
-					if (usPrices) {
-						data.put(DateTime.parse(nextLine[0], StaticVariables.US_DATE_FORMATTER), bigDecimal);
-					} else {
-						data.put(DateTime.parse(nextLine[0], StaticVariables.DE_DATE_FORMATTER), bigDecimal);
-					}
-				}
-				counter++;
-			}
-			reader.close();
-			if (data.size() > 0) {
-				List<DateTime> date = sortKeyList(data.keySet());
-				for (int i = 0; i < date.size(); i++) {
-					if (i == 0 && data.get(date.get(i)).compareTo(BigDecimal.ZERO) == 0) {
-						data.replace(date.get(i), data.get(date.get(i + 1)));
-					} else if (data.get(date.get(i)).compareTo(BigDecimal.ZERO) == 0) {
-						final BigDecimal newValue = data.get(date.get(i - 1)).add(data.get(date.get(i + 1)))
-								.divide(new BigDecimal("2"), 2, RoundingMode.HALF_DOWN);
-						data.replace(date.get(i), newValue);
-					}
-				}
-			}
-		} catch (IOException e) {
-			System.err.println(e);
-		}
+	public PriceSeries getPrice(ResourceEnum type) {
+		return prices.get(type.getName());
 	}
 
-	public BigDecimal getOilPriceByCount(int i) {
-		if (this.oilPrice.size() <= 0)
-			return BigDecimal.ZERO;
-		return this.oilPrice.get(sortKeyList(this.oilPrice.keySet()).get(i));
+	/**
+	 * @param name
+	 *            Name im Katalog
+	 * @return Preisreihe oder null, wenn der Rohstoff nicht gelesen wurde
+	 */
+	public PriceSeries getPrice(String name) {
+		return prices.get(name);
+	}
+
+	/** Alle gelesenen Preisreihen je Rohstoffname */
+	public Map<String, PriceSeries> getPrices() {
+		return Collections.unmodifiableMap(prices);
 	}
 
-	public List<DateTime> sortKeyList(Set<DateTime> keySet) {
-		List<DateTime> dateTimeList = new ArrayList<>();
-		dateTimeList.addAll(keySet);
-		Collections.sort(dateTimeList);
-		return dateTimeList;
+	public BigDecimal getOilPriceByCount(int i) {
+		if (getOilPrice().isEmpty())
+			return BigDecimal.ZERO;
+		return getOilPrice().getValue(i);
 	}
 
-	public Map<DateTime, BigDecimal> getKupferPrice() {
-		return this.kupferPrice;
+	public PriceSeries getKupferPrice() {
+		return getPrice(ResourceEnum.KUPFER);
 	}
 
-	public Map<DateTime, BigDecimal> getOilPrice() {
-		return this.oilPrice;
+	public PriceSeries getOilPrice() {
+		return getPrice(ResourceEnum.OIL);
 	}
 
-	public Map<DateTime, BigDecimal> getAluminiumPrice() {
-		return aluminiumPrice;
+	public PriceSeries getAluminiumPrice() {
+		return getPrice(ResourceEnum.ALUMINIUM);
 	}
 
-	public Map<DateTime, BigDecimal> getGoldPrice() {
-		return goldPrice;
+	public PriceSeries getGoldPrice() {
+		return getPrice(ResourceEnum.GOLD);
 	}
 
-	public Map<DateTime, BigDecimal> getNickelPrice() {
-		return nickelPrice;
+	public PriceSeries getNickelPrice() {
+		return getPrice(ResourceEnum.NICKEL);
 	}
 
-	public Map<DateTime, BigDecimal> getPalladiumPrice() {
-		return palladiumPrice;
+	public PriceSeries getPalladiumPrice() {
+		return getPrice(ResourceEnum.PALLADIUM);
 	}
 
-	public Map<DateTime, BigDecimal> getPlatinPrice() {
-		return platinPrice;
+	public PriceSeries getPlatinPrice() {
+		return getPrice(ResourceEnum.PLATIN);
 	}
 
-	public Map<DateTime, BigDecimal> getSilberPrice() {
-		return silberPrice;
+	public PriceSeries getSilberPrice() {
+		return getPrice(ResourceEnum.SILBER);
 	}
 
-	public Map<DateTime, BigDecimal> getZinnPrice() {
-		return zinnPrice;
+	public PriceSeries getZinnPrice() {
+		return getPrice(ResourceEnum.ZINN);
 	}
 
 }
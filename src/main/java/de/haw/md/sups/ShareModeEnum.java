@@ -0,0 +1,29 @@
+package de.haw.md.sups;
+
+/**
+ * Zustellung der Marktanteile an die Handyhersteller. Gewaehlt wird pro Lauf
+ * ueber die System-Property shareMode, z.B. -DshareMode=DIRECT.
+ */
+public enum ShareModeEnum {
+
+	/** Alle Anteile in einer Nachricht ueber das Thema MARKET_SHARE an alle */
+	BROADCAST,
+	/**
+	 * Jedes Unternehmen erhaelt direkt nur den eigenen Anteil. Fuer grosse
+	 * Maerkte, da die Nachrichten sonst quadratisch mit der Anzahl der
+	 * Unternehmen wachsen.
+	 */
+	DIRECT;
+
+	public static final String PROPERTY = "shareMode";
+
+	public static ShareModeEnum getActive() {
+		final String mode = System.getProperty(PROPERTY);
+		if (mode == null || mode.isEmpty())
+			return BROADCAST;
+		for (ShareModeEnum sme : ShareModeEnum.values())
+			if (sme.name().equalsIgnoreCase(mode))
+				return sme;
+		throw new IllegalArgumentException("Unknown share mode: " + mode);
+	}
+}
@@ -0,0 +1,106 @@
+package de.haw.md.sups;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zufallszahlen eines Simulationslaufs. Aus einem Startwert (seed) wird fuer
+ * jeden Akteur und jeden Rohstoff ein eigener SplittableRandom abgeleitet. Der
+ * Startwert eines Stroms haengt nur vom seed und vom Namen ab, nicht von der
+ * Reihenfolge, in der die Stroeme angelegt werden. Zwei Laeufe mit demselben
+ * seed ziehen daher dieselben Zahlen, und kein Strom wird zwischen Threads
+ * geteilt.
+ *
+ * Der seed kommt aus -Dseed, ohne Angabe wird einer zufaellig gewaehlt.
+ */
+public final class SimulationRandom {
+
+	/** Systemeigenschaft mit dem seed des Laufs */
+	public static final String PROPERTY = "seed";
+
+	private static volatile SimulationRandom instance;
+
+	private final long seed;
+
+	private SimulationRandom(long seed) {
+		this.seed = seed;
+	}
+
+	public static SimulationRandom getInstance() {
+		SimulationRandom random = instance;
+		if (random == null) {
+			synchronized (SimulationRandom.class) {
+				random = instance;
+				if (random == null) {
+					final Long seed = Long.getLong(PROPERTY);
+					random = new SimulationRandom(seed != null ? seed : new SplittableRandom().nextLong());
+					instance = random;
+				}
+			}
+		}
+		return random;
+	}
+
+	/**
+	 * Setzt den seed fuer alle danach angelegten Stroeme, z.B. vor jedem Lauf
+	 * einer Versuchsreihe.
+	 */
+	public static synchronized SimulationRandom init(long seed) {
+		instance = new SimulationRandom(seed);
+		return instance;
+	}
+
+	/**
+	 * Zufallszahlen eines Laufs neben dem globalen, z.B. fuer die Laeufe der
+	 * SimulationEngine.
+	 */
+	public static SimulationRandom withSeed(long seed) {
+		return new SimulationRandom(seed);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public SplittableRandom forAgent(String name) {
+		return stream("agent:" + name);
+	}
+
+	public SplittableRandom forResource(ResourceEnum type) {
+		return stream("resource:" + type.name());
+	}
+
+	/**
+	 * @param run
+	 *            Nummer des Laufs in einer Versuchsreihe
+	 * @return Zufallszahlen des Laufs, abgeleitet aus diesem seed
+	 */
+	public SimulationRandom forRun(int run) {
+		return new SimulationRandom(stream("run:" + run).nextLong());
+	}
+
+	/**
+	 * @param key
+	 *            Name des Stroms, gleicher Name liefert dieselbe Folge
+	 * @return neuer, unabhaengiger Strom
+	 */
+	public SplittableRandom stream(String key) {
+		return new SplittableRandom(mix64(seed + mix64(hash64(key))));
+	}
+
+	/** FNV-1a ueber die Zeichen, unabhaengig von String.hashCode */
+	private static long hash64(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/** Finalizer aus SplittableRandom (Stafford, Variante 13) */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
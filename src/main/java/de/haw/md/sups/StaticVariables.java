@@ -2,7 +2,11 @@ package de.haw.md.sups;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.SplittableRandom;
 
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
@@ -47,13 +51,39 @@ public class StaticVariables {
 		return new BigDecimal(value);
 	}
 	
-	//Random BigDecimal with Range and Scale
-	public static BigDecimal generateRandomBigDecimalFromRange(BigDecimal min, BigDecimal max) {
-		BigDecimal randomBigDecimal = min.add(new BigDecimal(Math.random()).multiply(max.subtract(min)));
-		return randomBigDecimal.setScale(2, BigDecimal.ROUND_HALF_UP);
+	/**
+	 * Tage seit dem 01.01.1970
+	 * 
+	 * @param date
+	 * @return
+	 */
+	public static int toEpochDay(LocalDate date) {
+		return (int) (date.toDateTimeAtStartOfDay(DateTimeZone.UTC).getMillis() / DateTimeConstants.MILLIS_PER_DAY);
+	}
+
+	public static LocalDate fromEpochDay(int epochDay) {
+		return new LocalDate(epochDay * (long) DateTimeConstants.MILLIS_PER_DAY, DateTimeZone.UTC);
 	}
 	
-	public static BigDecimal generateRandomBigDecimalFromRangeScale0(BigDecimal min, BigDecimal max) {
-		return generateRandomBigDecimalFromRange(min, max).setScale(0, RoundingMode.HALF_UP);
+	/**
+	 * Zufallswert im Bereich, reproduzierbar aus einem Strom von
+	 * SimulationRandom.
+	 */
+	public static BigDecimal generateRandomBigDecimalFromRange(SplittableRandom random, BigDecimal min, BigDecimal max) {
+		return bigDecimalFromRange(random.nextDouble(), min, max);
+	}
+
+	public static BigDecimal generateRandomBigDecimalFromRangeScale0(SplittableRandom random, BigDecimal min, BigDecimal max) {
+		return generateRandomBigDecimalFromRange(random, min, max).setScale(0, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * @param fraction
+	 *            aus [0, 1], 0 fuer min und 1 fuer max
+	 * @return Wert im Bereich, auf zwei Stellen gerundet
+	 */
+	public static BigDecimal bigDecimalFromRange(double fraction, BigDecimal min, BigDecimal max) {
+		BigDecimal randomBigDecimal = min.add(new BigDecimal(fraction).multiply(max.subtract(min)));
+		return randomBigDecimal.setScale(2, BigDecimal.ROUND_HALF_UP);
 	}
 }
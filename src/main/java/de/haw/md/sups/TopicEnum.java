@@ -0,0 +1,28 @@
+package de.haw.md.sups;
+
+/**
+ * Themen des DistributedPubSub-Kanals. Jeder Akteur abonniert nur die Themen,
+ * deren Nachrichten er auch verarbeitet. Angebote der Zulieferer und die
+ * Ergebnisse der Unternehmen laufen nicht ueber Themen, sondern direkt an den
+ * Empfaenger.
+ */
+public enum TopicEnum {
+
+	RESOURCES("Resources"),
+	PLASTIC("Plastic"),
+	MARKET_SHARE("Market_Share");
+
+	private String name;
+
+	private TopicEnum(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getTopic(String channel) {
+		return channel + "_" + name;
+	}
+}
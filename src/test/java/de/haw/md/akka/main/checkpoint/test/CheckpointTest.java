@@ -0,0 +1,151 @@
+package de.haw.md.akka.main.checkpoint.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.akka.main.checkpoint.Checkpoint;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.MarketMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.MobileCompanyModel;
+import de.haw.md.sups.MobileCostCalc;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+
+public class CheckpointTest {
+
+	private final LocalDate date = new LocalDate(2016, 6, 1);
+
+	@Test
+	public void roundTripTest() throws IOException {
+		final Map<String, PriceSeries> series = new LinkedHashMap<>();
+		final PriceSeries oil = new PriceSeries();
+		oil.append(new LocalDate(1969, 12, 30), new BigDecimal("3.35"));
+		oil.append(date, new BigDecimal("48.123456"));
+		oil.append(date.plusDays(3), new BigDecimal("47.9"));
+		series.put(ResourceEnum.OIL.getName(), oil);
+		series.put(ResourceEnum.GOLD.getName(), new PriceSeries());
+		final long[] draws = new long[ResourceEnum.values().length];
+		draws[ResourceEnum.OIL.ordinal()] = 1001;
+		final Map<String, Long> prices = new LinkedHashMap<>();
+		prices.put("Company_Mobile_1", 61235L);
+		prices.put("Company_Mobile_0", 0L);
+		final TreeMap<Integer, List<MarketResponseMsg>> completedResults = new TreeMap<>();
+		completedResults.put(41, Collections.<MarketResponseMsg> emptyList());
+		completedResults.put(42, Collections.singletonList(new MarketResponseMsg("Company_Mobile_1", ProductTypeEnum.MOBILE_PHONE, 42, date,
+				new BigDecimal("612.35"), new BigDecimal("18000"), new BigDecimal("-25.10"), new BigDecimal("613.70"))));
+		final Map<String, CompanyStateMsg> companies = new LinkedHashMap<>();
+		companies.put("Company_Mobile_0", new CompanyStateMsg("Company_Mobile_0", 42, new BigDecimal("18000"), BigDecimal.ZERO, null, null,
+				BigDecimal.ZERO, 0));
+		companies.put("Company_Mobile_1", new CompanyStateMsg("Company_Mobile_1", 42, new BigDecimal("17250"), new BigDecimal("612.35"), date,
+				date.plusMonths(1), new BigDecimal("-1234.56"), 0));
+		final Checkpoint checkpoint = new Checkpoint(-42L, 42, new BigDecimal("42"), new BigDecimal("1250000"), date, series, draws, prices,
+				completedResults, companies);
+		final File directory = Files.createTempDirectory("checkpoint").toFile();
+		final File file = Checkpoint.getFile(directory, 42);
+		checkpoint.write(file);
+		// Ersetzt die vorhandene Datei
+		checkpoint.write(file);
+		Assert.assertEquals(directory.list().length, 1);
+
+		final Checkpoint copy = Checkpoint.read(file);
+		Assert.assertEquals(copy.getSeed(), -42L);
+		Assert.assertEquals(copy.getTick(), 42);
+		Assert.assertEquals(copy.getCounter(), new BigDecimal("42"));
+		Assert.assertEquals(copy.getMarketVolume(), new BigDecimal("1250000"));
+		Assert.assertEquals(copy.getStartDate(), date);
+		Assert.assertEquals(copy.getDraws(), draws);
+		final PriceSeries oilCopy = copy.getSeries().get(ResourceEnum.OIL.getName());
+		Assert.assertEquals(oilCopy.size(), 3);
+		Assert.assertEquals(oilCopy.getDate(0), new LocalDate(1969, 12, 30));
+		Assert.assertEquals(oilCopy.getValue(1), new BigDecimal("48.123456"));
+		Assert.assertEquals(oilCopy.getLastDate(), date.plusDays(3));
+		Assert.assertTrue(copy.getSeries().get(ResourceEnum.GOLD.getName()).isEmpty());
+		Assert.assertEquals(new ArrayList<>(copy.getPrices().keySet()), new ArrayList<>(prices.keySet()));
+		Assert.assertEquals(copy.getPrices().get("Company_Mobile_1"), Long.valueOf(61235L));
+		Assert.assertEquals(copy.getCompletedResults().keySet(), completedResults.keySet());
+		Assert.assertEquals(copy.getCompletedResults().get(42).get(0).toString(), completedResults.get(42).get(0).toString());
+		Assert.assertNull(copy.getCompany("Company_Mobile_0").getDateTicker());
+		Assert.assertEquals(copy.getCompany("Company_Mobile_1").getNextMonthTicker(), date.plusMonths(1));
+		Assert.assertEquals(copy.getCompany("Company_Mobile_1").getCompleteProfit(), new BigDecimal("-1234.56"));
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void readForeignFileTest() throws IOException {
+		final File file = File.createTempFile("checkpoint", ".bin");
+		Files.write(file.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		Checkpoint.read(file);
+	}
+
+	@Test
+	public void companyStateTest() {
+		final MobileCompanyModel original = createModel();
+		final MobileCompanyModel resumed = createModel();
+		// Ueber einen Monatswechsel, damit auch die Monatskosten anfallen
+		for (int tick = 1; tick <= 20; tick++)
+			original.processTick(prices(tick), plastic(tick), electronicPart(tick), shares(tick));
+		resumed.restore(original.getState(20));
+		for (int tick = 21; tick <= 45; tick++) {
+			final MarketResponseMsg expected = original.processTick(prices(tick), plastic(tick), electronicPart(tick), shares(tick));
+			final MarketResponseMsg actual = resumed.processTick(prices(tick), plastic(tick), electronicPart(tick), shares(tick));
+			Assert.assertEquals(String.valueOf(actual), String.valueOf(expected));
+		}
+		Assert.assertEquals(resumed.getCompleteProfit(), original.getCompleteProfit());
+		Assert.assertEquals(resumed.getState(45).getNextMonthTicker(), original.getState(45).getNextMonthTicker());
+	}
+
+	@Test
+	public void initialCompanyStateTest() {
+		final MobileCompanyModel resumed = createModel();
+		resumed.restore(createModel().getState(MarketMsg.NO_TICK));
+		Assert.assertNull(resumed.getState(MarketMsg.NO_TICK).getDateTicker());
+		Assert.assertEquals(String.valueOf(resumed.processTick(prices(1), plastic(1), electronicPart(1), shares(1))),
+				String.valueOf(createModel().processTick(prices(1), plastic(1), electronicPart(1), shares(1))));
+	}
+
+	private MobileCompanyModel createModel() {
+		return new MobileCompanyModel("Company_Mobile_0", new MobileCostCalc(CostModeEnum.BIG_DECIMAL, new BigDecimal("30"), new BigDecimal("3.00"),
+				new BigDecimal("1.75"), new BigDecimal("1.20"), new BigDecimal("6000000.00"), new BigDecimal("6"), new BigDecimal("3500")),
+				new BigDecimal("1.75"), new BigDecimal("250000"));
+	}
+
+	private ResourcePriceVectorMsg prices(int tick) {
+		final BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		for (int i = 0; i < prices.length; i++)
+			prices[i] = new BigDecimal(1000 + 10 * i + tick % 7);
+		return new ResourcePriceVectorMsg(tick, date.plusDays(tick), prices);
+	}
+
+	private MarketResponseMsg plastic(int tick) {
+		return new MarketResponseMsg("Company_Oil", ProductTypeEnum.PLASTIC, tick, date.plusDays(tick), new BigDecimal("1.02"));
+	}
+
+	private MarketResponseMsg electronicPart(int tick) {
+		return new MarketResponseMsg("Company_ElectroPart_0", ProductTypeEnum.ELECTRONIC_PART, tick, date.plusDays(tick),
+				new BigDecimal("9.8" + tick % 10));
+	}
+
+	private MarketShareMsg shares(int tick) {
+		final List<CompanyShareMsg> shares = new ArrayList<>();
+		if (tick > 1)
+			shares.add(new CompanyShareMsg("Company_Mobile_0", new BigDecimal("0.0667"), new BigDecimal(540000 + 1000 * (tick % 5))));
+		return new MarketShareMsg(shares, tick, date.plusDays(tick));
+	}
+}
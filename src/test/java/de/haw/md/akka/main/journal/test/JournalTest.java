@@ -0,0 +1,171 @@
+package de.haw.md.akka.main.journal.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.akka.main.journal.Journal;
+import de.haw.md.akka.main.journal.JournalReader;
+import de.haw.md.akka.main.journal.JournalRecord;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+
+public class JournalTest {
+
+	private final LocalDate date = new LocalDate(2016, 6, 1);
+
+	@Test
+	public void roundTripTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		// Klein genug, dass mehrere Segmente entstehen
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			for (int tick = 1; tick <= 20; tick++)
+				writeTick(journal, tick);
+		}
+		Assert.assertTrue(directory.list((dir, name) -> name.endsWith(".seg")).length > 2);
+		final JournalReader reader = new JournalReader(directory);
+		Assert.assertEquals(reader.getFirstTick(), 1);
+		Assert.assertEquals(reader.getLastTick(), 20);
+		final List<JournalRecord> records = new ArrayList<>();
+		reader.iterator().forEachRemaining(records::add);
+		Assert.assertEquals(records.size(), 60);
+		final ResourcePriceVectorMsg rpvm = (ResourcePriceVectorMsg) records.get(3).getMsg();
+		Assert.assertEquals(records.get(3).getTick(), 2);
+		Assert.assertEquals(rpvm.getPrice(ResourceEnum.OIL), new BigDecimal("42.02"));
+		final MarketResponseMsg mrm = (MarketResponseMsg) records.get(4).getMsg();
+		Assert.assertEquals(mrm.getCompany(), "Company_Mobile_2");
+		Assert.assertEquals(mrm.getRevenue(), new BigDecimal("612.35"));
+		final MarketShareMsg msm = (MarketShareMsg) records.get(5).getMsg();
+		Assert.assertEquals(msm.getCompanyShares().get(0).getShareVolume(), new BigDecimal("18000"));
+	}
+
+	@Test
+	public void indexTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			for (int tick = 1; tick <= 10; tick++)
+				writeTick(journal, tick);
+			// Spaetes Ergebnis eines frueheren Ticks
+			journal.append(4, response(4));
+		}
+		final JournalReader reader = new JournalReader(directory);
+		final Iterator<JournalRecord> iterator = reader.iterator(7);
+		Assert.assertEquals(iterator.next().getTick(), 7);
+		final List<JournalRecord> range = reader.read(3, 5);
+		Assert.assertEquals(range.size(), 10);
+		Assert.assertEquals(range.get(0).getTick(), 3);
+		Assert.assertEquals(range.get(range.size() - 1).getTick(), 4);
+		Assert.assertFalse(reader.iterator(11).hasNext());
+	}
+
+	@Test
+	public void boundedReadTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			for (int tick = 1; tick <= 40; tick++)
+				writeTick(journal, tick);
+			journal.append(4, response(4));
+		}
+		// Ein Segment in der Mitte ist unlesbar, read(3, 5) darf es nicht brauchen
+		final String[] names = directory.list((dir, name) -> name.endsWith(".seg"));
+		Arrays.sort(names);
+		Files.write(new File(directory, names[names.length / 2]).toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		final JournalReader reader = new JournalReader(directory);
+		final List<JournalRecord> range = reader.read(3, 5);
+		Assert.assertEquals(range.size(), 10);
+		Assert.assertEquals(range.get(range.size() - 1).getTick(), 4);
+		Assert.assertEquals(reader.read(40, 40).size(), 3);
+		try {
+			reader.read(3, 20);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// liest das Segment in der Mitte
+		}
+	}
+
+	@Test
+	public void reopenTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		try (Journal journal = Journal.open(directory, 4096, 10)) {
+			for (int tick = 1; tick <= 5; tick++)
+				writeTick(journal, tick);
+		}
+		try (Journal journal = Journal.open(directory, 4096, 10)) {
+			// Neuer Lauf, eigener Indexeintrag
+			journal.append(5, response(5));
+			for (int tick = 6; tick <= 8; tick++)
+				writeTick(journal, tick);
+		}
+		final JournalReader reader = new JournalReader(directory);
+		Assert.assertEquals(reader.getRunCount(), 2);
+		Assert.assertEquals(reader.getFirstTick(), 5);
+		Assert.assertEquals(reader.getLastTick(), 8);
+		Assert.assertEquals(reader.read(1, 8).size(), 10);
+		Assert.assertEquals(reader.read(5, 5).size(), 1);
+		Assert.assertEquals(reader.iterator(6).next().getMsg().getClass(), ResourcePriceVectorMsg.class);
+		final JournalReader first = new JournalReader(directory, 0);
+		Assert.assertEquals(first.getLastTick(), 5);
+		Assert.assertEquals(first.read(1, 8).size(), 15);
+		final List<JournalRecord> records = new ArrayList<>();
+		first.iterator().forEachRemaining(records::add);
+		Assert.assertEquals(records.size(), 15);
+	}
+
+	@Test
+	public void resumeTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			for (int tick = 1; tick <= 10; tick++)
+				writeTick(journal, tick);
+		}
+		// Fortgesetzt ab dem Stand von Tick 3
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			for (int tick = 4; tick <= 6; tick++)
+				writeTick(journal, tick);
+		}
+		final JournalReader reader = new JournalReader(directory);
+		Assert.assertEquals(reader.getFirstTick(), 4);
+		Assert.assertEquals(reader.getLastTick(), 6);
+		Assert.assertEquals(reader.read(1, 10).size(), 9);
+		Assert.assertEquals(reader.read(4, 4).size(), 3);
+		Assert.assertEquals(new JournalReader(directory, -2).read(4, 4).size(), 3);
+		Assert.assertEquals(new JournalReader(directory, -2).read(1, 10).size(), 30);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unknownRunTest() throws IOException {
+		final File directory = Files.createTempDirectory("journal").toFile();
+		try (Journal journal = Journal.open(directory, 512, 10)) {
+			writeTick(journal, 1);
+		}
+		new JournalReader(directory, 1);
+	}
+
+	private void writeTick(Journal journal, int tick) {
+		final BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		for (int i = 0; i < prices.length; i++)
+			prices[i] = new BigDecimal("42.0" + tick % 10);
+		journal.append(tick, new ResourcePriceVectorMsg(tick, date, prices));
+		journal.append(tick, response(tick));
+		final List<CompanyShareMsg> shares = new ArrayList<>();
+		shares.add(new CompanyShareMsg("Company_Mobile_" + tick, new BigDecimal("0.0667"), new BigDecimal("18000")));
+		journal.append(tick, new MarketShareMsg(shares, tick, date));
+	}
+
+	private MarketResponseMsg response(int tick) {
+		return new MarketResponseMsg("Company_Mobile_" + tick, ProductTypeEnum.MOBILE_PHONE, tick, date, new BigDecimal("612.35"));
+	}
+}
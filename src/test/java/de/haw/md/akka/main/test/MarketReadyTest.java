@@ -0,0 +1,98 @@
+package de.haw.md.akka.main.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import scala.concurrent.Await;
+import scala.concurrent.duration.FiniteDuration;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.PoisonPill;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.pattern.Patterns;
+import de.haw.md.akka.main.ActorSystemContainer;
+import de.haw.md.akka.main.Market;
+import de.haw.md.akka.main.msg.CompanyRegisterMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.akka.main.msg.TickMsg;
+
+/**
+ * Ticks warten auf die Bereitschaft der Unternehmen, aber nicht ohne Ende.
+ */
+public class MarketReadyTest {
+
+	private static final FiniteDuration TIMEOUT = new FiniteDuration(10, TimeUnit.SECONDS);
+
+	private final ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+
+	@BeforeClass
+	public void setUp() {
+		System.setProperty(Market.READY_TIMEOUT_PROPERTY, "1");
+	}
+
+	@AfterClass
+	public void tearDown() {
+		System.clearProperty(Market.READY_TIMEOUT_PROPERTY);
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*Company_Oil.*")
+	public void readyTimeoutTest() throws Exception {
+		final ActorRef market = system.actorOf(Props.create(Market.class, "readyTimeoutTest"));
+		final ActorRef oil = system.actorOf(Props.create(SilentCompany.class, market, "Company_Oil"));
+		Await.result(Patterns.ask(oil, "registered", TIMEOUT.toMillis()), TIMEOUT);
+		Await.result(Patterns.ask(market, new TickMsg(1), TIMEOUT.toMillis()), TIMEOUT);
+	}
+
+	@Test
+	public void terminatedNotReadyTest() throws Exception {
+		final ActorRef market = system.actorOf(Props.create(Market.class, "terminatedNotReadyTest"));
+		final ActorRef oil = system.actorOf(Props.create(SilentCompany.class, market, "Company_Oil"));
+		// Erst nach der Bestaetigung der Anmeldung beenden
+		Await.result(Patterns.ask(oil, "registered", TIMEOUT.toMillis()), TIMEOUT);
+		oil.tell(PoisonPill.getInstance(), ActorRef.noSender());
+		// Das nicht meldende Unternehmen haelt den Tick nicht mehr auf
+		final Object reply = Await.result(Patterns.ask(market, new TickMsg(1), TIMEOUT.toMillis()), TIMEOUT);
+		Assert.assertTrue(reply instanceof TickCompletedMsg);
+	}
+
+	/**
+	 * Meldet sich als nicht meldendes Unternehmen an und wird nie bereit.
+	 */
+	public static class SilentCompany extends UntypedActor {
+
+		private final ActorRef market;
+		private final String company;
+
+		private boolean registered = false;
+		private ActorRef waiting;
+
+		public SilentCompany(ActorRef market, String company) {
+			this.market = market;
+			this.company = company;
+		}
+
+		@Override
+		public void preStart() {
+			market.tell(new CompanyRegisterMsg(company, false), getSelf());
+		}
+
+		@Override
+		public void onReceive(Object msg) {
+			if (msg instanceof CompanyRegisterMsg)
+				registered = true;
+			else if ("registered".equals(msg))
+				waiting = getSender();
+			else
+				unhandled(msg);
+			if (registered && waiting != null) {
+				waiting.tell(company, getSelf());
+				waiting = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package de.haw.md.akka.main.test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.akka.main.MarketSnapshot;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.ResourceEnum;
+
+public class MarketSnapshotTest {
+
+	private final LocalDate date = new LocalDate(2016, 6, 1);
+
+	@Test
+	public void nextTest() {
+		final Map<String, ResourceMsg> resources = new HashMap<>();
+		resources.put(ResourceEnum.OIL.getName(), new ResourceMsg(ResourceEnum.OIL, date, new BigDecimal("42.03")));
+		final Map<String, MarketResponseMsg> mobile = new HashMap<>();
+		mobile.put("Company_Mobile_0", new MarketResponseMsg("Company_Mobile_0", ProductTypeEnum.MOBILE_PHONE, 1, date, new BigDecimal("612.35")));
+		final MarketShareMsg shares = new MarketShareMsg(new ArrayList<CompanyShareMsg>(), 1, date);
+		Assert.assertEquals(MarketSnapshot.EMPTY.getVersion(), 0);
+		final MarketSnapshot first = MarketSnapshot.EMPTY.next(1, date, resources, mobile, shares, new BigDecimal("1000"));
+		Assert.assertEquals(first.getVersion(), 1);
+		// Spaetere Aenderungen des Marktes erreichen den Stand nicht
+		resources.clear();
+		mobile.put("Company_Mobile_1", mobile.get("Company_Mobile_0"));
+		Assert.assertEquals(first.getResourceResponses().size(), 1);
+		Assert.assertEquals(first.getMobileResponses().size(), 1);
+		// Unveraenderte Maps werden uebernommen
+		final MarketSnapshot second = first.next(2, date.plusDays(1), null, mobile, shares, new BigDecimal("900"));
+		Assert.assertEquals(second.getVersion(), 2);
+		Assert.assertSame(second.getResourceResponses(), first.getResourceResponses());
+		Assert.assertEquals(second.getMobileResponses().size(), 2);
+		Assert.assertEquals(first.getMobileResponses().size(), 1);
+		Assert.assertEquals(second.getTick(), 2);
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void unmodifiableTest() {
+		MarketSnapshot.EMPTY.next(1, date, new HashMap<String, ResourceMsg>(), new HashMap<String, MarketResponseMsg>(), null, BigDecimal.ONE)
+				.getMobileResponses().put("Company_Mobile_0", null);
+	}
+}
@@ -0,0 +1,97 @@
+package de.haw.md.akka.main.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.company.headless.main.HeadlessMultiAgentMain;
+import de.haw.md.company.headless.main.ShardedMultiAgentMain;
+
+/**
+ * Startet einen Cluster aus drei JVMs auf localhost: die beiden Seed-Knoten
+ * als Worker und einen Treiber. Mit demselben seed muss die verteilte
+ * Simulation dieselben Ergebnisse liefern wie HeadlessMultiAgentMain in einer
+ * JVM, und die Unternehmen muessen auf mehr als einem Knoten laufen.
+ *
+ * Gruppe cluster, laeuft nur mit mvn -P cluster test und braucht wie das
+ * Remoting von Akka 2.4 ein Java 8.
+ */
+public class ShardedClusterTest {
+
+	private static final int TICKS = 20;
+	private static final int MOBILE_FACTORIES = 30;
+	private static final int ELECTRO_PART_FACTORIES = 4;
+	private static final String SEED = "42";
+
+	private static final long TIMEOUT_SECONDS = 180;
+
+	private static final Pattern COMPANIES = Pattern.compile("Companies on this node: (\\d+)");
+
+	@Test(groups = "cluster")
+	public void shardedRunTest() throws Exception {
+		final File dir = Files.createTempDirectory("sharded").toFile();
+		final File reference = new File(dir, "reference.csv");
+		final File sharded = new File(dir, "sharded.csv");
+		// Der Referenzlauf endet vor dem Start der Seed-Knoten, damit er sich
+		// nicht dem Cluster anschliesst
+		final Process local = start(dir, "reference", HeadlessMultiAgentMain.class.getName(), 0, String.valueOf(TICKS),
+				String.valueOf(MOBILE_FACTORIES), String.valueOf(ELECTRO_PART_FACTORIES), reference.getPath());
+		Assert.assertTrue(local.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS), "reference run timed out");
+		final List<Process> nodes = new ArrayList<>();
+		try {
+			nodes.add(start(dir, "seed1", ShardedMultiAgentMain.class.getName(), 2551, "worker", String.valueOf(ELECTRO_PART_FACTORIES)));
+			nodes.add(start(dir, "seed2", ShardedMultiAgentMain.class.getName(), 2552, "worker", String.valueOf(ELECTRO_PART_FACTORIES)));
+			nodes.add(start(dir, "driver", ShardedMultiAgentMain.class.getName(), 0, "driver", String.valueOf(TICKS), String.valueOf(MOBILE_FACTORIES),
+					String.valueOf(ELECTRO_PART_FACTORIES), sharded.getPath()));
+			for (Process node : nodes)
+				Assert.assertTrue(node.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS), "node timed out");
+		} finally {
+			for (Process node : nodes)
+				node.destroyForcibly();
+		}
+		Assert.assertTrue(Arrays.equals(Files.readAllBytes(sharded.toPath()), Files.readAllBytes(reference.toPath())), "results differ, see " + dir);
+		int companies = 0;
+		int nodesWithCompanies = 0;
+		for (String name : new String[] { "seed1", "seed2", "driver" }) {
+			final int started = getStartedCompanies(new File(dir, name + ".log"));
+			companies += started;
+			if (started > 0)
+				nodesWithCompanies++;
+		}
+		// Jedes Unternehmen laeuft genau einmal im Cluster
+		Assert.assertEquals(companies, 1 + ELECTRO_PART_FACTORIES + MOBILE_FACTORIES);
+		Assert.assertTrue(nodesWithCompanies > 1, "all companies on one node");
+	}
+
+	private static Process start(File dir, String name, String mainClass, int port, String... args) throws IOException {
+		final List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("-Dseed=" + SEED);
+		command.add("-Dakka.remote.netty.tcp.port=" + port);
+		command.add("-Dakka.cluster.min-nr-of-members=3");
+		command.add(mainClass);
+		command.addAll(Arrays.asList(args));
+		final ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(new File(dir, name + ".log"));
+		return builder.start();
+	}
+
+	private static int getStartedCompanies(File log) throws IOException {
+		final Matcher matcher = COMPANIES.matcher(new String(Files.readAllBytes(log.toPath()), StandardCharsets.UTF_8));
+		Assert.assertTrue(matcher.find(), "no summary in " + log);
+		return Integer.parseInt(matcher.group(1));
+	}
+}
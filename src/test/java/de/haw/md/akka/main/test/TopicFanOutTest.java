@@ -0,0 +1,157 @@
+package de.haw.md.akka.main.test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.cluster.pubsub.DistributedPubSub;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import de.haw.md.akka.main.ActorSystemContainer;
+import de.haw.md.akka.main.CompanyElectrPartProd;
+import de.haw.md.akka.main.CompanyMobile;
+import de.haw.md.akka.main.CompanyOil;
+import de.haw.md.akka.main.MarketContainer;
+import de.haw.md.akka.main.msg.MarketMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.SimulationRandom;
+import de.haw.md.sups.StaticVariables;
+import de.haw.md.sups.TopicEnum;
+
+/**
+ * Zaehlt die zugestellten Nachrichten pro Tick. Vor der Aufteilung in Themen
+ * hat jeder Akteur jede Nachricht erhalten, die der Markt veroeffentlicht oder
+ * weitergereicht hat, also Nachrichten * Anzahl Akteure. Angebote der
+ * Zulieferer und Ergebnisse der Handyhersteller liefen dabei ebenfalls ueber den
+ * Kanal.
+ */
+public class TopicFanOutTest {
+
+	private static final int ELECTRO_PART_FACTORIES = 7;
+	private static final int MOBILE_FACTORIES = 15;
+	private static final int TICKS = 10;
+
+	private static final AtomicLong DELIVERED = new AtomicLong();
+	private static final AtomicLong PUBLISHED = new AtomicLong();
+	private static final AtomicLong QUOTES = new AtomicLong();
+
+	@Test
+	public void deliveredMessagesPerTickTest() throws InterruptedException {
+		ActorSystem system = ActorSystemContainer.getInstance().getSystem();
+		final String channel = StaticVariables.CHANNEL;
+		for (TopicEnum topic : TopicEnum.values())
+			system.actorOf(Props.create(PublishCounter.class, topic.getTopic(channel)));
+		system.actorOf(Props.create(CountingOil.class, channel, "Company_Oil"), "Company_Oil");
+		for (int i = 0; i < ELECTRO_PART_FACTORIES; i++)
+			system.actorOf(Props.create(CountingElectrPartProd.class, channel, "Company_ElectroPart_" + i, new BigDecimal("20"), new BigDecimal("1.25"),
+					new BigDecimal("1.5"), new BigDecimal("1.7")), "Company_ElectroPart_" + i);
+		for (int i = 0; i < MOBILE_FACTORIES; i++) {
+			final SplittableRandom random = SimulationRandom.getInstance().forAgent("Company_Mobile_" + i);
+			system.actorOf(Props.create(CountingMobile.class, channel, "Company_Mobile_" + i, CompanyValuesEnum.COST_MAN_HOUR.getRandomValue(random),
+					CompanyValuesEnum.PROD_MAN_HOUR.getRandomValue(random), CompanyValuesEnum.BONUS.getRandomValue(random), "Company_ElectroPart_" + i
+							% ELECTRO_PART_FACTORIES, CompanyValuesEnum.SUPPLIER_DISCOUNT.getRandomValue(random),
+					CompanyValuesEnum.FIX_COST.getRandomValue(random), CompanyValuesEnum.PRODUCTION_LINES.getRandomValue(random),
+					CompanyValuesEnum.PRODUCTION_LINES_CAP.getRandomValue(random), CompanyValuesEnum.MONTHLY_COSTS.getRandomValue(random)),
+					"Company_Mobile_" + i);
+		}
+		final ActorRef market = MarketContainer.getInstance().getPublisher(channel);
+		while (MarketContainer.getInstance().getMarket() == null)
+			Thread.sleep(100);
+		Thread.sleep(1000);
+		// Die ersten Ticks dienen dem Aufwaermen, erst danach wird gezaehlt
+		runTicks(market, 3);
+		DELIVERED.set(0);
+		PUBLISHED.set(0);
+		QUOTES.set(0);
+		runTicks(market, TICKS);
+		final long subscribersBefore = 1 + ELECTRO_PART_FACTORIES + MOBILE_FACTORIES;
+		// Pro Tick ein Angebot je Zulieferer und ein Ergebnis je Handyhersteller
+		final long channelMsgsBefore = PUBLISHED.get() / TICKS + ELECTRO_PART_FACTORIES + MOBILE_FACTORIES;
+		final long before = channelMsgsBefore * subscribersBefore;
+		final long after = DELIVERED.get() / TICKS;
+		System.out.println("Published per tick: " + PUBLISHED.get() / TICKS);
+		System.out.println("Delivered per tick - single channel: " + before + "\tper topic: " + after);
+		Assert.assertTrue(after < before);
+		// Jeder Handyhersteller erhaelt genau ein Angebot pro Tick, naemlich das
+		// seines eigenen Zulieferers
+		Assert.assertEquals(QUOTES.get(), (long) MOBILE_FACTORIES * TICKS);
+	}
+
+	private void runTicks(ActorRef market, int ticks) throws InterruptedException {
+		for (int i = 0; i < ticks; i++) {
+			market.tell("Tick", ActorRef.noSender());
+			Thread.sleep(500);
+		}
+	}
+
+	private static void count(Object msg) {
+		if (msg instanceof MarketMsg)
+			DELIVERED.incrementAndGet();
+	}
+
+	public static class PublishCounter extends UntypedActor {
+
+		public PublishCounter(String topic) {
+			ActorRef mediator = DistributedPubSub.get(getContext().system()).mediator();
+			mediator.tell(new DistributedPubSubMediator.Subscribe(topic, getSelf()), getSelf());
+		}
+
+		@Override
+		public void onReceive(Object msg) throws Exception {
+			if (msg instanceof MarketMsg)
+				PUBLISHED.incrementAndGet();
+		}
+	}
+
+	public static class CountingOil extends CompanyOil {
+
+		public CountingOil(String channel, String nameOfSubscriber) {
+			super(channel, nameOfSubscriber);
+		}
+
+		@Override
+		public void onReceive(Object msg) throws Exception {
+			count(msg);
+			super.onReceive(msg);
+		}
+	}
+
+	public static class CountingElectrPartProd extends CompanyElectrPartProd {
+
+		public CountingElectrPartProd(String channel, String nameOfSubscriber, BigDecimal costManHour, BigDecimal fixCost, BigDecimal prodManHour,
+				BigDecimal bonus) {
+			super(channel, nameOfSubscriber, costManHour, fixCost, prodManHour, bonus);
+		}
+
+		@Override
+		public void onReceive(Object msg) throws Exception {
+			count(msg);
+			super.onReceive(msg);
+		}
+	}
+
+	public static class CountingMobile extends CompanyMobile {
+
+		public CountingMobile(String channel, String nameOfSubscriber, BigDecimal costManHour, BigDecimal prodManHour, BigDecimal bonus, String supplier,
+				BigDecimal supDiscount, BigDecimal fixCost, BigDecimal productionLines, BigDecimal productionLineCapacity, BigDecimal monthlyCosts) {
+			super(channel, nameOfSubscriber, costManHour, prodManHour, bonus, supplier, supDiscount, fixCost, productionLines, productionLineCapacity,
+					monthlyCosts);
+		}
+
+		@Override
+		public void onReceive(Object msg) throws Exception {
+			count(msg);
+			if (msg instanceof MarketResponseMsg && ((MarketResponseMsg) msg).getType() == ProductTypeEnum.ELECTRONIC_PART)
+				QUOTES.incrementAndGet();
+			super.onReceive(msg);
+		}
+	}
+}
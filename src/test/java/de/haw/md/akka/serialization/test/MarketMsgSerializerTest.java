@@ -0,0 +1,216 @@
+package de.haw.md.akka.serialization.test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import akka.actor.ActorSystem;
+import akka.serialization.Serialization;
+import akka.serialization.SerializationExtension;
+
+import com.typesafe.config.ConfigFactory;
+
+import de.haw.md.akka.main.msg.CheckpointMsg;
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.akka.main.msg.CompanyStateMsg;
+import de.haw.md.akka.main.msg.EntityStartMsg;
+import de.haw.md.akka.main.msg.MarketMsg;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
+import de.haw.md.akka.main.msg.MarketShareMsg;
+import de.haw.md.akka.main.msg.MsgModelMapper;
+import de.haw.md.akka.main.msg.RegionReportMsg;
+import de.haw.md.akka.main.msg.ResourceMsg;
+import de.haw.md.akka.main.msg.ResourcePriceVectorMsg;
+import de.haw.md.akka.main.msg.ShardEnvelope;
+import de.haw.md.akka.main.msg.SupplierSubscribeMsg;
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.akka.main.msg.TopicProbeMsg;
+import de.haw.md.akka.main.serialization.BinaryWriter;
+import de.haw.md.akka.main.serialization.MarketMsgSerializer;
+import de.haw.md.akka.main.serialization.MsgCodec;
+import de.haw.md.sups.ProductTypeEnum;
+import de.haw.md.sups.RegionPrices;
+import de.haw.md.sups.ResourceEnum;
+
+public class MarketMsgSerializerTest {
+
+	private static final int MOBILE_FACTORIES = 15;
+	private static final int ELECTRO_PART_FACTORIES = 7;
+	private static final int ITERATIONS = 200000;
+
+	private final MarketMsgSerializer serializer = new MarketMsgSerializer();
+
+	private final LocalDate date = new LocalDate(2016, 6, 1);
+
+	private final int tick = 42;
+
+	@Test
+	public void roundTripTest() {
+		for (Object msg : createTickMessages()) {
+			Object copy = serializer.fromBinary(serializer.toBinary(msg));
+			Assert.assertEquals(copy.toString(), msg.toString());
+		}
+		ResourceMsg resource = new ResourceMsg(ResourceEnum.OIL, date, new BigDecimal("42.03"));
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(resource)).toString(), resource.toString());
+		ResourceMsg negativeScale = new ResourceMsg(ResourceEnum.GOLD, new LocalDate(1969, 12, 31), new BigDecimal("-1.2E+3"));
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(negativeScale)).toString(), negativeScale.toString());
+		SupplierSubscribeMsg subscribe = new SupplierSubscribeMsg("Company_Mobile_0");
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(subscribe)).toString(), subscribe.toString());
+		EntityStartMsg start = new EntityStartMsg("Company_Mobile_0");
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(start)).toString(), start.toString());
+		ShardEnvelope envelope = new ShardEnvelope("Company_ElectroPart_0", subscribe);
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(envelope)).toString(), envelope.toString());
+		List<MarketResponseMsg> results = new ArrayList<>();
+		MarketShareMsg shares = null;
+		for (Object msg : createTickMessages()) {
+			if (msg instanceof MarketResponseMsg && ((MarketResponseMsg) msg).getType() == ProductTypeEnum.MOBILE_PHONE)
+				results.add((MarketResponseMsg) msg);
+			else if (msg instanceof MarketShareMsg)
+				shares = (MarketShareMsg) msg;
+		}
+		for (TickCompletedMsg completed : new TickCompletedMsg[] { new TickCompletedMsg(tick, date, results, shares),
+				new TickCompletedMsg(tick, date, new ArrayList<MarketResponseMsg>(), null) })
+			Assert.assertEquals(serializer.fromBinary(serializer.toBinary(completed)).toString(), completed.toString());
+		TopicProbeMsg probe = new TopicProbeMsg("MarketSim_Resources", "akka.tcp://ClusterSystem@127.0.0.1:2551", "");
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(probe)).toString(), probe.toString());
+		Map<String, Long> cents = new HashMap<>();
+		cents.put("Company_Mobile_0", 61235L);
+		cents.put("Company_Mobile_1", 0L);
+		RegionReportMsg report = new RegionReportMsg("Region_0", tick, results, RegionPrices.of(cents));
+		RegionReportMsg copy = (RegionReportMsg) serializer.fromBinary(serializer.toBinary(report));
+		Assert.assertEquals(copy.toString(), report.toString());
+		Assert.assertEquals(copy.getPrices().getCount(), 2);
+		Assert.assertEquals(copy.getPrices().getPrice(0), 61235L);
+		CheckpointMsg checkpoint = new CheckpointMsg("checkpoints/checkpoint-42.bin", tick);
+		Assert.assertEquals(serializer.fromBinary(serializer.toBinary(checkpoint)).toString(), checkpoint.toString());
+		CompanyStateMsg state = new CompanyStateMsg("Company_Mobile_0", tick, new BigDecimal("18000"), new BigDecimal("612.35"), date,
+				date.plusMonths(1), new BigDecimal("-1234.56"), 0);
+		CompanyStateMsg stateCopy = (CompanyStateMsg) serializer.fromBinary(serializer.toBinary(state));
+		Assert.assertEquals(stateCopy.getNextMonthTicker(), date.plusMonths(1));
+		Assert.assertEquals(stateCopy.getCompleteProfit(), new BigDecimal("-1234.56"));
+		CompanyStateMsg initial = new CompanyStateMsg("Company_Mobile_1", MarketMsg.NO_TICK, new BigDecimal("18000"), BigDecimal.ZERO, null, null,
+				BigDecimal.ZERO, 0);
+		Assert.assertNull(((CompanyStateMsg) serializer.fromBinary(serializer.toBinary(initial))).getDateTicker());
+	}
+
+	@Test
+	public void readVersionOneTest() {
+		BinaryWriter out = new BinaryWriter();
+		out.writeByte(1);
+		out.writeByte(MsgCodec.TAG_MARKET_RESPONSE);
+		out.writeString("Company_Mobile_0");
+		out.writeByte(ProductTypeEnum.MOBILE_PHONE.ordinal());
+		out.writeDate(date);
+		for (int i = 0; i < 4; i++)
+			out.writeDecimal(new BigDecimal("612.35"));
+		MarketResponseMsg mrm = (MarketResponseMsg) serializer.fromBinary(out.toByteArray());
+		Assert.assertEquals(mrm.getTick(), MarketMsg.NO_TICK);
+		Assert.assertEquals(mrm.getDate(), date);
+		Assert.assertEquals(mrm.getProductionCost(), new BigDecimal("612.35"));
+	}
+
+	@Test
+	public void enumCodeTest() {
+		// Die Kennungen stehen im Format und duerfen sich nicht verschieben
+		Assert.assertEquals(ResourceEnum.OIL.getCode(), 0);
+		Assert.assertEquals(ResourceEnum.ZINN.getCode(), 8);
+		Assert.assertEquals(ProductTypeEnum.MOBILE_PHONE.getCode(), 2);
+		for (ResourceEnum type : ResourceEnum.values())
+			Assert.assertSame(ResourceEnum.getByCode(type.getCode()), type);
+		for (ProductTypeEnum type : ProductTypeEnum.values())
+			Assert.assertSame(ProductTypeEnum.getByCode(type.getCode()), type);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unknownResourceCodeTest() {
+		BinaryWriter out = new BinaryWriter();
+		out.writeByte(MsgCodec.VERSION);
+		out.writeByte(MsgCodec.TAG_RESOURCE);
+		out.writeByte(ResourceEnum.values().length);
+		out.writeDate(date);
+		out.writeDecimal(new BigDecimal("42.03"));
+		serializer.fromBinary(out.toByteArray());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*got 1000000.*")
+	public void resourceVectorCountTest() {
+		BinaryWriter out = new BinaryWriter();
+		out.writeByte(MsgCodec.VERSION);
+		out.writeByte(MsgCodec.TAG_RESOURCE_VECTOR);
+		out.writeDate(date);
+		out.writeVarLong(1000000);
+		serializer.fromBinary(out.toByteArray());
+	}
+
+	@Test
+	public void bindingTest() {
+		ActorSystem system = ActorSystem.create("SerializationTest",
+				ConfigFactory.parseString("akka.actor.provider = \"akka.actor.LocalActorRefProvider\"").withFallback(ConfigFactory.load()));
+		try {
+			Serialization serialization = SerializationExtension.get(system);
+			for (Object msg : createTickMessages())
+				Assert.assertTrue(serialization.findSerializerFor(msg) instanceof MarketMsgSerializer);
+		} finally {
+			system.terminate();
+		}
+	}
+
+	@Test
+	public void bytesPerTickTest() throws IOException {
+		int binaryBytes = 0;
+		int jsonBytes = 0;
+		for (Object msg : createTickMessages()) {
+			binaryBytes += serializer.toBinary(msg).length;
+			jsonBytes += MsgModelMapper.toJson(msg).getBytes("UTF-8").length;
+		}
+		System.out.println("Bytes per tick - binary: " + binaryBytes + "\tjson: " + jsonBytes);
+		Assert.assertTrue(binaryBytes < jsonBytes);
+	}
+
+	@Test
+	public void nanosPerMessageTest() throws IOException {
+		List<Object> msgs = createTickMessages();
+		for (int run = 0; run < 2; run++) {
+			long sink = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				Object msg = msgs.get(i % msgs.size());
+				sink += serializer.fromBinary(serializer.toBinary(msg)).hashCode();
+			}
+			final long binaryNanos = (System.nanoTime() - start) / ITERATIONS;
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				Object msg = msgs.get(i % msgs.size());
+				sink += MsgModelMapper.fromJson(MsgModelMapper.toJson(msg)).hashCode();
+			}
+			final long jsonNanos = (System.nanoTime() - start) / ITERATIONS;
+			System.out.println("Round trip ns per message - binary: " + binaryNanos + "\tjson: " + jsonNanos + "\t(" + sink % 2 + ")");
+		}
+	}
+
+	private List<Object> createTickMessages() {
+		List<Object> msgs = new ArrayList<>();
+		BigDecimal[] prices = new BigDecimal[ResourceEnum.values().length];
+		for (ResourceEnum re : ResourceEnum.values())
+			prices[re.ordinal()] = new BigDecimal("1234.56");
+		msgs.add(new ResourcePriceVectorMsg(tick, date, prices));
+		msgs.add(new MarketResponseMsg("Company_Oil", ProductTypeEnum.PLASTIC, tick, date, new BigDecimal("0.85")));
+		for (int i = 0; i < ELECTRO_PART_FACTORIES; i++)
+			msgs.add(new MarketResponseMsg("Company_ElectroPart_" + i, ProductTypeEnum.ELECTRONIC_PART, tick, date, new BigDecimal("91.27")));
+		List<CompanyShareMsg> shares = new ArrayList<>();
+		for (int i = 0; i < MOBILE_FACTORIES; i++) {
+			msgs.add(new MarketResponseMsg("Company_Mobile_" + i, ProductTypeEnum.MOBILE_PHONE, tick, date, new BigDecimal("612.35"), new BigDecimal("21345"),
+					new BigDecimal("4834729.76"), new BigDecimal("309.42")));
+			shares.add(new CompanyShareMsg("Company_Mobile_" + i, new BigDecimal("18.20305364642000000000"), new BigDecimal("1820305")));
+		}
+		msgs.add(new MarketShareMsg(shares, tick, date));
+		return msgs;
+	}
+}
@@ -0,0 +1,49 @@
+package de.haw.md.metrics.test;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.metrics.Histogram;
+
+public class HistogramTest {
+
+	@Test
+	public void smallValuesTest() {
+		final Histogram histogram = new Histogram();
+		for (long v = 0; v < 8; v++)
+			histogram.record(v);
+		// Unter acht ist jedes Fach genau ein Wert
+		Assert.assertEquals(histogram.getCount(), 8);
+		Assert.assertEquals(histogram.getPercentile(50), 3);
+		Assert.assertEquals(histogram.getMax(), 7);
+		Assert.assertEquals(histogram.getMean(), 3.5, 1e-9);
+		histogram.record(-5);
+		Assert.assertEquals(histogram.getPercentile(0), 0);
+	}
+
+	@Test
+	public void percentileTest() {
+		final Histogram histogram = new Histogram();
+		for (long v = 1; v <= 100000; v++)
+			histogram.record(v * 1000);
+		Assert.assertEquals(histogram.getCount(), 100000);
+		Assert.assertEquals(histogram.getMax(), 100000000L);
+		final long median = histogram.getMedian();
+		final long p99 = histogram.get99thPercentile();
+		// Obergrenze des Fachs, hoechstens 12,5 % ueber dem Wert
+		Assert.assertTrue(median >= 50000000L && median <= 50000000L * 1.125, String.valueOf(median));
+		Assert.assertTrue(p99 >= 99000000L && p99 <= 100000000L, String.valueOf(p99));
+		Assert.assertEquals(histogram.getPercentile(100), histogram.getMax());
+	}
+
+	@Test
+	public void resetTest() {
+		final Histogram histogram = new Histogram();
+		histogram.record(Long.MAX_VALUE);
+		Assert.assertEquals(histogram.get99thPercentile(), Long.MAX_VALUE);
+		histogram.reset();
+		Assert.assertEquals(histogram.getCount(), 0);
+		Assert.assertEquals(histogram.getMedian(), 0);
+		Assert.assertEquals(histogram.getMax(), 0);
+	}
+}
@@ -11,17 +11,25 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 
-import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.haw.md.akka.main.msg.CompanyShareMsgModel;
+import de.haw.md.akka.main.msg.MarketResponseMsg;
 import de.haw.md.akka.main.msg.MarketResponseMsgModel;
+import de.haw.md.akka.main.msg.MsgModelMapper;
 import de.haw.md.akka.main.msg.ResourceMsgModel;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ProductTypeEnum;
 import de.haw.md.sups.ResourceCalc;
+import de.haw.md.sups.ResourceEnum;
 import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
 import de.haw.md.sups.StaticVariables;
 
 public class SimpleTest {
@@ -43,9 +51,9 @@ public class SimpleTest {
 	public void resourcesAllTest() {
 		Resources res = new Resources();
 		res.readAllPrices();
-		for (Map<DateTime, BigDecimal> ressourceElement : res.getListOfResources()) {
-			for (DateTime dateTime : res.sortKeyList(ressourceElement.keySet())) {
-				System.out.println("Time: " + dateTime.toString("dd.MM.yyyy") + "\tPrice: " + ressourceElement.get(dateTime));
+		for (PriceSeries ressourceElement : res.getListOfResources()) {
+			for (int i = 0; i < ressourceElement.size(); i++) {
+				System.out.println("Time: " + ressourceElement.getDate(i).toString("dd.MM.yyyy") + "\tPrice: " + ressourceElement.getValue(i));
 			}
 			System.out.println("=========================================================================");
 		}
@@ -56,10 +64,11 @@ public class SimpleTest {
 	public void resourcesAllNextTest() {
 		Resources res = new Resources();
 		res.readAllPrices();
+		final SplittableRandom random = SimulationRandom.getInstance().stream("resourcesAllNextTest");
 		System.out.println("=========================================================================");
-		for (Map<DateTime, BigDecimal> ressourceElement : res.getListOfResources()) {
+		for (PriceSeries ressourceElement : res.getListOfResources()) {
 			System.out.println("Before Price: " + ResourceCalc.getFinalCloseValue(ressourceElement));
-			System.out.println("After Price: " + ResourceCalc.nextRandomStockPrice(ressourceElement));
+			System.out.println("After Price: " + ResourceCalc.nextRandomStockPrice(ressourceElement, random.nextDouble()));
 			System.out.println("=========================================================================");
 		}
 
@@ -73,11 +82,11 @@ public class SimpleTest {
 				+ ResourceCalc.getFinalDate(res.getOilPrice()).toString(StaticVariables.DE_DATE_FORMATTER));
 		System.out.println("=========================================================================");
 		for (int i = 0; i < 100; i++) {
-			final DateTime newDate = ResourceCalc.getFinalDate(res.getOilPrice()).plusDays(1);
-			final BigDecimal newPrice = ResourceCalc.nextRandomStockPrice(res.getOilPrice());
+			final LocalDate newDate = ResourceCalc.getFinalDate(res.getOilPrice()).plusDays(1);
+			final BigDecimal newPrice = ResourceCalc.nextRandomStockPrice(res.getOilPrice(), res.nextRandom(ResourceEnum.OIL));
 			System.out.println("New Price: " + newPrice + "\tNew Date: " + newDate.toString(StaticVariables.DE_DATE_FORMATTER));
 			System.out.println("=========================================================================");
-			res.getOilPrice().put(newDate, newPrice);
+			res.appendPrice(ResourceEnum.OIL, newDate, newPrice);
 		}
 	}
 
@@ -85,11 +94,11 @@ public class SimpleTest {
 	public void mapToJson() {
 		Resources res = new Resources();
 		res.readAllPrices();
-		DateTime dateTime = res.sortKeyList(res.getOilPrice().keySet()).get(15);
+		LocalDate dateTime = res.getOilPrice().getDate(15);
 		ObjectMapper mapper = new ObjectMapper();
 		ResourceMsgModel rmm = new ResourceMsgModel();
 		rmm.setDate(dateTime.toString("dd.MM.yyyy"));
-		rmm.setValue(res.getOilPrice().get(dateTime).toString());
+		rmm.setValue(res.getOilPrice().getValue(dateTime).toString());
 		rmm.setType("Oil");
 		try {
 			String mapped = mapper.writeValueAsString(rmm);
@@ -134,4 +143,18 @@ public class SimpleTest {
 		System.out.println(getter.invoke(mrmm));
 	}
 
+	@Test
+	public void jsonEdgeFormatTest() throws IOException {
+		MarketResponseMsg mrm = new MarketResponseMsg("Company_Mobile_0", ProductTypeEnum.MOBILE_PHONE, 1, new LocalDate(2016, 6, 1), new BigDecimal("612.35"),
+				new BigDecimal("20000"), new BigDecimal("-12345.67"), new BigDecimal("431.10"));
+		final String json = MsgModelMapper.toJson(mrm);
+		System.out.println(json);
+		MarketResponseMsg parsed = (MarketResponseMsg) MsgModelMapper.fromJson(json);
+		Assert.assertEquals(parsed.getCompany(), mrm.getCompany());
+		Assert.assertEquals(parsed.getType(), mrm.getType());
+		Assert.assertEquals(parsed.getDate(), mrm.getDate());
+		Assert.assertEquals(parsed.getRevenue(), mrm.getRevenue());
+		Assert.assertEquals(parsed.getProfit(), mrm.getProfit());
+	}
+
 }
@@ -0,0 +1,77 @@
+package de.haw.md.simulation.test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import de.haw.md.akka.main.msg.TickCompletedMsg;
+import de.haw.md.simulation.EnsembleRunner;
+import de.haw.md.simulation.EnsembleSummary;
+import de.haw.md.simulation.SimulationEngine;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+public class EnsembleRunnerTest {
+
+	private static final int TICKS = 40;
+	private static final int COMPANIES = 4;
+
+	private final LocalDate start = new LocalDate(2016, 3, 1);
+
+	private Resources history;
+
+	@BeforeClass
+	public void readHistory() {
+		history = new Resources();
+		history.readHistory();
+	}
+
+	@Test
+	public void sameSeedTest() {
+		final SimulationEngine first = engine(4711);
+		final SimulationEngine second = engine(4711);
+		for (int i = 0; i < TICKS; i++) {
+			final TickCompletedMsg expected = first.tick();
+			final TickCompletedMsg actual = second.tick();
+			Assert.assertEquals(actual.getDate(), start.plusDays(i + 1));
+			Assert.assertEquals(actual.getResults().toString(), expected.getResults().toString());
+			Assert.assertEquals(actual.getShares().toString(), expected.getShares().toString());
+		}
+		final SimulationEngine same = engine(4711);
+		final SimulationEngine other = engine(4712);
+		same.tick();
+		other.tick();
+		Assert.assertNotEquals(other.getPrice(ResourceEnum.OIL), same.getPrice(ResourceEnum.OIL));
+		// die Historie bleibt fuer weitere Laeufe unveraendert
+		Assert.assertEquals(history.getStatistics(ResourceEnum.OIL).getLastPrice(), history.getOilPrice().getValue(history.getOilPrice().size() - 1));
+	}
+
+	@Test
+	public void threadsTest() {
+		final EnsembleRunner runner = new EnsembleRunner(history, SimulationRandom.withSeed(42), 2, COMPANIES, TICKS, CostModeEnum.BIG_DECIMAL,
+				PriceModeEnum.DOUBLE, start);
+		final EnsembleSummary sequential = runner.run(12, new ForkJoinPool(1));
+		final EnsembleSummary parallel = runner.run(12, new ForkJoinPool(4));
+		Assert.assertEquals(parallel.getRuns(), 12);
+		Assert.assertEquals(parallel.getProfit().getCount(), 12 * COMPANIES);
+		for (double q : new double[] { 0.05, 0.5, 0.95 }) {
+			Assert.assertEquals(parallel.getProfit().getQuantile(q), sequential.getProfit().getQuantile(q));
+			Assert.assertEquals(parallel.getShare().getQuantile(q), sequential.getShare().getQuantile(q));
+			for (int i = 0; i < COMPANIES; i++)
+				Assert.assertEquals(parallel.getProfit(i).getQuantile(q), sequential.getProfit(i).getQuantile(q));
+			Assert.assertEquals(parallel.getPrice(ResourceEnum.GOLD, TICKS).getQuantile(q), sequential.getPrice(ResourceEnum.GOLD, TICKS).getQuantile(q));
+		}
+		Assert.assertEquals(parallel.getExitTick().getCount(), sequential.getExitTick().getCount());
+		Assert.assertEquals(parallel.getPrice(ResourceEnum.OIL, 1).getCount(), 12);
+	}
+
+	private SimulationEngine engine(long seed) {
+		return new SimulationEngine(history, SimulationRandom.withSeed(seed), 2, COMPANIES, CostModeEnum.BIG_DECIMAL, PriceModeEnum.DOUBLE, start);
+	}
+}
@@ -0,0 +1,88 @@
+package de.haw.md.simulation.test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.simulation.ParameterSweep;
+import de.haw.md.simulation.SweepDesignEnum;
+import de.haw.md.simulation.SweepResult;
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.Resources;
+import de.haw.md.sups.SimulationRandom;
+
+public class ParameterSweepTest {
+
+	@Test
+	public void gridTest() {
+		final double[][] points = SweepDesignEnum.GRID.createPoints(3, 4, null);
+		Assert.assertEquals(points.length, 64);
+		Assert.assertEquals(points[0], new double[] { 0, 0, 0 });
+		Assert.assertEquals(points[63], new double[] { 1, 1, 1 });
+		Assert.assertEquals(points[1][2], 1.0 / 3, 1e-12);
+		Assert.assertEquals(points[4][1], 1.0 / 3, 1e-12);
+	}
+
+	@Test
+	public void latinHypercubeTest() {
+		final int size = 50;
+		final double[][] points = SweepDesignEnum.LATIN_HYPERCUBE.createPoints(8, size, new SplittableRandom(4711));
+		for (int d = 0; d < 8; d++) {
+			final boolean[] hit = new boolean[size];
+			for (double[] point : points)
+				hit[(int) (point[d] * size)] = true;
+			for (int i = 0; i < size; i++)
+				Assert.assertTrue(hit[i], "dimension " + d + ", stratum " + i);
+		}
+	}
+
+	@Test
+	public void sobolTest() {
+		final double[][] points = SweepDesignEnum.SOBOL.createPoints(SweepDesignEnum.MAX_SOBOL_DIMENSIONS, 256, null);
+		Assert.assertEquals(points[1][0], 0.5);
+		Assert.assertEquals(points[2][0], 0.75);
+		Assert.assertEquals(points[3][0], 0.25);
+		Assert.assertEquals(points[2][1], 0.25);
+		Assert.assertEquals(points[3][1], 0.75);
+		// die ersten 2^k Punkte treffen jedes Intervall der Breite 2^-k genau einmal
+		for (int d = 0; d < SweepDesignEnum.MAX_SOBOL_DIMENSIONS; d++) {
+			final int[] hits = new int[256];
+			for (double[] point : points)
+				hits[(int) (point[d] * 256)]++;
+			for (int i = 0; i < 256; i++)
+				Assert.assertEquals(hits[i], 1, "dimension " + d + ", interval " + i);
+		}
+	}
+
+	@Test
+	public void sweepTest() {
+		final Resources history = new Resources();
+		history.readHistory();
+		final ParameterSweep sweep = new ParameterSweep(history, SimulationRandom.withSeed(42), 2, 3, 30, CostModeEnum.BIG_DECIMAL, PriceModeEnum.DOUBLE,
+				new LocalDate(2016, 3, 1));
+		final List<CompanyValuesEnum> parameters = Arrays.asList(CompanyValuesEnum.BONUS, CompanyValuesEnum.PRODUCTION_LINES);
+		final List<Map<CompanyValuesEnum, BigDecimal>> points = sweep.createPoints(SweepDesignEnum.GRID, parameters, 2);
+		Assert.assertEquals(points.get(0).get(CompanyValuesEnum.BONUS), CompanyValuesEnum.BONUS.getMin().setScale(2));
+		Assert.assertEquals(points.get(3).get(CompanyValuesEnum.PRODUCTION_LINES), CompanyValuesEnum.PRODUCTION_LINES.getMax());
+		final List<SweepResult> sequential = sweep.run(points, 2, new ForkJoinPool(1));
+		final List<SweepResult> parallel = sweep.run(points, 2, new ForkJoinPool(3));
+		Assert.assertEquals(parallel.size(), 4);
+		for (int i = 0; i < 4; i++) {
+			Assert.assertEquals(parallel.get(i).getPoint(), i);
+			Assert.assertEquals(parallel.get(i).getValues(), points.get(i));
+			Assert.assertEquals(parallel.get(i).getMeanProfit(), sequential.get(i).getMeanProfit());
+			Assert.assertEquals(parallel.get(i).getProfit(0.5), sequential.get(i).getProfit(0.5));
+		}
+		// hoeherer Bonus, hoeherer Preis: mit denselben Zufallszahlen mehr Gewinn
+		Assert.assertTrue(parallel.get(2).getMeanProfit() > parallel.get(0).getMeanProfit());
+	}
+}
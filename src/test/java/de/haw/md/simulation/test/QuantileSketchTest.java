@@ -0,0 +1,69 @@
+package de.haw.md.simulation.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.simulation.QuantileSketch;
+
+public class QuantileSketchTest {
+
+	private static final double[] QUANTILES = { 0, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 1 };
+
+	@Test
+	public void accuracyTest() {
+		// Gewinne koennen negativ sein, daher Werte auf beiden Seiten der 0
+		final Random random = new Random(4711);
+		final double[] values = new double[20000];
+		final QuantileSketch sketch = new QuantileSketch();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i % 100 == 0 ? 0 : Math.exp(random.nextGaussian() * 3) * (random.nextInt(4) == 0 ? -1 : 1) * 1e6;
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+		Assert.assertEquals(sketch.getCount(), values.length);
+		Assert.assertEquals(sketch.getMin(), values[0]);
+		Assert.assertEquals(sketch.getMax(), values[values.length - 1]);
+		for (double q : QUANTILES) {
+			final double expected = values[(int) (q * (values.length - 1))];
+			Assert.assertEquals(sketch.getQuantile(q), expected, Math.abs(expected) * sketch.getRelativeAccuracy() + 1e-9, "q " + q);
+		}
+	}
+
+	@Test
+	public void mergeTest() {
+		final Random random = new Random(42);
+		final QuantileSketch all = new QuantileSketch();
+		final QuantileSketch first = new QuantileSketch();
+		final QuantileSketch second = new QuantileSketch();
+		for (int i = 0; i < 5000; i++) {
+			// die zweite Haelfte liegt in einem anderen Bereich, die Eimer muessen wachsen
+			final double value = i < 2500 ? random.nextDouble() * 10 : 1e4 + random.nextDouble() * 1e6;
+			all.add(value);
+			(i % 3 == 0 ? first : second).add(value);
+		}
+		first.merge(second);
+		Assert.assertEquals(first.getCount(), all.getCount());
+		Assert.assertEquals(first.getMin(), all.getMin());
+		Assert.assertEquals(first.getMax(), all.getMax());
+		for (double q : QUANTILES)
+			Assert.assertEquals(first.getQuantile(q), all.getQuantile(q), "q " + q);
+	}
+
+	@Test
+	public void emptyTest() {
+		final QuantileSketch sketch = new QuantileSketch();
+		Assert.assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+		sketch.merge(new QuantileSketch());
+		Assert.assertEquals(sketch.getCount(), 0);
+		sketch.add(3);
+		Assert.assertEquals(sketch.getQuantile(0.5), 3.0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void differentAccuracyTest() {
+		new QuantileSketch(0.01).merge(new QuantileSketch(0.02));
+	}
+}
@@ -0,0 +1,162 @@
+package de.haw.md.sups.test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.CostModeEnum;
+import de.haw.md.sups.ElectrPartCostCalc;
+import de.haw.md.sups.FixedPoint;
+import de.haw.md.sups.MaterialEnum;
+import de.haw.md.sups.MobileCostCalc;
+import de.haw.md.sups.ProdCostCalc;
+import de.haw.md.sups.ResourceEnum;
+
+public class CostCalcTest {
+
+	private static final int RUNS = 2000;
+
+	private static final BigDecimal CENT = new BigDecimal("0.01");
+
+	private static final RoundingMode[] MODES = { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR, RoundingMode.HALF_UP,
+			RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN };
+
+	private final Random random = new Random(4711);
+
+	@Test
+	public void fixedPointRoundingTest() {
+		for (int i = 0; i < RUNS * 10; i++) {
+			final BigDecimal a = randomDecimal(-100000, 100000, random.nextInt(5));
+			final BigDecimal b = randomDecimal(-1000, 1000, random.nextInt(5));
+			if (b.signum() == 0)
+				continue;
+			for (RoundingMode mode : MODES) {
+				final int digits = random.nextInt(FixedPoint.DIGITS + 1);
+				Assert.assertEquals(FixedPoint.toBigDecimal(FixedPoint.divide(FixedPoint.fromBigDecimal(a), FixedPoint.fromBigDecimal(b), digits, mode), digits),
+						a.divide(b, digits, mode), a + " / " + b + " " + mode);
+				Assert.assertEquals(
+						FixedPoint.toBigDecimal(FixedPoint.multiply(FixedPoint.fromBigDecimal(a), FixedPoint.fromBigDecimal(b), digits, mode), digits),
+						a.multiply(b).setScale(digits, mode), a + " * " + b + " " + mode);
+			}
+		}
+	}
+
+	@Test(expectedExceptions = ArithmeticException.class)
+	public void fixedPointOverflowTest() {
+		FixedPoint.multiply(FixedPoint.fromBigDecimal(new BigDecimal("90000000000")), FixedPoint.fromBigDecimal(new BigDecimal("1000.5")),
+				FixedPoint.DIGITS, RoundingMode.HALF_UP);
+	}
+
+	@Test
+	public void electrPartEquivalenceTest() {
+		for (int i = 0; i < RUNS; i++) {
+			final BigDecimal costManHour = randomDecimal(15, 30, 2);
+			final BigDecimal fixCost = randomDecimal(1.2, 1.3, 2);
+			final BigDecimal prodManHour = randomDecimal(1.2, 1.7, 2);
+			final BigDecimal bonus = randomDecimal(1.6, 1.9, 2);
+			final ElectrPartCostCalc reference = new ElectrPartCostCalc(CostModeEnum.BIG_DECIMAL, costManHour, prodManHour, fixCost, bonus);
+			final ElectrPartCostCalc fixed = new ElectrPartCostCalc(CostModeEnum.FIXED_POINT, costManHour, prodManHour, fixCost, bonus);
+			setRandomPrices(reference, fixed);
+			Assert.assertEquals(fixed.calculateQuote(), reference.calculateQuote());
+		}
+	}
+
+	@Test
+	public void mobileEquivalenceTest() {
+		for (int i = 0; i < RUNS; i++) {
+			final BigDecimal costManHour = randomDecimal(20, 40, 0);
+			final BigDecimal prodManHour = randomDecimal(2, 4, 2);
+			final BigDecimal bonus = randomDecimal(1.6, 1.9, 2);
+			final BigDecimal supDiscount = randomDecimal(1.1, 1.3, 2);
+			final BigDecimal fixCost = randomDecimal(5000000, 7000000, 2);
+			final BigDecimal productionLines = randomDecimal(4, 7, 0);
+			final BigDecimal productionLineCapacity = randomDecimal(3000, 4000, 0);
+			final MobileCostCalc reference = new MobileCostCalc(CostModeEnum.BIG_DECIMAL, costManHour, prodManHour, bonus, supDiscount, fixCost,
+					productionLines, productionLineCapacity);
+			final MobileCostCalc fixed = new MobileCostCalc(CostModeEnum.FIXED_POINT, costManHour, prodManHour, bonus, supDiscount, fixCost, productionLines,
+					productionLineCapacity);
+			setRandomPrices(reference, fixed);
+			final BigDecimal electronicPartPrice = randomDecimal(5, 15, 2);
+			reference.setElectronicPartPrice(electronicPartPrice);
+			fixed.setElectronicPartPrice(electronicPartPrice);
+			final BigDecimal shareVolume = randomDecimal(1000, 40000, 0);
+
+			final BigDecimal prodPrice = reference.calculateProdPrice(shareVolume);
+			Assert.assertEquals(fixed.calculateProdPrice(shareVolume).compareTo(prodPrice), 0);
+			Assert.assertEquals(fixed.getSelledProducts(), reference.getSelledProducts());
+
+			// Preis unter den Stueckkosten erzwingt die Preisanpassung
+			final BigDecimal basisPrice = prodPrice.multiply(randomDecimal(0.5, 1.5, 2));
+			final BigDecimal referencePrice = reference.recalculatePrice(basisPrice, shareVolume);
+			final BigDecimal fixedPrice = fixed.recalculatePrice(basisPrice, shareVolume);
+			Assert.assertEquals(fixed.getProdPrice().compareTo(reference.getProdPrice()), 0);
+			Assert.assertEquals(fixed.getSelledProducts(), reference.getSelledProducts());
+			Assert.assertEquals(fixedPrice.signum(), referencePrice.signum());
+			Assert.assertTrue(fixedPrice.subtract(referencePrice).abs().compareTo(new BigDecimal("0.00000001")) <= 0);
+			if (referencePrice.signum() > 0) {
+				final BigDecimal referenceProfit = referencePrice.subtract(reference.getProdPrice()).multiply(reference.getSelledProducts())
+						.setScale(2, RoundingMode.HALF_UP);
+				final BigDecimal fixedProfit = fixedPrice.subtract(fixed.getProdPrice()).multiply(fixed.getSelledProducts()).setScale(2, RoundingMode.HALF_UP);
+				Assert.assertTrue(fixedProfit.subtract(referenceProfit).abs().compareTo(CENT) <= 0, fixedProfit + " / " + referenceProfit);
+			}
+		}
+	}
+
+	@Test
+	public void incrementalUpdateTest() {
+		for (CostModeEnum mode : CostModeEnum.values()) {
+			final ElectrPartCostCalc incremental = createElectrPartCalc(mode);
+			final BigDecimal[] prices = new BigDecimal[MaterialEnum.values().length];
+			for (MaterialEnum me : MaterialEnum.values()) {
+				Assert.assertFalse(incremental.pricesNotNull());
+				prices[me.ordinal()] = randomDecimal(1, 20000, 2);
+				incremental.setMaterialPrice(me, prices[me.ordinal()]);
+			}
+			for (int i = 0; i < RUNS; i++) {
+				final MaterialEnum changed = MaterialEnum.values()[random.nextInt(prices.length)];
+				prices[changed.ordinal()] = i % 10 == 0 ? null : randomDecimal(1, 20000, random.nextInt(4));
+				incremental.setMaterialPrice(changed, prices[changed.ordinal()]);
+				final ElectrPartCostCalc fresh = createElectrPartCalc(mode);
+				for (MaterialEnum me : MaterialEnum.values())
+					fresh.setMaterialPrice(me, prices[me.ordinal()]);
+				Assert.assertEquals(incremental.pricesNotNull(), fresh.pricesNotNull());
+				if (!fresh.pricesNotNull()) {
+					prices[changed.ordinal()] = new BigDecimal("42.00");
+					incremental.setMaterialPrice(changed, prices[changed.ordinal()]);
+					fresh.setMaterialPrice(changed, prices[changed.ordinal()]);
+				}
+				Assert.assertEquals(incremental.calculateQuote(), fresh.calculateQuote(), mode + " after " + changed);
+			}
+		}
+	}
+
+	private ElectrPartCostCalc createElectrPartCalc(CostModeEnum mode) {
+		return new ElectrPartCostCalc(mode, new BigDecimal("22.50"), new BigDecimal("1.45"), new BigDecimal("1.25"), new BigDecimal("1.75"));
+	}
+
+	private void setRandomPrices(ProdCostCalc reference, ProdCostCalc fixed) {
+		final BigDecimal plasticPrice = randomDecimal(0.8, 1.2, 2);
+		reference.setPlasticPrice(plasticPrice);
+		fixed.setPlasticPrice(plasticPrice);
+		setPrice(reference, fixed, ResourceEnum.KUPFER, randomDecimal(4000, 7000, 2));
+		setPrice(reference, fixed, ResourceEnum.ALUMINIUM, randomDecimal(1500, 2000, 2));
+		setPrice(reference, fixed, ResourceEnum.NICKEL, randomDecimal(8000, 15000, 2));
+		setPrice(reference, fixed, ResourceEnum.ZINN, randomDecimal(15000, 20000, 2));
+		setPrice(reference, fixed, ResourceEnum.GOLD, randomDecimal(1000, 1400, 2));
+		setPrice(reference, fixed, ResourceEnum.SILBER, randomDecimal(14, 20, 2));
+		setPrice(reference, fixed, ResourceEnum.PLATIN, randomDecimal(800, 1100, 2));
+		setPrice(reference, fixed, ResourceEnum.PALLADIUM, randomDecimal(500, 800, 2));
+	}
+
+	private void setPrice(ProdCostCalc reference, ProdCostCalc fixed, ResourceEnum resource, BigDecimal price) {
+		reference.setResourcePrice(resource, price);
+		fixed.setResourcePrice(resource, price);
+	}
+
+	private BigDecimal randomDecimal(double min, double max, int scale) {
+		return new BigDecimal(min + random.nextDouble() * (max - min)).setScale(scale, RoundingMode.HALF_UP);
+	}
+}
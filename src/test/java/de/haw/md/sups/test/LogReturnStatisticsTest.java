@@ -0,0 +1,69 @@
+package de.haw.md.sups.test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.LogReturnStatistics;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ResourceCalc;
+
+public class LogReturnStatisticsTest {
+
+	private static final int PRICES = 300;
+	private static final int WINDOW = 30;
+
+	private final Random random = new Random(4711);
+
+	@Test
+	public void matchesFullHistoryTest() {
+		final PriceSeries history = new PriceSeries();
+		final LogReturnStatistics statistics = new LogReturnStatistics();
+		LocalDate date = new LocalDate(2016, 1, 1);
+		for (BigDecimal price : randomWalk(PRICES)) {
+			history.append(date, price);
+			statistics.add(price);
+			date = date.plusDays(1);
+			if (history.size() > 1 && history.size() % 50 == 0) {
+				// Die Referenz rundet die Verhaeltnisse auf 10 Stellen
+				final BigDecimal[] expected = ResourceCalc.stockAnalysis(history, history.size() - 1);
+				final BigDecimal[] actual = ResourceCalc.stockAnalysis(statistics);
+				for (int i = 0; i < expected.length; i++)
+					Assert.assertEquals(actual[i].doubleValue(), expected[i].doubleValue(), 1e-7, "after " + history.size() + " prices");
+			}
+		}
+		Assert.assertEquals(statistics.getCount(), PRICES - 1);
+		Assert.assertEquals(statistics.getLastPrice(), ResourceCalc.getFinalCloseValue(history));
+	}
+
+	@Test
+	public void slidingWindowTest() {
+		final List<BigDecimal> prices = randomWalk(PRICES);
+		final LogReturnStatistics windowed = new LogReturnStatistics(WINDOW);
+		for (int i = 0; i < prices.size(); i++) {
+			windowed.add(prices.get(i));
+			final LogReturnStatistics fresh = new LogReturnStatistics();
+			for (int j = Math.max(0, i - WINDOW); j <= i; j++)
+				fresh.add(prices.get(j));
+			Assert.assertEquals(windowed.getCount(), fresh.getCount());
+			Assert.assertEquals(windowed.getAverage(), fresh.getAverage(), 1e-12);
+			Assert.assertEquals(windowed.getDeviation(), fresh.getDeviation(), 1e-9);
+		}
+	}
+
+	private List<BigDecimal> randomWalk(int size) {
+		List<BigDecimal> prices = new ArrayList<>();
+		double price = 1000;
+		for (int i = 0; i < size; i++) {
+			price *= Math.exp(random.nextGaussian() * 0.02);
+			prices.add(new BigDecimal(price).setScale(2, RoundingMode.HALF_UP));
+		}
+		return prices;
+	}
+}
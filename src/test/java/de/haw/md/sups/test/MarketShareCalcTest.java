@@ -0,0 +1,145 @@
+package de.haw.md.sups.test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.akka.main.msg.CompanyShareMsg;
+import de.haw.md.sups.MarketShareCalc;
+import de.haw.md.sups.MarketShareTable;
+import de.haw.md.sups.RegionPrices;
+import de.haw.md.sups.StaticVariables;
+
+public class MarketShareCalcTest {
+
+	@Test
+	public void bigDecimalTest() {
+		final Random random = new Random(4711);
+		for (int companies : new int[] { 1, 2, 3, 4, 15, 100, 1000 }) {
+			final Map<String, BigDecimal> prices = new LinkedHashMap<>();
+			for (int i = 0; i < companies; i++) {
+				// Auch gleiche Preise und ausgeschiedene Unternehmen
+				final int cents = random.nextInt(10) == 0 ? 0 : 10000 + random.nextInt(companies < 100 ? 5 : 90000);
+				prices.put("Company_Mobile_" + i, BigDecimal.valueOf(cents, 2));
+			}
+			for (BigDecimal marketVolume : new BigDecimal[] { StaticVariables.MARKET_VOLUME, new BigDecimal("333333") })
+				assertShares(MarketShareCalc.calculateShares(prices, marketVolume), calculateSharesBigDecimal(prices, marketVolume));
+		}
+	}
+
+	@Test
+	public void highPriceTest() {
+		final Map<String, BigDecimal> prices = new LinkedHashMap<>();
+		prices.put("Company_Mobile_0", new BigDecimal("98765432.10"));
+		prices.put("Company_Mobile_1", new BigDecimal("12345.67"));
+		prices.put("Company_Mobile_2", new BigDecimal("0.01"));
+		assertShares(MarketShareCalc.calculateShares(prices, StaticVariables.MARKET_VOLUME), calculateSharesBigDecimal(prices,
+				StaticVariables.MARKET_VOLUME));
+	}
+
+	@Test
+	public void regionTest() {
+		final Random random = new Random(4712);
+		for (int regions : new int[] { 1, 3, 8 }) {
+			final Map<String, BigDecimal> prices = new LinkedHashMap<>();
+			final List<Map<String, Long>> regionCents = new ArrayList<>();
+			for (int r = 0; r < regions; r++)
+				regionCents.add(new HashMap<String, Long>());
+			// Nach Namen eingetragen wie beim ersten Tick des Marktes, auch
+			// gleiche Preise ueber Regionsgrenzen
+			final List<String> companies = new ArrayList<>();
+			for (int i = 0; i < 200; i++)
+				companies.add("Company_Mobile_" + i);
+			Collections.sort(companies);
+			for (String company : companies) {
+				final int cents = random.nextInt(10) == 0 ? 0 : 10000 + random.nextInt(20);
+				prices.put(company, BigDecimal.valueOf(cents, 2));
+				regionCents.get(random.nextInt(regions)).put(company, (long) cents);
+			}
+			final List<RegionPrices> regionPrices = new ArrayList<>();
+			for (Map<String, Long> cents : regionCents)
+				regionPrices.add(RegionPrices.of(cents));
+			assertShares(MarketShareCalc.calculateShares(regionPrices, StaticVariables.MARKET_VOLUME.longValueExact()), MarketShareCalc.calculateShares(
+					prices, StaticVariables.MARKET_VOLUME));
+		}
+		Assert.assertTrue(MarketShareCalc.calculateShares(Collections.singletonList(RegionPrices.EMPTY), 1000).isEmpty());
+	}
+
+	@Test
+	public void ownShareTest() {
+		final MarketShareTable table = new MarketShareTable();
+		Assert.assertFalse(table.hasShares());
+		table.put("Company_Mobile_0", new BigDecimal("300.00"));
+		table.put("Company_Mobile_1", new BigDecimal("100.00"));
+		table.put("Company_Mobile_2", BigDecimal.ZERO);
+		table.calculate(StaticVariables.MARKET_VOLUME);
+		Assert.assertTrue(table.hasShares());
+		Assert.assertNull(table.getShare("Company_Mobile_2"));
+		Assert.assertNull(table.getShare("Company_Mobile_3"));
+		// Der hoehere Preis erhaelt den kleineren Anteil
+		final CompanyShareMsg expensive = table.getShare("Company_Mobile_0");
+		final CompanyShareMsg cheap = table.getShare("Company_Mobile_1");
+		Assert.assertTrue(expensive.getShareValue().compareTo(cheap.getShareValue()) < 0);
+		Assert.assertEquals(table.getShares().get(0).getCompany(), "Company_Mobile_0");
+		Assert.assertEquals(table.getShares().size(), 2);
+		// Fix 30 / 3 = 10, variabel 70 * 25% bzw. 70 * 75%
+		Assert.assertEquals(expensive.getShareValue().compareTo(new BigDecimal("27.5")), 0);
+		Assert.assertEquals(cheap.getShareValue().compareTo(new BigDecimal("62.5")), 0);
+		Assert.assertEquals(cheap.getShareVolume(), new BigDecimal("6250000"));
+		table.put("Company_Mobile_0", BigDecimal.ZERO);
+		table.put("Company_Mobile_1", BigDecimal.ZERO);
+		table.calculate(StaticVariables.MARKET_VOLUME);
+		Assert.assertFalse(table.hasShares());
+	}
+
+	private static void assertShares(List<CompanyShareMsg> actual, List<CompanyShareMsg> expected) {
+		Assert.assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(actual.get(i).getCompany(), expected.get(i).getCompany());
+			Assert.assertEquals(actual.get(i).getShareValue(), expected.get(i).getShareValue(), expected.get(i).getCompany());
+			Assert.assertEquals(actual.get(i).getShareVolume(), expected.get(i).getShareVolume(), expected.get(i).getCompany());
+		}
+	}
+
+	/**
+	 * Die fruehere Rechnung von Market.generateShares mit BigDecimal als
+	 * Referenz.
+	 */
+	private static List<CompanyShareMsg> calculateSharesBigDecimal(Map<String, BigDecimal> companyMarketPrices, BigDecimal marketVolume) {
+		BigDecimal fixedMarketSharePerCompany = StaticVariables.FIXED_MARKET_SHARE.divide(new BigDecimal(companyMarketPrices.size()), RoundingMode.HALF_DOWN);
+		BigDecimal sumPrice = BigDecimal.ZERO;
+		BigDecimal variableShare = StaticVariables.HUNDRED.subtract(StaticVariables.FIXED_MARKET_SHARE);
+		List<CompanyShareMsg> companyShares = new ArrayList<>();
+		for (String company : companyMarketPrices.keySet())
+			sumPrice = sumPrice.add(companyMarketPrices.get(company));
+		for (String company : companyMarketPrices.keySet()) {
+			if (companyMarketPrices.get(company).compareTo(BigDecimal.ZERO) != 0) {
+				BigDecimal sumPriceOnePercent = sumPrice.divide(StaticVariables.HUNDRED, 10, RoundingMode.HALF_DOWN);
+				BigDecimal percentPerPrice = companyMarketPrices.get(company).divide(sumPriceOnePercent, 10, RoundingMode.HALF_DOWN);
+				BigDecimal variableShareOnePercent = variableShare.divide(StaticVariables.HUNDRED, 10, RoundingMode.HALF_DOWN);
+				BigDecimal variableSharePerComp = percentPerPrice.multiply(variableShareOnePercent);
+				companyShares.add(new CompanyShareMsg(company, fixedMarketSharePerCompany.add(variableSharePerComp), BigDecimal.ZERO));
+			}
+		}
+		Collections.sort(companyShares);
+		CompanyShareMsg[] csmArray = companyShares.toArray(new CompanyShareMsg[companyShares.size()]);
+		Arrays.sort(csmArray, Collections.reverseOrder());
+		List<CompanyShareMsg> result = new ArrayList<>();
+		for (int i = 0; i < csmArray.length; i++) {
+			final BigDecimal shareValue = companyShares.get(i).getShareValue();
+			result.add(new CompanyShareMsg(csmArray[i].getCompany(), shareValue, marketVolume.divide(StaticVariables.HUNDRED, RoundingMode.HALF_DOWN)
+					.multiply(shareValue).setScale(0, RoundingMode.HALF_DOWN)));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,78 @@
+package de.haw.md.sups.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.CommodityCatalog;
+import de.haw.md.sups.PriceFile;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.Resources;
+
+public class PriceFileTest {
+
+	@Test
+	public void roundTripTest() throws IOException {
+		final File file = writePriceFile();
+		final Resources csv = new Resources();
+		csv.readCsvPrices();
+		final Resources binary = new Resources();
+		Assert.assertTrue(binary.readPriceFile(file));
+		for (ResourceEnum type : ResourceEnum.values()) {
+			final PriceSeries expected = csv.getPrice(type);
+			final PriceSeries actual = binary.getPrice(type);
+			Assert.assertEquals(actual.size(), expected.size(), type.getName());
+			for (int i = 0; i < expected.size(); i++) {
+				Assert.assertEquals(actual.getDate(i), expected.getDate(i));
+				Assert.assertEquals(actual.getValue(i), expected.getValue(i));
+			}
+			Assert.assertEquals(actual.indexOf(expected.getDate(expected.size() / 2)), expected.size() / 2);
+		}
+	}
+
+	@Test
+	public void appendAfterMappedHistoryTest() throws IOException {
+		final Resources binary = new Resources();
+		Assert.assertTrue(binary.readPriceFile(writePriceFile()));
+		final PriceSeries gold = binary.getGoldPrice();
+		final int size = gold.size();
+		final BigDecimal last = gold.getLastValue();
+		for (int i = 1; i <= 300; i++)
+			gold.append(gold.getLastDate().plusDays(1), new BigDecimal(i));
+		Assert.assertEquals(gold.size(), size + 300);
+		Assert.assertEquals(gold.getValue(size - 1), last);
+		Assert.assertEquals(gold.getLastValue(), new BigDecimal(300));
+		Assert.assertEquals(gold.indexOf(gold.getDate(size)), size);
+		Assert.assertEquals(gold.subSeries(size - 1, size + 1).getValue(1), BigDecimal.ONE);
+	}
+
+	@Test
+	public void staleFileTest() throws IOException {
+		final File file = writePriceFile();
+		// Pruefsumme der ersten Kursdatei verfaelschen
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			final long position = 16 + 2 + "Oil".length() + 4;
+			raf.seek(position);
+			final long checksum = raf.readLong();
+			raf.seek(position);
+			raf.writeLong(checksum + 1);
+		}
+		Assert.assertNull(PriceFile.read(file, CommodityCatalog.getDefault()));
+		Assert.assertFalse(new Resources().readPriceFile(file));
+		Assert.assertFalse(new Resources().readPriceFile(new File(file.getPath() + ".missing")));
+	}
+
+	private File writePriceFile() throws IOException {
+		final Resources resources = new Resources();
+		resources.readCsvPrices();
+		final File file = File.createTempFile("prices", ".bin");
+		file.deleteOnExit();
+		PriceFile.write(file, resources);
+		return file;
+	}
+}
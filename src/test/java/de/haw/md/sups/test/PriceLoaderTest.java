@@ -0,0 +1,89 @@
+package de.haw.md.sups.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.Commodity;
+import de.haw.md.sups.CommodityCatalog;
+import de.haw.md.sups.CurrencyEnum;
+import de.haw.md.sups.PriceLoader;
+import de.haw.md.sups.PriceSeries;
+import de.haw.md.sups.ResourceEnum;
+
+public class PriceLoaderTest {
+
+	private final LocalDate start = new LocalDate(2016, 3, 1);
+
+	@Test
+	public void unsortedFileTest() throws IOException {
+		// unsortiert, doppelter Tag, Luecken am Anfang, in der Mitte und am Ende
+		final File file = writeCsv("Datum,Schlusskurs", "03.03.2016,12.00", "01.03.2016,0", "02.03.2016,10.00", "05.03.2016,.", "04.03.2016,11.00",
+				"04.03.2016,13.00", "06.03.2016,16.10", "07.03.2016,0");
+		final PriceSeries series = PriceLoader.load(new Commodity("Test", file.getPath(), "dd.MM.yyyy", CurrencyEnum.EUR, "t"));
+		Assert.assertEquals(series.size(), 7);
+		for (int i = 0; i < series.size(); i++)
+			Assert.assertEquals(series.getDate(i), start.plusDays(i));
+		Assert.assertEquals(values(series), Arrays.asList("10.00", "10.00", "12.00", "13.00", "14.55", "16.10", "16.10"));
+	}
+
+	@Test
+	public void intradayAndCurrencyTest() throws IOException {
+		final File file = writeCsv("DATE,VALUE", "2016-03-01 17:30,20", "2016-03-01 09:00,10", "2016-03-02 09:00,30", "2016-03-02 12:00,40");
+		final PriceSeries series = PriceLoader.load(new Commodity("Test", file.getPath(), "yyyy-MM-dd HH:mm", CurrencyEnum.USD, "bbl"));
+		Assert.assertEquals(series.size(), 2);
+		// je Tag zaehlt der spaeteste Kurs
+		Assert.assertEquals(series.getValue(0), CurrencyEnum.USD.toEuro(new BigDecimal("20")));
+		Assert.assertEquals(series.getValue(1), CurrencyEnum.USD.toEuro(new BigDecimal("40")));
+	}
+
+	@Test
+	public void parallelLoadTest() {
+		final CommodityCatalog catalog = CommodityCatalog.getDefault();
+		final Map<String, PriceSeries> sequential = PriceLoader.loadAll(catalog, 1);
+		final Map<String, PriceSeries> parallel = PriceLoader.loadAll(catalog, 4);
+		Assert.assertEquals(parallel.keySet(), sequential.keySet());
+		for (ResourceEnum type : ResourceEnum.values()) {
+			Assert.assertFalse(sequential.get(type.getName()).isEmpty(), type.getName());
+			Assert.assertEquals(values(parallel.get(type.getName())), values(sequential.get(type.getName())));
+			Assert.assertEquals(parallel.get(type.getName()).getLastDate(), sequential.get(type.getName()).getLastDate());
+		}
+	}
+
+	@Test
+	public void catalogTest() throws IOException {
+		final CommodityCatalog catalog = CommodityCatalog.read(new StringReader("Name,Datei,Datumsformat,Waehrung,Einheit\n"
+				+ "Oil,DCOILWTICO.csv,yyyy-MM-dd,USD,bbl\n" + "Missing,missing.csv,dd.MM.yyyy,EUR,t\n"));
+		Assert.assertEquals(catalog.size(), 2);
+		Assert.assertEquals(catalog.get("Oil").getCurrency(), CurrencyEnum.USD);
+		Assert.assertNotNull(catalog.get("Oil").getUrl());
+		Assert.assertNull(catalog.get("Missing").getUrl());
+		final Map<String, PriceSeries> prices = PriceLoader.loadAll(catalog, 2);
+		Assert.assertFalse(prices.get("Oil").isEmpty());
+		Assert.assertTrue(prices.get("Missing").isEmpty());
+	}
+
+	private static List<String> values(PriceSeries series) {
+		final String[] values = new String[series.size()];
+		for (int i = 0; i < series.size(); i++)
+			values[i] = series.getValue(i).toPlainString();
+		return Arrays.asList(values);
+	}
+
+	private static File writeCsv(String... lines) throws IOException {
+		final File file = File.createTempFile("prices", ".csv");
+		file.deleteOnExit();
+		Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+		return file;
+	}
+}
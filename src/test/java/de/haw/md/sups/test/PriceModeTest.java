@@ -0,0 +1,57 @@
+package de.haw.md.sups.test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.LogReturnStatistics;
+import de.haw.md.sups.PriceModeEnum;
+import de.haw.md.sups.ResourceCalc;
+
+public class PriceModeTest {
+
+	private static final BigDecimal CENT = new BigDecimal("0.01");
+
+	@Test
+	public void sameRandomTest() {
+		final LogReturnStatistics statistics = history(new Random(4711), 300);
+		final Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			final double u = random.nextDouble();
+			final BigDecimal reference = ResourceCalc.nextRandomStockPrice(statistics, PriceModeEnum.BIG_DECIMAL, u);
+			final BigDecimal fast = ResourceCalc.nextRandomStockPrice(statistics, PriceModeEnum.DOUBLE, u);
+			// Unterschiede nur durch die Rundung auf Cent
+			Assert.assertTrue(reference.subtract(fast).abs().compareTo(CENT) <= 0, reference + " vs " + fast);
+			Assert.assertEquals(fast.scale(), 2);
+		}
+	}
+
+	@Test
+	public void simulatedPathTest() {
+		// Beide Modi erzeugen mit denselben Zufallszahlen fortlaufend Preise aus ihrer eigenen Historie
+		final LogReturnStatistics reference = history(new Random(4711), 300);
+		final LogReturnStatistics fast = history(new Random(4711), 300);
+		final Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			final double u = random.nextDouble();
+			reference.add(ResourceCalc.nextRandomStockPrice(reference, PriceModeEnum.BIG_DECIMAL, u));
+			fast.add(ResourceCalc.nextRandomStockPrice(fast, PriceModeEnum.DOUBLE, u));
+			Assert.assertEquals(fast.getLastDoublePrice() / reference.getLastDoublePrice(), 1, 1e-3, "tick " + i);
+		}
+		Assert.assertEquals(fast.getAverage(), reference.getAverage(), 1e-6);
+		Assert.assertEquals(fast.getDeviation(), reference.getDeviation(), 1e-6);
+	}
+
+	private static LogReturnStatistics history(Random random, int size) {
+		final LogReturnStatistics statistics = new LogReturnStatistics();
+		double price = 1000;
+		for (int i = 0; i < size; i++) {
+			price *= Math.exp(random.nextGaussian() * 0.02);
+			statistics.add(new BigDecimal(price).setScale(2, RoundingMode.HALF_UP));
+		}
+		return statistics;
+	}
+}
@@ -0,0 +1,82 @@
+package de.haw.md.sups.test;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.PriceSeries;
+
+public class PriceSeriesTest {
+
+	private static final int PRICES = 1000;
+
+	private final LocalDate start = new LocalDate(2015, 6, 1);
+
+	@Test
+	public void appendAndLookupTest() {
+		final PriceSeries series = createSeries();
+		Assert.assertEquals(series.size(), PRICES);
+		// Jeder zweite Tag fehlt, wie Wochenenden in den Kursdateien
+		Assert.assertEquals(series.getLastDate(), start.plusDays(2 * (PRICES - 1)));
+		Assert.assertEquals(series.getLastValue(), price(PRICES - 1));
+		for (int i = 0; i < PRICES; i++) {
+			Assert.assertEquals(series.indexOf(start.plusDays(2 * i)), i);
+			Assert.assertEquals(series.getValue(start.plusDays(2 * i)), price(i));
+			Assert.assertEquals(series.indexOf(start.plusDays(2 * i + 1)), -1);
+		}
+		Assert.assertNull(series.getValue(start.minusDays(1)));
+		Assert.assertEquals(series.getDoubleValue(3), price(3).doubleValue());
+	}
+
+	@Test
+	public void keepsScaleTest() {
+		final PriceSeries series = new PriceSeries();
+		series.append(start, new BigDecimal("905.825"));
+		series.append(start.plusDays(1), new BigDecimal("42.10"));
+		series.append(start.plusDays(2), new BigDecimal("17"));
+		Assert.assertEquals(series.getValue(0).toString(), "905.825");
+		Assert.assertEquals(series.getValue(1).toString(), "42.10");
+		Assert.assertEquals(series.getValue(2).toString(), "17");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsOlderDateTest() {
+		final PriceSeries series = createSeries();
+		series.append(series.getLastDate(), BigDecimal.ONE);
+	}
+
+	@Test
+	public void subSeriesTest() {
+		final PriceSeries series = createSeries();
+		final PriceSeries range = series.subSeries(start.plusDays(9), start.plusDays(20));
+		Assert.assertEquals(range.size(), 6);
+		Assert.assertEquals(range.getDate(0), start.plusDays(10));
+		Assert.assertEquals(range.getLastDate(), start.plusDays(20));
+		Assert.assertEquals(range.getValue(0), price(5));
+		Assert.assertEquals(range.indexOf(start.plusDays(12)), 1);
+		Assert.assertEquals(range.indexOf(start.plusDays(22)), -1);
+		Assert.assertEquals(range.subSeries(1, 3).getValue(0), price(6));
+		series.append(series.getLastDate().plusDays(1), BigDecimal.TEN);
+		Assert.assertEquals(range.size(), 6);
+		Assert.assertEquals(series.subSeries(start.plusDays(5000), start.plusDays(6000)).size(), 0);
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void subSeriesIsReadOnlyTest() {
+		final PriceSeries series = createSeries();
+		series.subSeries(0, 10).append(series.getLastDate().plusDays(1), BigDecimal.ONE);
+	}
+
+	private PriceSeries createSeries() {
+		final PriceSeries series = new PriceSeries();
+		for (int i = 0; i < PRICES; i++)
+			series.append(start.plusDays(2 * i), price(i));
+		return series;
+	}
+
+	private BigDecimal price(int i) {
+		return new BigDecimal(1000 + i).movePointLeft(2);
+	}
+}
@@ -0,0 +1,46 @@
+package de.haw.md.sups.test;
+
+import java.util.SplittableRandom;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.haw.md.sups.CompanyValuesEnum;
+import de.haw.md.sups.ResourceEnum;
+import de.haw.md.sups.SimulationRandom;
+
+public class SimulationRandomTest {
+
+	@Test
+	public void sameSeedTest() {
+		final SimulationRandom first = SimulationRandom.init(42);
+		final SplittableRandom oil = first.forResource(ResourceEnum.OIL);
+		final SplittableRandom company = first.forAgent("Company_Mobile_1");
+		// andere Reihenfolge beim Anlegen der Stroeme
+		final SimulationRandom second = SimulationRandom.init(42);
+		final SplittableRandom company2 = second.forAgent("Company_Mobile_1");
+		final SplittableRandom oil2 = second.forResource(ResourceEnum.OIL);
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(oil2.nextLong(), oil.nextLong());
+			Assert.assertEquals(company2.nextLong(), company.nextLong());
+		}
+	}
+
+	@Test
+	public void independentStreamsTest() {
+		final SimulationRandom random = SimulationRandom.init(42);
+		Assert.assertNotEquals(random.forAgent("Company_Mobile_1").nextLong(), random.forAgent("Company_Mobile_2").nextLong());
+		Assert.assertNotEquals(random.forResource(ResourceEnum.OIL).nextLong(), random.forResource(ResourceEnum.GOLD).nextLong());
+		Assert.assertNotEquals(SimulationRandom.init(43).forResource(ResourceEnum.OIL).nextLong(), random.forResource(ResourceEnum.OIL).nextLong());
+	}
+
+	@Test
+	public void companyValuesTest() {
+		final SimulationRandom random = SimulationRandom.init(4711);
+		final SplittableRandom first = random.forAgent("Company_Oil_0");
+		final SplittableRandom second = random.forAgent("Company_Oil_0");
+		for (CompanyValuesEnum value : CompanyValuesEnum.values()) {
+			Assert.assertEquals(value.getRandomValue(second), value.getRandomValue(first), value.name());
+		}
+	}
+}